@@ -29,4 +29,14 @@ public interface ProtocolCollection<ResourcePoolT extends ResourcePool>
    * @return the number of elements
    */
   int size();
+
+  /**
+   * Tells whether the protocols added to this collection are kept for being evaluated again
+   * later, in which case producers must not discard a protocol once it has been evaluated.
+   *
+   * @return true if the protocols are kept
+   */
+  default boolean retainsProtocols() {
+    return false;
+  }
 }
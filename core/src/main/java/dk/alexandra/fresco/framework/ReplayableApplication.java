@@ -0,0 +1,63 @@
+package dk.alexandra.fresco.framework;
+
+import dk.alexandra.fresco.framework.builder.ProtocolBuilder;
+import java.util.List;
+
+/**
+ * An application which is recorded the first time it is run by a
+ * {@link dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl}, such that later runs of
+ * applications with the same {@link #getShapeKey() shape key} replay the recorded native protocols
+ * in the recorded batches instead of building the application again.
+ *
+ * <p>
+ * An application is split in its inputs, which are built and evaluated in every run, and the
+ * computation on the inputs, which is only built once. Replays evaluate the recorded computation
+ * on the inputs of the current run. Since the computation is only built once, it must be data
+ * independent: the protocols built must not depend on the values computed, and the build steps
+ * must only pass on the computations they receive, never values extracted from them. A build step
+ * reading the value of an input while the computation is recorded fails with an
+ * {@link IllegalStateException}. Other values given to the builder, such as known values, are the
+ * same in every replay. Furthermore the native protocols of the protocol suite must reset their
+ * state in their first round, which holds for the protocol suites in FRESCO. Runs with the same
+ * shape key are evaluated one at a time, and the output must consist of plain values rather than
+ * computations, since these are evaluated again by later runs.
+ * </p>
+ *
+ * @param <InputT> The type of the inputs
+ * @param <OutputT> The output type
+ * @param <BuilderT> The builder type
+ */
+public interface ReplayableApplication<InputT, OutputT, BuilderT extends ProtocolBuilder>
+    extends Application<OutputT, BuilderT> {
+
+  /**
+   * Gets the key identifying the shape of this application. Applications with equal keys must
+   * build the same computation given the same number of inputs, and share the recording.
+   *
+   * @return the shape key, which must implement equals and hashCode
+   */
+  Object getShapeKey();
+
+  /**
+   * Builds the inputs of this run of the application.
+   *
+   * @param builder the builder to use
+   * @return the inputs
+   */
+  List<DRes<InputT>> buildInputs(BuilderT builder);
+
+  /**
+   * Builds the computation on the inputs, which is recorded the first time an application of this
+   * shape is run.
+   *
+   * @param builder the builder to use
+   * @param inputs the inputs, the values of which change between replays
+   * @return the output
+   */
+  DRes<OutputT> buildComputation(BuilderT builder, List<DRes<InputT>> inputs);
+
+  @Override
+  default DRes<OutputT> buildComputation(BuilderT builder) {
+    return buildComputation(builder, buildInputs(builder));
+  }
+}
@@ -86,6 +86,18 @@ public interface Collections extends ComputationDirectory {
    */
   <T extends DRes<SInt>> DRes<Matrix<DRes<BigInteger>>> openMatrix(DRes<Matrix<T>> closedMatrix);
 
+  // Arithmetic
+
+  /**
+   * Multiplies two lists of secret values element-wise.
+   *
+   * @param left left factors
+   * @param right right factors, must have the same size as the left factors
+   * @return the products
+   */
+  <T extends DRes<SInt>> DRes<List<DRes<SInt>>> multList(DRes<List<T>> left,
+      DRes<List<T>> right);
+
   // Conditional
 
   /**
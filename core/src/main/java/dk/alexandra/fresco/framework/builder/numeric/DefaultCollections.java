@@ -5,6 +5,7 @@ import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.RowPairD;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.collections.Matrix;
+import dk.alexandra.fresco.lib.collections.MultList;
 import dk.alexandra.fresco.lib.collections.io.CloseList;
 import dk.alexandra.fresco.lib.collections.io.CloseMatrix;
 import dk.alexandra.fresco.lib.collections.io.OpenList;
@@ -70,6 +71,12 @@ public class DefaultCollections implements Collections {
     return builder.par(new OpenMatrix<>(closedMatrix));
   }
 
+  @Override
+  public <T extends DRes<SInt>> DRes<List<DRes<SInt>>> multList(DRes<List<T>> left,
+      DRes<List<T>> right) {
+    return builder.par(new MultList<>(left, right));
+  }
+
   @Override
   public <T extends DRes<SInt>> DRes<List<DRes<SInt>>> condSelect(DRes<SInt> condition,
       DRes<List<T>> left,
@@ -2,6 +2,7 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -76,6 +77,16 @@ public final class BigIntegerFieldDefinition implements FieldDefinition {
     return FieldUtils.convertRepresentation(asUnsigned, getModulus(), modulusHalf);
   }
 
+  @Override
+  public FieldElementVector createVector(List<FieldElement> elements) {
+    return new GenericFieldElementVector(this, elements, utils.getModulusLength());
+  }
+
+  @Override
+  public FieldElementVector deserializeVector(ByteBuffer buffer, int size) {
+    return GenericFieldElementVector.deserialize(this, buffer, size, utils.getModulusLength());
+  }
+
   @Override
   public byte[] serialize(FieldElement fieldElement) {
     return utils.serialize(fieldElement);
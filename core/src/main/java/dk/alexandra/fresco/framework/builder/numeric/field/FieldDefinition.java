@@ -3,6 +3,10 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * Describes a finite field.
@@ -85,5 +89,65 @@ public interface FieldDefinition extends ByteSerializer<FieldElement> {
    *     close to modulus
    */
   BigInteger convertToSigned(BigInteger asUnsigned);
-}
 
+  /**
+   * Computes the inner product of two lists of elements of this field.
+   * <p>
+   * Implementations may override this to accumulate the result without creating intermediate
+   * elements.
+   * </p>
+   *
+   * @param left the first list of elements
+   * @param right the second list of elements, of the same size as the first
+   * @return the sum of the pairwise products
+   */
+  default FieldElement innerProduct(List<FieldElement> left, List<FieldElement> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size, was " + left.size() + " and " + right.size());
+    }
+    FieldElement result = createElement(0);
+    Iterator<FieldElement> rightIterator = right.iterator();
+    for (FieldElement element : left) {
+      result = result.add(element.multiply(rightIterator.next()));
+    }
+    return result;
+  }
+
+  /**
+   * Creates a vector holding the given elements of this field.
+   * <p>
+   * Implementations may override this to store the elements in a more compact form supporting
+   * faster bulk operations.
+   * </p>
+   *
+   * @param elements the elements
+   * @return a new vector of the elements
+   */
+  default FieldElementVector createVector(List<FieldElement> elements) {
+    return new GenericFieldElementVector(this, elements, serialize(createElement(0)).length);
+  }
+
+  /**
+   * Creates a vector of the given size with all elements zero.
+   *
+   * @param size the size of the vector
+   * @return a new vector of zeros
+   */
+  default FieldElementVector createVector(int size) {
+    return createVector(Collections.nCopies(size, createElement(0)));
+  }
+
+  /**
+   * Reads a vector of elements written by {@link FieldElementVector#serialize(ByteBuffer)} or
+   * {@link #serialize(List)}.
+   *
+   * @param buffer the buffer to read from
+   * @param size the number of elements to read
+   * @return a new vector of the elements read
+   */
+  default FieldElementVector deserializeVector(ByteBuffer buffer, int size) {
+    return GenericFieldElementVector.deserialize(this, buffer, size,
+        serialize(createElement(0)).length);
+  }
+}
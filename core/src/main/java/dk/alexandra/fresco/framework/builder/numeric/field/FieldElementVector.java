@@ -0,0 +1,119 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed size vector of elements of a finite field, supporting element-wise bulk operations.
+ *
+ * <p>
+ * Vectors are created by {@link FieldDefinition#createVector(List)} and similar methods. Depending
+ * on the field definition the elements may be stored as arrays of primitive values rather than
+ * as {@link FieldElement} objects, in which case the bulk operations neither allocate elements
+ * nor intermediate results. The arithmetic operations modify the vector they are called on and
+ * return it, to allow chaining; use {@link #copy()} to keep the original. Operands must have the
+ * same size and be created by the same field definition.
+ * </p>
+ */
+public interface FieldElementVector {
+
+  /**
+   * Gets the number of elements in this vector.
+   *
+   * @return the size
+   */
+  int size();
+
+  /**
+   * Gets the element at a given index.
+   *
+   * @param index the index
+   * @return the element at the index
+   */
+  FieldElement get(int index);
+
+  /**
+   * Sets the element at a given index.
+   *
+   * @param index the index
+   * @param element the new element
+   */
+  void set(int index, FieldElement element);
+
+  /**
+   * Adds the elements of another vector to this vector, element-wise.
+   *
+   * @param other the vector to add
+   * @return this vector
+   */
+  FieldElementVector add(FieldElementVector other);
+
+  /**
+   * Subtracts the elements of another vector from this vector, element-wise.
+   *
+   * @param other the vector to subtract
+   * @return this vector
+   */
+  FieldElementVector subtract(FieldElementVector other);
+
+  /**
+   * Multiplies the elements of this vector by the elements of another vector, element-wise.
+   *
+   * @param other the vector to multiply by
+   * @return this vector
+   */
+  FieldElementVector multiply(FieldElementVector other);
+
+  /**
+   * Multiplies all elements of this vector by a scalar.
+   *
+   * @param scalar the scalar to multiply by
+   * @return this vector
+   */
+  FieldElementVector scale(FieldElement scalar);
+
+  /**
+   * Computes the inner product of this vector and another vector.
+   *
+   * @param other the other vector
+   * @return the sum of the element-wise products
+   */
+  FieldElement innerProduct(FieldElementVector other);
+
+  /**
+   * Creates a copy of this vector.
+   *
+   * @return the copy
+   */
+  FieldElementVector copy();
+
+  /**
+   * Gets the number of bytes needed to serialize this vector.
+   *
+   * @return the byte length of the serialized vector
+   */
+  int getSerializedLength();
+
+  /**
+   * Writes the elements to a buffer, in the same format as {@link FieldDefinition#serialize(List)}.
+   * The vector can be read back using {@link FieldDefinition#deserializeVector(ByteBuffer, int)}.
+   *
+   * @param buffer the buffer to write to, which must have at least {@link #getSerializedLength()}
+   *     bytes remaining
+   */
+  void serialize(ByteBuffer buffer);
+
+  /**
+   * Gets the elements of this vector as a list.
+   *
+   * @return a new list of the elements
+   */
+  default List<FieldElement> toList() {
+    List<FieldElement> elements = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      elements.add(get(i));
+    }
+    return elements;
+  }
+}
@@ -29,6 +29,13 @@ final class FieldUtils {
     this.toBigInteger = toBigInteger;
   }
 
+  /**
+   * Returns the number of bytes of a serialized element.
+   */
+  int getModulusLength() {
+    return modulusLength;
+  }
+
   /**
    * Converts the supplied value to an strict bit vector by taking the bit representation
    * of the internal value.
@@ -0,0 +1,121 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A {@link FieldElementVector} storing arbitrary {@link FieldElement}s, used for field definitions
+ * without a specialized vector.
+ */
+final class GenericFieldElementVector implements FieldElementVector {
+
+  private final FieldDefinition definition;
+  private final FieldElement[] elements;
+  private final int elementLength;
+
+  GenericFieldElementVector(FieldDefinition definition, FieldElement[] elements,
+      int elementLength) {
+    this.definition = definition;
+    this.elements = elements;
+    this.elementLength = elementLength;
+  }
+
+  GenericFieldElementVector(FieldDefinition definition, List<FieldElement> elements,
+      int elementLength) {
+    this(definition, elements.toArray(new FieldElement[0]), elementLength);
+  }
+
+  /**
+   * Reads a vector of elements of the given serialized length.
+   */
+  static GenericFieldElementVector deserialize(FieldDefinition definition, ByteBuffer buffer,
+      int size, int elementLength) {
+    FieldElement[] elements = new FieldElement[size];
+    byte[] bytes = new byte[elementLength];
+    for (int i = 0; i < size; i++) {
+      buffer.get(bytes);
+      elements[i] = definition.deserialize(bytes);
+    }
+    return new GenericFieldElementVector(definition, elements, elementLength);
+  }
+
+  @Override
+  public int size() {
+    return elements.length;
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    return elements[index];
+  }
+
+  @Override
+  public void set(int index, FieldElement element) {
+    elements[index] = element;
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    checkSize(other);
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = elements[i].add(other.get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    checkSize(other);
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = elements[i].subtract(other.get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElementVector multiply(FieldElementVector other) {
+    checkSize(other);
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = elements[i].multiply(other.get(i));
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = elements[i].multiply(scalar);
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    checkSize(other);
+    return definition.innerProduct(toList(), other.toList());
+  }
+
+  @Override
+  public FieldElementVector copy() {
+    return new GenericFieldElementVector(definition, elements.clone(), elementLength);
+  }
+
+  @Override
+  public int getSerializedLength() {
+    return elements.length * elementLength;
+  }
+
+  @Override
+  public void serialize(ByteBuffer buffer) {
+    for (FieldElement element : elements) {
+      buffer.put(definition.serialize(element));
+    }
+  }
+
+  private void checkSize(FieldElementVector other) {
+    if (other.size() != elements.length) {
+      throw new IllegalArgumentException(
+          "Vectors must have the same size, was " + elements.length + " and " + other.size());
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A finite field for an odd prime modulus smaller than <code>2<sup>63</sup></code>. The elements
+ * are backed by primitive longs in Montgomery form, hence arithmetic does not allocate any
+ * BigIntegers. For such moduli this is considerably faster than the
+ * {@link BigIntegerFieldDefinition} and {@link MersennePrimeFieldDefinition}.
+ *
+ * <p>
+ * Elements are serialized in the same format as the other field definitions, i.e., as the big
+ * endian unsigned value using the byte length of the modulus.
+ * </p>
+ */
+public final class LongPrimeFieldDefinition implements FieldDefinition {
+
+  private final LongPrimeModulus modulus;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+  private final int modulusLength;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus an odd prime smaller than <code>2<sup>63</sup></code>
+   */
+  public LongPrimeFieldDefinition(long modulus) {
+    this.modulus = new LongPrimeModulus(modulus);
+    this.modulusHalf = this.modulus.getBigPrime().shiftRight(1);
+    this.modulusBitLength = this.modulus.getBigPrime().bitLength();
+    this.modulusLength = 1 + ((modulusBitLength - 1) / 8);
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus an odd prime smaller than <code>2<sup>63</sup></code>
+   */
+  public LongPrimeFieldDefinition(BigInteger modulus) {
+    this(modulus.longValueExact());
+  }
+
+  @Override
+  public FieldElement innerProduct(List<FieldElement> left, List<FieldElement> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size, was " + left.size() + " and " + right.size());
+    }
+    return LongPrimeFieldElement.innerProduct(left, right, modulus);
+  }
+
+  @Override
+  public FieldElementVector createVector(List<FieldElement> elements) {
+    long[] values = new long[elements.size()];
+    int index = 0;
+    for (FieldElement element : elements) {
+      values[index++] = LongPrimeFieldElement.extractMontgomery(element);
+    }
+    return new LongPrimeFieldElementVector(modulus, values, modulusLength);
+  }
+
+  @Override
+  public FieldElementVector createVector(int size) {
+    return new LongPrimeFieldElementVector(modulus, new long[size], modulusLength);
+  }
+
+  @Override
+  public FieldElementVector deserializeVector(ByteBuffer buffer, int size) {
+    return LongPrimeFieldElementVector.deserialize(modulus, buffer, size, modulusLength);
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return LongPrimeFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return LongPrimeFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return LongPrimeFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulus.getBigPrime();
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return LongPrimeFieldElement.extractValue(value);
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, getModulus(), modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[modulusLength];
+    write(fieldElement, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[modulusLength * fieldElements.size()];
+    for (int i = 0; i < fieldElements.size(); i++) {
+      write(fieldElements.get(i), bytes, i * modulusLength);
+    }
+    return bytes;
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return read(bytes, 0);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    List<FieldElement> elements = new ArrayList<>(bytes.length / modulusLength);
+    for (int i = 0; i < bytes.length; i += modulusLength) {
+      elements.add(read(bytes, i));
+    }
+    return elements;
+  }
+
+  private void write(FieldElement fieldElement, byte[] bytes, int offset) {
+    long value = LongPrimeFieldElement.extractLong(fieldElement);
+    for (int i = offset + modulusLength - 1; i >= offset; i--) {
+      bytes[i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private FieldElement read(byte[] bytes, int offset) {
+    long value = 0;
+    for (int i = offset; i < offset + modulusLength; i++) {
+      value = (value << 8) | (bytes[i] & 0xFF);
+    }
+    return LongPrimeFieldElement.fromMontgomery(
+        modulus.toMontgomery(Long.remainderUnsigned(value, modulus.getPrime())), modulus);
+  }
+}
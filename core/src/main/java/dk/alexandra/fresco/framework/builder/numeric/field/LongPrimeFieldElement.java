@@ -0,0 +1,117 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.List;
+
+final class LongPrimeFieldElement implements FieldElement {
+
+  /**
+   * The value in Montgomery form.
+   */
+  private final long value;
+  private final LongPrimeModulus modulus;
+
+  private LongPrimeFieldElement(long value, LongPrimeModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  static FieldElement fromMontgomery(long montgomeryValue, LongPrimeModulus modulus) {
+    return new LongPrimeFieldElement(montgomeryValue, modulus);
+  }
+
+  private FieldElement create(long montgomeryValue) {
+    return new LongPrimeFieldElement(montgomeryValue, modulus);
+  }
+
+  static FieldElement create(long value, LongPrimeModulus modulus) {
+    return new LongPrimeFieldElement(modulus.toMontgomery(modulus.ensureInField(value)), modulus);
+  }
+
+  static FieldElement create(BigInteger value, LongPrimeModulus modulus) {
+    return create(value.mod(modulus.getBigPrime()).longValue(), modulus);
+  }
+
+  static FieldElement create(String string, LongPrimeModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    return create(modulus.add(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    return create(modulus.subtract(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement negate() {
+    return create(modulus.negate(value));
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    return create(modulus.multiply(value, extractMontgomery(operand)));
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    return create(MathUtils.modularSqrt(toBigInteger(), modulus.getBigPrime()), modulus);
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(toBigInteger().modInverse(modulus.getBigPrime()), modulus);
+  }
+
+  private BigInteger toBigInteger() {
+    return BigInteger.valueOf(extractLong(this));
+  }
+
+  static BigInteger extractValue(FieldElement element) {
+    return BigInteger.valueOf(extractLong(element));
+  }
+
+  /**
+   * Gets the value of the element in the range <i>0, ..., p - 1</i>.
+   */
+  static long extractLong(FieldElement element) {
+    LongPrimeFieldElement longElement = (LongPrimeFieldElement) element;
+    return longElement.modulus.fromMontgomery(longElement.value);
+  }
+
+  /**
+   * Computes the inner product of two lists of elements of the same field, accumulating the
+   * result in Montgomery form.
+   */
+  static FieldElement innerProduct(List<FieldElement> left, List<FieldElement> right,
+      LongPrimeModulus modulus) {
+    long result = 0;
+    Iterator<FieldElement> rightIterator = right.iterator();
+    for (FieldElement element : left) {
+      long product = modulus.multiply(extractMontgomery(element),
+          extractMontgomery(rightIterator.next()));
+      result = modulus.add(result, product);
+    }
+    return new LongPrimeFieldElement(result, modulus);
+  }
+
+  /**
+   * Gets the internal value of the element in Montgomery form.
+   */
+  static long extractMontgomery(FieldElement element) {
+    return ((LongPrimeFieldElement) element).value;
+  }
+
+  @Override
+  public String toString() {
+    return "LongPrimeFieldElement{"
+        + "value=" + extractLong(this)
+        + ", modulus =" + modulus
+        + '}';
+  }
+}
@@ -0,0 +1,125 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link FieldElementVector} for a {@link LongPrimeFieldDefinition}, storing the elements in
+ * Montgomery form in a single array of longs.
+ */
+final class LongPrimeFieldElementVector implements FieldElementVector {
+
+  private final LongPrimeModulus modulus;
+  private final long[] values;
+  private final int elementLength;
+
+  LongPrimeFieldElementVector(LongPrimeModulus modulus, long[] values, int elementLength) {
+    this.modulus = modulus;
+    this.values = values;
+    this.elementLength = elementLength;
+  }
+
+  /**
+   * Reads a vector of the given size serialized with the given element length.
+   */
+  static LongPrimeFieldElementVector deserialize(LongPrimeModulus modulus, ByteBuffer buffer,
+      int size, int elementLength) {
+    long[] values = new long[size];
+    for (int i = 0; i < size; i++) {
+      long value = 0;
+      for (int j = 0; j < elementLength; j++) {
+        value = (value << 8) | (buffer.get() & 0xFF);
+      }
+      values[i] = modulus.toMontgomery(Long.remainderUnsigned(value, modulus.getPrime()));
+    }
+    return new LongPrimeFieldElementVector(modulus, values, elementLength);
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    return LongPrimeFieldElement.fromMontgomery(values[index], modulus);
+  }
+
+  @Override
+  public void set(int index, FieldElement element) {
+    values[index] = LongPrimeFieldElement.extractMontgomery(element);
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    for (int i = 0; i < values.length; i++) {
+      values[i] = modulus.add(values[i], otherValues[i]);
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    for (int i = 0; i < values.length; i++) {
+      values[i] = modulus.subtract(values[i], otherValues[i]);
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElementVector multiply(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    for (int i = 0; i < values.length; i++) {
+      values[i] = modulus.multiply(values[i], otherValues[i]);
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    long factor = LongPrimeFieldElement.extractMontgomery(scalar);
+    for (int i = 0; i < values.length; i++) {
+      values[i] = modulus.multiply(values[i], factor);
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    long result = 0;
+    for (int i = 0; i < values.length; i++) {
+      result = modulus.add(result, modulus.multiply(values[i], otherValues[i]));
+    }
+    return LongPrimeFieldElement.fromMontgomery(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector copy() {
+    return new LongPrimeFieldElementVector(modulus, values.clone(), elementLength);
+  }
+
+  @Override
+  public int getSerializedLength() {
+    return values.length * elementLength;
+  }
+
+  @Override
+  public void serialize(ByteBuffer buffer) {
+    for (long montgomeryValue : values) {
+      long value = modulus.fromMontgomery(montgomeryValue);
+      for (int shift = 8 * (elementLength - 1); shift >= 0; shift -= 8) {
+        buffer.put((byte) (value >>> shift));
+      }
+    }
+  }
+
+  private long[] valuesOf(FieldElementVector other) {
+    if (other.size() != values.length) {
+      throw new IllegalArgumentException(
+          "Vectors must have the same size, was " + values.length + " and " + other.size());
+    }
+    return ((LongPrimeFieldElementVector) other).values;
+  }
+}
@@ -0,0 +1,154 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * An odd prime modulus smaller than <code>2<sup>63</sup></code> supporting Montgomery arithmetic
+ * on primitive longs.
+ *
+ * <p>
+ * Values are kept in Montgomery form, i.e., the value <i>x</i> is represented by <i>xR mod p</i>
+ * where <i>R = 2<sup>64</sup></i>. Addition and subtraction are the same as for the normal form,
+ * while multiplication uses Montgomery reduction, which only needs multiplications and shifts and
+ * no division.
+ * </p>
+ */
+final class LongPrimeModulus implements Serializable {
+
+  private static final long serialVersionUID = -1855720283924616474L;
+  private static final long LOW_MASK = 0xFFFFFFFFL;
+
+  private final long prime;
+  private final long negatedInverse;
+  private final long montgomeryOne;
+  private final long montgomerySquare;
+  private final BigInteger bigPrime;
+
+  /**
+   * Creates a new modulus. Users must make sure the value is actually a prime.
+   *
+   * @param prime an odd prime in the range <i>3, ..., 2<sup>63</sup> - 1</i>
+   */
+  LongPrimeModulus(long prime) {
+    if (prime < 3) {
+      throw new IllegalArgumentException("Modulus must be at least 3, was " + prime);
+    }
+    if ((prime & 1) == 0) {
+      throw new IllegalArgumentException("Modulus must be odd, was " + prime);
+    }
+    this.prime = prime;
+    this.bigPrime = BigInteger.valueOf(prime);
+    // Newton iteration, each step doubles the number of correct low bits of the inverse
+    long inverse = prime;
+    for (int i = 0; i < 5; i++) {
+      inverse *= 2 - prime * inverse;
+    }
+    this.negatedInverse = -inverse;
+    this.montgomeryOne = BigInteger.ONE.shiftLeft(64).mod(bigPrime).longValue();
+    this.montgomerySquare = BigInteger.ONE.shiftLeft(128).mod(bigPrime).longValue();
+  }
+
+  /**
+   * Gets the prime used for modulus.
+   *
+   * @return the prime
+   */
+  long getPrime() {
+    return prime;
+  }
+
+  /**
+   * Gets the prime used for modulus as a BigInteger.
+   *
+   * @return the BigInteger equivalent
+   */
+  BigInteger getBigPrime() {
+    return bigPrime;
+  }
+
+  /**
+   * Converts a value in <i>0, ..., p - 1</i> to Montgomery form.
+   */
+  long toMontgomery(long value) {
+    return multiply(value, montgomerySquare);
+  }
+
+  /**
+   * Converts a value from Montgomery form to the normal form in <i>0, ..., p - 1</i>.
+   */
+  long fromMontgomery(long value) {
+    return reduce(0, value);
+  }
+
+  /**
+   * Reduces an arbitrary long to the range <i>0, ..., p - 1</i>.
+   */
+  long ensureInField(long value) {
+    long result = value % prime;
+    return result < 0 ? result + prime : result;
+  }
+
+  /**
+   * Gets the value one in Montgomery form.
+   */
+  long one() {
+    return montgomeryOne;
+  }
+
+  long add(long left, long right) {
+    // The sum is less than 2p, hence it only overflows into the sign bit
+    long sum = left + right;
+    return (sum < 0 || sum >= prime) ? sum - prime : sum;
+  }
+
+  long subtract(long left, long right) {
+    long difference = left - right;
+    return difference < 0 ? difference + prime : difference;
+  }
+
+  long negate(long value) {
+    return value == 0 ? 0 : prime - value;
+  }
+
+  /**
+   * Computes the Montgomery product <i>left * right * R<sup>-1</sup> mod p</i>.
+   */
+  long multiply(long left, long right) {
+    return reduce(multiplyHighUnsigned(left, right), left * right);
+  }
+
+  /**
+   * Montgomery reduction of the 128 bit value <i>high * 2<sup>64</sup> + low</i>, which must be
+   * less than <i>p * 2<sup>64</sup></i>.
+   */
+  private long reduce(long high, long low) {
+    long m = low * negatedInverse;
+    // low + lower half of m * p is zero modulo 2^64, hence the carry is one unless low is zero
+    long carry = low == 0 ? 0 : 1;
+    // The result is less than 2p, hence it only overflows into the sign bit
+    long result = high + multiplyHighUnsigned(m, prime) + carry;
+    return (result < 0 || result >= prime) ? result - prime : result;
+  }
+
+  /**
+   * Computes the upper 64 bits of the unsigned 128 bit product of two longs.
+   */
+  static long multiplyHighUnsigned(long left, long right) {
+    long left0 = left & LOW_MASK;
+    long left1 = left >>> 32;
+    long right0 = right & LOW_MASK;
+    long right1 = right >>> 32;
+    long low = left0 * right0;
+    long middle = left1 * right0 + (low >>> 32);
+    long cross = left0 * right1 + (middle & LOW_MASK);
+    return left1 * right1 + (middle >>> 32) + (cross >>> 32);
+  }
+
+  @Override
+  public String toString() {
+    return "LongPrimeModulus{"
+        + "value=" + prime
+        + '}';
+  }
+}
@@ -0,0 +1,93 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.Arrays;
+
+/**
+ * A mutable element of a {@link MontgomeryFieldDefinition} for use in inner loops.
+ *
+ * <p>
+ * All operations are done in place on the accumulated value and do not allocate, e.g.,
+ * <code>accumulator.addProduct(a, b)</code> computes <code>acc = acc + a * b</code>. Operands must
+ * be elements of the field definition that created the accumulator. Not thread safe.
+ * </p>
+ */
+public final class MontgomeryAccumulator {
+
+  private final MontgomeryModulus modulus;
+  private final long[] value;
+  private final long[] product;
+  private final long[] scratch;
+
+  MontgomeryAccumulator(MontgomeryModulus modulus) {
+    this.modulus = modulus;
+    this.value = new long[modulus.getLimbs()];
+    this.product = new long[modulus.getLimbs()];
+    this.scratch = modulus.newScratch();
+  }
+
+  /**
+   * Computes <code>acc = acc + operand</code>.
+   *
+   * @param operand the element to add
+   * @return this accumulator
+   */
+  public MontgomeryAccumulator add(FieldElement operand) {
+    modulus.add(value, MontgomeryFieldElement.extractMontgomery(operand), value);
+    return this;
+  }
+
+  /**
+   * Computes <code>acc = acc - operand</code>.
+   *
+   * @param operand the element to subtract
+   * @return this accumulator
+   */
+  public MontgomeryAccumulator subtract(FieldElement operand) {
+    modulus.subtract(value, MontgomeryFieldElement.extractMontgomery(operand), value);
+    return this;
+  }
+
+  /**
+   * Computes <code>acc = acc * operand</code>.
+   *
+   * @param operand the element to multiply by
+   * @return this accumulator
+   */
+  public MontgomeryAccumulator multiply(FieldElement operand) {
+    modulus.multiply(value, MontgomeryFieldElement.extractMontgomery(operand), value, scratch);
+    return this;
+  }
+
+  /**
+   * Computes <code>acc = acc + left * right</code>.
+   *
+   * @param left the first factor
+   * @param right the second factor
+   * @return this accumulator
+   */
+  public MontgomeryAccumulator addProduct(FieldElement left, FieldElement right) {
+    modulus.multiply(MontgomeryFieldElement.extractMontgomery(left),
+        MontgomeryFieldElement.extractMontgomery(right), product, scratch);
+    modulus.add(value, product, value);
+    return this;
+  }
+
+  /**
+   * Sets the accumulated value to zero.
+   *
+   * @return this accumulator
+   */
+  public MontgomeryAccumulator reset() {
+    Arrays.fill(value, 0);
+    return this;
+  }
+
+  /**
+   * Gets the accumulated value as an (immutable) field element.
+   *
+   * @return the current value
+   */
+  public FieldElement get() {
+    return MontgomeryFieldElement.fromMontgomery(value.clone(), modulus);
+  }
+}
@@ -0,0 +1,189 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A finite field for an odd prime modulus of 65 to 256 bits, e.g., the 128, 192 and 256 bit
+ * moduli typically used with SPDZ. The elements are backed by fixed width arrays of two to four
+ * longs in Montgomery form, hence arithmetic does not allocate any BigIntegers and needs no
+ * divisions.
+ *
+ * <p>
+ * For inner loops {@link #createAccumulator()} gives a mutable element supporting in-place
+ * arithmetic, which is also used to compute {@link #innerProduct(List, List)}. Elements are
+ * serialized in the same format as the other field definitions, i.e., as the big endian unsigned
+ * value using the byte length of the modulus.
+ * </p>
+ */
+public final class MontgomeryFieldDefinition implements FieldDefinition {
+
+  private final MontgomeryModulus modulus;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+  private final int modulusLength;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus an odd prime of 65 to 256 bits
+   */
+  public MontgomeryFieldDefinition(BigInteger modulus) {
+    this.modulus = new MontgomeryModulus(modulus);
+    this.modulusHalf = modulus.shiftRight(1);
+    this.modulusBitLength = modulus.bitLength();
+    this.modulusLength = 1 + ((modulusBitLength - 1) / 8);
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus as a string.
+   */
+  public MontgomeryFieldDefinition(String modulus) {
+    this(new BigInteger(modulus));
+  }
+
+  /**
+   * Creates a new mutable accumulator for elements of this field, initially zero.
+   *
+   * @return the accumulator
+   */
+  public MontgomeryAccumulator createAccumulator() {
+    return new MontgomeryAccumulator(modulus);
+  }
+
+  @Override
+  public FieldElement innerProduct(List<FieldElement> left, List<FieldElement> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size, was " + left.size() + " and " + right.size());
+    }
+    MontgomeryAccumulator accumulator = createAccumulator();
+    Iterator<FieldElement> rightIterator = right.iterator();
+    for (FieldElement element : left) {
+      accumulator.addProduct(element, rightIterator.next());
+    }
+    return accumulator.get();
+  }
+
+  @Override
+  public FieldElementVector createVector(List<FieldElement> elements) {
+    int limbs = modulus.getLimbs();
+    long[] values = new long[elements.size() * limbs];
+    int offset = 0;
+    for (FieldElement element : elements) {
+      System.arraycopy(MontgomeryFieldElement.extractMontgomery(element), 0, values, offset, limbs);
+      offset += limbs;
+    }
+    return new MontgomeryFieldElementVector(modulus, values, modulusLength);
+  }
+
+  @Override
+  public FieldElementVector createVector(int size) {
+    return new MontgomeryFieldElementVector(modulus, new long[size * modulus.getLimbs()],
+        modulusLength);
+  }
+
+  @Override
+  public FieldElementVector deserializeVector(ByteBuffer buffer, int size) {
+    return MontgomeryFieldElementVector.deserialize(modulus, buffer, size, modulusLength);
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return MontgomeryFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulus.getBigPrime();
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return MontgomeryFieldElement.extractValue(value);
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, getModulus(), modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[modulusLength];
+    write(fieldElement, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[modulusLength * fieldElements.size()];
+    int offset = 0;
+    for (FieldElement fieldElement : fieldElements) {
+      write(fieldElement, bytes, offset);
+      offset += modulusLength;
+    }
+    return bytes;
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return read(bytes, 0);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    List<FieldElement> elements = new ArrayList<>(bytes.length / modulusLength);
+    for (int i = 0; i < bytes.length; i += modulusLength) {
+      elements.add(read(bytes, i));
+    }
+    return elements;
+  }
+
+  private void write(FieldElement fieldElement, byte[] bytes, int offset) {
+    long[] limbs = MontgomeryFieldElement.extractLimbs(fieldElement);
+    for (int i = 0; i < modulusLength; i++) {
+      long limb = limbs[i / Long.BYTES];
+      bytes[offset + modulusLength - 1 - i] = (byte) (limb >>> (8 * (i % Long.BYTES)));
+    }
+  }
+
+  private FieldElement read(byte[] bytes, int offset) {
+    long[] limbs = new long[modulus.getLimbs()];
+    for (int i = 0; i < modulusLength; i++) {
+      long b = bytes[offset + modulusLength - 1 - i] & 0xFF;
+      limbs[i / Long.BYTES] |= b << (8 * (i % Long.BYTES));
+    }
+    if (modulus.isReduced(limbs)) {
+      return MontgomeryFieldElement.fromReduced(limbs, modulus);
+    } else {
+      return createElement(modulus.toBigInteger(limbs));
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+final class MontgomeryFieldElement implements FieldElement {
+
+  /**
+   * The value in Montgomery form. Never modified after construction.
+   */
+  private final long[] value;
+  private final MontgomeryModulus modulus;
+
+  private MontgomeryFieldElement(long[] value, MontgomeryModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  static FieldElement fromMontgomery(long[] montgomeryValue, MontgomeryModulus modulus) {
+    return new MontgomeryFieldElement(montgomeryValue, modulus);
+  }
+
+  /**
+   * Creates an element from a value in normal form in the range <i>0, ..., p - 1</i>. The array
+   * is reused for the element.
+   */
+  static FieldElement fromReduced(long[] value, MontgomeryModulus modulus) {
+    modulus.toMontgomery(value, value, modulus.newScratch());
+    return new MontgomeryFieldElement(value, modulus);
+  }
+
+  static FieldElement create(BigInteger value, MontgomeryModulus modulus) {
+    return fromReduced(modulus.toLimbs(value.mod(modulus.getBigPrime())), modulus);
+  }
+
+  static FieldElement create(long value, MontgomeryModulus modulus) {
+    long[] limbs = new long[modulus.getLimbs()];
+    if (value >= 0) {
+      limbs[0] = value;
+    } else {
+      // The absolute value as an unsigned long, which is also correct for Long.MIN_VALUE
+      limbs[0] = -value;
+      modulus.negate(limbs, limbs);
+    }
+    return fromReduced(limbs, modulus);
+  }
+
+  static FieldElement create(String string, MontgomeryModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    long[] result = new long[value.length];
+    modulus.add(value, extractMontgomery(operand), result);
+    return fromMontgomery(result, modulus);
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    long[] result = new long[value.length];
+    modulus.subtract(value, extractMontgomery(operand), result);
+    return fromMontgomery(result, modulus);
+  }
+
+  @Override
+  public FieldElement negate() {
+    long[] result = new long[value.length];
+    modulus.negate(value, result);
+    return fromMontgomery(result, modulus);
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    long[] result = new long[value.length];
+    modulus.multiply(value, extractMontgomery(operand), result, modulus.newScratch());
+    return fromMontgomery(result, modulus);
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    return create(MathUtils.modularSqrt(extractValue(this), modulus.getBigPrime()), modulus);
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(extractValue(this).modInverse(modulus.getBigPrime()), modulus);
+  }
+
+  static BigInteger extractValue(FieldElement element) {
+    MontgomeryFieldElement montgomeryElement = (MontgomeryFieldElement) element;
+    return montgomeryElement.modulus.toBigInteger(extractLimbs(element));
+  }
+
+  /**
+   * Gets the value of the element in normal form in the range <i>0, ..., p - 1</i>.
+   */
+  static long[] extractLimbs(FieldElement element) {
+    MontgomeryFieldElement montgomeryElement = (MontgomeryFieldElement) element;
+    MontgomeryModulus modulus = montgomeryElement.modulus;
+    long[] result = new long[modulus.getLimbs()];
+    modulus.fromMontgomery(montgomeryElement.value, result, modulus.newScratch());
+    return result;
+  }
+
+  /**
+   * Gets the internal value of the element in Montgomery form, which must not be modified.
+   */
+  static long[] extractMontgomery(FieldElement element) {
+    return ((MontgomeryFieldElement) element).value;
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryFieldElement{"
+        + "value=" + extractValue(this)
+        + ", modulus =" + modulus
+        + '}';
+  }
+}
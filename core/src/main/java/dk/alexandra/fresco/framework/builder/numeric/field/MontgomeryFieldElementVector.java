@@ -0,0 +1,146 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A {@link FieldElementVector} for a {@link MontgomeryFieldDefinition}, storing the limbs of all
+ * elements in Montgomery form consecutively in a single array of longs. Not thread safe, since a
+ * scratch array is kept for the multiplications.
+ */
+final class MontgomeryFieldElementVector implements FieldElementVector {
+
+  private final MontgomeryModulus modulus;
+  private final int limbs;
+  private final long[] values;
+  private final long[] scratch;
+  private final int elementLength;
+
+  MontgomeryFieldElementVector(MontgomeryModulus modulus, long[] values, int elementLength) {
+    this.modulus = modulus;
+    this.limbs = modulus.getLimbs();
+    this.values = values;
+    this.scratch = modulus.newScratch();
+    this.elementLength = elementLength;
+  }
+
+  /**
+   * Reads a vector of the given size serialized with the given element length.
+   */
+  static MontgomeryFieldElementVector deserialize(MontgomeryModulus modulus, ByteBuffer buffer,
+      int size, int elementLength) {
+    int limbs = modulus.getLimbs();
+    long[] values = new long[size * limbs];
+    long[] value = new long[limbs];
+    long[] scratch = modulus.newScratch();
+    for (int i = 0; i < size; i++) {
+      Arrays.fill(value, 0);
+      for (int j = elementLength - 1; j >= 0; j--) {
+        long b = buffer.get() & 0xFF;
+        value[j / Long.BYTES] |= b << (8 * (j % Long.BYTES));
+      }
+      if (!modulus.isReduced(value)) {
+        value = modulus.toLimbs(modulus.toBigInteger(value).mod(modulus.getBigPrime()));
+      }
+      modulus.toMontgomery(value, value, scratch);
+      System.arraycopy(value, 0, values, i * limbs, limbs);
+    }
+    return new MontgomeryFieldElementVector(modulus, values, elementLength);
+  }
+
+  @Override
+  public int size() {
+    return values.length / limbs;
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    long[] value = new long[limbs];
+    System.arraycopy(values, index * limbs, value, 0, limbs);
+    return MontgomeryFieldElement.fromMontgomery(value, modulus);
+  }
+
+  @Override
+  public void set(int index, FieldElement element) {
+    System.arraycopy(MontgomeryFieldElement.extractMontgomery(element), 0, values, index * limbs,
+        limbs);
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.add(values, offset, otherValues, offset, values, offset);
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.subtract(values, offset, otherValues, offset, values, offset);
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElementVector multiply(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.multiply(values, offset, otherValues, offset, values, offset, scratch);
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    long[] factor = MontgomeryFieldElement.extractMontgomery(scalar);
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.multiply(values, offset, factor, 0, values, offset, scratch);
+    }
+    return this;
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    long[] result = new long[limbs];
+    long[] product = new long[limbs];
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      modulus.multiply(values, offset, otherValues, offset, product, 0, scratch);
+      modulus.add(result, product, result);
+    }
+    return MontgomeryFieldElement.fromMontgomery(result, modulus);
+  }
+
+  @Override
+  public FieldElementVector copy() {
+    return new MontgomeryFieldElementVector(modulus, values.clone(), elementLength);
+  }
+
+  @Override
+  public int getSerializedLength() {
+    return size() * elementLength;
+  }
+
+  @Override
+  public void serialize(ByteBuffer buffer) {
+    long[] value = new long[limbs];
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      System.arraycopy(values, offset, value, 0, limbs);
+      modulus.fromMontgomery(value, value, scratch);
+      for (int j = elementLength - 1; j >= 0; j--) {
+        buffer.put((byte) (value[j / Long.BYTES] >>> (8 * (j % Long.BYTES))));
+      }
+    }
+  }
+
+  private long[] valuesOf(FieldElementVector other) {
+    if (other.size() != size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have the same size, was " + size() + " and " + other.size());
+    }
+    return ((MontgomeryFieldElementVector) other).values;
+  }
+}
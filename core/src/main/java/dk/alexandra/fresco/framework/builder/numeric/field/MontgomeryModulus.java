@@ -0,0 +1,326 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * An odd prime modulus of 65 to 256 bits supporting Montgomery arithmetic on fixed width arrays of
+ * 64 bit limbs.
+ *
+ * <p>
+ * Values are represented by arrays of two, three or four limbs in little endian order, i.e., the
+ * first limb holds the least significant bits. Values are kept in Montgomery form, i.e., the value
+ * <i>x</i> is represented by <i>xR mod p</i> where <i>R = 2<sup>64n</sup></i> for <i>n</i> limbs.
+ * Multiplication uses the coarsely integrated operand scanning (CIOS) method, which interleaves the
+ * multiplication and the Montgomery reduction limb by limb.
+ * </p>
+ * <p>
+ * All operations write their result to a supplied array, which may be one of the operands, hence
+ * they can be used for in-place arithmetic without allocating.
+ * </p>
+ */
+final class MontgomeryModulus implements Serializable {
+
+  private static final long serialVersionUID = 2917418392858290237L;
+  static final int MIN_BIT_LENGTH = Long.SIZE + 1;
+  static final int MAX_BIT_LENGTH = 4 * Long.SIZE;
+
+  private final int limbs;
+  private final long[] prime;
+  private final long negatedInverse;
+  private final long[] montgomeryOne;
+  private final long[] montgomerySquare;
+  private final long[] normalOne;
+  private final BigInteger bigPrime;
+
+  /**
+   * Creates a new modulus. Users must make sure the value is actually a prime.
+   *
+   * @param prime an odd prime of 65 to 256 bits
+   */
+  MontgomeryModulus(BigInteger prime) {
+    int bitLength = prime.bitLength();
+    if (bitLength < MIN_BIT_LENGTH || bitLength > MAX_BIT_LENGTH) {
+      throw new IllegalArgumentException("Modulus must have between " + MIN_BIT_LENGTH + " and "
+          + MAX_BIT_LENGTH + " bits, was " + bitLength);
+    }
+    if (!prime.testBit(0)) {
+      throw new IllegalArgumentException("Modulus must be odd, was " + prime);
+    }
+    this.bigPrime = prime;
+    this.limbs = (bitLength + Long.SIZE - 1) / Long.SIZE;
+    this.prime = toLimbs(prime);
+    long inverse = this.prime[0];
+    // Newton iteration, each step doubles the number of correct low bits of the inverse
+    for (int i = 0; i < 5; i++) {
+      inverse *= 2 - this.prime[0] * inverse;
+    }
+    this.negatedInverse = -inverse;
+    this.montgomeryOne = toLimbs(BigInteger.ONE.shiftLeft(Long.SIZE * limbs).mod(prime));
+    this.montgomerySquare = toLimbs(BigInteger.ONE.shiftLeft(2 * Long.SIZE * limbs).mod(prime));
+    this.normalOne = new long[limbs];
+    this.normalOne[0] = 1;
+  }
+
+  /**
+   * Gets the prime used for modulus as a BigInteger.
+   *
+   * @return the BigInteger equivalent
+   */
+  BigInteger getBigPrime() {
+    return bigPrime;
+  }
+
+  /**
+   * Gets the number of limbs used to represent values.
+   */
+  int getLimbs() {
+    return limbs;
+  }
+
+  /**
+   * Creates a scratch array for use with {@link #multiply(long[], long[], long[], long[])}.
+   */
+  long[] newScratch() {
+    return new long[limbs + 2];
+  }
+
+  /**
+   * Converts a value in <i>0, ..., p - 1</i> to limbs.
+   */
+  long[] toLimbs(BigInteger value) {
+    long[] result = new long[limbs];
+    for (int i = 0; i < limbs; i++) {
+      result[i] = value.shiftRight(i * Long.SIZE).longValue();
+    }
+    return result;
+  }
+
+  /**
+   * Converts limbs to a non-negative BigInteger.
+   */
+  BigInteger toBigInteger(long[] value) {
+    byte[] bytes = new byte[limbs * Long.BYTES];
+    for (int i = 0; i < limbs; i++) {
+      long limb = value[i];
+      for (int j = 0; j < Long.BYTES; j++) {
+        bytes[bytes.length - 1 - i * Long.BYTES - j] = (byte) limb;
+        limb >>>= Byte.SIZE;
+      }
+    }
+    return new BigInteger(1, bytes);
+  }
+
+  /**
+   * Tests if a value in normal form is in the range <i>0, ..., p - 1</i>.
+   */
+  boolean isReduced(long[] value) {
+    return compare(value, 0, prime) < 0;
+  }
+
+  /**
+   * Converts a value in <i>0, ..., p - 1</i> to Montgomery form.
+   */
+  void toMontgomery(long[] value, long[] result, long[] scratch) {
+    multiply(value, montgomerySquare, result, scratch);
+  }
+
+  /**
+   * Converts a value from Montgomery form to the normal form in <i>0, ..., p - 1</i>.
+   */
+  void fromMontgomery(long[] value, long[] result, long[] scratch) {
+    multiply(value, normalOne, result, scratch);
+  }
+
+  /**
+   * Gets the value one in Montgomery form.
+   */
+  long[] one() {
+    return montgomeryOne.clone();
+  }
+
+  /**
+   * Computes <i>left + right mod p</i>.
+   */
+  void add(long[] left, long[] right, long[] result) {
+    add(left, 0, right, 0, result, 0);
+  }
+
+  /**
+   * Computes <i>left + right mod p</i> for values stored at the given offsets.
+   */
+  void add(long[] left, int leftOffset, long[] right, int rightOffset, long[] result,
+      int resultOffset) {
+    long carry = 0;
+    for (int i = 0; i < limbs; i++) {
+      long x = left[leftOffset + i];
+      long sum = x + right[rightOffset + i];
+      long overflow = Long.compareUnsigned(sum, x) < 0 ? 1 : 0;
+      long total = sum + carry;
+      overflow |= Long.compareUnsigned(total, sum) < 0 ? 1 : 0;
+      result[resultOffset + i] = total;
+      carry = overflow;
+    }
+    if (carry != 0 || compare(result, resultOffset, prime) >= 0) {
+      subtractPrime(result, resultOffset);
+    }
+  }
+
+  /**
+   * Computes <i>left - right mod p</i>.
+   */
+  void subtract(long[] left, long[] right, long[] result) {
+    subtract(left, 0, right, 0, result, 0);
+  }
+
+  /**
+   * Computes <i>left - right mod p</i> for values stored at the given offsets.
+   */
+  void subtract(long[] left, int leftOffset, long[] right, int rightOffset, long[] result,
+      int resultOffset) {
+    long borrow = 0;
+    for (int i = 0; i < limbs; i++) {
+      long x = left[leftOffset + i];
+      long y = right[rightOffset + i];
+      long difference = x - y;
+      long underflow = Long.compareUnsigned(x, y) < 0 ? 1 : 0;
+      underflow |= (difference == 0 && borrow != 0) ? 1 : 0;
+      result[resultOffset + i] = difference - borrow;
+      borrow = underflow;
+    }
+    if (borrow != 0) {
+      addPrime(result, resultOffset);
+    }
+  }
+
+  /**
+   * Computes <i>-value mod p</i>.
+   */
+  void negate(long[] value, long[] result) {
+    if (isZero(value)) {
+      Arrays.fill(result, 0);
+    } else {
+      subtract(prime, value, result);
+    }
+  }
+
+  /**
+   * Computes the Montgomery product <i>left * right * R<sup>-1</sup> mod p</i> of two values in
+   * <i>0, ..., p - 1</i>. The result may be one of the operands.
+   *
+   * @param scratch an array of length at least <i>n + 2</i> for the intermediate result
+   */
+  void multiply(long[] left, long[] right, long[] result, long[] scratch) {
+    multiply(left, 0, right, 0, result, 0, scratch);
+  }
+
+  /**
+   * Computes the Montgomery product of two values stored at the given offsets. The result may
+   * overlap one of the operands.
+   *
+   * @param scratch an array of length at least <i>n + 2</i> for the intermediate result
+   */
+  void multiply(long[] left, int leftOffset, long[] right, int rightOffset, long[] result,
+      int resultOffset, long[] scratch) {
+    Arrays.fill(scratch, 0, limbs + 2, 0);
+    for (int i = 0; i < limbs; i++) {
+      // scratch += left * right[i]
+      long factor = right[rightOffset + i];
+      long carry = 0;
+      for (int j = 0; j < limbs; j++) {
+        long x = left[leftOffset + j];
+        long high = LongPrimeModulus.multiplyHighUnsigned(x, factor);
+        long low = x * factor;
+        long limb = scratch[j];
+        low += limb;
+        high += Long.compareUnsigned(low, limb) < 0 ? 1 : 0;
+        low += carry;
+        high += Long.compareUnsigned(low, carry) < 0 ? 1 : 0;
+        scratch[j] = low;
+        carry = high;
+      }
+      long top = scratch[limbs] + carry;
+      scratch[limbs + 1] = Long.compareUnsigned(top, carry) < 0 ? 1 : 0;
+      scratch[limbs] = top;
+      // scratch = (scratch + m * p) / 2^64, where m is chosen such that the division is exact
+      long m = scratch[0] * negatedInverse;
+      long limb = scratch[0];
+      long low = m * prime[0] + limb;
+      carry = LongPrimeModulus.multiplyHighUnsigned(m, prime[0])
+          + (Long.compareUnsigned(low, limb) < 0 ? 1 : 0);
+      for (int j = 1; j < limbs; j++) {
+        long p = prime[j];
+        long high = LongPrimeModulus.multiplyHighUnsigned(m, p);
+        low = m * p;
+        limb = scratch[j];
+        low += limb;
+        high += Long.compareUnsigned(low, limb) < 0 ? 1 : 0;
+        low += carry;
+        high += Long.compareUnsigned(low, carry) < 0 ? 1 : 0;
+        scratch[j - 1] = low;
+        carry = high;
+      }
+      top = scratch[limbs] + carry;
+      scratch[limbs - 1] = top;
+      scratch[limbs] = scratch[limbs + 1] + (Long.compareUnsigned(top, carry) < 0 ? 1 : 0);
+    }
+    boolean overflow = scratch[limbs] != 0;
+    System.arraycopy(scratch, 0, result, resultOffset, limbs);
+    if (overflow || compare(result, resultOffset, prime) >= 0) {
+      subtractPrime(result, resultOffset);
+    }
+  }
+
+  private void subtractPrime(long[] value, int offset) {
+    long borrow = 0;
+    for (int i = 0; i < limbs; i++) {
+      long x = value[offset + i];
+      long y = prime[i];
+      long difference = x - y;
+      long underflow = Long.compareUnsigned(x, y) < 0 ? 1 : 0;
+      underflow |= (difference == 0 && borrow != 0) ? 1 : 0;
+      value[offset + i] = difference - borrow;
+      borrow = underflow;
+    }
+  }
+
+  private void addPrime(long[] value, int offset) {
+    long carry = 0;
+    for (int i = 0; i < limbs; i++) {
+      long x = value[offset + i];
+      long sum = x + prime[i];
+      long overflow = Long.compareUnsigned(sum, x) < 0 ? 1 : 0;
+      long total = sum + carry;
+      overflow |= Long.compareUnsigned(total, sum) < 0 ? 1 : 0;
+      value[offset + i] = total;
+      carry = overflow;
+    }
+  }
+
+  private int compare(long[] left, int offset, long[] right) {
+    for (int i = limbs - 1; i >= 0; i--) {
+      int comparison = Long.compareUnsigned(left[offset + i], right[i]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  boolean isZero(long[] value) {
+    for (int i = 0; i < limbs; i++) {
+      if (value[i] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "MontgomeryModulus{"
+        + "value=" + bigPrime
+        + '}';
+  }
+}
@@ -0,0 +1,303 @@
+package dk.alexandra.fresco.framework.network.multiplex;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.VarInt;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Multiplexes a number of independent logical channels over a single {@link CloseableNetwork}.
+ *
+ * <p>
+ * Each channel is a {@link Network} of its own, identified by a positive channel id, which must be
+ * used for the same purpose by all parties. This allows e.g., preprocessing and online computation
+ * to run concurrently over the same connections:
+ * </p>
+ * <pre>
+ *   MultiplexedNetwork multiplexed = new MultiplexedNetwork(new NioNetwork(conf));
+ *   Network online = multiplexed.getChannel(1);
+ *   Network preprocessing = multiplexed.getChannel(2);
+ * </pre>
+ *
+ * <p>
+ * Every message is prefixed by its channel id. Channel id 0 is reserved for flow control: each
+ * channel starts with a window of credit, every message sent uses credit equal to its length, and
+ * the receiver grants new credit as the data is consumed. A new message is only passed on to the
+ * underlying network while the channel has credit left, so the unconsumed bytes in flight are
+ * bounded by the window plus the length of a single message. This ensures that a channel which is
+ * not being read from cannot make the other channels buffer unbounded amounts of data at the
+ * receiver.
+ * </p>
+ * <p>
+ * Sending never blocks. Messages sent while the channel is out of credit are queued by the sender
+ * and passed on when credit is granted. No additional threads are used, so grants are only read
+ * when a thread receives from the same party, or when the network is closed. A thread receiving on
+ * a channel reads from the underlying network on behalf of all channels and dispatches what it
+ * reads, until a message for its own channel arrives.
+ * </p>
+ */
+public class MultiplexedNetwork implements Closeable {
+
+  public static final int DEFAULT_WINDOW_SIZE = 1 << 24;
+  private static final int CONTROL_CHANNEL = 0;
+  private final CloseableNetwork network;
+  private final int windowSize;
+  private final Peer[] peers;
+  private final Map<Integer, Channel> channels;
+
+  /**
+   * Creates a new multiplexed network with the default window size.
+   *
+   * @param network the underlying network, owned by the multiplexed network from now on
+   */
+  public MultiplexedNetwork(CloseableNetwork network) {
+    this(network, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Creates a new multiplexed network. All parties must use the same window size.
+   *
+   * @param network the underlying network, owned by the multiplexed network from now on
+   * @param windowSize the credit of a channel, i.e., the number of unconsumed bytes after which
+   *     no new message is passed on until the receiver grants more credit
+   */
+  public MultiplexedNetwork(CloseableNetwork network, int windowSize) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("Window size must be positive, was " + windowSize);
+    }
+    this.network = network;
+    this.windowSize = windowSize;
+    this.peers = new Peer[network.getNoOfParties() + 1];
+    for (int i = 1; i < peers.length; i++) {
+      peers[i] = new Peer(i);
+    }
+    this.channels = new HashMap<>();
+  }
+
+  /**
+   * Gets the logical channel with the given id, creating it if needed.
+   *
+   * @param channelId a positive channel id
+   * @return a view of the network only sending and receiving on the given channel
+   */
+  public synchronized Network getChannel(int channelId) {
+    if (channelId <= CONTROL_CHANNEL) {
+      throw new IllegalArgumentException("Channel id must be positive, was " + channelId);
+    }
+    return channels.computeIfAbsent(channelId, Channel::new);
+  }
+
+  /**
+   * Closes the underlying network, after passing on the messages which are queued for lack of
+   * credit.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      for (int i = 1; i < peers.length; i++) {
+        peers[i].flushQueued();
+      }
+    } finally {
+      network.close();
+    }
+  }
+
+  private Peer peer(int partyId) {
+    if (!(0 < partyId && partyId < peers.length)) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + (peers.length - 1));
+    }
+    return peers[partyId];
+  }
+
+  /**
+   * The state of the channels shared with a single party.
+   */
+  private class Peer {
+
+    private final int partyId;
+    private final ReentrantLock lock;
+    private final Condition updated;
+    private final Map<Integer, ChannelState> states;
+    private boolean reading;
+
+    private Peer(int partyId) {
+      this.partyId = partyId;
+      this.lock = new ReentrantLock();
+      this.updated = lock.newCondition();
+      this.states = new HashMap<>();
+    }
+
+    private ChannelState state(int channelId) {
+      return states.computeIfAbsent(channelId, id -> new ChannelState());
+    }
+
+    private void send(int channelId, byte[] data) {
+      lock.lock();
+      try {
+        ChannelState state = state(channelId);
+        state.outgoing.add(data);
+        flush(channelId, state);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Passes on queued messages of a channel while it has credit left. Must hold the lock.
+     */
+    private void flush(int channelId, ChannelState state) {
+      while (state.credit > 0 && !state.outgoing.isEmpty()) {
+        byte[] data = state.outgoing.poll();
+        state.credit -= data.length;
+        ByteBuffer frame =
+            ByteBuffer.allocate(VarInt.encodedLength(channelId) + data.length);
+        VarInt.write(frame, channelId);
+        frame.put(data);
+        network.send(partyId, frame.array());
+      }
+    }
+
+    /**
+     * Reads from the underlying network until all queued messages have been passed on.
+     */
+    private void flushQueued() {
+      lock.lock();
+      try {
+        while (hasQueued()) {
+          awaitUpdate();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean hasQueued() {
+      for (ChannelState state : states.values()) {
+        if (!state.outgoing.isEmpty()) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private byte[] receive(int channelId) {
+      lock.lock();
+      try {
+        ChannelState state = state(channelId);
+        while (state.incoming.isEmpty()) {
+          awaitUpdate();
+        }
+        byte[] data = state.incoming.poll();
+        state.consumed += data.length;
+        while (state.consumed >= windowSize / 2 && state.consumed > 0) {
+          int credit = (int) Math.min(state.consumed, Integer.MAX_VALUE);
+          grant(channelId, credit);
+          state.consumed -= credit;
+        }
+        return data;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Waits for the state to be updated. If no other thread is reading from the underlying
+     * network, this thread reads and dispatches the next message. Must hold the lock.
+     */
+    private void awaitUpdate() {
+      if (reading) {
+        updated.awaitUninterruptibly();
+        return;
+      }
+      reading = true;
+      byte[] raw;
+      lock.unlock();
+      try {
+        raw = network.receive(partyId);
+      } finally {
+        lock.lock();
+        reading = false;
+        updated.signalAll();
+      }
+      dispatch(raw);
+    }
+
+    private void dispatch(byte[] raw) {
+      ByteBuffer buffer = ByteBuffer.wrap(raw);
+      int channelId = VarInt.read(buffer);
+      if (channelId == CONTROL_CHANNEL) {
+        int target = VarInt.read(buffer);
+        int credit = VarInt.read(buffer);
+        ChannelState state = state(target);
+        state.credit += credit;
+        flush(target, state);
+      } else {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        state(channelId).incoming.add(data);
+      }
+    }
+
+    private void grant(int channelId, int credit) {
+      ByteBuffer frame = ByteBuffer.allocate(3 * VarInt.MAX_BYTES);
+      VarInt.write(frame, CONTROL_CHANNEL);
+      VarInt.write(frame, channelId);
+      VarInt.write(frame, credit);
+      byte[] data = new byte[frame.position()];
+      frame.flip();
+      frame.get(data);
+      try {
+        network.send(partyId, data);
+      } catch (RuntimeException e) {
+        // The other party may have closed after passing on all its messages, in which case it needs
+        // no more credit. Otherwise the failure is reported by the next receive from the party.
+      }
+    }
+  }
+
+  /**
+   * The state of a single channel to a single party.
+   */
+  private class ChannelState {
+
+    private final ArrayDeque<byte[]> incoming = new ArrayDeque<>();
+    private final ArrayDeque<byte[]> outgoing = new ArrayDeque<>();
+    private long credit = windowSize;
+    private long consumed;
+  }
+
+  /**
+   * A logical channel.
+   */
+  private class Channel implements Network {
+
+    private final int channelId;
+
+    private Channel(int channelId) {
+      this.channelId = channelId;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      peer(partyId).send(channelId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return peer(partyId).receive(channelId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package dk.alexandra.fresco.framework.network.nio;
+
+import dk.alexandra.fresco.framework.Party;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connects a network of {@link SocketChannel}s. Uses the same handshake as the
+ * {@link dk.alexandra.fresco.framework.network.socket.Connector}, i.e., party <i>i</i> listens for
+ * connections from parties with lower ids and connects to parties with higher ids, and the
+ * connecting party identifies itself by sending its id in a single byte.
+ */
+public class NioConnector {
+
+  public static final Duration DEFAULT_CONNECTION_TIMEOUT = Duration.ofMinutes(1);
+  private static final Logger logger = LoggerFactory.getLogger(NioConnector.class);
+  private final Map<Integer, SocketChannel> channelMap;
+
+  /**
+   * Connects the network described by the configuration.
+   *
+   * @param conf the configuration defining the network to connect
+   * @param timeout duration to wait until timeout
+   */
+  public NioConnector(NetworkConfiguration conf, Duration timeout) {
+    this.channelMap = connectNetwork(conf, timeout);
+  }
+
+  /**
+   * Gets a mapping from a party id to a channel connected to the given party. There is no mapping
+   * for the party that created this connector.
+   *
+   * @return map from party id to channel
+   */
+  public Map<Integer, SocketChannel> getChannelMap() {
+    return channelMap;
+  }
+
+  private Map<Integer, SocketChannel> connectNetwork(final NetworkConfiguration conf,
+      final Duration timeout) {
+    Map<Integer, SocketChannel> channelMap = new HashMap<>(conf.noOfParties());
+    // We use two threads. One for the client connections and one for the server connections.
+    final int connectionThreads = 2;
+    ExecutorService connectionExecutor = Executors.newFixedThreadPool(connectionThreads);
+    CompletionService<Map<Integer, SocketChannel>> connectionService =
+        new ExecutorCompletionService<>(connectionExecutor);
+    connectionService.submit(() -> connectClient(conf));
+    connectionService.submit(() -> connectServer(conf));
+    Duration remainingTime = timeout;
+    try {
+      Instant start = Instant.now();
+      for (int i = 0; i < connectionThreads; i++) {
+        remainingTime = remainingTime.minus(Duration.between(start, Instant.now()));
+        Future<Map<Integer, SocketChannel>> completed =
+            connectionService.poll(remainingTime.toMillis(), TimeUnit.MILLISECONDS);
+        if (completed == null) {
+          throw new TimeoutException("Timed out waiting for client connections");
+        } else {
+          channelMap.putAll(completed.get());
+        }
+      }
+    } catch (ExecutionException e) {
+      closeAll(channelMap);
+      throw new RuntimeException("Failed to connect network", e.getCause());
+    } catch (Exception e) {
+      closeAll(channelMap);
+      throw new RuntimeException("Failed to connect network", e);
+    } finally {
+      connectionExecutor.shutdownNow();
+    }
+    return channelMap;
+  }
+
+  private Map<Integer, SocketChannel> connectClient(final NetworkConfiguration conf)
+      throws InterruptedException, IOException {
+    Map<Integer, SocketChannel> channelMap =
+        new HashMap<>(conf.noOfParties() - conf.getMyId());
+    for (int i = conf.getMyId() + 1; i <= conf.noOfParties(); i++) {
+      Party p = conf.getParty(i);
+      boolean connectionMade = false;
+      int attempts = 0;
+      while (!connectionMade) {
+        try {
+          SocketChannel channel =
+              SocketChannel.open(new InetSocketAddress(p.getHostname(), p.getPort()));
+          ByteBuffer id = ByteBuffer.wrap(new byte[]{(byte) conf.getMyId()});
+          while (id.hasRemaining()) {
+            channel.write(id);
+          }
+          connectionMade = true;
+          channelMap.put(i, channel);
+          logger.info("P{}: connected to {}", conf.getMyId(), p);
+        } catch (ConnectException e) {
+          // The opposing side may not be listening for our connection attempt yet
+          Thread.sleep(1 << Math.min(++attempts, 10));
+        }
+      }
+    }
+    return channelMap;
+  }
+
+  private Map<Integer, SocketChannel> connectServer(final NetworkConfiguration conf)
+      throws IOException {
+    Map<Integer, SocketChannel> channelMap = new HashMap<>(conf.getMyId() - 1);
+    if (conf.getMyId() > 1) {
+      try (ServerSocketChannel server = ServerSocketChannel.open()) {
+        server.bind(new InetSocketAddress(conf.getMe().getPort()));
+        logger.info("P{}: bound at port {}", conf.getMyId(), conf.getMe().getPort());
+        for (int i = 1; i < conf.getMyId(); i++) {
+          SocketChannel channel = server.accept();
+          ByteBuffer id = ByteBuffer.allocate(1);
+          while (id.hasRemaining()) {
+            if (channel.read(id) < 0) {
+              throw new IOException("Connection closed during handshake");
+            }
+          }
+          int partyId = id.get(0) & 0xFF;
+          channelMap.put(partyId, channel);
+          logger.info("P{}: accepted connection from P{}", conf.getMyId(), partyId);
+        }
+      }
+    }
+    return channelMap;
+  }
+
+  private static void closeAll(Map<Integer, SocketChannel> channelMap) {
+    for (SocketChannel channel : channelMap.values()) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // Ignore, we are already failing
+      }
+    }
+  }
+}
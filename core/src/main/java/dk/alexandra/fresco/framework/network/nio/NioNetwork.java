@@ -0,0 +1,419 @@
+package dk.alexandra.fresco.framework.network.nio;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CloseableNetwork} implementation based on Java's nio API.
+ *
+ * <p>
+ * A single I/O thread serves all opposing parties using a {@link Selector} over non-blocking
+ * {@link SocketChannel}s. Outgoing messages are queued and written with gathering writes, and
+ * incoming data is read through a direct buffer per party. Receiving blocks until a message has
+ * arrived, without polling. The message format is the same as the one used by the
+ * {@link dk.alexandra.fresco.framework.network.socket.SocketNetwork}, i.e., each message is
+ * prefixed by an integer indicating the byte length of the message.
+ * </p>
+ *
+ * <p>
+ * Closing the network flushes the queued messages to each party, then shuts down the output of the
+ * connection, which signals the other party to stop, and closes the connection. Messages which can
+ * not be flushed within {@link #CLOSE_TIMEOUT} are dropped.
+ * </p>
+ */
+public class NioNetwork implements CloseableNetwork {
+
+  /**
+   * The time allowed for flushing the queued messages when closing the network.
+   */
+  public static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+  private static final long JOIN_MARGIN_MILLIS = 1000;
+  private static final int READ_BUFFER_SIZE = 1 << 16;
+  private static final int MAX_GATHERED_BUFFERS = 64;
+  private static final int HEADER_BYTES = Integer.BYTES;
+  private static final byte[] CLOSED = new byte[0];
+  private static final Logger logger = LoggerFactory.getLogger(NioNetwork.class);
+  private final NetworkConfiguration conf;
+  private final BlockingQueue<byte[]> selfQueue;
+  private final Map<Integer, Peer> peers;
+  private final Selector selector;
+  private final Thread ioThread;
+  private final AtomicBoolean wakeupPending;
+  private volatile boolean closing;
+  private volatile long closeDeadline;
+  private boolean alive;
+
+  /**
+   * Creates a network with the given configuration and a mapping from party ids to channels.
+   *
+   * <p>
+   * There should be exactly one connected channel for each opposing party (but not for the local
+   * party). The channels are put in non-blocking mode and are owned by the network from now on.
+   * </p>
+   *
+   * @param conf the network configuration
+   * @param channelMap a mapping from party ids to the channel to be used for communicating with
+   *     the given party.
+   * @throws IllegalArgumentException if {@code channelMap} and {@code conf} are inconsistent or
+   *     the channels are not open and connected.
+   */
+  public NioNetwork(NetworkConfiguration conf, Map<Integer, SocketChannel> channelMap) {
+    Objects.requireNonNull(conf);
+    Objects.requireNonNull(channelMap);
+    for (int i = 1; i < conf.noOfParties() + 1; i++) {
+      if (i == conf.getMyId()) {
+        continue;
+      }
+      SocketChannel channel = channelMap.get(i);
+      if (channel == null) {
+        throw new IllegalArgumentException("Missing channel for P" + i);
+      }
+      if (!channel.isOpen()) {
+        throw new IllegalArgumentException("Closed channel for P" + i);
+      }
+      if (!channel.isConnected()) {
+        throw new IllegalArgumentException("Unconnected channel for P" + i);
+      }
+    }
+    if (channelMap.size() != Math.max(0, conf.noOfParties() - 1)) {
+      throw new IllegalArgumentException("Expected channels for " + (conf.noOfParties() - 1)
+          + " parties, but got " + channelMap.size());
+    }
+    this.conf = conf;
+    this.selfQueue = new LinkedBlockingQueue<>();
+    this.peers = new HashMap<>(channelMap.size());
+    this.wakeupPending = new AtomicBoolean(false);
+    this.alive = true;
+    if (conf.noOfParties() > 1) {
+      this.selector = ExceptionConverter.safe(Selector::open, "Unable to open selector");
+      for (Entry<Integer, SocketChannel> entry : channelMap.entrySet()) {
+        inRange(entry.getKey());
+        Peer peer = new Peer(entry.getKey(), entry.getValue());
+        ExceptionConverter.safe(() -> {
+          SocketChannel channel = entry.getValue();
+          channel.socket().setTcpNoDelay(true);
+          channel.configureBlocking(false);
+          peer.key = channel.register(selector, SelectionKey.OP_READ, peer);
+          return null;
+        }, "Unable to register channel for P" + entry.getKey());
+        peers.put(entry.getKey(), peer);
+      }
+      this.ioThread = new Thread(this::run);
+      this.ioThread.setDaemon(true);
+      this.ioThread.setName("NioNetwork-P" + conf.getMyId());
+      this.ioThread.start();
+    } else {
+      this.selector = null;
+      this.ioThread = null;
+    }
+  }
+
+  /**
+   * Creates a network connecting the parties in the configuration, using one minute timeout.
+   *
+   * @param conf the configuration to load the network from.
+   */
+  public NioNetwork(NetworkConfiguration conf) {
+    this(conf, new NioConnector(conf, NioConnector.DEFAULT_CONNECTION_TIMEOUT).getChannelMap());
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    if (partyId == conf.getMyId()) {
+      selfQueue.add(data);
+      return;
+    }
+    inRange(partyId);
+    Peer peer = peers.get(partyId);
+    if (closing || peer.failed) {
+      throw new RuntimeException(
+          "P" + conf.getMyId() + ": Unable to send to P" + partyId + ". Network not running");
+    }
+    peer.outgoing.add(data);
+    if (wakeupPending.compareAndSet(false, true)) {
+      selector.wakeup();
+    }
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    if (partyId == conf.getMyId()) {
+      return ExceptionConverter.safe(selfQueue::take, "Receiving from self failed");
+    }
+    inRange(partyId);
+    BlockingQueue<byte[]> incoming = peers.get(partyId).incoming;
+    byte[] data = ExceptionConverter.safe(incoming::take, "Receive interrupted");
+    if (data == CLOSED) {
+      // Leave the marker for any subsequent calls
+      incoming.add(CLOSED);
+      throw new RuntimeException("P" + conf.getMyId() + ": Unable to receive from P" + partyId
+          + ". Connection closed");
+    }
+    return data;
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return conf.noOfParties();
+  }
+
+  /**
+   * Closes the network down and releases held resources. Messages already queued are sent before
+   * the connections are closed, waiting at most {@link #CLOSE_TIMEOUT}.
+   */
+  @Override
+  public void close() {
+    if (alive) {
+      alive = false;
+      closeDeadline = System.nanoTime() + CLOSE_TIMEOUT.toNanos();
+      closing = true;
+      if (ioThread != null) {
+        selector.wakeup();
+        ExceptionConverter.safe(() -> {
+          ioThread.join(CLOSE_TIMEOUT.toMillis() + JOIN_MARGIN_MILLIS);
+          return null;
+        }, "Interrupted while closing network");
+        if (ioThread.isAlive()) {
+          logger.warn("P{}: I/O thread did not stop in time, closing selector", conf.getMyId());
+          // Closing the selector makes the I/O thread fail and close the channels
+          ExceptionConverter.safe(() -> {
+            selector.close();
+            return null;
+          }, "Unable to properly close selector");
+        }
+      }
+      logger.info("P{}: Network closed", conf.getMyId());
+    } else {
+      logger.info("P{}: Network already closed", conf.getMyId());
+    }
+  }
+
+  private void inRange(final int partyId) {
+    if (!(0 < partyId && partyId < getNoOfParties() + 1)) {
+      throw new IllegalArgumentException(
+          "Party id " + partyId + " not in range 1 ... " + getNoOfParties());
+    }
+  }
+
+  private void run() {
+    try {
+      while (!(closing && shutDownFlushed())) {
+        if (closing) {
+          long remaining = closeDeadline - System.nanoTime();
+          if (remaining <= 0) {
+            logger.warn("P{}: Unable to flush all messages before closing", conf.getMyId());
+            break;
+          }
+          selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+        } else {
+          selector.select();
+        }
+        wakeupPending.set(false);
+        for (Peer peer : peers.values()) {
+          peer.updateInterest();
+        }
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          Peer peer = (Peer) key.attachment();
+          try {
+            if (key.isValid() && key.isReadable()) {
+              peer.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+              peer.write();
+            }
+          } catch (IOException e) {
+            if (!closing) {
+              logger.error("P" + conf.getMyId() + ": Connection to P" + peer.id + " failed", e);
+            }
+            peer.fail();
+          }
+        }
+      }
+    } catch (Exception e) {
+      logger.error("P" + conf.getMyId() + ": Network failed unexpectedly", e);
+    } finally {
+      for (Peer peer : peers.values()) {
+        peer.fail();
+      }
+      ExceptionConverter.safe(() -> {
+        selector.close();
+        return null;
+      }, "Unable to properly close selector");
+    }
+  }
+
+  /**
+   * Shuts down the connections to the parties to which all messages have been flushed.
+   *
+   * @return true if all connections have been shut down
+   */
+  private boolean shutDownFlushed() {
+    boolean allShutDown = true;
+    for (Peer peer : peers.values()) {
+      if (!peer.failed) {
+        if (peer.outgoing.isEmpty() && peer.pending.isEmpty()) {
+          peer.shutdown();
+        } else {
+          allShutDown = false;
+        }
+      }
+    }
+    return allShutDown;
+  }
+
+  /**
+   * The state of the connection to a single opposing party. Apart from the queues, this is only
+   * accessed by the I/O thread.
+   */
+  private static class Peer {
+
+    private final int id;
+    private final SocketChannel channel;
+    private final Queue<byte[]> outgoing;
+    private final BlockingQueue<byte[]> incoming;
+    private final ArrayDeque<ByteBuffer> pending;
+    private final ByteBuffer[] gathered;
+    private final ByteBuffer readBuffer;
+    private SelectionKey key;
+    private byte[] message;
+    private int messagePosition;
+    private volatile boolean failed;
+
+    private Peer(int id, SocketChannel channel) {
+      this.id = id;
+      this.channel = channel;
+      this.outgoing = new ConcurrentLinkedQueue<>();
+      this.incoming = new LinkedBlockingQueue<>();
+      this.pending = new ArrayDeque<>();
+      this.gathered = new ByteBuffer[MAX_GATHERED_BUFFERS];
+      this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    }
+
+    private void updateInterest() {
+      if (!failed && !outgoing.isEmpty() && key.isValid()) {
+        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+      }
+    }
+
+    private void write() throws IOException {
+      byte[] data;
+      while ((data = outgoing.poll()) != null) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(data.length).flip();
+        pending.add(header);
+        pending.add(ByteBuffer.wrap(data));
+      }
+      while (!pending.isEmpty()) {
+        int count = 0;
+        for (ByteBuffer buffer : pending) {
+          if (count == gathered.length) {
+            break;
+          }
+          gathered[count++] = buffer;
+        }
+        long written = channel.write(gathered, 0, count);
+        while (!pending.isEmpty() && !pending.peek().hasRemaining()) {
+          pending.poll();
+        }
+        if (written == 0) {
+          break;
+        }
+      }
+      if (pending.isEmpty() && outgoing.isEmpty()) {
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+      }
+    }
+
+    /**
+     * Reads the available data, handing over the complete messages.
+     *
+     * @return the number of bytes read
+     */
+    private int read() throws IOException {
+      int read = channel.read(readBuffer);
+      if (read < 0) {
+        fail();
+        return read;
+      }
+      readBuffer.flip();
+      while (true) {
+        if (message == null) {
+          if (readBuffer.remaining() < HEADER_BYTES) {
+            break;
+          }
+          int length = readBuffer.getInt();
+          if (length < 0) {
+            fail();
+            return read;
+          }
+          message = new byte[length];
+          messagePosition = 0;
+        }
+        int chunk = Math.min(readBuffer.remaining(), message.length - messagePosition);
+        readBuffer.get(message, messagePosition, chunk);
+        messagePosition += chunk;
+        if (messagePosition < message.length) {
+          break;
+        }
+        incoming.add(message);
+        message = null;
+      }
+      readBuffer.compact();
+      return read;
+    }
+
+    /**
+     * Signals the other party to stop by shutting down the output, and closes the connection once
+     * the data which has already arrived has been read, such that closing does not reset the
+     * connection.
+     */
+    private void shutdown() {
+      try {
+        channel.shutdownOutput();
+        while (!failed && read() > 0) {
+          // Hand over the messages which have already arrived
+        }
+      } catch (IOException e) {
+        logger.debug("P{}: Unable to shut down connection properly", id, e);
+      }
+      fail();
+    }
+
+    private void fail() {
+      if (!failed) {
+        failed = true;
+        incoming.add(CLOSED);
+        outgoing.clear();
+        pending.clear();
+        ExceptionConverter.safe(() -> {
+          channel.close();
+          return null;
+        }, "Unable to properly close channel");
+      }
+    }
+  }
+}
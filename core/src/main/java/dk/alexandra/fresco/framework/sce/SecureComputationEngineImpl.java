@@ -5,11 +5,21 @@ import dk.alexandra.fresco.framework.BuilderFactory;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.ProtocolEvaluator;
 import dk.alexandra.fresco.framework.ProtocolEvaluator.EvaluationStatistics;
+import dk.alexandra.fresco.framework.ProtocolProducer;
+import dk.alexandra.fresco.framework.ReplayableApplication;
 import dk.alexandra.fresco.framework.builder.ProtocolBuilder;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.lib.helper.ProtocolSchedule;
+import dk.alexandra.fresco.lib.helper.RecordingProtocolProducer;
 import dk.alexandra.fresco.suite.ProtocolSuite;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -24,6 +34,12 @@ import org.slf4j.LoggerFactory;
 /**
  * Secure Computation Engine - responsible for having the overview of things and setting everything
  * up, e.g., based on properties.
+ *
+ * <p>
+ * Applications implementing {@link ReplayableApplication} are recorded the first time an
+ * application of their shape is run, and later runs of the same shape replay the recorded native
+ * protocols on their own inputs. Only the recordings of the most recently run shapes are kept.
+ * </p>
  */
 public class SecureComputationEngineImpl
     <ResourcePoolT extends ResourcePool, BuilderT extends ProtocolBuilder>
@@ -33,6 +49,9 @@ public class SecureComputationEngineImpl
   private ExecutorService executorService;
   private boolean setup;
   private ProtocolSuite<ResourcePoolT, BuilderT> protocolSuite;
+  private final Map<Object, RecordedApplication<?, ?>> recordedApplications;
+  private final int maxRecordedApplications;
+  private static final int DEFAULT_MAX_RECORDED_APPLICATIONS = 16;
   private static final AtomicInteger threadCounter = new AtomicInteger(1);
   private static final Logger logger = LoggerFactory.getLogger(SecureComputationEngineImpl.class);
 
@@ -44,9 +63,28 @@ public class SecureComputationEngineImpl
    */
   public SecureComputationEngineImpl(ProtocolSuite<ResourcePoolT, BuilderT> protocolSuite,
       ProtocolEvaluator<ResourcePoolT> evaluator) {
+    this(protocolSuite, evaluator, DEFAULT_MAX_RECORDED_APPLICATIONS);
+  }
+
+  /**
+   * Creates a new {@link SecureComputationEngineImpl}.
+   *
+   * @param protocolSuite the {@link ProtocolSuite} to use to evaluate the secure computation
+   * @param evaluator the {@link ProtocolEvaluator} to run secure evaluation.
+   * @param maxRecordedApplications the number of shapes of {@link ReplayableApplication} for which
+   *     the recordings are kept, evicting the least recently run shape first
+   */
+  public SecureComputationEngineImpl(ProtocolSuite<ResourcePoolT, BuilderT> protocolSuite,
+      ProtocolEvaluator<ResourcePoolT> evaluator, int maxRecordedApplications) {
+    if (maxRecordedApplications < 0) {
+      throw new IllegalArgumentException(
+          "Number of recorded applications must be non-negative, was " + maxRecordedApplications);
+    }
     this.protocolSuite = protocolSuite;
     this.evaluator = evaluator;
     this.setup = false;
+    this.recordedApplications = new LinkedHashMap<>(16, 0.75f, true);
+    this.maxRecordedApplications = maxRecordedApplications;
   }
 
   @Override
@@ -74,11 +112,22 @@ public class SecureComputationEngineImpl
       ResourcePoolT resourcePool, Network network) {
     logger.info(
         "Running application: " + application + " using protocol suite: " + this.protocolSuite);
+    if (application instanceof ReplayableApplication) {
+      return evalReplayableApplication(
+          (ReplayableApplication<?, OutputT, BuilderT>) application, resourcePool, network);
+    }
     BuilderFactory<BuilderT> protocolFactory = this.protocolSuite.init(resourcePool);
     BuilderT builder = protocolFactory.createSequential();
     final DRes<OutputT> output = application.buildComputation(builder);
+    evaluate(application, builder.build(), resourcePool, network);
+    application.close();
+    return output;
+  }
+
+  private void evaluate(Application<?, BuilderT> application, ProtocolProducer producer,
+      ResourcePoolT resourcePool, Network network) {
     long then = System.currentTimeMillis();
-    EvaluationStatistics eval = this.evaluator.eval(builder.build(), resourcePool, network);
+    EvaluationStatistics eval = this.evaluator.eval(producer, resourcePool, network);
 
     logger.debug("Evaluator done."
         + " Evaluated a total of " + eval.getNativeProtocols()
@@ -87,8 +136,79 @@ public class SecureComputationEngineImpl
     long now = System.currentTimeMillis();
     long timeSpent = now - then;
     logger.info("The application {} finished evaluation in {} ms.", application, timeSpent);
+  }
+
+  /**
+   * Evaluates the inputs of a replayable application, and then either replays the recording of
+   * its shape or records the computation on the inputs.
+   */
+  private <InputT, OutputT> DRes<OutputT> evalReplayableApplication(
+      ReplayableApplication<InputT, OutputT, BuilderT> application, ResourcePoolT resourcePool,
+      Network network) {
+    BuilderFactory<BuilderT> protocolFactory = this.protocolSuite.init(resourcePool);
+    BuilderT inputBuilder = protocolFactory.createSequential();
+    List<DRes<InputT>> inputs = application.buildInputs(inputBuilder);
+    evaluate(application, inputBuilder.build(), resourcePool, network);
+    Object shapeKey = application.getShapeKey();
+    RecordedApplication<?, ?> recorded;
+    synchronized (recordedApplications) {
+      recorded = recordedApplications.get(shapeKey);
+    }
+    if (recorded != null) {
+      @SuppressWarnings("unchecked")
+      RecordedApplication<InputT, OutputT> typed = (RecordedApplication<InputT, OutputT>) recorded;
+      return replayApplication(application, typed, inputs, resourcePool, network);
+    }
+    List<InputBinding<InputT>> bindings = new ArrayList<>(inputs.size());
+    for (int i = 0; i < inputs.size(); i++) {
+      bindings.add(new InputBinding<>());
+    }
+    // The inputs are bound after the initial build, such that reading them there fails as well
+    BuilderT builder = protocolFactory.createSequential();
+    final DRes<OutputT> output = application.buildComputation(builder,
+        Collections.<DRes<InputT>>unmodifiableList(bindings));
+    RecordingProtocolProducer recordingProducer = new RecordingProtocolProducer(builder.build());
+    for (int i = 0; i < inputs.size(); i++) {
+      bindings.get(i).value = inputs.get(i);
+      bindings.get(i).recordingProducer = recordingProducer;
+    }
+    evaluate(application, recordingProducer, resourcePool, network);
     application.close();
-    return output;
+    // Later runs replay the recorded protocols, so the output must be read now
+    OutputT result = output.out();
+    synchronized (recordedApplications) {
+      recordedApplications.putIfAbsent(shapeKey,
+          new RecordedApplication<>(recordingProducer.getSchedule(), output, bindings));
+      Iterator<Object> leastRecentlyRun = recordedApplications.keySet().iterator();
+      while (recordedApplications.size() > maxRecordedApplications) {
+        leastRecentlyRun.next();
+        leastRecentlyRun.remove();
+      }
+    }
+    return () -> result;
+  }
+
+  private <InputT, OutputT> DRes<OutputT> replayApplication(
+      Application<OutputT, BuilderT> application, RecordedApplication<InputT, OutputT> recorded,
+      List<DRes<InputT>> inputs, ResourcePoolT resourcePool, Network network) {
+    if (inputs.size() != recorded.inputs.size()) {
+      throw new IllegalArgumentException("The application " + application + " has "
+          + inputs.size() + " inputs, but was recorded with " + recorded.inputs.size());
+    }
+    synchronized (recorded) {
+      for (int i = 0; i < inputs.size(); i++) {
+        recorded.inputs.get(i).value = inputs.get(i);
+      }
+      long then = System.currentTimeMillis();
+      this.evaluator.eval(recorded.schedule.createProducer(), resourcePool, network);
+      long timeSpent = System.currentTimeMillis() - then;
+      logger.info("The application {} replayed {} native protocols in {} batches in {} ms.",
+          application, recorded.schedule.getNumberOfProtocols(),
+          recorded.schedule.getNumberOfBatches(), timeSpent);
+      application.close();
+      OutputT result = recorded.output.out();
+      return () -> result;
+    }
   }
 
   @Override
@@ -111,4 +231,42 @@ public class SecureComputationEngineImpl
     this.setup = false;
   }
 
+  /**
+   * The recorded schedule of a replayable application, the inputs the schedule reads, which are
+   * bound to the inputs of each replay, and the output of the application, which is recomputed by
+   * each replay of the schedule.
+   */
+  private static final class RecordedApplication<InputT, OutputT> {
+
+    private final ProtocolSchedule schedule;
+    private final DRes<OutputT> output;
+    private final List<InputBinding<InputT>> inputs;
+
+    private RecordedApplication(ProtocolSchedule schedule, DRes<OutputT> output,
+        List<InputBinding<InputT>> inputs) {
+      this.schedule = schedule;
+      this.output = output;
+      this.inputs = inputs;
+    }
+  }
+
+  /**
+   * An input of a replayable application as seen by its computation, which can be bound to the
+   * input of each run. Reading the input from a build step fails, since the build steps are not
+   * run again by a replay.
+   */
+  private static final class InputBinding<InputT> implements DRes<InputT> {
+
+    private DRes<InputT> value;
+    private RecordingProtocolProducer recordingProducer;
+
+    @Override
+    public InputT out() {
+      if (value == null || recordingProducer.isBuilding()) {
+        throw new IllegalStateException(
+            "The input of a replayable application can not be read while building it");
+      }
+      return value.out();
+    }
+  }
 }
@@ -1,10 +1,8 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
 import dk.alexandra.fresco.framework.network.Network;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
-import java.util.Map;
+import dk.alexandra.fresco.framework.util.VarInt;
+import java.nio.ByteBuffer;
 
 /**
  * Default network for the evaluators, this interface bridges the raw network4
@@ -12,34 +10,40 @@ import java.util.Map;
  * communication on the network batched and hence throttled so evaluators behave nice
  * on the network.
  * <br/>
+ * Each message is framed by its length encoded as a {@link VarInt}, hence messages of any size can
+ * be sent. The output buffers are kept between flushes and only grow when needed, and incoming
+ * data is read directly from the array received from the network.
+ * <br/>
  * It is important to call flush to empty all buffers after sending and before receiving data
  */
 public class NetworkBatchDecorator implements Network {
 
+  private static final int INITIAL_BUFFER_SIZE = 1024;
+
   private int noOfParties;
   private final Network network;
-  private Map<Integer, ByteArrayOutputStream> output;
-  private Map<Integer, ByteArrayInputStream> input;
+  private final ByteBuffer[] output;
+  private final ByteBuffer[] input;
 
   public NetworkBatchDecorator(int noOfParties, Network network) {
     this.noOfParties = noOfParties;
     this.network = network;
-    this.output = new HashMap<>();
-    this.input = new HashMap<>();
+    this.output = new ByteBuffer[noOfParties + 1];
+    this.input = new ByteBuffer[noOfParties + 1];
   }
 
   @Override
   public byte[] receive(int id) {
-    ByteArrayInputStream byteInputStream = input.get(id);
-    if (byteInputStream == null) {
+    ByteBuffer byteInput = input[id];
+    if (byteInput == null) {
       byte[] partyData = network.receive(id);
-      byteInputStream = new ByteArrayInputStream(partyData);
-      input.put(id, byteInputStream);
+      byteInput = ByteBuffer.wrap(partyData);
+      input[id] = byteInput;
     }
 
-    int count = byteInputStream.read();
+    int count = VarInt.read(byteInput);
     byte[] bytes = new byte[count];
-    byteInputStream.read(bytes, 0, count);
+    byteInput.get(bytes);
     return bytes;
   }
 
@@ -50,14 +54,25 @@ public class NetworkBatchDecorator implements Network {
 
   @Override
   public void send(int id, byte[] data) {
-    ByteArrayOutputStream buffer = this.output
-        .computeIfAbsent(id, (i) -> new ByteArrayOutputStream());
-    if (data.length > Byte.MAX_VALUE) {
-      throw new IllegalStateException(
-          "Current implementation only supports small packages, data.length=" + data.length);
+    ByteBuffer buffer = ensureCapacity(id, VarInt.encodedLength(data.length) + data.length);
+    VarInt.write(buffer, data.length);
+    buffer.put(data);
+  }
+
+  private ByteBuffer ensureCapacity(int id, int required) {
+    ByteBuffer buffer = output[id];
+    if (buffer == null) {
+      buffer = ByteBuffer.allocate(Math.max(INITIAL_BUFFER_SIZE, required));
+      output[id] = buffer;
+    } else if (buffer.remaining() < required) {
+      int capacity = Math.max(buffer.capacity() * 2, buffer.position() + required);
+      ByteBuffer larger = ByteBuffer.allocate(capacity);
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+      output[id] = buffer;
     }
-    buffer.write(data.length);
-    buffer.write(data, 0, data.length);
+    return buffer;
   }
 
   /**
@@ -65,13 +80,15 @@ public class NetworkBatchDecorator implements Network {
    */
   public void flush() {
     for (int i = 1; i <= noOfParties; i++) {
-      if (output.containsKey(i)) {
-        ByteArrayOutputStream byteArrayOutputStream = output.get(i);
-        byte[] data = byteArrayOutputStream.toByteArray();
+      ByteBuffer buffer = output[i];
+      if (buffer != null && buffer.position() > 0) {
+        byte[] data = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(data);
+        buffer.clear();
         network.send(i, data);
       }
-      output.remove(i);
+      input[i] = null;
     }
-    input.clear();
   }
 }
@@ -0,0 +1,266 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.util.ByteAndBitConverter;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batched communication strategy which evaluates each round of a batch in parallel. Like the
+ * {@link BatchedStrategy} all messages of a round are collected and sent together between rounds,
+ * but the local computation of the round is split into a number of partitions, which are evaluated
+ * concurrently by a pool of worker threads.
+ * <p>
+ * Each partition sends to a private buffer. When all partitions are done the buffers are merged
+ * into the {@link NetworkBatchDecorator} in partition order, each prefixed by the number of
+ * messages in it, so the receiving party can hand every partition its own part of the incoming
+ * data.
+ * </p>
+ * <p>
+ * The partitioning only depends on the number of protocols in the round, which means that all
+ * parties will agree on it regardless of the number of worker threads each party is using. The
+ * strategy does however require that all parties evaluate the same number of protocols in each
+ * round, and that the native protocols of the protocol suite are safe to evaluate concurrently,
+ * i.e., do not depend on the order in which they access shared state in the resource pool.
+ * </p>
+ */
+public class ParallelBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  static final int MAX_PARTITIONS = 64;
+  static final int MIN_PARTITION_SIZE = 32;
+  private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+  private static final AtomicInteger threadCounter = new AtomicInteger(1);
+
+  private final ExecutorService executorService;
+
+  /**
+   * Creates a new strategy using a worker thread per available processor.
+   */
+  public ParallelBatchedStrategy() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a new strategy using the given number of worker threads. Workers are daemon threads
+   * which are stopped when idle, so the strategy does not need to be shut down.
+   *
+   * @param threads the maximum number of worker threads
+   */
+  public ParallelBatchedStrategy(int threads) {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+        WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+          Thread thread = new Thread(r, "Batch-worker-" + threadCounter.getAndIncrement());
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.allowCoreThreadTimeOut(true);
+    this.executorService = executor;
+  }
+
+  /**
+   * Creates a new strategy evaluating partitions in the given executor service. The executor is
+   * owned by the caller and must be shut down by the caller. Note that the executor should not be
+   * shared between parties running in the same process, since partitions block while waiting for
+   * data from the other parties.
+   *
+   * @param executorService the executor service used to evaluate partitions
+   */
+  public ParallelBatchedStrategy(ExecutorService executorService) {
+    this.executorService = executorService;
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    int round = 0;
+    while (protocols.size() > 0) {
+      evaluateCurrentRound(protocols, networkBatchDecorator, resourcePool, round);
+      networkBatchDecorator.flush();
+      round++;
+    }
+  }
+
+  private void evaluateCurrentRound(
+      ProtocolCollection<ResourcePoolT> protocols, NetworkBatchDecorator network,
+      ResourcePoolT rp, int round) {
+    List<NativeProtocol<?, ResourcePoolT>> current = new ArrayList<>(protocols.size());
+    for (NativeProtocol<?, ResourcePoolT> protocol : protocols) {
+      current.add(protocol);
+    }
+    int partitions = getNumberOfPartitions(current.size());
+    boolean[] done = new boolean[current.size()];
+    if (partitions == 1) {
+      evaluatePartition(current, 0, current.size(), done, round, rp, network);
+    } else {
+      evaluatePartitions(current, partitions, done, round, rp, network);
+    }
+    Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+    for (int i = 0; iterator.hasNext(); i++) {
+      iterator.next();
+      if (done[i]) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private void evaluatePartitions(List<NativeProtocol<?, ResourcePoolT>> current,
+      int partitions, boolean[] done, int round, ResourcePoolT rp,
+      NetworkBatchDecorator network) {
+    int noOfParties = network.getNoOfParties();
+    PartitionedInput input = new PartitionedInput(network, partitions);
+    List<PartitionNetwork> partitionNetworks = new ArrayList<>(partitions);
+    List<Future<?>> futures = new ArrayList<>(partitions);
+    int size = current.size();
+    for (int p = 0; p < partitions; p++) {
+      int from = partitionStart(size, partitions, p);
+      int to = partitionStart(size, partitions, p + 1);
+      PartitionNetwork partitionNetwork = new PartitionNetwork(p, noOfParties, input);
+      partitionNetworks.add(partitionNetwork);
+      futures.add(executorService.submit(
+          () -> evaluatePartition(current, from, to, done, round, rp, partitionNetwork)));
+    }
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while evaluating batch", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new RuntimeException("Failed to evaluate partition of batch", e.getCause());
+      }
+    }
+    for (int party = 1; party <= noOfParties; party++) {
+      boolean hasOutput = false;
+      for (PartitionNetwork partitionNetwork : partitionNetworks) {
+        hasOutput |= !partitionNetwork.getOutput(party).isEmpty();
+      }
+      if (hasOutput) {
+        for (PartitionNetwork partitionNetwork : partitionNetworks) {
+          List<byte[]> messages = partitionNetwork.getOutput(party);
+          network.send(party, ByteAndBitConverter.toByteArray(messages.size()));
+          for (byte[] message : messages) {
+            network.send(party, message);
+          }
+        }
+      }
+    }
+  }
+
+  private void evaluatePartition(List<NativeProtocol<?, ResourcePoolT>> current, int from,
+      int to, boolean[] done, int round, ResourcePoolT rp, Network network) {
+    for (int i = from; i < to; i++) {
+      EvaluationStatus status = current.get(i).evaluate(round, rp, network);
+      done[i] = status.equals(EvaluationStatus.IS_DONE);
+    }
+  }
+
+  /**
+   * Computes the number of partitions to split a round of the given size into. This must only
+   * depend on the size, since all parties must agree on the partitioning.
+   */
+  static int getNumberOfPartitions(int size) {
+    return Math.max(1, Math.min(MAX_PARTITIONS, size / MIN_PARTITION_SIZE));
+  }
+
+  private static int partitionStart(int size, int partitions, int partition) {
+    return (int) ((long) size * partition / partitions);
+  }
+
+  /**
+   * The incoming data of a round, split per partition. The data from a party is only received when
+   * the first partition asks for it, since a party only sends data in the rounds where we expect
+   * it.
+   */
+  private static class PartitionedInput {
+
+    private final NetworkBatchDecorator network;
+    private final int partitions;
+    private final Map<Integer, List<ArrayDeque<byte[]>>> received;
+
+    private PartitionedInput(NetworkBatchDecorator network, int partitions) {
+      this.network = network;
+      this.partitions = partitions;
+      this.received = new HashMap<>();
+    }
+
+    private synchronized byte[] receive(int partyId, int partition) {
+      List<ArrayDeque<byte[]>> partyInput = received.get(partyId);
+      if (partyInput == null) {
+        partyInput = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+          int count = ByteBuffer.wrap(network.receive(partyId)).getInt();
+          ArrayDeque<byte[]> messages = new ArrayDeque<>(count);
+          for (int i = 0; i < count; i++) {
+            messages.add(network.receive(partyId));
+          }
+          partyInput.add(messages);
+        }
+        received.put(partyId, partyInput);
+      }
+      byte[] message = partyInput.get(partition).poll();
+      if (message == null) {
+        throw new IllegalStateException(
+            "No more data from party " + partyId + " for partition " + partition);
+      }
+      return message;
+    }
+  }
+
+  /**
+   * The view of the network given to the protocols of a single partition.
+   */
+  private static class PartitionNetwork implements Network {
+
+    private final int partition;
+    private final int noOfParties;
+    private final PartitionedInput input;
+    private final Map<Integer, List<byte[]>> output;
+
+    private PartitionNetwork(int partition, int noOfParties, PartitionedInput input) {
+      this.partition = partition;
+      this.noOfParties = noOfParties;
+      this.input = input;
+      this.output = new HashMap<>();
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      output.computeIfAbsent(partyId, i -> new ArrayList<>()).add(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return input.receive(partyId, partition);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return noOfParties;
+    }
+
+    private List<byte[]> getOutput(int partyId) {
+      return output.getOrDefault(partyId, new ArrayList<>());
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Batched communication strategy which keeps several independent parts of a batch in flight at the
+ * same time. Since all protocols of a batch are functionally independent, the batch is split into a
+ * number of stages which are evaluated round by round in an interleaved fashion:
+ * <p>
+ * 1. Evaluate the next round of the first stage and send the messages collected.
+ * </p>
+ * <p>
+ * 2. Evaluate the next round of the second stage and send its messages, while the messages of the
+ * first stage are on the wire.
+ * </p>
+ * <p>
+ * 3. Continue with the remaining stages and start over with the first stage, whose messages have
+ * now had time to arrive.
+ * </p>
+ * <p>
+ * This overlaps the local computation of a stage with the network round trip of the other stages,
+ * which is most useful on high latency networks. The stages are only determined by the size of the
+ * batch, hence all parties agree on the order of messages. Note that the maximum batch size of the
+ * evaluator should be scaled with the pipeline depth to keep the size of each stage the same as
+ * when using the {@link BatchedStrategy}.
+ * </p>
+ */
+public class PipelinedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  static final int DEFAULT_PIPELINE_DEPTH = 4;
+  static final int MIN_STAGE_SIZE = 64;
+
+  private final int pipelineDepth;
+
+  /**
+   * Creates a new strategy with the default pipeline depth.
+   */
+  public PipelinedStrategy() {
+    this(DEFAULT_PIPELINE_DEPTH);
+  }
+
+  /**
+   * Creates a new strategy with the given pipeline depth. All parties must use the same depth.
+   *
+   * @param pipelineDepth the maximum number of stages in flight
+   */
+  public PipelinedStrategy(int pipelineDepth) {
+    if (pipelineDepth < 1) {
+      throw new IllegalArgumentException("Pipeline depth must be positive, was " + pipelineDepth);
+    }
+    this.pipelineDepth = pipelineDepth;
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    List<List<NativeProtocol<?, ResourcePoolT>>> stages = createStages(protocols);
+    int round = 0;
+    boolean hasMoreRounds = true;
+    while (hasMoreRounds) {
+      hasMoreRounds = false;
+      for (List<NativeProtocol<?, ResourcePoolT>> stage : stages) {
+        if (!stage.isEmpty()) {
+          evaluateCurrentRound(stage, networkBatchDecorator, resourcePool, round);
+          networkBatchDecorator.flush();
+          hasMoreRounds |= !stage.isEmpty();
+        }
+      }
+      round++;
+    }
+  }
+
+  private List<List<NativeProtocol<?, ResourcePoolT>>> createStages(
+      ProtocolCollection<ResourcePoolT> protocols) {
+    int size = protocols.size();
+    int noOfStages = getNumberOfStages(size);
+    List<List<NativeProtocol<?, ResourcePoolT>>> stages = new ArrayList<>(noOfStages);
+    Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+    for (int s = 0; s < noOfStages; s++) {
+      int stageSize = (int) ((long) size * (s + 1) / noOfStages - (long) size * s / noOfStages);
+      List<NativeProtocol<?, ResourcePoolT>> stage = new LinkedList<>();
+      for (int i = 0; i < stageSize; i++) {
+        stage.add(iterator.next());
+        iterator.remove();
+      }
+      stages.add(stage);
+    }
+    return stages;
+  }
+
+  private void evaluateCurrentRound(
+      List<NativeProtocol<?, ResourcePoolT>> stage, NetworkBatchDecorator network,
+      ResourcePoolT rp, int round) {
+    Iterator<NativeProtocol<?, ResourcePoolT>> iterator = stage.iterator();
+    while (iterator.hasNext()) {
+      NativeProtocol<?, ResourcePoolT> protocol = iterator.next();
+      EvaluationStatus status = protocol.evaluate(round, rp, network);
+      if (status.equals(EvaluationStatus.IS_DONE)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Computes the number of stages to split a batch of the given size into. This must only depend on
+   * the size, since all parties must agree on the stages.
+   */
+  int getNumberOfStages(int size) {
+    return Math.max(1, Math.min(pipelineDepth, size / MIN_STAGE_SIZE));
+  }
+}
@@ -3,37 +3,154 @@ package dk.alexandra.fresco.framework.sce.evaluator;
 import dk.alexandra.fresco.framework.NativeProtocol;
 import dk.alexandra.fresco.framework.ProtocolCollection;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.NoSuchElementException;
 
+/**
+ * An array backed protocol collection, which can be reused for several batches by calling
+ * {@link #clear()}.
+ *
+ * <p>
+ * Protocols removed while iterating are compacted away in place, keeping the order of the
+ * remaining protocols, such that evaluating a batch round by round does not allocate. To avoid
+ * allocations the same iterator instance is returned by every call to {@link #iterator()}, which
+ * means that only one iteration may be in progress at a time.
+ * </p>
+ */
 public class ProtocolCollectionList<ResourcePoolT extends ResourcePool>
     implements ProtocolCollection<ResourcePoolT> {
 
-  private int capacity;
-  private List<NativeProtocol<?, ResourcePoolT>> protocols;
+  private static final int MAX_INITIAL_LENGTH = 1024;
 
+  private final int capacity;
+  private final CompactingIterator iterator;
+  private NativeProtocol<?, ResourcePoolT>[] protocols;
+  private int size;
+
+  /**
+   * Creates a new empty collection.
+   *
+   * @param capacity the number of protocols after which the collection has no free capacity
+   */
   public ProtocolCollectionList(int capacity) {
     this.capacity = capacity;
-    this.protocols = new LinkedList<>();
+    this.iterator = new CompactingIterator();
+    this.protocols = newArray(Math.max(1, Math.min(capacity, MAX_INITIAL_LENGTH)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private NativeProtocol<?, ResourcePoolT>[] newArray(int length) {
+    return (NativeProtocol<?, ResourcePoolT>[]) new NativeProtocol<?, ?>[length];
   }
 
   @Override
   public void addProtocol(NativeProtocol<?, ResourcePoolT> protocol) {
-    protocols.add(protocol);
+    iterator.finish();
+    if (size == protocols.length) {
+      protocols = Arrays.copyOf(protocols, 2 * protocols.length);
+    }
+    protocols[size++] = protocol;
   }
 
   @Override
   public boolean hasFreeCapacity() {
-    return protocols.size() < capacity;
+    return size() < capacity;
   }
 
+  /**
+   * Returns an iterator over the protocols, in the order they were added. Any iterator previously
+   * returned by this method must not be used afterwards.
+   */
   @Override
   public Iterator<NativeProtocol<?, ResourcePoolT>> iterator() {
-    return protocols.iterator();
+    iterator.reset();
+    return iterator;
   }
 
+  @Override
   public int size() {
-    return protocols.size();
+    iterator.finish();
+    return size;
+  }
+
+  /**
+   * Removes all protocols, such that the collection can be reused for a new batch.
+   */
+  public void clear() {
+    iterator.finish();
+    Arrays.fill(protocols, 0, size, null);
+    size = 0;
+  }
+
+  /**
+   * Iterates over the protocols while moving the protocols that are not removed towards the start
+   * of the array. The protocols in <code>[0, write)</code> have been kept, the protocols in
+   * <code>[read, size)</code> have not yet been visited, and the protocol at
+   * <code>read - 1</code>, if any, is the last one returned.
+   */
+  private final class CompactingIterator implements Iterator<NativeProtocol<?, ResourcePoolT>> {
+
+    private boolean active;
+    private int read;
+    private int write;
+    private boolean removed;
+
+    private void reset() {
+      finish();
+      active = true;
+      read = 0;
+      write = 0;
+      removed = true;
+    }
+
+    private void keepLast() {
+      if (!removed) {
+        protocols[write++] = protocols[read - 1];
+        removed = true;
+      }
+    }
+
+    /**
+     * Completes the compaction started by an iteration, which may have been abandoned before the
+     * end.
+     */
+    private void finish() {
+      if (!active) {
+        return;
+      }
+      active = false;
+      keepLast();
+      if (write < read) {
+        int remaining = size - read;
+        System.arraycopy(protocols, read, protocols, write, remaining);
+        int newSize = write + remaining;
+        Arrays.fill(protocols, newSize, size, null);
+        size = newSize;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return active && read < size;
+    }
+
+    @Override
+    public NativeProtocol<?, ResourcePoolT> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      keepLast();
+      removed = false;
+      return protocols[read++];
+    }
+
+    @Override
+    public void remove() {
+      if (!active || removed) {
+        throw new IllegalStateException("No protocol to remove");
+      }
+      removed = true;
+    }
   }
 }
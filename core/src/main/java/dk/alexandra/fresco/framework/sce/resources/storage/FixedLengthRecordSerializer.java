@@ -0,0 +1,37 @@
+package dk.alexandra.fresco.framework.sce.resources.storage;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+/**
+ * Serializes objects of a given type to records of a fixed number of bytes. Used by
+ * {@link MappedStreamedStorageImpl} to store streams of objects in a compact binary format which
+ * can be read without Java serialization.
+ *
+ * @param <T> the type of the objects
+ */
+public interface FixedLengthRecordSerializer<T extends Serializable> {
+
+  /**
+   * Gets the number of bytes used by each record.
+   *
+   * @return the record length
+   */
+  int getRecordLength();
+
+  /**
+   * Writes an object to a buffer as exactly {@link #getRecordLength()} bytes.
+   *
+   * @param object the object to write
+   * @param buffer the buffer to write to
+   */
+  void write(T object, ByteBuffer buffer);
+
+  /**
+   * Reads an object from the next {@link #getRecordLength()} bytes of a buffer.
+   *
+   * @param buffer the buffer to read from
+   * @return the object read
+   */
+  T read(ByteBuffer buffer);
+}
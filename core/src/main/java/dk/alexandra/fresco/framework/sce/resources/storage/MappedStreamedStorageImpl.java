@@ -0,0 +1,303 @@
+package dk.alexandra.fresco.framework.sce.resources.storage;
+
+import dk.alexandra.fresco.framework.sce.resources.storage.exceptions.NoMoreElementsException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streamed storage based on files of fixed length binary records, read through memory mapped
+ * buffers.
+ *
+ * <p>
+ * Streams for which a {@link FixedLengthRecordSerializer} is given are stored in a file with the
+ * name of the stream, consisting of a short header followed by the records. Reading maps a window
+ * of the file into memory at a time, so files larger than what a single buffer can address are
+ * supported, and objects are decoded directly from the mapped memory without Java serialization.
+ * The position of the next record to read is kept in a separate file named by the stream name
+ * followed by {@link #CURSOR_SUFFIX}, such that a stream opened by a later instance of the storage
+ * continues where the previous instance stopped. Streams without a record serializer, e.g. streams
+ * of objects of varying size, are delegated to a {@link FilebasedStreamedStorageImpl}.
+ * </p>
+ * <p>
+ * As for the {@link FilebasedStreamedStorageImpl}, the first object put to a stream replaces any
+ * existing file of that name. This also resets the cursor of the stream.
+ * </p>
+ */
+public class MappedStreamedStorageImpl implements StreamedStorage {
+
+  /**
+   * The suffix of the files storing the cursors of the streams.
+   */
+  public static final String CURSOR_SUFFIX = ".cursor";
+  static final int MAGIC = 0x46524543;
+  static final int HEADER_LENGTH = 2 * Integer.BYTES;
+  private static final long DEFAULT_WINDOW_SIZE = 1L << 26;
+  private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+  private final Storage storage;
+  private final Function<String, FixedLengthRecordSerializer<?>> serializers;
+  private final StreamedStorage fallback;
+  private final long windowSize;
+  private final Map<String, RecordReader> readers;
+  private final Map<String, RecordWriter> writers;
+
+  /**
+   * Creates an instance of the memory mapped streamed storage, using the default window size. For
+   * non-streamable objects, the given internal storage is used.
+   *
+   * @param internalStorage the storage used for non-streamable objects
+   * @param serializers a function giving the record serializer to use for a stream name, or null
+   *     if objects of the stream should be stored using Java serialization
+   */
+  public MappedStreamedStorageImpl(Storage internalStorage,
+      Function<String, FixedLengthRecordSerializer<?>> serializers) {
+    this(internalStorage, serializers, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Creates an instance of the memory mapped streamed storage. For non-streamable objects, the
+   * given internal storage is used.
+   *
+   * @param internalStorage the storage used for non-streamable objects
+   * @param serializers a function giving the record serializer to use for a stream name, or null
+   *     if objects of the stream should be stored using Java serialization
+   * @param windowSize the maximum number of bytes of a stream to map into memory at a time. At
+   *     least one record is always mapped.
+   */
+  public MappedStreamedStorageImpl(Storage internalStorage,
+      Function<String, FixedLengthRecordSerializer<?>> serializers, long windowSize) {
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("Window size must be positive, was " + windowSize);
+    }
+    this.storage = internalStorage;
+    this.serializers = serializers;
+    this.fallback = new FilebasedStreamedStorageImpl(internalStorage);
+    this.windowSize = windowSize;
+    this.readers = new HashMap<>();
+    this.writers = new HashMap<>();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T extends Serializable> T getNext(String name) throws NoMoreElementsException {
+    FixedLengthRecordSerializer<?> serializer = serializers.apply(name);
+    if (serializer == null) {
+      return fallback.getNext(name);
+    }
+    try {
+      RecordWriter writer = writers.get(name);
+      if (writer != null) {
+        writer.flush();
+      }
+      RecordReader reader = readers.get(name);
+      if (reader == null) {
+        reader = new RecordReader(name, serializer, windowSize);
+        readers.put(name, reader);
+      }
+      return (T) reader.next();
+    } catch (NoSuchFileException e) {
+      throw new NoMoreElementsException(
+          "IOException accessing store name: " + name + ". The file does not exist", e);
+    } catch (IOException e) {
+      throw new NoMoreElementsException("IOException reading from store name: " + name, e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public boolean putNext(String name, Serializable o) {
+    FixedLengthRecordSerializer<?> serializer = serializers.apply(name);
+    if (serializer == null) {
+      return fallback.putNext(name, o);
+    }
+    try {
+      RecordWriter writer = writers.get(name);
+      if (writer == null) {
+        RecordReader reader = readers.remove(name);
+        if (reader != null) {
+          reader.close();
+        }
+        writer = new RecordWriter(name, (FixedLengthRecordSerializer<Serializable>) serializer);
+        writers.put(name, writer);
+      }
+      writer.write(o);
+    } catch (IOException e) {
+      throw new RuntimeException("IOException writing to store name " + name, e);
+    }
+    return true;
+  }
+
+  @Override
+  public void shutdown() {
+    for (RecordWriter writer : writers.values()) {
+      try {
+        writer.close();
+      } catch (IOException e) {
+        // Do nothing - nothing can be done
+      }
+    }
+    for (RecordReader reader : readers.values()) {
+      try {
+        reader.close();
+      } catch (IOException e) {
+        // Do nothing - nothing can be done
+      }
+    }
+    writers.clear();
+    readers.clear();
+    fallback.shutdown();
+  }
+
+  @Override
+  public boolean putObject(String name, String key, Serializable o) {
+    return this.storage.putObject(name, key, o);
+  }
+
+  @Override
+  public <T extends Serializable> T getObject(String name, String key) {
+    return this.storage.getObject(name, key);
+  }
+
+  /**
+   * Reads the records of a stream through a mapped window of the file, persisting the position of
+   * the next record in a mapped cursor file.
+   */
+  private static final class RecordReader {
+
+    private final String name;
+    private final FixedLengthRecordSerializer<?> serializer;
+    private final int recordLength;
+    private final long windowRecords;
+    private final FileChannel channel;
+    private final FileChannel cursorChannel;
+    private final MappedByteBuffer cursorBuffer;
+    private long records;
+    private long cursor;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+
+    RecordReader(String name, FixedLengthRecordSerializer<?> serializer, long windowSize)
+        throws IOException {
+      this.name = name;
+      this.serializer = serializer;
+      this.recordLength = serializer.getRecordLength();
+      this.windowRecords =
+          Math.max(1, Math.min(windowSize, Integer.MAX_VALUE) / recordLength);
+      this.channel = FileChannel.open(Paths.get(name), StandardOpenOption.READ);
+      ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+      while (header.hasRemaining() && channel.read(header) >= 0) {
+        // Keep reading until the header is complete or the file ends
+      }
+      header.flip();
+      if (header.remaining() < HEADER_LENGTH || header.getInt() != MAGIC
+          || header.getInt() != recordLength) {
+        channel.close();
+        throw new IllegalArgumentException(
+            "Store name " + name + " is not a stream of records of length " + recordLength);
+      }
+      this.records = countRecords();
+      this.cursorChannel = FileChannel.open(Paths.get(name + CURSOR_SUFFIX),
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      this.cursorBuffer = cursorChannel.map(MapMode.READ_WRITE, 0, Long.BYTES);
+      this.cursor = cursorBuffer.getLong(0);
+    }
+
+    Object next() throws IOException, NoMoreElementsException {
+      if (cursor >= records) {
+        records = countRecords();
+        if (cursor >= records) {
+          throw new NoMoreElementsException(
+              "No more elements available in store name: " + name, null);
+        }
+      }
+      if (window == null || cursor < windowStart || cursor >= windowEnd) {
+        windowStart = cursor;
+        windowEnd = Math.min(records, cursor + windowRecords);
+        window = channel.map(MapMode.READ_ONLY, HEADER_LENGTH + windowStart * recordLength,
+            (windowEnd - windowStart) * recordLength);
+      }
+      window.position((int) ((cursor - windowStart) * recordLength));
+      Object object = serializer.read(window);
+      cursor++;
+      cursorBuffer.putLong(0, cursor);
+      return object;
+    }
+
+    private long countRecords() throws IOException {
+      return (channel.size() - HEADER_LENGTH) / recordLength;
+    }
+
+    void close() throws IOException {
+      try {
+        cursorBuffer.force();
+        cursorChannel.close();
+      } finally {
+        channel.close();
+      }
+    }
+  }
+
+  /**
+   * Appends records to a new stream file through a reused buffer.
+   */
+  private static final class RecordWriter {
+
+    private final FixedLengthRecordSerializer<Serializable> serializer;
+    private final int recordLength;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    RecordWriter(String name, FixedLengthRecordSerializer<Serializable> serializer)
+        throws IOException {
+      this.serializer = serializer;
+      this.recordLength = serializer.getRecordLength();
+      Path path = Paths.get(name);
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+      Files.deleteIfExists(Paths.get(name + CURSOR_SUFFIX));
+      this.buffer = ByteBuffer.allocate(Math.max(WRITE_BUFFER_SIZE, recordLength));
+      buffer.putInt(MAGIC).putInt(recordLength);
+    }
+
+    void write(Serializable object) throws IOException {
+      if (buffer.remaining() < recordLength) {
+        flush();
+      }
+      int start = buffer.position();
+      serializer.write(object, buffer);
+      if (buffer.position() - start != recordLength) {
+        throw new IllegalArgumentException("Serializer wrote " + (buffer.position() - start)
+            + " bytes, expected record length " + recordLength);
+      }
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    void close() throws IOException {
+      try {
+        flush();
+      } finally {
+        channel.close();
+      }
+    }
+  }
+}
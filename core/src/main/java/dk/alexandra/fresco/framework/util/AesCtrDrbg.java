@@ -1,6 +1,8 @@
 package dk.alexandra.fresco.framework.util;
 
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
+import java.util.List;
 import javax.crypto.Cipher;
 import javax.crypto.ShortBufferException;
 import javax.crypto.spec.IvParameterSpec;
@@ -8,6 +10,14 @@ import javax.crypto.spec.SecretKeySpec;
 
 /**
  * Implementation of a deterministic random bit generator (DRBG) using AES in counter mode.
+ *
+ * <p>
+ * Random bytes are produced by encrypting zeros directly into the caller's array or buffer, so
+ * generation does not allocate. The zeros are read from a single shared array of
+ * {@value #UPDATE_LIMIT} bytes, which is never written. Splitting a request into several smaller
+ * ones, or into {@link #nextBytes(byte[], int, int)}, {@link #nextBytes(ByteBuffer)} and
+ * {@link #nextBytes(byte[])} calls of the same lengths, does not change the generated stream.
+ * </p>
  */
 public class AesCtrDrbg implements Drbg {
 
@@ -19,6 +29,7 @@ public class AesCtrDrbg implements Drbg {
   private static final int KEY_LENGTH = 16;
   private static final long RESEED_LIMIT = 1L << 48;
   private static final int UPDATE_LIMIT = 1 << 16;
+  private static final byte[] ZEROES = new byte[UPDATE_LIMIT];
   private Cipher cipher;
   private int generatedBytes;
   private int reseedCounter;
@@ -56,45 +67,95 @@ public class AesCtrDrbg implements Drbg {
 
   @Override
   public void nextBytes(byte[] bytes) {
-    if (bytes.length <= UPDATE_LIMIT) {
-      nextBytesBounded(new byte[bytes.length], bytes);
-    } else {
-      int offset = 0;
-      byte[] temp = new byte[UPDATE_LIMIT];
-      byte[] zeroes = new byte[temp.length];
-      while (bytes.length - offset > UPDATE_LIMIT) {
-        nextBytesBounded(zeroes, temp);
-        System.arraycopy(temp, 0, bytes, offset, temp.length);
-        offset += UPDATE_LIMIT;
-      }
-      temp = new byte[bytes.length - offset];
-      zeroes = new byte[bytes.length - offset];
-      nextBytesBounded(zeroes, temp);
-      System.arraycopy(temp, 0, bytes, offset, temp.length);
+    nextBytes(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Fills part of a byte array with pseudo-random bytes. This generates the same bytes as calling
+   * {@link #nextBytes(byte[])} with an array of the given length.
+   *
+   * @param bytes the array to write to
+   * @param offset the index of the first byte to write
+   * @param length the number of bytes to write
+   */
+  public void nextBytes(byte[] bytes, int offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > bytes.length) {
+      throw new IndexOutOfBoundsException("Cannot write " + length + " bytes at offset " + offset
+          + " of an array of " + bytes.length + " bytes");
+    }
+    int end = offset + length;
+    while (end - offset > UPDATE_LIMIT) {
+      nextBytesBounded(bytes, offset, UPDATE_LIMIT);
+      offset += UPDATE_LIMIT;
+    }
+    nextBytesBounded(bytes, offset, end - offset);
+  }
+
+  /**
+   * Fills the remaining bytes of a buffer with pseudo-random bytes, advancing its position to its
+   * limit. This generates the same bytes as calling {@link #nextBytes(byte[])} with an array of
+   * the remaining length. Buffers backed by an array are written to directly.
+   *
+   * @param buffer the buffer to write to
+   */
+  public void nextBytes(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      nextBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      buffer.position(buffer.limit());
+      return;
+    }
+    while (buffer.remaining() > UPDATE_LIMIT) {
+      nextBytesBounded(buffer, UPDATE_LIMIT);
     }
+    nextBytesBounded(buffer, buffer.remaining());
   }
 
   /**
-   * Generates enough pseudo-random bytes to fill a given array.
-   * <p>
-   * Note: this method is unsafe the sense that it expects two array of equal size at most
-   * {@value #UPDATE_LIMIT} and does not check for this.
-   * </p>
+   * Fills a buffer with pseudo-random bytes from a batch of independently seeded DRBGs, such
+   * that the first <code>length</code> remaining bytes of the buffer come from the first DRBG,
+   * the next <code>length</code> bytes from the second DRBG and so on. The position of the
+   * buffer is advanced by the bytes written.
    *
-   * @param zeroes an array of zero bytes of length equal to output array.
-   * @param output an array of size at most {@value #UPDATE_LIMIT} which will be filled with pseudo
-   *        random bytes.
+   * @param drbgs the DRBGs to generate bytes with
+   * @param buffer the buffer to write to, which must have at least <code>length</code> remaining
+   *     bytes per DRBG
+   * @param length the number of bytes to generate with each DRBG
    */
-  void nextBytesBounded(byte[] zeroes, byte[] output) {
-    if (generatedBytes + output.length > UPDATE_LIMIT) {
+  public static void nextBytes(List<AesCtrDrbg> drbgs, ByteBuffer buffer, int length) {
+    if (buffer.remaining() < (long) drbgs.size() * length) {
+      throw new IllegalArgumentException("Buffer has " + buffer.remaining()
+          + " bytes remaining, but " + drbgs.size() + " times " + length + " bytes are needed");
+    }
+    int limit = buffer.limit();
+    for (AesCtrDrbg drbg : drbgs) {
+      buffer.limit(buffer.position() + length);
+      drbg.nextBytes(buffer);
+    }
+    buffer.limit(limit);
+  }
+
+  private void nextBytesBounded(byte[] output, int offset, int length) {
+    if (generatedBytes + length > UPDATE_LIMIT) {
+      update();
+    }
+    try {
+      this.cipher.update(ZEROES, 0, length, output, offset);
+    } catch (ShortBufferException e) {
+      throw new IllegalArgumentException("Exception generating bits", e);
+    }
+    generatedBytes += length;
+  }
+
+  private void nextBytesBounded(ByteBuffer output, int length) {
+    if (generatedBytes + length > UPDATE_LIMIT) {
       update();
     }
     try {
-      this.cipher.update(zeroes, 0, zeroes.length, output);
+      this.cipher.update(ByteBuffer.wrap(ZEROES, 0, length), output);
     } catch (ShortBufferException e) {
       throw new IllegalArgumentException("Exception generating bits", e);
     }
-    generatedBytes += output.length;
+    generatedBytes += length;
   }
 
   /**
@@ -0,0 +1,76 @@
+package dk.alexandra.fresco.framework.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encoding of non-negative integers as variable length byte sequences. Each byte holds seven bits
+ * of the value, least significant group first, with the high bit set on all but the last byte.
+ * This means that values below 128 are encoded as a single byte.
+ */
+public class VarInt {
+
+  /**
+   * The maximum number of bytes needed to encode an int.
+   */
+  public static final int MAX_BYTES = 5;
+
+  private VarInt() {
+    // Should not be instantiated
+  }
+
+  /**
+   * Computes the number of bytes needed to encode a value.
+   *
+   * @param value a non-negative value
+   * @return the length of the encoding
+   */
+  public static int encodedLength(int value) {
+    checkNonNegative(value);
+    int length = 1;
+    while (value >= 0x80) {
+      value >>>= 7;
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * Writes a value to a buffer at its current position.
+   *
+   * @param buffer the buffer to write to
+   * @param value a non-negative value
+   */
+  public static void write(ByteBuffer buffer, int value) {
+    checkNonNegative(value);
+    while (value >= 0x80) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  /**
+   * Reads a value from a buffer at its current position.
+   *
+   * @param buffer the buffer to read from
+   * @return the decoded value
+   */
+  public static int read(ByteBuffer buffer) {
+    int value = 0;
+    for (int shift = 0; shift < 7 * MAX_BYTES; shift += 7) {
+      byte b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        checkNonNegative(value);
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed variable length integer");
+  }
+
+  private static void checkNonNegative(int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Value must be non-negative, was " + value);
+    }
+  }
+}
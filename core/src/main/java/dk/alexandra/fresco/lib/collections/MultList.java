@@ -0,0 +1,45 @@
+package dk.alexandra.fresco.lib.collections;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.ComputationParallel;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multiplies two lists of secret values element-wise, by computing all the multiplications in
+ * parallel.
+ */
+public class MultList<T extends DRes<SInt>>
+    implements ComputationParallel<List<DRes<SInt>>, ProtocolBuilderNumeric> {
+
+  private final DRes<List<T>> left;
+  private final DRes<List<T>> right;
+
+  /**
+   * See {@link dk.alexandra.fresco.framework.builder.numeric.Collections#multList(DRes, DRes)
+   * multList}.
+   */
+  public MultList(DRes<List<T>> left, DRes<List<T>> right) {
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> buildComputation(ProtocolBuilderNumeric builder) {
+    List<T> leftOut = new ArrayList<>(left.out());
+    List<T> rightOut = new ArrayList<>(right.out());
+    if (leftOut.size() != rightOut.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have the same size, was " + leftOut.size() + " and " + rightOut.size());
+    }
+    Numeric numeric = builder.numeric();
+    List<DRes<SInt>> products = new ArrayList<>(leftOut.size());
+    for (int i = 0; i < leftOut.size(); i++) {
+      products.add(numeric.mult(leftOut.get(i), rightOut.get(i)));
+    }
+    return () -> products;
+  }
+}
@@ -0,0 +1,74 @@
+package dk.alexandra.fresco.lib.helper;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.ProtocolProducer;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.List;
+
+/**
+ * The native protocols evaluated by a protocol producer, in the batches they were produced, as
+ * recorded by a {@link RecordingProtocolProducer}. The wiring between the protocols is given by
+ * the protocols themselves.
+ */
+public class ProtocolSchedule {
+
+  private final NativeProtocol<?, ?>[][] batches;
+  private final int numberOfProtocols;
+
+  ProtocolSchedule(List<NativeProtocol<?, ?>[]> batches) {
+    this.batches = batches.toArray(new NativeProtocol<?, ?>[batches.size()][]);
+    int count = 0;
+    for (NativeProtocol<?, ?>[] batch : this.batches) {
+      count += batch.length;
+    }
+    this.numberOfProtocols = count;
+  }
+
+  /**
+   * Gets the number of batches in the schedule.
+   *
+   * @return the number of batches
+   */
+  public int getNumberOfBatches() {
+    return batches.length;
+  }
+
+  /**
+   * Gets the total number of native protocols in the schedule.
+   *
+   * @return the number of protocols
+   */
+  public int getNumberOfProtocols() {
+    return numberOfProtocols;
+  }
+
+  /**
+   * Creates a producer giving the recorded batches again, one batch for each call to
+   * {@link ProtocolProducer#getNextProtocols(ProtocolCollection)}, regardless of the capacity of
+   * the collection.
+   *
+   * @return a new producer replaying the schedule
+   */
+  public ProtocolProducer createProducer() {
+    return new ProtocolProducer() {
+
+      private int next = 0;
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public <ResourcePoolT extends ResourcePool> void getNextProtocols(
+          ProtocolCollection<ResourcePoolT> protocolCollection) {
+        for (NativeProtocol<?, ?> protocol : batches[next]) {
+          protocolCollection.addProtocol((NativeProtocol<?, ResourcePoolT>) protocol);
+        }
+        next++;
+      }
+
+      @Override
+      public boolean hasNextProtocols() {
+        return next < batches.length;
+      }
+    };
+  }
+}
@@ -0,0 +1,109 @@
+package dk.alexandra.fresco.lib.helper;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.ProtocolProducer;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Decorates a protocol producer by recording the native protocols it produces, in the batches
+ * they are produced, such that they can be evaluated again using the resulting
+ * {@link ProtocolSchedule}. The protocols are marked as retained, such that the producers do not
+ * discard them once evaluated. While the decorated producer runs, and thus its build steps,
+ * {@link #isBuilding()} is true.
+ */
+public class RecordingProtocolProducer implements ProtocolProducer {
+
+  private final ProtocolProducer delegate;
+  private final List<NativeProtocol<?, ?>[]> batches;
+  private boolean building;
+
+  public RecordingProtocolProducer(ProtocolProducer delegate) {
+    this.delegate = delegate;
+    this.batches = new ArrayList<>();
+  }
+
+  @Override
+  public <ResourcePoolT extends ResourcePool> void getNextProtocols(
+      ProtocolCollection<ResourcePoolT> protocolCollection) {
+    RecordingCollection<ResourcePoolT> recording = new RecordingCollection<>(protocolCollection);
+    building = true;
+    try {
+      delegate.getNextProtocols(recording);
+    } finally {
+      building = false;
+    }
+    batches.add(recording.batch.toArray(new NativeProtocol<?, ?>[0]));
+  }
+
+  @Override
+  public boolean hasNextProtocols() {
+    building = true;
+    try {
+      return delegate.hasNextProtocols();
+    } finally {
+      building = false;
+    }
+  }
+
+  /**
+   * Tells whether the decorated producer is currently running, as opposed to the protocols it
+   * produced being evaluated.
+   *
+   * @return true if the producer is running
+   */
+  public boolean isBuilding() {
+    return building;
+  }
+
+  /**
+   * Gets the schedule of the protocols produced so far, which is complete once the producer has
+   * no more protocols.
+   *
+   * @return the recorded schedule
+   */
+  public ProtocolSchedule getSchedule() {
+    return new ProtocolSchedule(batches);
+  }
+
+  private static final class RecordingCollection<ResourcePoolT extends ResourcePool>
+      implements ProtocolCollection<ResourcePoolT> {
+
+    private final ProtocolCollection<ResourcePoolT> delegate;
+    private final List<NativeProtocol<?, ResourcePoolT>> batch;
+
+    private RecordingCollection(ProtocolCollection<ResourcePoolT> delegate) {
+      this.delegate = delegate;
+      this.batch = new ArrayList<>();
+    }
+
+    @Override
+    public void addProtocol(NativeProtocol<?, ResourcePoolT> protocol) {
+      batch.add(protocol);
+      delegate.addProtocol(protocol);
+    }
+
+    @Override
+    public boolean hasFreeCapacity() {
+      return delegate.hasFreeCapacity();
+    }
+
+    @Override
+    public int size() {
+      return delegate.size();
+    }
+
+    @Override
+    public boolean retainsProtocols() {
+      return true;
+    }
+
+    @Override
+    public Iterator<NativeProtocol<?, ResourcePoolT>> iterator() {
+      return delegate.iterator();
+    }
+  }
+}
@@ -14,6 +14,7 @@ public class SingleProtocolProducer<T> implements ProtocolProducer, DRes<T> {
   private NativeProtocol<T, ?> protocol;
   private boolean evaluated = false;
   private T result;
+  private boolean retainProtocol = false;
 
   public SingleProtocolProducer(NativeProtocol<T, ?> protocol) {
     this.protocol = protocol;
@@ -24,6 +25,7 @@ public class SingleProtocolProducer<T> implements ProtocolProducer, DRes<T> {
   public <ResourcePoolT extends ResourcePool> void getNextProtocols(
       ProtocolCollection<ResourcePoolT> protocolCollection) {
     evaluated = true;
+    retainProtocol = protocolCollection.retainsProtocols();
     protocolCollection.addProtocol((NativeProtocol<?, ResourcePoolT>) protocol);
   }
 
@@ -41,6 +43,10 @@ public class SingleProtocolProducer<T> implements ProtocolProducer, DRes<T> {
 
   @Override
   public T out() {
+    if (retainProtocol) {
+      // The protocol may be evaluated again, so the result must not be cached
+      return protocol.out();
+    }
     if (result == null) {
       result = protocol.out();
       // Break chain of native protocols to ensure garbage collection
@@ -0,0 +1,161 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class FieldElementVectorTest {
+
+  private static final int SIZE = 37;
+  private final Random random = new Random(42);
+
+  /**
+   * Runs the test on field definitions with generic and specialized vectors.
+   */
+  private void testDefinition(Consumer<FieldDefinition> test) {
+    test.accept(new BigIntegerFieldDefinition(BigInteger.valueOf(113)));
+    test.accept(new MersennePrimeFieldDefinition(128, 173));
+    test.accept(new LongPrimeFieldDefinition((1L << 61) - 1));
+    test.accept(new MontgomeryFieldDefinition(
+        BigInteger.ONE.shiftLeft(192).subtract(BigInteger.valueOf(237))));
+  }
+
+  private List<FieldElement> randomElements(FieldDefinition definition) {
+    List<FieldElement> elements = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      elements.add(definition.createElement(
+          new BigInteger(definition.getBitLength() + 8, random)));
+    }
+    return elements;
+  }
+
+  private List<BigInteger> toBigIntegers(FieldDefinition definition,
+      List<FieldElement> elements) {
+    return elements.stream().map(definition::convertToUnsigned).collect(Collectors.toList());
+  }
+
+  private void testElementWise(FieldDefinition definition,
+      BiFunction<FieldElementVector, FieldElementVector, FieldElementVector> vectorOperation,
+      BiFunction<FieldElement, FieldElement, FieldElement> elementOperation) {
+    List<FieldElement> left = randomElements(definition);
+    List<FieldElement> right = randomElements(definition);
+    List<FieldElement> expected = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      expected.add(elementOperation.apply(left.get(i), right.get(i)));
+    }
+    FieldElementVector leftVector = definition.createVector(left);
+    FieldElementVector result = vectorOperation.apply(leftVector,
+        definition.createVector(right));
+    assertThat(toBigIntegers(definition, result.toList()),
+        Is.is(toBigIntegers(definition, expected)));
+  }
+
+  @Test
+  public void add() {
+    testDefinition(definition -> testElementWise(definition, FieldElementVector::add,
+        FieldElement::add));
+  }
+
+  @Test
+  public void subtract() {
+    testDefinition(definition -> testElementWise(definition, FieldElementVector::subtract,
+        FieldElement::subtract));
+  }
+
+  @Test
+  public void multiply() {
+    testDefinition(definition -> testElementWise(definition, FieldElementVector::multiply,
+        FieldElement::multiply));
+  }
+
+  @Test
+  public void scaleAndCopy() {
+    testDefinition(definition -> {
+      List<FieldElement> elements = randomElements(definition);
+      FieldElement scalar = definition.createElement(-3);
+      FieldElementVector vector = definition.createVector(elements);
+      FieldElementVector scaled = vector.copy().scale(scalar);
+      for (int i = 0; i < SIZE; i++) {
+        assertThat(definition.convertToUnsigned(scaled.get(i)),
+            Is.is(definition.convertToUnsigned(elements.get(i).multiply(scalar))));
+        assertThat(definition.convertToUnsigned(vector.get(i)),
+            Is.is(definition.convertToUnsigned(elements.get(i))));
+      }
+    });
+  }
+
+  @Test
+  public void innerProduct() {
+    testDefinition(definition -> {
+      List<FieldElement> left = randomElements(definition);
+      List<FieldElement> right = randomElements(definition);
+      FieldElement expected = definition.createElement(0);
+      for (int i = 0; i < SIZE; i++) {
+        expected = expected.add(left.get(i).multiply(right.get(i)));
+      }
+      FieldElement actual = definition.createVector(left)
+          .innerProduct(definition.createVector(right));
+      assertThat(definition.convertToUnsigned(actual),
+          Is.is(definition.convertToUnsigned(expected)));
+    });
+  }
+
+  @Test
+  public void getAndSet() {
+    testDefinition(definition -> {
+      FieldElementVector vector = definition.createVector(3);
+      assertThat(vector.size(), Is.is(3));
+      vector.set(1, definition.createElement(7));
+      assertThat(toBigIntegers(definition, vector.toList()),
+          Is.is(Arrays.asList(BigInteger.ZERO, BigInteger.valueOf(7), BigInteger.ZERO)));
+    });
+  }
+
+  @Test
+  public void serialize() {
+    testDefinition(definition -> {
+      List<FieldElement> elements = randomElements(definition);
+      FieldElementVector vector = definition.createVector(elements);
+      ByteBuffer buffer = ByteBuffer.allocate(vector.getSerializedLength() + 2);
+      buffer.put((byte) 1);
+      vector.serialize(buffer);
+      buffer.put((byte) 2);
+      byte[] expected = definition.serialize(elements);
+      assertThat(vector.getSerializedLength(), Is.is(expected.length));
+      byte[] actual = new byte[expected.length];
+      buffer.flip();
+      assertThat(buffer.get(), Is.is((byte) 1));
+      buffer.get(actual);
+      assertThat(actual, Is.is(expected));
+      assertThat(buffer.get(), Is.is((byte) 2));
+      FieldElementVector deserialized =
+          definition.deserializeVector(ByteBuffer.wrap(expected), SIZE);
+      assertThat(toBigIntegers(definition, deserialized.toList()),
+          Is.is(toBigIntegers(definition, elements)));
+    });
+  }
+
+  @Test
+  public void sizeMismatch() {
+    testDefinition(definition -> {
+      FieldElementVector left = definition.createVector(2);
+      FieldElementVector right = definition.createVector(3);
+      try {
+        left.add(right);
+        throw new AssertionError("Expected exception for " + definition);
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    });
+  }
+}
@@ -0,0 +1,152 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class LongPrimeFieldDefinitionTest {
+
+  // 2^61 - 1, 2^63 - 25 and 2^31 - 1 are primes
+  private static final long[] PRIMES = {113, (1L << 61) - 1, Long.MAX_VALUE - 24, (1L << 31) - 1};
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenModulus() {
+    new LongPrimeFieldDefinition(1L << 40);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void smallModulus() {
+    new LongPrimeFieldDefinition(1);
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void largeModulus() {
+    new LongPrimeFieldDefinition(BigInteger.ONE.shiftLeft(64).add(BigInteger.ONE));
+  }
+
+  @Test
+  public void multiplyHighUnsigned() {
+    Random random = new Random(42);
+    BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+    for (int i = 0; i < 1000; i++) {
+      long left = random.nextLong();
+      long right = random.nextLong();
+      BigInteger expected = toUnsigned(left).multiply(toUnsigned(right)).shiftRight(64);
+      assertThat(toUnsigned(LongPrimeModulus.multiplyHighUnsigned(left, right)),
+          Is.is(expected.and(mask)));
+    }
+  }
+
+  @Test
+  public void arithmetic() {
+    Random random = new Random(1234);
+    for (long prime : PRIMES) {
+      BigInteger modulus = BigInteger.valueOf(prime);
+      LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(prime);
+      List<Long> values = Arrays.asList(0L, 1L, -1L, prime - 1, prime, Long.MIN_VALUE,
+          Long.MAX_VALUE, random.nextLong(), random.nextLong(), random.nextLong());
+      for (long left : values) {
+        BigInteger bigLeft = BigInteger.valueOf(left).mod(modulus);
+        FieldElement elementLeft = definition.createElement(left);
+        assertThat(definition.convertToUnsigned(elementLeft), Is.is(bigLeft));
+        assertThat(definition.convertToUnsigned(elementLeft.negate()),
+            Is.is(bigLeft.negate().mod(modulus)));
+        for (long right : values) {
+          BigInteger bigRight = BigInteger.valueOf(right).mod(modulus);
+          FieldElement elementRight = definition.createElement(BigInteger.valueOf(right));
+          assertThat(definition.convertToUnsigned(elementLeft.add(elementRight)),
+              Is.is(bigLeft.add(bigRight).mod(modulus)));
+          assertThat(definition.convertToUnsigned(elementLeft.subtract(elementRight)),
+              Is.is(bigLeft.subtract(bigRight).mod(modulus)));
+          assertThat(definition.convertToUnsigned(elementLeft.multiply(elementRight)),
+              Is.is(bigLeft.multiply(bigRight).mod(modulus)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void innerProduct() {
+    Random random = new Random(99);
+    for (long prime : PRIMES) {
+      BigInteger modulus = BigInteger.valueOf(prime);
+      LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(prime);
+      List<FieldElement> left = new ArrayList<>();
+      List<FieldElement> right = new ArrayList<>();
+      BigInteger expected = BigInteger.ZERO;
+      for (int i = 0; i < 100; i++) {
+        long leftValue = random.nextLong();
+        long rightValue = random.nextLong();
+        left.add(definition.createElement(leftValue));
+        right.add(definition.createElement(rightValue));
+        expected = expected.add(BigInteger.valueOf(leftValue).multiply(
+            BigInteger.valueOf(rightValue))).mod(modulus);
+      }
+      assertThat(definition.convertToUnsigned(definition.innerProduct(left, right)),
+          Is.is(expected));
+    }
+  }
+
+  @Test
+  public void modInverse() {
+    for (long prime : PRIMES) {
+      LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(prime);
+      FieldElement element = definition.createElement(prime / 3);
+      FieldElement product = element.multiply(element.modInverse());
+      assertThat(definition.convertToUnsigned(product), Is.is(BigInteger.ONE));
+    }
+  }
+
+  @Test
+  public void sqrt() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(113);
+    FieldElement sqrt = definition.createElement(2).sqrt();
+    assertThat(definition.convertToUnsigned(sqrt), Is.is(BigInteger.valueOf(62)));
+  }
+
+  @Test
+  public void serialization() {
+    for (long prime : PRIMES) {
+      LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(prime);
+      BigIntegerFieldDefinition reference = new BigIntegerFieldDefinition(
+          BigInteger.valueOf(prime));
+      List<FieldElement> elements = Arrays.asList(definition.createElement(0),
+          definition.createElement(prime / 2), definition.createElement(-1));
+      List<FieldElement> referenceElements = Arrays.asList(reference.createElement(0),
+          reference.createElement(prime / 2), reference.createElement(-1));
+      byte[] bytes = definition.serialize(elements);
+      assertThat(bytes, Is.is(reference.serialize(referenceElements)));
+      assertThat(definition.serialize(elements.get(2)),
+          Is.is(reference.serialize(referenceElements.get(2))));
+      List<FieldElement> deserialized = definition.deserializeList(bytes);
+      for (int i = 0; i < elements.size(); i++) {
+        assertThat(definition.convertToUnsigned(deserialized.get(i)),
+            Is.is(definition.convertToUnsigned(elements.get(i))));
+      }
+      assertThat(definition.convertToUnsigned(definition.deserialize(
+          definition.serialize(elements.get(1)))), Is.is(BigInteger.valueOf(prime / 2)));
+      assertThat(definition.convertToBitVector(elements.get(2)),
+          Is.is(reference.convertToBitVector(referenceElements.get(2))));
+    }
+  }
+
+  @Test
+  public void convertToSigned() {
+    LongPrimeFieldDefinition definition = new LongPrimeFieldDefinition(113);
+    assertThat(definition.convertToSigned(BigInteger.valueOf(112)),
+        Is.is(BigInteger.ONE.negate()));
+    assertThat(definition.convertToSigned(BigInteger.valueOf(56)), Is.is(BigInteger.valueOf(56)));
+    assertThat(definition.getBitLength(), Is.is(7));
+    assertThat(definition.getModulus(), Is.is(BigInteger.valueOf(113)));
+  }
+
+  private static BigInteger toUnsigned(long value) {
+    return new BigInteger(Long.toUnsignedString(value));
+  }
+}
@@ -0,0 +1,163 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class MontgomeryFieldDefinitionTest {
+
+  private static final List<BigInteger> PRIMES = Arrays.asList(
+      BigInteger.ONE.shiftLeft(128).subtract(BigInteger.valueOf(173)),
+      BigInteger.ONE.shiftLeft(192).subtract(BigInteger.valueOf(237)),
+      BigInteger.ONE.shiftLeft(256).subtract(BigInteger.valueOf(189)),
+      BigInteger.probablePrime(65, new Random(1)),
+      BigInteger.probablePrime(130, new Random(2)),
+      BigInteger.probablePrime(200, new Random(3)));
+
+  @Test(expected = IllegalArgumentException.class)
+  public void smallModulus() {
+    new MontgomeryFieldDefinition(BigInteger.valueOf(Long.MAX_VALUE - 24));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void largeModulus() {
+    new MontgomeryFieldDefinition(BigInteger.ONE.shiftLeft(256).add(BigInteger.ONE));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void evenModulus() {
+    new MontgomeryFieldDefinition(BigInteger.ONE.shiftLeft(128));
+  }
+
+  @Test
+  public void arithmetic() {
+    Random random = new Random(1234);
+    for (BigInteger modulus : PRIMES) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(modulus);
+      List<BigInteger> values = getValues(modulus, random);
+      for (BigInteger left : values) {
+        FieldElement elementLeft = definition.createElement(left);
+        BigInteger reducedLeft = left.mod(modulus);
+        assertThat(definition.convertToUnsigned(elementLeft), Is.is(reducedLeft));
+        assertThat(definition.convertToUnsigned(elementLeft.negate()),
+            Is.is(reducedLeft.negate().mod(modulus)));
+        for (BigInteger right : values) {
+          FieldElement elementRight = definition.createElement(right.toString());
+          BigInteger reducedRight = right.mod(modulus);
+          assertThat(definition.convertToUnsigned(elementLeft.add(elementRight)),
+              Is.is(reducedLeft.add(reducedRight).mod(modulus)));
+          assertThat(definition.convertToUnsigned(elementLeft.subtract(elementRight)),
+              Is.is(reducedLeft.subtract(reducedRight).mod(modulus)));
+          assertThat(definition.convertToUnsigned(elementLeft.multiply(elementRight)),
+              Is.is(reducedLeft.multiply(reducedRight).mod(modulus)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void createFromLong() {
+    for (BigInteger modulus : PRIMES) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(modulus);
+      for (long value : new long[]{0, 1, -1, Long.MAX_VALUE, Long.MIN_VALUE}) {
+        assertThat(definition.convertToUnsigned(definition.createElement(value)),
+            Is.is(BigInteger.valueOf(value).mod(modulus)));
+      }
+    }
+  }
+
+  @Test
+  public void accumulator() {
+    Random random = new Random(42);
+    for (BigInteger modulus : PRIMES) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(modulus);
+      List<FieldElement> left = new ArrayList<>();
+      List<FieldElement> right = new ArrayList<>();
+      BigInteger expected = BigInteger.ZERO;
+      for (int i = 0; i < 100; i++) {
+        BigInteger leftValue = new BigInteger(modulus.bitLength() + 8, random);
+        BigInteger rightValue = new BigInteger(modulus.bitLength() + 8, random);
+        left.add(definition.createElement(leftValue));
+        right.add(definition.createElement(rightValue));
+        expected = expected.add(leftValue.multiply(rightValue)).mod(modulus);
+      }
+      assertThat(definition.convertToUnsigned(definition.innerProduct(left, right)),
+          Is.is(expected));
+      MontgomeryAccumulator accumulator = definition.createAccumulator();
+      accumulator.add(left.get(0)).multiply(right.get(0)).subtract(left.get(1))
+          .addProduct(left.get(2), right.get(2));
+      FieldElement expectedElement = left.get(0).multiply(right.get(0)).subtract(left.get(1))
+          .add(left.get(2).multiply(right.get(2)));
+      assertThat(definition.convertToUnsigned(accumulator.get()),
+          Is.is(definition.convertToUnsigned(expectedElement)));
+      assertThat(definition.convertToUnsigned(accumulator.reset().get()), Is.is(BigInteger.ZERO));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void innerProductLengthMismatch() {
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(PRIMES.get(0));
+    definition.innerProduct(Arrays.asList(definition.createElement(1)), new ArrayList<>());
+  }
+
+  @Test
+  public void modInverseAndSqrt() {
+    for (BigInteger modulus : PRIMES) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(modulus);
+      FieldElement element = definition.createElement(modulus.divide(BigInteger.valueOf(3)));
+      assertThat(definition.convertToUnsigned(element.multiply(element.modInverse())),
+          Is.is(BigInteger.ONE));
+      FieldElement square = element.multiply(element);
+      FieldElement root = square.sqrt();
+      assertThat(definition.convertToUnsigned(root.multiply(root)),
+          Is.is(definition.convertToUnsigned(square)));
+    }
+  }
+
+  @Test
+  public void serialization() {
+    Random random = new Random(7);
+    for (BigInteger modulus : PRIMES) {
+      MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(modulus);
+      BigIntegerFieldDefinition reference = new BigIntegerFieldDefinition(modulus);
+      List<FieldElement> elements = new ArrayList<>();
+      List<FieldElement> referenceElements = new ArrayList<>();
+      for (BigInteger value : getValues(modulus, random)) {
+        elements.add(definition.createElement(value));
+        referenceElements.add(reference.createElement(value));
+      }
+      byte[] bytes = definition.serialize(elements);
+      assertThat(bytes, Is.is(reference.serialize(referenceElements)));
+      List<FieldElement> deserialized = definition.deserializeList(bytes);
+      for (int i = 0; i < elements.size(); i++) {
+        assertThat(definition.convertToUnsigned(deserialized.get(i)),
+            Is.is(definition.convertToUnsigned(elements.get(i))));
+      }
+    }
+  }
+
+  @Test
+  public void deserializeUnreduced() {
+    BigInteger modulus = PRIMES.get(0);
+    MontgomeryFieldDefinition definition = new MontgomeryFieldDefinition(modulus);
+    byte[] bytes = new byte[16];
+    Arrays.fill(bytes, (byte) -1);
+    assertThat(definition.convertToUnsigned(definition.deserialize(bytes)),
+        Is.is(BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE).mod(modulus)));
+  }
+
+  private List<BigInteger> getValues(BigInteger modulus, Random random) {
+    return Arrays.asList(BigInteger.ZERO, BigInteger.ONE, BigInteger.ONE.negate(),
+        modulus.subtract(BigInteger.ONE), modulus, modulus.shiftRight(1),
+        BigInteger.ONE.shiftLeft(64), BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE),
+        new BigInteger(modulus.bitLength(), random).mod(modulus),
+        new BigInteger(modulus.bitLength(), random).mod(modulus),
+        new BigInteger(modulus.bitLength() * 2, random));
+  }
+}
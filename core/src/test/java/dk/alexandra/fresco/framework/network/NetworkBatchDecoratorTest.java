@@ -65,25 +65,30 @@ public class NetworkBatchDecoratorTest {
     Assert.assertArrayEquals(new byte[]{1, 123}, transmissions.get(3));
   }
 
-  @Test(expected = RuntimeException.class)
-  public void errorOnBigPackets() throws Exception {
-    networkBatchDecorator.sendToAll(
-        new byte[]{
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-        });
+  @Test
+  public void sendBigPackets() throws Exception {
+    byte[] big = new byte[100000];
+    for (int i = 0; i < big.length; i++) {
+      big[i] = (byte) i;
+    }
+    networkBatchDecorator.send(2, new byte[]{1, 2});
+    networkBatchDecorator.send(2, big);
+    networkBatchDecorator.send(2, new byte[]{3});
+    networkBatchDecorator.flush();
+    byte[] transmission = transmissions.get(2);
+    Assert.assertEquals(1 + 2 + 3 + big.length + 1 + 1, transmission.length);
+    Assert.assertArrayEquals(new byte[]{1, 2}, networkBatchDecorator.receive(2));
+    Assert.assertArrayEquals(big, networkBatchDecorator.receive(2));
+    Assert.assertArrayEquals(new byte[]{3}, networkBatchDecorator.receive(2));
+  }
 
+  @Test
+  public void sendAfterFlush() throws Exception {
+    networkBatchDecorator.send(1, new byte[]{1});
+    networkBatchDecorator.flush();
+    networkBatchDecorator.send(1, new byte[]{2, 3});
+    networkBatchDecorator.flush();
+    Assert.assertArrayEquals(new byte[]{2, 2, 3}, transmissions.get(1));
   }
 
   private class DummyNetwork implements Network {
@@ -0,0 +1,199 @@
+package dk.alexandra.fresco.framework.network.multiplex;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.nio.NioNetwork;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestMultiplexedNetwork {
+
+  private static final int TIMEOUT_MILLIS = 60000;
+  private Map<Integer, MultiplexedNetwork> networks = new HashMap<>();
+  private ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() throws IOException {
+    executor.shutdownNow();
+    for (MultiplexedNetwork network : networks.values()) {
+      network.close();
+    }
+  }
+
+  private void createNetworks(int numParties, int windowSize) throws Exception {
+    Map<Integer, NetworkConfiguration> confs = NetworkUtil.getNetworkConfigurations(numParties);
+    Map<Integer, Future<NioNetwork>> futures = new HashMap<>();
+    for (NetworkConfiguration conf : confs.values()) {
+      futures.put(conf.getMyId(), executor.submit(() -> new NioNetwork(conf)));
+    }
+    for (int i = 1; i <= numParties; i++) {
+      networks.put(i, new MultiplexedNetwork(futures.get(i).get(), windowSize));
+    }
+  }
+
+  private void runAll(List<Callable<Void>> tasks) throws Exception {
+    List<Future<Void>> futures = new ArrayList<>();
+    for (Callable<Void> task : tasks) {
+      futures.add(executor.submit(task));
+    }
+    for (Future<Void> future : futures) {
+      future.get();
+    }
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testChannelsAreIndependent() throws Exception {
+    createNetworks(2, MultiplexedNetwork.DEFAULT_WINDOW_SIZE);
+    Network firstA = networks.get(1).getChannel(1);
+    Network firstB = networks.get(1).getChannel(2);
+    Network secondA = networks.get(2).getChannel(1);
+    Network secondB = networks.get(2).getChannel(2);
+    firstA.send(2, new byte[] {1});
+    firstB.send(2, new byte[] {2});
+    firstA.send(2, new byte[] {3});
+    // Receive in the opposite order of sending
+    assertArrayEquals(new byte[] {2}, secondB.receive(1));
+    assertArrayEquals(new byte[] {1}, secondA.receive(1));
+    assertArrayEquals(new byte[] {3}, secondA.receive(1));
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testSelfSend() throws Exception {
+    createNetworks(1, MultiplexedNetwork.DEFAULT_WINDOW_SIZE);
+    Network first = networks.get(1).getChannel(1);
+    Network second = networks.get(1).getChannel(2);
+    first.send(1, new byte[] {1});
+    second.send(1, new byte[] {2});
+    assertArrayEquals(new byte[] {2}, second.receive(1));
+    assertArrayEquals(new byte[] {1}, first.receive(1));
+    assertEquals(1, first.getNoOfParties());
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testConcurrentChannels() throws Exception {
+    final int numParties = 3;
+    final int numChannels = 4;
+    final int numMessages = 1000;
+    createNetworks(numParties, 64);
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int p = 1; p <= numParties; p++) {
+      for (int c = 1; c <= numChannels; c++) {
+        final Network channel = networks.get(p).getChannel(c);
+        final int myId = p;
+        final int channelId = c;
+        tasks.add(() -> {
+          for (int i = 0; i < numMessages; i++) {
+            for (int other = 1; other <= numParties; other++) {
+              channel.send(other, new byte[] {(byte) myId, (byte) channelId, (byte) i});
+            }
+            for (int other = 1; other <= numParties; other++) {
+              assertArrayEquals(new byte[] {(byte) other, (byte) channelId, (byte) i},
+                  channel.receive(other));
+            }
+          }
+          return null;
+        });
+      }
+    }
+    runAll(tasks);
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testFlowControl() throws Exception {
+    final int numMessages = 100;
+    final byte[] data = new byte[100];
+    createNetworks(2, 256);
+    Network sender = networks.get(1).getChannel(1);
+    Network receiver = networks.get(2).getChannel(1);
+    // The sender runs out of credit and queues the messages without blocking
+    for (int i = 0; i < numMessages; i++) {
+      sender.send(2, data);
+    }
+    // Another channel is not affected by the stalled one
+    networks.get(1).getChannel(2).send(2, new byte[] {42});
+    assertArrayEquals(new byte[] {42}, networks.get(2).getChannel(2).receive(1));
+    // The queued messages are passed on as the sender reads the credit granted by the receiver
+    Future<?> receiving = executor.submit(() -> {
+      for (int i = 0; i < numMessages; i++) {
+        assertArrayEquals(data, receiver.receive(1));
+      }
+      receiver.send(1, new byte[] {1});
+      return null;
+    });
+    assertArrayEquals(new byte[] {1}, sender.receive(2));
+    receiving.get();
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testBothSendMoreThanWindowBeforeReceiving() throws Exception {
+    final int numParties = 2;
+    final int numMessages = 100;
+    createNetworks(numParties, 256);
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int p = 1; p <= numParties; p++) {
+      final Network channel = networks.get(p).getChannel(1);
+      final int myId = p;
+      final int otherId = numParties + 1 - p;
+      tasks.add(() -> {
+        for (int i = 0; i < numMessages; i++) {
+          byte[] data = new byte[100];
+          data[0] = (byte) myId;
+          data[1] = (byte) i;
+          channel.send(otherId, data);
+        }
+        for (int i = 0; i < numMessages; i++) {
+          byte[] data = channel.receive(otherId);
+          assertEquals(otherId, data[0]);
+          assertEquals((byte) i, data[1]);
+        }
+        return null;
+      });
+    }
+    runAll(tasks);
+  }
+
+  @Test(timeout = TIMEOUT_MILLIS)
+  public void testCloseFlushesQueuedMessages() throws Exception {
+    final int numMessages = 10;
+    final byte[] data = new byte[100];
+    createNetworks(2, 256);
+    Network sender = networks.get(1).getChannel(1);
+    Network receiver = networks.get(2).getChannel(1);
+    for (int i = 0; i < numMessages; i++) {
+      sender.send(2, data);
+    }
+    Future<?> closing = executor.submit(() -> {
+      networks.remove(1).close();
+      return null;
+    });
+    for (int i = 0; i < numMessages; i++) {
+      assertArrayEquals(data, receiver.receive(1));
+    }
+    closing.get();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testControlChannel() throws Exception {
+    createNetworks(1, MultiplexedNetwork.DEFAULT_WINDOW_SIZE);
+    networks.get(1).getChannel(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReceiveFromTooLargePartyId() throws Exception {
+    createNetworks(1, MultiplexedNetwork.DEFAULT_WINDOW_SIZE);
+    networks.get(1).getChannel(1).receive(2);
+  }
+}
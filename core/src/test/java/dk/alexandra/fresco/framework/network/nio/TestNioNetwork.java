@@ -0,0 +1,140 @@
+package dk.alexandra.fresco.framework.network.nio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.AbstractCloseableNetworkTest;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class TestNioNetwork extends AbstractCloseableNetworkTest {
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf) {
+    return newCloseableNetwork(conf, NioConnector.DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf, Duration timeout) {
+    return new NioNetwork(conf, new NioConnector(conf, timeout).getChannelMap());
+  }
+
+  private List<Map<Integer, SocketChannel>> connect(List<NetworkConfiguration> confs)
+      throws InterruptedException, ExecutionException {
+    ExecutorService es = Executors.newFixedThreadPool(confs.size());
+    try {
+      List<Future<NioConnector>> fs = new ArrayList<>(confs.size());
+      for (NetworkConfiguration conf : confs) {
+        fs.add(es.submit(() -> new NioConnector(conf, NioConnector.DEFAULT_CONNECTION_TIMEOUT)));
+      }
+      List<Map<Integer, SocketChannel>> channelMaps = new ArrayList<>(confs.size());
+      for (Future<NioConnector> f : fs) {
+        channelMaps.add(f.get().getChannelMap());
+      }
+      return channelMaps;
+    } finally {
+      es.shutdownNow();
+    }
+  }
+
+  private void closeAll(List<Map<Integer, SocketChannel>> channelMaps) throws IOException {
+    for (Map<Integer, SocketChannel> channelMap : channelMaps) {
+      for (SocketChannel channel : channelMap.values()) {
+        channel.close();
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingParty() throws Exception {
+    List<Map<Integer, SocketChannel>> channelMaps = connect(getNetConfs(3));
+    try {
+      Map<Integer, SocketChannel> missingPartyMap = new HashMap<>(channelMaps.get(0));
+      missingPartyMap.remove(2);
+      new NioNetwork(getNetConfs(3).get(0), missingPartyMap);
+    } finally {
+      closeAll(channelMaps);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testClosedChannel() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    List<Map<Integer, SocketChannel>> channelMaps = connect(confs);
+    try {
+      channelMaps.get(0).get(2).close();
+      new NioNetwork(confs.get(0), channelMaps.get(0));
+    } finally {
+      closeAll(channelMaps);
+    }
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testRemoteSignalsStop() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    List<Map<Integer, SocketChannel>> channelMaps = connect(confs);
+    CloseableNetwork network = null;
+    try {
+      network = new NioNetwork(confs.get(0), channelMaps.get(0));
+      ByteBuffer stop = ByteBuffer.allocate(Integer.BYTES);
+      stop.putInt(-1).flip();
+      channelMaps.get(1).get(1).write(stop);
+      network.receive(2);
+    } finally {
+      closeAll(channelMaps);
+      if (network != null) {
+        network.close();
+      }
+    }
+  }
+
+  @Test
+  public void testReceiveQueuedBeforeRemoteClose() throws Exception {
+    networks = createNetworks(2);
+    byte[] data = new byte[]{1, 2, 3};
+    networks.get(1).send(2, data);
+    networks.get(1).close();
+    assertArrayEquals(data, networks.get(2).receive(1));
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testCloseFlushesAndSignalsStop() throws Exception {
+    List<NetworkConfiguration> confs = getNetConfs(2);
+    List<Map<Integer, SocketChannel>> channelMaps = connect(confs);
+    try {
+      CloseableNetwork network = new NioNetwork(confs.get(0), channelMaps.get(0));
+      byte[] data = new byte[]{1, 2, 3};
+      network.send(2, data);
+      // The other party never closes its end, so close must not wait for it
+      network.close();
+      SocketChannel remote = channelMaps.get(1).get(1);
+      ByteBuffer received = ByteBuffer.allocate(Integer.BYTES + data.length + 1);
+      int read;
+      do {
+        read = remote.read(received);
+      } while (read > 0);
+      assertEquals(-1, read);
+      received.flip();
+      assertEquals(data.length, received.getInt());
+      byte[] message = new byte[data.length];
+      received.get(message);
+      assertArrayEquals(data, message);
+      assertEquals(0, received.remaining());
+    } finally {
+      closeAll(channelMaps);
+    }
+  }
+}
@@ -8,6 +8,7 @@ import static org.junit.Assert.fail;
 import dk.alexandra.fresco.framework.Application;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.ProtocolEvaluator;
+import dk.alexandra.fresco.framework.ReplayableApplication;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
@@ -19,6 +20,9 @@ import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePool;
 import dk.alexandra.fresco.suite.dummy.arithmetic.DummyArithmeticResourcePoolImpl;
 import java.math.BigInteger;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -78,6 +82,94 @@ public class TestSecureComputationEngineImpl {
     assertThat(b, is(BigInteger.valueOf(20)));
   }
 
+  @Test
+  public void testReplayApplication() {
+    AtomicInteger builds = new AtomicInteger();
+    DummyArithmeticResourcePool rp =
+        new DummyArithmeticResourcePoolImpl(0, 1, fieldDefinition);
+    for (int i = 0; i < 3; i++) {
+      BigInteger input = BigInteger.valueOf(i);
+      // a new application instance for every run, sharing the shape key
+      ReplayableApplication<SInt, BigInteger, ProtocolBuilderNumeric> app =
+          new AddMultApplication("add-mult", input, builds);
+      assertThat(sce.runApplication(app, rp, null), is(input.add(input.multiply(FOUR))));
+    }
+    assertThat(builds.get(), is(1));
+  }
+
+  @Test
+  public void testRecordingsAreEvicted() {
+    sce.shutdownSCE();
+    DummyArithmeticProtocolSuite suite =
+        new DummyArithmeticProtocolSuite(fieldDefinition, 2, 0);
+    sce = new SecureComputationEngineImpl<>(suite,
+        new BatchedProtocolEvaluator<>(new SequentialStrategy<>(), suite), 1);
+    AtomicInteger firstBuilds = new AtomicInteger();
+    AtomicInteger secondBuilds = new AtomicInteger();
+    DummyArithmeticResourcePool rp =
+        new DummyArithmeticResourcePoolImpl(0, 1, fieldDefinition);
+    sce.runApplication(new AddMultApplication("first", BigInteger.ONE, firstBuilds), rp, null);
+    sce.runApplication(new AddMultApplication("first", BigInteger.ONE, firstBuilds), rp, null);
+    sce.runApplication(new AddMultApplication("second", BigInteger.ONE, secondBuilds), rp, null);
+    sce.runApplication(new AddMultApplication("first", BigInteger.ONE, firstBuilds), rp, null);
+    assertThat(firstBuilds.get(), is(2));
+    assertThat(secondBuilds.get(), is(1));
+  }
+
+  @Test
+  public void testReplayEvaluatesProtocolsAgain() {
+    ReplayableApplication<SInt, BigInteger, ProtocolBuilderNumeric> app =
+        new ReplayableApplication<SInt, BigInteger, ProtocolBuilderNumeric>() {
+          @Override
+          public Object getShapeKey() {
+            return "random";
+          }
+
+          @Override
+          public List<DRes<SInt>> buildInputs(ProtocolBuilderNumeric builder) {
+            return Collections.emptyList();
+          }
+
+          @Override
+          public DRes<BigInteger> buildComputation(ProtocolBuilderNumeric builder,
+              List<DRes<SInt>> inputs) {
+            return builder.numeric().open(builder.numeric().randomElement());
+          }
+        };
+    Application<BigInteger, ProtocolBuilderNumeric> notRecorded =
+        builder -> builder.numeric().open(builder.numeric().randomElement());
+    DummyArithmeticResourcePool rp =
+        new DummyArithmeticResourcePoolImpl(0, 1, fieldDefinition);
+    BigInteger first = sce.runApplication(app, rp, null);
+    BigInteger replayed = sce.runApplication(app, rp, null);
+    // A fresh build uses the same randomness as the first run, whereas a replay continues it
+    assertThat(sce.runApplication(notRecorded, rp, null), is(first));
+    assertThat(replayed.equals(first), is(false));
+  }
+
+  @Test
+  public void testReadingInputWhileRecordingFails() {
+    ReplayableApplication<SInt, BigInteger, ProtocolBuilderNumeric> app =
+        new AddMultApplication("reads-input", BigInteger.ONE, new AtomicInteger()) {
+          @Override
+          public DRes<BigInteger> buildComputation(ProtocolBuilderNumeric builder,
+              List<DRes<SInt>> inputs) {
+            return builder.seq(seq -> {
+              inputs.get(0).out();
+              return seq.numeric().open(inputs.get(0));
+            });
+          }
+        };
+    DummyArithmeticResourcePool rp =
+        new DummyArithmeticResourcePoolImpl(0, 1, fieldDefinition);
+    try {
+      sce.runApplication(app, rp, null);
+      fail("Reading the input should fail");
+    } catch (RuntimeException e) {
+      assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+    }
+  }
+
   @Test(expected = RuntimeException.class)
   public void testRunApplicationAppThrows() {
     Application<Object, ProtocolBuilderNumeric> app =
@@ -104,6 +196,45 @@ public class TestSecureComputationEngineImpl {
     fail("Should not be reachable");
   }
 
+  private static final BigInteger FOUR = BigInteger.valueOf(4);
+
+  /**
+   * Computes <i>x + 4x</i> of an input <i>x</i>, counting the builds of the computation.
+   */
+  private static class AddMultApplication
+      implements ReplayableApplication<SInt, BigInteger, ProtocolBuilderNumeric> {
+
+    private final String shapeKey;
+    private final BigInteger input;
+    private final AtomicInteger builds;
+
+    AddMultApplication(String shapeKey, BigInteger input, AtomicInteger builds) {
+      this.shapeKey = shapeKey;
+      this.input = input;
+      this.builds = builds;
+    }
+
+    @Override
+    public Object getShapeKey() {
+      return shapeKey;
+    }
+
+    @Override
+    public List<DRes<SInt>> buildInputs(ProtocolBuilderNumeric builder) {
+      return Collections.singletonList(builder.numeric().known(input));
+    }
+
+    @Override
+    public DRes<BigInteger> buildComputation(ProtocolBuilderNumeric builder,
+        List<DRes<SInt>> inputs) {
+      builds.incrementAndGet();
+      DRes<SInt> x = inputs.get(0);
+      DRes<SInt> four = builder.seq(seq -> seq.numeric().known(FOUR));
+      DRes<SInt> product = builder.seq(seq -> seq.numeric().mult(x, four));
+      return builder.seq(seq -> seq.numeric().open(seq.numeric().add(x, product)));
+    }
+  }
+
   /**
    * Shuts down the SCE.
    */
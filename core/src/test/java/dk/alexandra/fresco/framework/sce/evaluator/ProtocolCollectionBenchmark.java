@@ -0,0 +1,150 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark of the batch assembly and round by round evaluation done by the
+ * {@link BatchedProtocolEvaluator} and {@link BatchedStrategy}, comparing the array backed
+ * {@link ProtocolCollectionList}, reused across batches, with a linked list backed collection
+ * allocated per batch.
+ *
+ * <p>
+ * The circuit consists of a number of gates without communication, each taking between one and
+ * three rounds, such that the benchmark measures the overhead of the collection only. Run with
+ * <code>java ... ProtocolCollectionBenchmark [gates] [batchSize] [repetitions]</code>; the
+ * throughput and the number and duration of garbage collections are printed for each
+ * repetition.
+ * </p>
+ */
+public class ProtocolCollectionBenchmark {
+
+  private static final NetworkBatchDecorator NETWORK = new NetworkBatchDecorator(1, null);
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optionally the number of gates, the batch size and the number of repetitions
+   */
+  public static void main(String[] args) {
+    int gates = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+    int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    NativeProtocol<?, ResourcePool>[] circuit = createCircuit(gates);
+    for (int i = 0; i < repetitions; i++) {
+      run("linked list", circuit, batchSize, () -> new LinkedListCollection(batchSize), false);
+      ProtocolCollectionList<ResourcePool> reused = new ProtocolCollectionList<>(batchSize);
+      run("array", circuit, batchSize, () -> reused, true);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static NativeProtocol<?, ResourcePool>[] createCircuit(int gates) {
+    NativeProtocol<?, ResourcePool>[] circuit = new NativeProtocol[gates];
+    for (int i = 0; i < gates; i++) {
+      circuit[i] = new Gate(i % 3 + 1);
+    }
+    return circuit;
+  }
+
+  private static void run(String name, NativeProtocol<?, ResourcePool>[] circuit, int batchSize,
+      Supplier<ProtocolCollection<ResourcePool>> collections, boolean clear) {
+    BatchedStrategy<ResourcePool> strategy = new BatchedStrategy<>();
+    long gcCount = getGcCount();
+    long gcTime = getGcTime();
+    long start = System.nanoTime();
+    int next = 0;
+    while (next < circuit.length) {
+      ProtocolCollection<ResourcePool> protocols = collections.get();
+      if (clear) {
+        ((ProtocolCollectionList<ResourcePool>) protocols).clear();
+      }
+      for (int i = 0; i < batchSize && next < circuit.length; i++) {
+        protocols.addProtocol(circuit[next++]);
+      }
+      strategy.processBatch(protocols, null, NETWORK);
+    }
+    long nanos = System.nanoTime() - start;
+    System.out.printf("%-12s %8.0f gates/ms, %3d garbage collections taking %4d ms%n", name,
+        circuit.length / (nanos / 1e6), getGcCount() - gcCount, getGcTime() - gcTime);
+  }
+
+  private static long getGcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, bean.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long getGcTime() {
+    long time = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      time += Math.max(0, bean.getCollectionTime());
+    }
+    return time;
+  }
+
+  /**
+   * A gate which is done after a fixed number of rounds.
+   */
+  private static final class Gate implements NativeProtocol<Void, ResourcePool> {
+
+    private final int rounds;
+
+    private Gate(int rounds) {
+      this.rounds = rounds;
+    }
+
+    @Override
+    public Void out() {
+      return null;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      return round + 1 < rounds ? EvaluationStatus.HAS_MORE_ROUNDS : EvaluationStatus.IS_DONE;
+    }
+  }
+
+  /**
+   * The linked list backed collection previously used for every batch.
+   */
+  private static final class LinkedListCollection implements ProtocolCollection<ResourcePool> {
+
+    private final int capacity;
+    private final List<NativeProtocol<?, ResourcePool>> protocols = new LinkedList<>();
+
+    private LinkedListCollection(int capacity) {
+      this.capacity = capacity;
+    }
+
+    @Override
+    public void addProtocol(NativeProtocol<?, ResourcePool> protocol) {
+      protocols.add(protocol);
+    }
+
+    @Override
+    public boolean hasFreeCapacity() {
+      return protocols.size() < capacity;
+    }
+
+    @Override
+    public int size() {
+      return protocols.size();
+    }
+
+    @Override
+    public Iterator<NativeProtocol<?, ResourcePool>> iterator() {
+      return protocols.iterator();
+    }
+  }
+}
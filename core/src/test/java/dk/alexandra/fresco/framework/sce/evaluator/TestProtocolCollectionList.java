@@ -0,0 +1,121 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.junit.Test;
+
+public class TestProtocolCollectionList {
+
+  private static final class IndexProtocol implements NativeProtocol<Integer, ResourcePool> {
+
+    private final int index;
+
+    private IndexProtocol(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public Integer out() {
+      return index;
+    }
+
+    @Override
+    public EvaluationStatus evaluate(int round, ResourcePool resourcePool, Network network) {
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  private static ProtocolCollectionList<ResourcePool> createCollection(int capacity, int size) {
+    ProtocolCollectionList<ResourcePool> collection = new ProtocolCollectionList<>(capacity);
+    for (int i = 0; i < size; i++) {
+      collection.addProtocol(new IndexProtocol(i));
+    }
+    return collection;
+  }
+
+  private static List<Object> indices(ProtocolCollectionList<ResourcePool> collection) {
+    List<Object> indices = new ArrayList<>();
+    for (NativeProtocol<?, ResourcePool> protocol : collection) {
+      indices.add(protocol.out());
+    }
+    return indices;
+  }
+
+  @Test
+  public void testCapacity() {
+    ProtocolCollectionList<ResourcePool> collection = createCollection(3, 2);
+    assertThat(collection.hasFreeCapacity(), is(true));
+    collection.addProtocol(new IndexProtocol(2));
+    assertThat(collection.hasFreeCapacity(), is(false));
+    assertThat(collection.size(), is(3));
+  }
+
+  @Test
+  public void testGrowsBeyondInitialLength() {
+    ProtocolCollectionList<ResourcePool> collection = createCollection(5000, 5000);
+    assertThat(collection.size(), is(5000));
+    assertThat(indices(collection).get(4999), is(4999));
+  }
+
+  @Test
+  public void testRemoveKeepsOrder() {
+    ProtocolCollectionList<ResourcePool> collection = createCollection(10, 10);
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = collection.iterator();
+    while (iterator.hasNext()) {
+      if ((Integer) iterator.next().out() % 3 != 1) {
+        iterator.remove();
+      }
+    }
+    assertThat(collection.size(), is(3));
+    assertThat(indices(collection), is(Arrays.asList(1, 4, 7)));
+  }
+
+  @Test
+  public void testAbandonedIteration() {
+    ProtocolCollectionList<ResourcePool> collection = createCollection(10, 6);
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = collection.iterator();
+    iterator.next();
+    iterator.remove();
+    iterator.next();
+    iterator.next();
+    iterator.remove();
+    assertThat(collection.size(), is(4));
+    collection.addProtocol(new IndexProtocol(6));
+    assertThat(indices(collection), is(Arrays.asList(1, 3, 4, 5, 6)));
+  }
+
+  @Test
+  public void testClearAndReuse() {
+    ProtocolCollectionList<ResourcePool> collection = createCollection(4, 4);
+    collection.clear();
+    assertThat(collection.size(), is(0));
+    assertThat(collection.hasFreeCapacity(), is(true));
+    collection.addProtocol(new IndexProtocol(7));
+    assertThat(indices(collection), is(Collections.singletonList(7)));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testRemoveTwice() {
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = createCollection(2, 2).iterator();
+    iterator.next();
+    iterator.remove();
+    iterator.remove();
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void testNextAfterEnd() {
+    Iterator<NativeProtocol<?, ResourcePool>> iterator = createCollection(2, 1).iterator();
+    iterator.next();
+    iterator.next();
+  }
+}
@@ -0,0 +1,193 @@
+package dk.alexandra.fresco.framework.sce.resources.storage;
+
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.sce.resources.storage.exceptions.NoMoreElementsException;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+import org.hamcrest.core.Is;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestMappedStreamedStorage {
+
+  private static final FixedLengthRecordSerializer<Long> LONG_SERIALIZER =
+      new FixedLengthRecordSerializer<Long>() {
+        @Override
+        public int getRecordLength() {
+          return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long object, ByteBuffer buffer) {
+          buffer.putLong(object);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer) {
+          return buffer.getLong();
+        }
+      };
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private String longs;
+  private String objects;
+  private Function<String, FixedLengthRecordSerializer<?>> serializers;
+
+  /**
+   * Sets up stream names in a temporary folder, using records for one of them only.
+   */
+  @Before
+  public void setup() {
+    longs = new File(folder.getRoot(), "longs").getPath();
+    objects = new File(folder.getRoot(), "objects").getPath();
+    serializers = name -> name.equals(longs) ? LONG_SERIALIZER : null;
+  }
+
+  private void putLongs(StreamedStorage storage, int count) {
+    for (long i = 0; i < count; i++) {
+      storage.putNext(longs, i);
+    }
+  }
+
+  @Test
+  public void testPutAndGetNextAcrossWindows() throws NoMoreElementsException {
+    StreamedStorage storage =
+        new MappedStreamedStorageImpl(new InMemoryStorage(), serializers, 3 * Long.BYTES + 1);
+    putLongs(storage, 100);
+    storage.shutdown();
+    for (long i = 0; i < 100; i++) {
+      Long value = storage.getNext(longs);
+      assertThat(value, Is.is(i));
+    }
+    try {
+      storage.getNext(longs);
+      fail("Should not be reachable");
+    } catch (NoMoreElementsException e) {
+      // expected
+    }
+    storage.shutdown();
+  }
+
+  @Test
+  public void testGetNextBeforeShutdown() throws NoMoreElementsException {
+    StreamedStorage storage = new MappedStreamedStorageImpl(new InMemoryStorage(), serializers);
+    putLongs(storage, 2);
+    assertThat(storage.<Long>getNext(longs), Is.is(0L));
+    storage.putNext(longs, 2L);
+    assertThat(storage.<Long>getNext(longs), Is.is(1L));
+    assertThat(storage.<Long>getNext(longs), Is.is(2L));
+    storage.shutdown();
+  }
+
+  @Test
+  public void testCursorIsPersisted() throws NoMoreElementsException {
+    StreamedStorage storage = new MappedStreamedStorageImpl(new InMemoryStorage(), serializers);
+    putLongs(storage, 10);
+    storage.shutdown();
+    for (long i = 0; i < 4; i++) {
+      assertThat(storage.<Long>getNext(longs), Is.is(i));
+    }
+    storage.shutdown();
+    StreamedStorage resumed = new MappedStreamedStorageImpl(new InMemoryStorage(), serializers);
+    for (long i = 4; i < 10; i++) {
+      assertThat(resumed.<Long>getNext(longs), Is.is(i));
+    }
+    resumed.shutdown();
+    assertThat(new File(longs + MappedStreamedStorageImpl.CURSOR_SUFFIX).exists(), Is.is(true));
+  }
+
+  @Test
+  public void testPutNextResetsCursor() throws NoMoreElementsException {
+    StreamedStorage storage = new MappedStreamedStorageImpl(new InMemoryStorage(), serializers);
+    putLongs(storage, 5);
+    storage.shutdown();
+    assertThat(storage.<Long>getNext(longs), Is.is(0L));
+    assertThat(storage.<Long>getNext(longs), Is.is(1L));
+    storage.shutdown();
+    storage.putNext(longs, 42L);
+    storage.shutdown();
+    assertThat(storage.<Long>getNext(longs), Is.is(42L));
+    storage.shutdown();
+  }
+
+  @Test
+  public void testFallbackForStreamsWithoutSerializer() throws NoMoreElementsException {
+    StreamedStorage storage = new MappedStreamedStorageImpl(new InMemoryStorage(), serializers);
+    storage.putNext(objects, "first");
+    storage.putNext(objects, "second");
+    storage.shutdown();
+    assertThat(storage.<String>getNext(objects), Is.is("first"));
+    assertThat(storage.<String>getNext(objects), Is.is("second"));
+    storage.shutdown();
+  }
+
+  @Test
+  public void testPutAndGetObject() {
+    StreamedStorage storage = new MappedStreamedStorageImpl(new InMemoryStorage(), serializers);
+    storage.putObject("test-obj", "test-key", "This is a test");
+    assertThat(storage.getObject("test-obj", "test-key"), Is.is("This is a test"));
+  }
+
+  @Test(expected = NoMoreElementsException.class)
+  public void testGetNonExisting() throws NoMoreElementsException {
+    new MappedStreamedStorageImpl(new InMemoryStorage(), serializers).getNext(longs);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongRecordLength() throws NoMoreElementsException {
+    StreamedStorage storage = new MappedStreamedStorageImpl(new InMemoryStorage(), serializers);
+    putLongs(storage, 1);
+    storage.shutdown();
+    FixedLengthRecordSerializer<Integer> intSerializer =
+        new FixedLengthRecordSerializer<Integer>() {
+          @Override
+          public int getRecordLength() {
+            return Integer.BYTES;
+          }
+
+          @Override
+          public void write(Integer object, ByteBuffer buffer) {
+            buffer.putInt(object);
+          }
+
+          @Override
+          public Integer read(ByteBuffer buffer) {
+            return buffer.getInt();
+          }
+        };
+    new MappedStreamedStorageImpl(new InMemoryStorage(), name -> intSerializer).getNext(longs);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSerializerWritingWrongLength() {
+    FixedLengthRecordSerializer<Long> badSerializer = new FixedLengthRecordSerializer<Long>() {
+      @Override
+      public int getRecordLength() {
+        return Long.BYTES;
+      }
+
+      @Override
+      public void write(Long object, ByteBuffer buffer) {
+        buffer.putInt(object.intValue());
+      }
+
+      @Override
+      public Long read(ByteBuffer buffer) {
+        return buffer.getLong();
+      }
+    };
+    new MappedStreamedStorageImpl(new InMemoryStorage(), name -> badSerializer).putNext(longs, 1L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveWindowSize() {
+    new MappedStreamedStorageImpl(new InMemoryStorage(), serializers, 0);
+  }
+}
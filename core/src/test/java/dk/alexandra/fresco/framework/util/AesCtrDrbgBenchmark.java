@@ -0,0 +1,103 @@
+package dk.alexandra.fresco.framework.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of the throughput of {@link AesCtrDrbg}.
+ *
+ * <p>
+ * Bytes are generated in requests of a given size, both into arrays, into heap and direct byte
+ * buffers and with a batch of {@value #BATCH_SIZE} DRBGs writing into one buffer, as done when
+ * expanding the seeds of an OT extension. For comparison, the allocating variant generates each
+ * request into freshly allocated arrays of at most 64 KiB, which are then copied. Run with
+ * <code>java ... AesCtrDrbgBenchmark [requestBytes] [totalMegabytes] [repetitions]</code>; the
+ * throughput in GB/s and the number and duration of garbage collections are printed for each
+ * repetition.
+ * </p>
+ */
+public class AesCtrDrbgBenchmark {
+
+  private static final int BATCH_SIZE = 128;
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optionally the size of each request in bytes, the number of megabytes to
+   *     generate per measurement and the number of repetitions
+   */
+  public static void main(String[] args) {
+    int requestBytes = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 12;
+    long totalBytes = (args.length > 1 ? Long.parseLong(args[1]) : 256) << 20;
+    int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+    int requests = (int) Math.max(1, totalBytes / requestBytes);
+    Random random = new Random(42);
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    random.nextBytes(seed);
+    List<AesCtrDrbg> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      random.nextBytes(seed);
+      batch.add(new AesCtrDrbg(seed));
+    }
+    AesCtrDrbg drbg = new AesCtrDrbg(seed);
+    byte[] bytes = new byte[requestBytes];
+    ByteBuffer heap = ByteBuffer.allocate(requestBytes);
+    ByteBuffer direct = ByteBuffer.allocateDirect(requestBytes);
+    ByteBuffer batchBuffer = ByteBuffer.allocate(BATCH_SIZE * requestBytes);
+    for (int i = 0; i < repetitions; i++) {
+      run("allocating", requests, requestBytes, () -> {
+        for (int j = 0; j < requestBytes; j += 1 << 16) {
+          int length = Math.min(1 << 16, requestBytes - j);
+          byte[] output = new byte[length];
+          drbg.nextBytes(output);
+          System.arraycopy(output, 0, bytes, j, length);
+        }
+      });
+      run("array", requests, requestBytes, () -> drbg.nextBytes(bytes));
+      run("heap", requests, requestBytes, () -> {
+        heap.clear();
+        drbg.nextBytes(heap);
+      });
+      run("direct", requests, requestBytes, () -> {
+        direct.clear();
+        drbg.nextBytes(direct);
+      });
+      run("batch", Math.max(1, requests / BATCH_SIZE), BATCH_SIZE * requestBytes, () -> {
+        batchBuffer.clear();
+        AesCtrDrbg.nextBytes(batch, batchBuffer, requestBytes);
+      });
+    }
+  }
+
+  private static void run(String name, int requests, int requestBytes, Runnable request) {
+    long gcCount = getGcCount();
+    long gcTime = getGcTime();
+    long start = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      request.run();
+    }
+    long nanos = System.nanoTime() - start;
+    System.out.printf("%-10s %6.3f GB/s, %3d garbage collections taking %4d ms%n", name,
+        (double) requests * requestBytes / nanos, getGcCount() - gcCount, getGcTime() - gcTime);
+  }
+
+  private static long getGcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, bean.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long getGcTime() {
+    long time = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      time += Math.max(0, bean.getCollectionTime());
+    }
+    return time;
+  }
+}
@@ -3,8 +3,14 @@ package dk.alexandra.fresco.framework.util;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import org.hamcrest.core.IsEqual;
 import org.hamcrest.core.IsNot;
 import org.junit.Assert;
@@ -63,12 +69,6 @@ public class TestAesCtrDrbg {
     drbg.incrementReseedCounter(-1);
   }
 
-  @Test(expected = IllegalArgumentException.class)
-  public void testNextBytesBounded() {
-    AesCtrDrbg drbg = new AesCtrDrbg(new byte[32]);
-    drbg.nextBytesBounded(new byte[20], new byte[10]);
-  }
-
   @Test
   public void testNextBytesEqualSeed() {
     Random rand = new Random(42);
@@ -131,4 +131,92 @@ public class TestAesCtrDrbg {
 
   }
 
+  @Test
+  public void testNextBytesIsAesCtr() throws Exception {
+    Random rand = new Random(42);
+    final byte[] seed = new byte[32];
+    rand.nextBytes(seed);
+    Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+    cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Arrays.copyOf(seed, 16), "AES"),
+        new IvParameterSpec(Arrays.copyOfRange(seed, 16, 32)));
+    byte[] expected = cipher.doFinal(new byte[1000]);
+    byte[] bytes = new byte[1000];
+    new AesCtrDrbg(seed).nextBytes(bytes);
+    assertArrayEquals(expected, bytes);
+  }
+
+  @Test
+  public void testNextBytesWithOffsetAndBuffers() {
+    Random rand = new Random(42);
+    final byte[] seed = new byte[32];
+    rand.nextBytes(seed);
+    int[] lengths = {1, 15, 1000, (1 << 16) + 3, 1 << 16, 40000, (1 << 17) + 17};
+    int total = Arrays.stream(lengths).sum();
+    byte[] expected = new byte[total];
+    AesCtrDrbg reference = new AesCtrDrbg(seed);
+    int offset = 0;
+    for (int length : lengths) {
+      byte[] bytes = new byte[length];
+      reference.nextBytes(bytes);
+      System.arraycopy(bytes, 0, expected, offset, length);
+      offset += length;
+    }
+    byte[] withOffsets = new byte[total + 5];
+    AesCtrDrbg drbg = new AesCtrDrbg(seed);
+    offset = 5;
+    for (int length : lengths) {
+      drbg.nextBytes(withOffsets, offset, length);
+      offset += length;
+    }
+    assertArrayEquals(expected, Arrays.copyOfRange(withOffsets, 5, total + 5));
+    for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(total),
+        ByteBuffer.allocateDirect(total)}) {
+      drbg = new AesCtrDrbg(seed);
+      for (int length : lengths) {
+        buffer.limit(buffer.position() + length);
+        drbg.nextBytes(buffer);
+        Assert.assertEquals(buffer.limit(), buffer.position());
+      }
+      buffer.flip();
+      byte[] actual = new byte[total];
+      buffer.get(actual);
+      assertArrayEquals(expected, actual);
+    }
+  }
+
+  @Test
+  public void testNextBytesBatch() {
+    Random rand = new Random(42);
+    List<AesCtrDrbg> drbgs = new ArrayList<>();
+    List<AesCtrDrbg> references = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      final byte[] seed = new byte[32];
+      rand.nextBytes(seed);
+      drbgs.add(new AesCtrDrbg(seed));
+      references.add(new AesCtrDrbg(seed));
+    }
+    final int length = 100;
+    ByteBuffer buffer = ByteBuffer.allocate(drbgs.size() * length + 1);
+    buffer.put((byte) 1);
+    AesCtrDrbg.nextBytes(drbgs, buffer, length);
+    Assert.assertEquals(buffer.capacity(), buffer.position());
+    for (int i = 0; i < references.size(); i++) {
+      byte[] expected = new byte[length];
+      references.get(i).nextBytes(expected);
+      assertArrayEquals(expected,
+          Arrays.copyOfRange(buffer.array(), 1 + i * length, 1 + (i + 1) * length));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNextBytesBatchShortBuffer() {
+    AesCtrDrbg.nextBytes(Arrays.asList(new AesCtrDrbg(), new AesCtrDrbg()),
+        ByteBuffer.allocate(15), 8);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testNextBytesOutOfBounds() {
+    new AesCtrDrbg().nextBytes(new byte[10], 5, 6);
+  }
+
 }
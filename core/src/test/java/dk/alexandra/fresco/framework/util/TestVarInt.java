@@ -0,0 +1,53 @@
+package dk.alexandra.fresco.framework.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link VarInt} class.
+ */
+public class TestVarInt {
+
+  @Test
+  public void writeSmallValues() {
+    ByteBuffer buffer = ByteBuffer.allocate(VarInt.MAX_BYTES);
+    VarInt.write(buffer, 127);
+    Assert.assertEquals(1, buffer.position());
+    Assert.assertEquals(127, buffer.get(0));
+  }
+
+  @Test
+  public void writeLargeValues() {
+    ByteBuffer buffer = ByteBuffer.allocate(VarInt.MAX_BYTES);
+    VarInt.write(buffer, 300);
+    Assert.assertArrayEquals(new byte[]{(byte) 0xAC, 0x02},
+        Arrays.copyOf(buffer.array(), buffer.position()));
+  }
+
+  @Test
+  public void roundTrip() {
+    int[] values = {0, 1, 127, 128, 16383, 16384, 1 << 21, Integer.MAX_VALUE};
+    ByteBuffer buffer = ByteBuffer.allocate(values.length * VarInt.MAX_BYTES);
+    for (int value : values) {
+      int before = buffer.position();
+      VarInt.write(buffer, value);
+      Assert.assertEquals(VarInt.encodedLength(value), buffer.position() - before);
+    }
+    buffer.flip();
+    for (int value : values) {
+      Assert.assertEquals(value, VarInt.read(buffer));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void writeNegative() {
+    VarInt.write(ByteBuffer.allocate(VarInt.MAX_BYTES), -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void readMalformed() {
+    VarInt.read(ByteBuffer.wrap(new byte[]{-1, -1, -1, -1, -1, 1}));
+  }
+}
@@ -0,0 +1,92 @@
+package dk.alexandra.fresco.lib.collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.Collections;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.value.SInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test class for the MultList computation.
+ */
+public class MultListTests {
+
+  /**
+   * Multiplies two empty lists. Checks that the result is empty.
+   */
+  public static class TestMultEmptyList<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() throws Exception {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = root -> {
+            List<DRes<SInt>> empty = new ArrayList<>();
+            Collections collections = root.collections();
+            DRes<List<DRes<SInt>>> products = collections.multList(() -> empty, () -> empty);
+            DRes<List<DRes<BigInteger>>> opened = collections.openList(products);
+            return () -> opened.out().stream().map(DRes::out).collect(Collectors.toList());
+          };
+          List<BigInteger> output = runApplication(testApplication);
+          assertTrue(output.isEmpty());
+        }
+      };
+    }
+  }
+
+  /**
+   * Closes two lists input by different parties, multiplies them and opens the products. Checks
+   * that the products are the element-wise products of the inputs.
+   */
+  public static class TestMultList<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() throws Exception {
+          int numInputs = 50;
+          List<BigInteger> left = new ArrayList<>();
+          List<BigInteger> right = new ArrayList<>();
+          List<BigInteger> expected = new ArrayList<>();
+          for (int i = 0; i < numInputs; i++) {
+            left.add(BigInteger.valueOf(i));
+            right.add(BigInteger.valueOf(3 * i + 7));
+            expected.add(left.get(i).multiply(right.get(i)));
+          }
+          Application<List<BigInteger>, ProtocolBuilderNumeric> testApplication = root -> {
+            Collections collections = root.collections();
+            int myId = root.getBasicNumericContext().getMyId();
+            DRes<List<DRes<SInt>>> closedLeft = myId == 1
+                ? collections.closeList(left, 1)
+                : collections.closeList(numInputs, 1);
+            DRes<List<DRes<SInt>>> closedRight = myId == 2
+                ? collections.closeList(right, 2)
+                : collections.closeList(numInputs, 2);
+            DRes<List<DRes<SInt>>> products = collections.multList(closedLeft, closedRight);
+            DRes<List<DRes<BigInteger>>> opened = collections.openList(products);
+            return () -> opened.out().stream().map(DRes::out).collect(Collectors.toList());
+          };
+          List<BigInteger> output = runApplication(testApplication);
+          assertThat(output, is(expected));
+        }
+      };
+    }
+  }
+}
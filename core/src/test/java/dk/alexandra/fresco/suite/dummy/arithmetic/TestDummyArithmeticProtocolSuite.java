@@ -7,6 +7,7 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.ExponentiationPipeTests;
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.framework.util.ModulusFinder;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.arithmetic.AdvancedNumericTests.TestMinInfFrac;
@@ -16,6 +17,7 @@ import dk.alexandra.fresco.lib.arithmetic.ParallelAndSequenceTests.TestSumAndPro
 import dk.alexandra.fresco.lib.arithmetic.SearchingTests;
 import dk.alexandra.fresco.lib.arithmetic.SortingTests;
 import dk.alexandra.fresco.lib.collections.Matrix;
+import dk.alexandra.fresco.lib.collections.MultListTests;
 import dk.alexandra.fresco.lib.collections.io.CloseListTests;
 import dk.alexandra.fresco.lib.collections.io.CloseMatrixTests;
 import dk.alexandra.fresco.lib.collections.permute.PermuteRows;
@@ -102,6 +104,20 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new TestSumAndProduct<>(), new TestParameters());
   }
 
+  @Test
+  public void testLotsMultParallelBatched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void testLotsMultPipelinedBatched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED));
+  }
+
   @Test
   public void test_MinInfFrac_Sequential() {
     runTest(new TestMinInfFrac<>(), new TestParameters());
@@ -285,6 +301,30 @@ public class TestDummyArithmeticProtocolSuite extends AbstractDummyArithmeticTes
     runTest(new CloseListTests.TestCloseEmptyList<>(), new TestParameters().numParties(2));
   }
 
+  @Test
+  public void testCloseAndOpenListParallelBatched() {
+    runTest(new CloseListTests.TestCloseAndOpenList<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void testCloseAndOpenListParallelBatchedThreeParties() {
+    runTest(new CloseListTests.TestCloseAndOpenList<>(), new TestParameters()
+        .numParties(3)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void test_mult_empty_list() {
+    runTest(new MultListTests.TestMultEmptyList<>(), new TestParameters().numParties(2));
+  }
+
+  @Test
+  public void test_mult_list() {
+    runTest(new MultListTests.TestMultList<>(), new TestParameters().numParties(2));
+  }
+
   @Test
   public void test_close_empty_matrix() {
     runTest(new CloseMatrixTests.TestCloseEmptyMatrix<>(), new TestParameters().numParties(2));
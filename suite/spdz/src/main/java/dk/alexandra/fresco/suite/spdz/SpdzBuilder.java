@@ -2,6 +2,7 @@ package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.Collections;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
@@ -139,6 +140,11 @@ class SpdzBuilder implements BuilderFactoryNumeric {
     };
   }
 
+  @Override
+  public Collections createCollections(ProtocolBuilderNumeric protocolBuilder) {
+    return new SpdzCollections(protocolBuilder);
+  }
+
   @Override
   public MiscBigIntegerGenerators getBigIntegerHelper() {
     if (miscOIntGenerators == null) {
@@ -0,0 +1,46 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.DefaultCollections;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzInputListProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzMultListProtocol;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputToAllListProtocol;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Collections for the SPDZ protocol suite, which input, open and multiply lists using native
+ * protocols handling the whole list at once.
+ */
+class SpdzCollections extends DefaultCollections {
+
+  private final ProtocolBuilderNumeric builder;
+
+  SpdzCollections(ProtocolBuilderNumeric builder) {
+    super(builder);
+    this.builder = builder;
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> closeList(List<BigInteger> openList, int inputParty) {
+    return builder.append(new SpdzInputListProtocol(openList, inputParty));
+  }
+
+  @Override
+  public DRes<List<DRes<SInt>>> closeList(int numberOfInputs, int inputParty) {
+    return builder.append(new SpdzInputListProtocol(numberOfInputs, inputParty));
+  }
+
+  @Override
+  public <T extends DRes<SInt>> DRes<List<DRes<BigInteger>>> openList(DRes<List<T>> closedList) {
+    return builder.append(new SpdzOutputToAllListProtocol(closedList));
+  }
+
+  @Override
+  public <T extends DRes<SInt>> DRes<List<DRes<SInt>>> multList(DRes<List<T>> left,
+      DRes<List<T>> right) {
+    return builder.append(new SpdzMultListProtocol(left, right));
+  }
+}
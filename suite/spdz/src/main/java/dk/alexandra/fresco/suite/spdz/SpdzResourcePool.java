@@ -2,8 +2,10 @@ package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.builder.numeric.NumericResourcePool;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.suite.spdz.configuration.OpeningStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import java.security.MessageDigest;
@@ -40,4 +42,24 @@ public interface SpdzResourcePool extends NumericResourcePool {
    * multiplication triples.
    */
   SpdzDataSupplier getDataSupplier();
+
+  /**
+   * Returns the strategy used to open secret shared values.
+   */
+  OpeningStrategy getOpeningStrategy();
+
+  /**
+   * Returns the id of the party acting as king in the next opening when using
+   * {@link OpeningStrategy#KING}, rotating among the parties. All parties must call this for the
+   * same openings in the same order.
+   */
+  int getNextKingId();
+
+  /**
+   * Returns the network used to run MAC checks asynchronously, overlapping with the evaluation of
+   * the following batches, or null if the MAC checks are run on the network of the computation.
+   * The network must connect the same parties as the network of the computation, and must not be
+   * used for anything else.
+   */
+  Network getMacCheckNetwork();
 }
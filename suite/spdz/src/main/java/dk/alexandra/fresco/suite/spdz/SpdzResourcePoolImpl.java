@@ -2,10 +2,12 @@ package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.suite.spdz.configuration.OpeningStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
 import java.security.MessageDigest;
@@ -16,6 +18,9 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
   private final OpenedValueStore<SpdzSInt, FieldElement> openedValueStore;
   private final SpdzDataSupplier dataSupplier;
   private final Drbg drbg;
+  private final OpeningStrategy openingStrategy;
+  private final Network macCheckNetwork;
+  private int nextKingId;
 
   /**
    * Construct a ResourcePool implementation suitable for the spdz protocol suite.
@@ -24,10 +29,45 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
    * @param noOfPlayers The amount of parties
    * @param openedValueStore Store for maintaining opened values for later mac check
    * @param dataSupplier Pre-processing material supplier
+   * @param drbg The joint random generator
    */
   public SpdzResourcePoolImpl(int myId, int noOfPlayers,
       OpenedValueStore<SpdzSInt, FieldElement> openedValueStore, SpdzDataSupplier dataSupplier,
       Drbg drbg) {
+    this(myId, noOfPlayers, openedValueStore, dataSupplier, drbg, OpeningStrategy.BROADCAST);
+  }
+
+  /**
+   * Construct a ResourcePool implementation suitable for the spdz protocol suite.
+   *
+   * @param myId The id of the party
+   * @param noOfPlayers The amount of parties
+   * @param openedValueStore Store for maintaining opened values for later mac check
+   * @param dataSupplier Pre-processing material supplier
+   * @param drbg The joint random generator
+   * @param openingStrategy The strategy used to open secret shared values
+   */
+  public SpdzResourcePoolImpl(int myId, int noOfPlayers,
+      OpenedValueStore<SpdzSInt, FieldElement> openedValueStore, SpdzDataSupplier dataSupplier,
+      Drbg drbg, OpeningStrategy openingStrategy) {
+    this(myId, noOfPlayers, openedValueStore, dataSupplier, drbg, openingStrategy, null);
+  }
+
+  /**
+   * Construct a ResourcePool implementation suitable for the spdz protocol suite.
+   *
+   * @param myId The id of the party
+   * @param noOfPlayers The amount of parties
+   * @param openedValueStore Store for maintaining opened values for later mac check
+   * @param dataSupplier Pre-processing material supplier
+   * @param drbg The joint random generator
+   * @param openingStrategy The strategy used to open secret shared values
+   * @param macCheckNetwork A separate network on which mac checks are run asynchronously, or
+   *     null to run mac checks on the network of the computation
+   */
+  public SpdzResourcePoolImpl(int myId, int noOfPlayers,
+      OpenedValueStore<SpdzSInt, FieldElement> openedValueStore, SpdzDataSupplier dataSupplier,
+      Drbg drbg, OpeningStrategy openingStrategy, Network macCheckNetwork) {
     super(myId, noOfPlayers);
     this.dataSupplier = dataSupplier;
     this.openedValueStore = openedValueStore;
@@ -36,6 +76,9 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
         "Configuration error, SHA-256 is needed for Spdz");
     // Initialize various fields global to the computation.
     this.drbg = drbg;
+    this.openingStrategy = openingStrategy;
+    this.macCheckNetwork = macCheckNetwork;
+    this.nextKingId = 1;
   }
 
   @Override
@@ -65,4 +108,21 @@ public class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResour
     }
     return drbg;
   }
+
+  @Override
+  public OpeningStrategy getOpeningStrategy() {
+    return openingStrategy;
+  }
+
+  @Override
+  public int getNextKingId() {
+    int kingId = nextKingId;
+    nextKingId = kingId % getNoOfParties() + 1;
+    return kingId;
+  }
+
+  @Override
+  public Network getMacCheckNetwork() {
+    return macCheckNetwork;
+  }
 }
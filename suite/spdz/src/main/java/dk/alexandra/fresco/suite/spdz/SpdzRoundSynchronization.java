@@ -8,16 +8,33 @@ import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
 import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMacCheckProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzOutputProtocol;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.StreamSupport;
 
 /**
  * A default implementation of the round synchronization for spdz - mostly doing the MAC check if
  * needed.
+ *
+ * <p>
+ * If the resource pool has a {@link SpdzResourcePool#getMacCheckNetwork() MAC check network}, the
+ * MAC checks are run asynchronously on that network, one at a time and in order, while the
+ * evaluation continues with the following batches. Only the checks forced by the threshold of
+ * opened values run in the background. Before and after a batch containing output protocols, and
+ * when the evaluation finishes, all running MAC checks are awaited, such that no output is
+ * released before the values opened ahead of it and by it have been checked.
+ * </p>
  */
 public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResourcePool> {
 
@@ -28,6 +45,8 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   private final SecureRandom secRand;
   private boolean isCheckRequired = false;
   private final int batchSize;
+  private final Deque<Future<?>> runningChecks = new ArrayDeque<>();
+  private ExecutorService executor;
 
   /**
    * Creates new {@link SpdzRoundSynchronization}.
@@ -53,32 +72,113 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   }
 
   protected void doMacCheck(SpdzResourcePool resourcePool, Network network) {
+    evaluate(createMacCheck(resourcePool, resourcePool.getMessageDigest()), resourcePool, network);
+  }
+
+  private SpdzMacCheckProtocol createMacCheck(SpdzResourcePool resourcePool,
+      MessageDigest digest) {
+    OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
+    return new SpdzMacCheckProtocol(secRand,
+        digest,
+        store.popValues(),
+        resourcePool.getModulus(),
+        resourcePool.getRandomGenerator(),
+        resourcePool.getDataSupplier().getSecretSharedKey());
+  }
+
+  private void evaluate(SpdzMacCheckProtocol macCheck, SpdzResourcePool resourcePool,
+      Network network) {
     SpdzBuilder spdzBuilder = new SpdzBuilder(
         spdzProtocolSuite.createNumericContext(resourcePool),
         spdzProtocolSuite.createRealNumericContext());
     BatchEvaluationStrategy<SpdzResourcePool> batchStrategy = new BatchedStrategy<>();
     BatchedProtocolEvaluator<SpdzResourcePool> evaluator =
         new BatchedProtocolEvaluator<>(batchStrategy, spdzProtocolSuite, batchSize);
-    OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
-    SpdzMacCheckProtocol macCheck = new SpdzMacCheckProtocol(secRand,
-        resourcePool.getMessageDigest(),
-        store.popValues(),
-        resourcePool.getModulus(),
-        resourcePool.getRandomGenerator(),
-        resourcePool.getDataSupplier().getSecretSharedKey());
     ProtocolBuilderNumeric sequential = spdzBuilder.createSequential();
     macCheck.buildComputation(sequential);
     evaluator.eval(sequential.build(), resourcePool, network);
   }
 
+  private void macCheck(SpdzResourcePool resourcePool, Network network) {
+    Network macCheckNetwork = resourcePool.getMacCheckNetwork();
+    if (macCheckNetwork == null) {
+      doMacCheck(resourcePool, network);
+    } else {
+      startMacCheck(resourcePool, macCheckNetwork);
+    }
+  }
+
+  /**
+   * Takes the opened values from the store and checks them on a separate thread. The check uses a
+   * resource pool of its own, such that it does not share the message digest or the opened value
+   * store with the protocols evaluated meanwhile.
+   */
+  private void startMacCheck(SpdzResourcePool resourcePool, Network macCheckNetwork) {
+    checkFinishedMacChecks();
+    SpdzResourcePool checkResourcePool = new SpdzResourcePoolImpl(resourcePool.getMyId(),
+        resourcePool.getNoOfParties(), new OpenedValueStoreImpl<>(),
+        resourcePool.getDataSupplier(), resourcePool.getRandomGenerator());
+    SpdzMacCheckProtocol macCheck =
+        createMacCheck(resourcePool, checkResourcePool.getMessageDigest());
+    if (executor == null) {
+      executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SPDZ MAC check");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    runningChecks.add(executor.submit(() -> evaluate(macCheck, checkResourcePool,
+        macCheckNetwork)));
+  }
+
+  /**
+   * Rethrows the failure of any MAC check which has finished.
+   */
+  private void checkFinishedMacChecks() {
+    while (!runningChecks.isEmpty() && runningChecks.peek().isDone()) {
+      awaitMacCheck(runningChecks.poll());
+    }
+  }
+
+  private void awaitMacChecks() {
+    while (!runningChecks.isEmpty()) {
+      awaitMacCheck(runningChecks.poll());
+    }
+  }
+
+  private void awaitMacCheck(Future<?> check) {
+    try {
+      check.get();
+    } catch (InterruptedException e) {
+      shutdown();
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for MAC check", e);
+    } catch (ExecutionException e) {
+      shutdown();
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("MAC check failed", e.getCause());
+    }
+  }
+
+  private void shutdown() {
+    runningChecks.clear();
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+  }
+
   @Override
   public void finishedBatch(int gatesEvaluated, SpdzResourcePool resourcePool, Network network) {
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
     if (isCheckRequired) {
-      doMacCheck(resourcePool, network);
+      macCheck(resourcePool, network);
+      awaitMacChecks();
       isCheckRequired = false;
     } else if (store.exceedsThreshold(openValueThreshold)) {
-      doMacCheck(resourcePool, network);
+      macCheck(resourcePool, network);
       isCheckRequired = false;
     }
   }
@@ -87,19 +187,25 @@ public class SpdzRoundSynchronization implements RoundSynchronization<SpdzResour
   public void finishedEval(SpdzResourcePool resourcePool, Network network) {
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
     if (store.hasPendingValues()) {
-      doMacCheck(resourcePool, network);
+      macCheck(resourcePool, network);
     }
+    awaitMacChecks();
+    shutdown();
   }
 
   @Override
   public void beforeBatch(
       ProtocolCollection<SpdzResourcePool> protocols, SpdzResourcePool resourcePool,
       Network network) {
+    checkFinishedMacChecks();
     isCheckRequired = StreamSupport.stream(protocols.spliterator(), false)
         .anyMatch(p -> p instanceof SpdzOutputProtocol);
     OpenedValueStore<SpdzSInt, FieldElement> store = resourcePool.getOpenedValueStore();
     if (store.hasPendingValues() && isCheckRequired) {
-      doMacCheck(resourcePool, network);
+      macCheck(resourcePool, network);
+    }
+    if (isCheckRequired) {
+      awaitMacChecks();
     }
   }
 
@@ -0,0 +1,20 @@
+package dk.alexandra.fresco.suite.spdz.configuration;
+
+/**
+ * Determines how the SPDZ suite opens secret shared values, e.g. in multiplications and outputs.
+ */
+public enum OpeningStrategy {
+
+  /**
+   * Every party sends its share to every other party, such that a value is opened in a single
+   * round using a quadratic number of messages in the number of parties.
+   */
+  BROADCAST,
+  /**
+   * Every party sends its share to a king, which reconstructs the value and sends it back to all
+   * parties. The king rotates among the parties from one opening to the next. This uses a linear
+   * number of messages in the number of parties, at the cost of an extra round. An inconsistent
+   * value sent by a malicious king is caught by the MAC check.
+   */
+  KING
+}
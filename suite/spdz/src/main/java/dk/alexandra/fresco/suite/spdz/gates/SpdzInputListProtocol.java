@@ -0,0 +1,120 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inputs a list of values from a single party as a single native protocol.
+ *
+ * <p>
+ * This is the same as a {@link SpdzInputProtocol} for each value, except that the inputting party
+ * sends all the masked values in a single packed message, and the broadcast validation is done
+ * once for the whole message.
+ * </p>
+ */
+public class SpdzInputListProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final List<BigInteger> inputs;
+  private final int numberOfInputs;
+  private final int inputter;
+  private List<SpdzInputMask> inputMasks;
+  private FieldElementVector valuesMasked;
+  private byte[] digest;
+  private List<DRes<SInt>> out;
+
+  /**
+   * Creates a new protocol inputting the given values, which must be called by the inputting party.
+   *
+   * @param inputs the values to input
+   * @param inputter the id of the inputting party
+   */
+  public SpdzInputListProtocol(List<BigInteger> inputs, int inputter) {
+    this(inputs, inputs.size(), inputter);
+  }
+
+  /**
+   * Creates a new protocol receiving the given number of inputs, which must be called by all
+   * parties other than the inputting party.
+   *
+   * @param numberOfInputs the number of values input
+   * @param inputter the id of the inputting party
+   */
+  public SpdzInputListProtocol(int numberOfInputs, int inputter) {
+    this(null, numberOfInputs, inputter);
+  }
+
+  private SpdzInputListProtocol(List<BigInteger> inputs, int numberOfInputs, int inputter) {
+    this.inputs = inputs;
+    this.numberOfInputs = numberOfInputs;
+    this.inputter = inputter;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    int myId = spdzResourcePool.getMyId();
+    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+    FieldDefinition definition = spdzResourcePool.getFieldDefinition();
+    if (round == 0) {
+      if (numberOfInputs == 0) {
+        out = Collections.emptyList();
+        return EvaluationStatus.IS_DONE;
+      }
+      inputMasks = new ArrayList<>(numberOfInputs);
+      for (int i = 0; i < numberOfInputs; i++) {
+        inputMasks.add(dataSupplier.getNextInputMask(inputter));
+      }
+      if (myId == inputter) {
+        if (inputs == null) {
+          throw new IllegalStateException("The inputting party must supply the inputs");
+        }
+        List<FieldElement> masked = new ArrayList<>(numberOfInputs);
+        for (int i = 0; i < numberOfInputs; i++) {
+          masked.add(definition.createElement(inputs.get(i))
+              .subtract(inputMasks.get(i).getRealValue()));
+        }
+        network.sendToAll(definition.serialize(masked));
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else if (round == 1) {
+      byte[] receivedBytes = network.receive(inputter);
+      valuesMasked = definition.deserializeVector(ByteBuffer.wrap(receivedBytes), numberOfInputs);
+      digest = sendBroadcastValidation(spdzResourcePool.getMessageDigest(), network,
+          receivedBytes);
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      boolean validated = receiveBroadcastValidation(network, digest);
+      if (!validated) {
+        throw new MaliciousException("Broadcast digests did not match");
+      }
+      FieldElement secretSharedKey = dataSupplier.getSecretSharedKey();
+      out = new ArrayList<>(numberOfInputs);
+      for (int i = 0; i < numberOfInputs; i++) {
+        FieldElement valueMasked = valuesMasked.get(i);
+        SpdzSInt valueMaskedElement =
+            new SpdzSInt(valueMasked, secretSharedKey.multiply(valueMasked));
+        out.add(inputMasks.get(i).getMask().add(valueMaskedElement, myId));
+      }
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return out;
+  }
+}
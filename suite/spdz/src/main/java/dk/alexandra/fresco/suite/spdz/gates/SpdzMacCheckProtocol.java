@@ -13,6 +13,7 @@ import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -58,22 +59,16 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
     return builder
         .seq(seq -> {
           FieldDefinition fieldDefinition = builder.getBasicNumericContext().getFieldDefinition();
-          FieldElement[] rs = sampleRandomCoefficients(openedValues.size(), fieldDefinition);
-          FieldElement a = fieldDefinition.createElement(0);
-          int index = 0;
-          for (FieldElement openedValue : openedValues) {
-            FieldElement openedValueHidden = openedValue.multiply(rs[index++]);
-            a = a.add(openedValueHidden);
-          }
+          List<FieldElement> rs = sampleRandomCoefficients(openedValues.size(), fieldDefinition);
+          FieldElement a = fieldDefinition.innerProduct(openedValues, rs);
 
           // compute gamma_i as the sum of all MAC's on the opened values times
           // r_j.
-          FieldElement gamma = fieldDefinition.createElement(0);
-          index = 0;
+          List<FieldElement> macs = new ArrayList<>(closedValues.size());
           for (SpdzSInt closedValue : closedValues) {
-            FieldElement closedValueHidden = rs[index++].multiply(closedValue.getMac());
-            gamma = gamma.add(closedValueHidden);
+            macs.add(closedValue.getMac());
           }
+          FieldElement gamma = fieldDefinition.innerProduct(rs, macs);
 
           // compute delta_i as: gamma_i - alpha_i*a
           FieldElement delta = gamma.subtract(alpha.multiply(a));
@@ -105,13 +100,13 @@ public class SpdzMacCheckProtocol implements Computation<Void, ProtocolBuilderNu
         });
   }
 
-  private FieldElement[] sampleRandomCoefficients(int numCoefficients,
+  private List<FieldElement> sampleRandomCoefficients(int numCoefficients,
       FieldDefinition fieldDefinition) {
-    FieldElement[] coefficients = new FieldElement[numCoefficients];
+    List<FieldElement> coefficients = new ArrayList<>(numCoefficients);
     for (int i = 0; i < numCoefficients; i++) {
       byte[] bytes = new byte[modulus.bitLength() / Byte.SIZE];
       jointDrbg.nextBytes(bytes);
-      coefficients[i] = fieldDefinition.createElement(new BigInteger(bytes));
+      coefficients.add(fieldDefinition.createElement(new BigInteger(bytes)));
     }
     return coefficients;
   }
@@ -0,0 +1,104 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multiplies two lists of secret values element-wise as a single native protocol.
+ *
+ * <p>
+ * This is the same as a {@link SpdzMultProtocol} for each pair of factors, except that all the
+ * differences to the triples are opened using a single packed message per party and round.
+ * </p>
+ */
+public class SpdzMultListProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final DRes<? extends List<? extends DRes<SInt>>> left;
+  private final DRes<? extends List<? extends DRes<SInt>>> right;
+  private List<SpdzTriple> triples;
+  private List<SpdzSInt> epsilons;
+  private List<SpdzSInt> deltas;
+  private SpdzOpening opening;
+  private List<DRes<SInt>> out;
+
+  /**
+   * Creates a new protocol multiplying the given lists, which must have the same size.
+   *
+   * @param left the left factors
+   * @param right the right factors
+   */
+  public <T extends DRes<SInt>> SpdzMultListProtocol(DRes<List<T>> left, DRes<List<T>> right) {
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+    if (round == 0) {
+      List<? extends DRes<SInt>> leftOut = left.out();
+      List<? extends DRes<SInt>> rightOut = right.out();
+      if (leftOut.size() != rightOut.size()) {
+        throw new IllegalArgumentException(
+            "Lists must have the same size, was " + leftOut.size() + " and " + rightOut.size());
+      }
+      if (leftOut.isEmpty()) {
+        out = Collections.emptyList();
+        return EvaluationStatus.IS_DONE;
+      }
+      int size = leftOut.size();
+      triples = new ArrayList<>(size);
+      epsilons = new ArrayList<>(size);
+      deltas = new ArrayList<>(size);
+      List<FieldElement> shares = new ArrayList<>(2 * size);
+      for (int i = 0; i < size; i++) {
+        SpdzTriple triple = dataSupplier.getNextTriple();
+        SpdzSInt epsilon = ((SpdzSInt) leftOut.get(i).out()).subtract(triple.getA());
+        SpdzSInt delta = ((SpdzSInt) rightOut.get(i).out()).subtract(triple.getB());
+        triples.add(triple);
+        epsilons.add(epsilon);
+        deltas.add(delta);
+        shares.add(epsilon.getShare());
+        shares.add(delta.getShare());
+      }
+      opening = new SpdzOpening(shares);
+    }
+    if (!opening.evaluate(round, spdzResourcePool, network)) {
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    }
+    FieldElement secretSharedKey = dataSupplier.getSecretSharedKey();
+    OpenedValueStore<SpdzSInt, FieldElement> openedValueStore =
+        spdzResourcePool.getOpenedValueStore();
+    int myId = spdzResourcePool.getMyId();
+    out = new ArrayList<>(triples.size());
+    for (int i = 0; i < triples.size(); i++) {
+      SpdzTriple triple = triples.get(i);
+      FieldElement e = opening.getOpened(2 * i);
+      FieldElement d = opening.getOpened(2 * i + 1);
+      FieldElement product = e.multiply(d);
+      SpdzSInt ed = new SpdzSInt(product, secretSharedKey.multiply(product));
+      out.add(triple.getC().add(triple.getB().multiply(e))
+          .add(triple.getA().multiply(d))
+          .add(ed, myId));
+      openedValueStore.pushOpenedValue(epsilons.get(i), e);
+      openedValueStore.pushOpenedValue(deltas.get(i), d);
+    }
+    return EvaluationStatus.IS_DONE;
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return out;
+  }
+}
@@ -3,7 +3,6 @@ package dk.alexandra.fresco.suite.spdz.gates;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
-import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
@@ -18,6 +17,7 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
   private SpdzTriple triple;
   private SpdzSInt epsilon;  // my share of the differences [x]-[a]
   private SpdzSInt delta;  // and [y]-[b].
+  private SpdzOpening opening;
 
   public SpdzMultProtocol(DRes<SInt> left, DRes<SInt> right) {
     this.left = left;
@@ -28,48 +28,35 @@ public class SpdzMultProtocol extends SpdzNativeProtocol<SInt> {
   public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
       Network network) {
     SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
-    int noOfPlayers = spdzResourcePool.getNoOfParties();
-    ByteSerializer<FieldElement> serializer = spdzResourcePool.getFieldDefinition();
     if (round == 0) {
       this.triple = dataSupplier.getNextTriple();
 
       epsilon = ((SpdzSInt) left.out()).subtract(triple.getA());
       delta = ((SpdzSInt) right.out()).subtract(triple.getB());
 
-      network.sendToAll(epsilon.serializeShare(serializer));
-      network.sendToAll(delta.serializeShare(serializer));
+      opening = new SpdzOpening(epsilon.getShare(), delta.getShare());
+    }
+    if (!opening.evaluate(round, spdzResourcePool, network)) {
       return EvaluationStatus.HAS_MORE_ROUNDS;
-    } else {
-      FieldElement[] epsilonShares = new FieldElement[noOfPlayers];
-      FieldElement[] deltaShares = new FieldElement[noOfPlayers];
-      for (int i = 0; i < noOfPlayers; i++) {
-        epsilonShares[i] = serializer.deserialize(network.receive(i + 1));
-        deltaShares[i] = serializer.deserialize(network.receive(i + 1));
-      }
-
-      FieldElement e = epsilonShares[0];
-      FieldElement d = deltaShares[0];
-      for (int i = 1; i < epsilonShares.length; i++) {
-        e = e.add(epsilonShares[i]);
-        d = d.add(deltaShares[i]);
-      }
+    }
+    FieldElement e = opening.getOpened(0);
+    FieldElement d = opening.getOpened(1);
 
-      FieldElement product = e.multiply(d);
-      FieldElement mac = dataSupplier.getSecretSharedKey().multiply(product);
+    FieldElement product = e.multiply(d);
+    FieldElement mac = dataSupplier.getSecretSharedKey().multiply(product);
 
-      SpdzSInt ed = new SpdzSInt(
-          product,
-          mac
-      );
-      SpdzSInt res = triple.getC();
-      out = res.add(triple.getB().multiply(e))
-          .add(triple.getA().multiply(d))
-          .add(ed, spdzResourcePool.getMyId());
-      // Set the opened and closed value.
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(epsilon, e);
-      spdzResourcePool.getOpenedValueStore().pushOpenedValue(delta, d);
-      return EvaluationStatus.IS_DONE;
-    }
+    SpdzSInt ed = new SpdzSInt(
+        product,
+        mac
+    );
+    SpdzSInt res = triple.getC();
+    out = res.add(triple.getB().multiply(e))
+        .add(triple.getA().multiply(d))
+        .add(ed, spdzResourcePool.getMyId());
+    // Set the opened and closed value.
+    spdzResourcePool.getOpenedValueStore().pushOpenedValue(epsilon, e);
+    spdzResourcePool.getOpenedValueStore().pushOpenedValue(delta, d);
+    return EvaluationStatus.IS_DONE;
   }
 
   @Override
@@ -0,0 +1,105 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.configuration.OpeningStrategy;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Opens a number of secret shared values as part of a native protocol, using the
+ * {@link OpeningStrategy} of the resource pool.
+ *
+ * <p>
+ * The opening is driven by calling {@link #evaluate(int, SpdzResourcePool, Network)} with the
+ * rounds of the protocol, starting from round 0, until it returns true. Using
+ * {@link OpeningStrategy#BROADCAST} this takes two rounds, and using {@link OpeningStrategy#KING}
+ * three rounds. The shares are sent as a single packed message, such that opening many values
+ * costs one message per party and round.
+ * </p>
+ */
+class SpdzOpening {
+
+  private final List<FieldElement> shares;
+  private FieldElementVector opened;
+  private OpeningStrategy strategy;
+  private int kingId;
+
+  /**
+   * Creates a new opening of the given shares.
+   *
+   * @param shares this party's shares of the values to open
+   */
+  SpdzOpening(FieldElement... shares) {
+    this(Arrays.asList(shares));
+  }
+
+  /**
+   * Creates a new opening of the given shares.
+   *
+   * @param shares this party's shares of the values to open
+   */
+  SpdzOpening(List<FieldElement> shares) {
+    this.shares = shares;
+  }
+
+  /**
+   * Evaluates a round of the opening.
+   *
+   * @param round the round, starting from 0
+   * @param resourcePool the resource pool
+   * @param network the network
+   * @return true if the values are opened, false if more rounds are needed
+   */
+  boolean evaluate(int round, SpdzResourcePool resourcePool, Network network) {
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    if (round == 0) {
+      strategy = resourcePool.getOpeningStrategy();
+      if (strategy == OpeningStrategy.KING) {
+        kingId = resourcePool.getNextKingId();
+        network.send(kingId, definition.serialize(shares));
+      } else {
+        network.sendToAll(definition.serialize(shares));
+      }
+      return false;
+    } else if (strategy == OpeningStrategy.BROADCAST) {
+      receiveAndAdd(resourcePool, network, definition);
+      return true;
+    } else if (round == 1) {
+      if (resourcePool.getMyId() == kingId) {
+        receiveAndAdd(resourcePool, network, definition);
+        network.sendToAll(definition.serialize(opened.toList()));
+      }
+      return false;
+    } else {
+      opened = receive(network, definition, kingId);
+      return true;
+    }
+  }
+
+  private void receiveAndAdd(SpdzResourcePool resourcePool, Network network,
+      FieldDefinition definition) {
+    opened = receive(network, definition, 1);
+    for (int partyId = 2; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      opened = opened.add(receive(network, definition, partyId));
+    }
+  }
+
+  private FieldElementVector receive(Network network, FieldDefinition definition, int partyId) {
+    return definition.deserializeVector(ByteBuffer.wrap(network.receive(partyId)), shares.size());
+  }
+
+  /**
+   * Gets an opened value.
+   *
+   * @param index the index of the value among the shares given to the constructor
+   * @return the opened value
+   */
+  FieldElement getOpened(int index) {
+    return opened.get(index);
+  }
+}
@@ -0,0 +1,75 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Opens a list of secret values to all parties as a single native protocol, using a single packed
+ * message per party and round.
+ */
+public class SpdzOutputToAllListProtocol extends SpdzNativeProtocol<List<DRes<BigInteger>>>
+    implements SpdzOutputProtocol {
+
+  private final DRes<? extends List<? extends DRes<SInt>>> in;
+  private List<SpdzSInt> values;
+  private SpdzOpening opening;
+  private List<DRes<BigInteger>> out;
+
+  /**
+   * Creates a new protocol opening the given list.
+   *
+   * @param in the values to open
+   */
+  public <T extends DRes<SInt>> SpdzOutputToAllListProtocol(DRes<List<T>> in) {
+    this.in = in;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    if (round == 0) {
+      List<? extends DRes<SInt>> inOut = in.out();
+      if (inOut.isEmpty()) {
+        out = Collections.emptyList();
+        return EvaluationStatus.IS_DONE;
+      }
+      values = new ArrayList<>(inOut.size());
+      List<FieldElement> shares = new ArrayList<>(inOut.size());
+      for (DRes<SInt> value : inOut) {
+        SpdzSInt spdzValue = (SpdzSInt) value.out();
+        values.add(spdzValue);
+        shares.add(spdzValue.getShare());
+      }
+      opening = new SpdzOpening(shares);
+    }
+    if (!opening.evaluate(round, spdzResourcePool, network)) {
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    }
+    FieldDefinition definition = spdzResourcePool.getFieldDefinition();
+    OpenedValueStore<SpdzSInt, FieldElement> openedValueStore =
+        spdzResourcePool.getOpenedValueStore();
+    out = new ArrayList<>(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      FieldElement openedValue = opening.getOpened(i);
+      openedValueStore.pushOpenedValue(values.get(i), openedValue);
+      BigInteger value = definition.convertToUnsigned(openedValue);
+      out.add(() -> value);
+    }
+    return EvaluationStatus.IS_DONE;
+  }
+
+  @Override
+  public List<DRes<BigInteger>> out() {
+    return out;
+  }
+}
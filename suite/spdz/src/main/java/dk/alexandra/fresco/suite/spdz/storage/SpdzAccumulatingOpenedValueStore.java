@@ -0,0 +1,106 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link OpenedValueStore} for Spdz using constant memory, regardless of the number of values
+ * opened between two mac checks.
+ *
+ * <p>
+ * Instead of keeping the opened values, each value is folded into a random linear combination as
+ * it arrives, using coefficients sampled from a joint random generator. The mac check computes
+ * such a combination of the values anyway, so checking the combination, which is returned as a
+ * single authenticated value and its opening by {@link #popValues()}, is equivalent to checking
+ * the values it consists of. The random generator must be seeded identically by all parties and
+ * must not be used for anything else, such that the parties sample the same coefficients.
+ * </p>
+ */
+public class SpdzAccumulatingOpenedValueStore implements OpenedValueStore<SpdzSInt, FieldElement> {
+
+  private final FieldDefinition definition;
+  private final Drbg jointDrbg;
+  private final byte[] coefficientBytes;
+  private FieldElement share;
+  private FieldElement mac;
+  private FieldElement opened;
+  private int count;
+
+  /**
+   * Creates a new empty store.
+   *
+   * @param definition the field definition of the values
+   * @param jointDrbg a random generator seeded identically by all parties
+   */
+  public SpdzAccumulatingOpenedValueStore(FieldDefinition definition, Drbg jointDrbg) {
+    this.definition = definition;
+    this.jointDrbg = jointDrbg;
+    this.coefficientBytes = new byte[definition.getModulus().bitLength() / Byte.SIZE];
+    reset();
+  }
+
+  private void reset() {
+    share = definition.createElement(0);
+    mac = definition.createElement(0);
+    opened = definition.createElement(0);
+    count = 0;
+  }
+
+  @Override
+  public void pushOpenedValues(List<SpdzSInt> newSharesWithMacs,
+      List<FieldElement> newOpenedValues) {
+    if (newSharesWithMacs.size() != newOpenedValues.size()) {
+      throw new IllegalArgumentException("Number of authenticated values "
+          + newSharesWithMacs.size() + " does not match number of opened values "
+          + newOpenedValues.size());
+    }
+    for (int i = 0; i < newSharesWithMacs.size(); i++) {
+      pushOpenedValue(newSharesWithMacs.get(i), newOpenedValues.get(i));
+    }
+  }
+
+  @Override
+  public void pushOpenedValue(SpdzSInt newShareWithMac, FieldElement newOpenedValue) {
+    jointDrbg.nextBytes(coefficientBytes);
+    FieldElement coefficient = definition.createElement(new BigInteger(coefficientBytes));
+    share = share.add(coefficient.multiply(newShareWithMac.getShare()));
+    mac = mac.add(coefficient.multiply(newShareWithMac.getMac()));
+    opened = opened.add(coefficient.multiply(newOpenedValue));
+    count++;
+  }
+
+  /**
+   * Retrieves the random linear combination of the values pushed since the last call.
+   *
+   * @return a pair of lists, which are empty if no values were pushed, and otherwise hold the
+   *     combination of the authenticated values and the combination of the open values
+   */
+  @Override
+  public Pair<List<SpdzSInt>, List<FieldElement>> popValues() {
+    List<SpdzSInt> sharesWithMacs = new ArrayList<>(1);
+    List<FieldElement> openValues = new ArrayList<>(1);
+    if (count > 0) {
+      sharesWithMacs.add(new SpdzSInt(share, mac));
+      openValues.add(opened);
+      reset();
+    }
+    return new Pair<>(sharesWithMacs, openValues);
+  }
+
+  @Override
+  public boolean hasPendingValues() {
+    return count > 0;
+  }
+
+  @Override
+  public boolean exceedsThreshold(int threshold) {
+    return count > threshold;
+  }
+}
@@ -0,0 +1,85 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.multiplex.MultiplexedNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The threads of a data supplier which generates preprocessed material in the background, along
+ * with the resources used by them, such as the network of the MASCOT instances.
+ */
+final class SpdzBackgroundPreprocessing implements Closeable {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private final ExecutorService executor;
+  private final Closeable resources;
+
+  /**
+   * Creates a new fixed size pool of daemon threads.
+   *
+   * @param threadName the name of the threads
+   * @param numThreads the number of threads
+   * @param resources the resources to close along with the threads
+   */
+  SpdzBackgroundPreprocessing(String threadName, int numThreads, Closeable resources) {
+    this.resources = resources;
+    this.executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+      Thread thread = new Thread(runnable, threadName);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  void execute(Runnable task) {
+    executor.execute(task);
+  }
+
+  <T> Future<T> submit(Callable<T> task) {
+    return executor.submit(task);
+  }
+
+  /**
+   * Stops the threads and closes the resources used by them.
+   */
+  @Override
+  public void close() throws IOException {
+    executor.shutdownNow();
+    resources.close();
+  }
+
+  /**
+   * Creates a MASCOT instance which communicates over the given channel of a multiplexed network,
+   * uses the channel id as its instance id and has its own randomness seeded from the given drbg.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param network the multiplexed network
+   * @param channelId the channel used by the instance
+   * @param modBitLength bit length of modulus
+   * @param fieldDefinition field definition
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness, used to seed the randomness of the instance
+   * @param ssk mac key share
+   * @param batchSize the number of elements produced by the instance at a time
+   */
+  static SpdzMascotDataSupplier createMascotInstance(int myId, int numberOfPlayers,
+      MultiplexedNetwork network, int channelId, int modBitLength,
+      FieldDefinition fieldDefinition, Map<Integer, RotList> seedOts, Drbg drbg, FieldElement ssk,
+      int batchSize) {
+    byte[] seed = new byte[PRG_SEED_LENGTH / Byte.SIZE];
+    drbg.nextBytes(seed);
+    return new SpdzMascotDataSupplier(myId, numberOfPlayers, channelId,
+        () -> network.getChannel(channelId), fieldDefinition, modBitLength, PRG_SEED_LENGTH,
+        batchSize, ssk, seedOts, AesCtrDrbgFactory.fromDerivedSeed(seed));
+  }
+}
@@ -21,8 +21,8 @@ import dk.alexandra.fresco.tools.ot.otextension.RotList;
 import java.security.SecureRandom;
 import java.util.ArrayDeque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,13 +38,13 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
   private final int numberOfPlayers;
   private final Supplier<Network> tripleNetwork;
   private final FieldDefinition fieldDefinition;
-  private final Function<Integer, SpdzSInt[]> preprocessedValues;
   private final FieldElement ssk;
 
   private final ArrayDeque<MultiplicationTriple> triples;
   private final Map<Integer, ArrayDeque<InputMask>> masks;
   private final ArrayDeque<AuthenticatedElement> randomElements;
   private final ArrayDeque<AuthenticatedElement> randomBits;
+  private final ArrayDeque<List<AuthenticatedElement>> expPipes;
   private final int prgSeedLength;
   private final int modBitLength;
   private final int batchSize;
@@ -61,7 +61,6 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
    * @param tripleNetwork network supplier for network to be used by Mascot instance
    * @param fieldDefinition field definition
    * @param modBitLength bit length of modulus
-   * @param preprocessedValues callback to generate exponentiation pipes
    * @param prgSeedLength bit length of prg
    * @param batchSize batch size in which Mascot will generate pre-processed material
    * @param ssk mac key share
@@ -70,14 +69,13 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
    */
   public SpdzMascotDataSupplier(int myId, int numberOfPlayers, int instanceId,
       Supplier<Network> tripleNetwork, FieldDefinition fieldDefinition, int modBitLength,
-      Function<Integer, SpdzSInt[]> preprocessedValues, int prgSeedLength, int batchSize,
-      FieldElement ssk, Map<Integer, RotList> seedOts, Drbg drbg) {
+      int prgSeedLength, int batchSize, FieldElement ssk, Map<Integer, RotList> seedOts,
+      Drbg drbg) {
     this.myId = myId;
     this.numberOfPlayers = numberOfPlayers;
     this.instanceId = instanceId;
     this.tripleNetwork = tripleNetwork;
     this.fieldDefinition = fieldDefinition;
-    this.preprocessedValues = preprocessedValues;
     this.triples = new ArrayDeque<>();
     this.masks = new HashMap<>();
     for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
@@ -85,6 +83,7 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     }
     this.randomElements = new ArrayDeque<>();
     this.randomBits = new ArrayDeque<>();
+    this.expPipes = new ArrayDeque<>();
     this.prgSeedLength = prgSeedLength;
     this.modBitLength = modBitLength;
     this.batchSize = batchSize;
@@ -98,11 +97,10 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
    */
   public static SpdzMascotDataSupplier createSimpleSupplier(int myId, int numberOfPlayers,
       Supplier<Network> tripleNetwork, int modBitLength, FieldDefinition fieldDefinition,
-      Function<Integer, SpdzSInt[]> preprocessedValues,
       Map<Integer, RotList> seedOts, Drbg drbg, FieldElement ssk) {
     int prgSeedLength = 256;
     return new SpdzMascotDataSupplier(myId, numberOfPlayers, 1, tripleNetwork, fieldDefinition,
-        modBitLength, preprocessedValues, prgSeedLength, 16, ssk, seedOts, drbg);
+        modBitLength, prgSeedLength, 16, ssk, seedOts, drbg);
   }
 
   /**
@@ -141,10 +139,14 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
 
   @Override
   public SpdzSInt[] getNextExpPipe() {
-    logger.trace("Getting another exp pipe");
-    SpdzSInt[] pipe = preprocessedValues.apply(modBitLength);
-    logger.trace("Got another exp pipe");
-    return pipe;
+    ensureInitialized();
+    if (expPipes.isEmpty()) {
+      logger.trace("Getting another exp pipe batch");
+      expPipes.addAll(mascot.getExponentiationPipes(batchSize, modBitLength));
+      logger.trace("Got another exp pipe batch");
+    }
+    return expPipes.pop().stream().map(MascotFormatConverter::toSpdzSInt)
+        .toArray(SpdzSInt[]::new);
   }
 
   @Override
@@ -0,0 +1,213 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.multiplex.MultiplexedNetwork;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier which generates preprocessed material using several independent instances of
+ * another supplier in parallel, such that the throughput of the preprocessing scales with the
+ * number of available cores.
+ *
+ * <p>
+ * Whenever a type of material runs out, each instance produces <code>batchSize</code> elements on
+ * a thread of its own, and the batches are queued in the order of the instances. Since neither the
+ * number of elements produced nor their order depends on the timing of the instances, all parties
+ * consume the same material in the same order. For MASCOT, each instance should have its own
+ * network channel, randomness and instance id, as set up by
+ * {@link #createMascotSupplier(int, int, CloseableNetwork, int, int, FieldDefinition, Map, Drbg,
+ * FieldElement, int)}. The field definition and the mac key share are taken from the first
+ * instance on the calling thread.
+ * </p>
+ */
+public class SpdzParallelDataSupplier implements SpdzDataSupplier, Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SpdzParallelDataSupplier.class);
+  private final List<SpdzDataSupplier> instances;
+  private final int batchSize;
+  private final SpdzBackgroundPreprocessing background;
+  private final ArrayDeque<SpdzTriple> triples;
+  private final Map<Integer, ArrayDeque<SpdzInputMask>> masks;
+  private final ArrayDeque<SpdzSInt> randomElements;
+  private final ArrayDeque<SpdzSInt> bits;
+  private final ArrayDeque<SpdzSInt[]> expPipes;
+
+  /**
+   * Creates a new parallel supplier.
+   *
+   * @param instances the independent instances generating the material
+   * @param numberOfPlayers the number of parties
+   * @param batchSize the number of elements produced by each instance at a time
+   */
+  public SpdzParallelDataSupplier(List<SpdzDataSupplier> instances, int numberOfPlayers,
+      int batchSize) {
+    this(instances, numberOfPlayers, batchSize, () -> {
+    });
+  }
+
+  private SpdzParallelDataSupplier(List<SpdzDataSupplier> instances, int numberOfPlayers,
+      int batchSize, Closeable resources) {
+    if (instances.isEmpty()) {
+      throw new IllegalArgumentException("At least one instance is needed");
+    }
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    this.instances = new ArrayList<>(instances);
+    this.batchSize = batchSize;
+    this.background =
+        new SpdzBackgroundPreprocessing("SpdzParallel", instances.size(), resources);
+    this.triples = new ArrayDeque<>();
+    this.masks = new HashMap<>();
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      masks.put(partyId, new ArrayDeque<>());
+    }
+    this.randomElements = new ArrayDeque<>();
+    this.bits = new ArrayDeque<>();
+    this.expPipes = new ArrayDeque<>();
+  }
+
+  /**
+   * Creates a parallel supplier generating the preprocessed material using independent MASCOT
+   * instances. Instance <code>i</code> communicates over channel <code>i</code> of a
+   * {@link MultiplexedNetwork} on the given network, which is closed along with the supplier, uses
+   * <code>i</code> as its instance id and has its own randomness derived from the given
+   * <code>drbg</code>. Instances are numbered from 1.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param network network used for the preprocessing only
+   * @param numInstances number of MASCOT instances to run in parallel
+   * @param modBitLength bit length of modulus
+   * @param fieldDefinition field definition
+   * @param seedOts pre-computed base OTs, shared by the instances
+   * @param drbg source of randomness, used to seed the randomness of each MASCOT instance
+   * @param ssk mac key share
+   * @param batchSize the number of elements produced by each instance at a time
+   */
+  public static SpdzParallelDataSupplier createMascotSupplier(int myId, int numberOfPlayers,
+      CloseableNetwork network, int numInstances, int modBitLength,
+      FieldDefinition fieldDefinition, Map<Integer, RotList> seedOts, Drbg drbg,
+      FieldElement ssk, int batchSize) {
+    MultiplexedNetwork multiplexed = new MultiplexedNetwork(network);
+    List<SpdzDataSupplier> instances = new ArrayList<>(numInstances);
+    for (int instanceId = 1; instanceId <= numInstances; instanceId++) {
+      instances.add(SpdzBackgroundPreprocessing.createMascotInstance(myId, numberOfPlayers,
+          multiplexed, instanceId, modBitLength, fieldDefinition, seedOts, drbg, ssk, batchSize));
+    }
+    return new SpdzParallelDataSupplier(instances, numberOfPlayers, batchSize, multiplexed);
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    if (triples.isEmpty()) {
+      fill(triples, SpdzDataSupplier::getNextTriple);
+    }
+    return triples.pop();
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    if (expPipes.isEmpty()) {
+      fill(expPipes, SpdzDataSupplier::getNextExpPipe);
+    }
+    return expPipes.pop();
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardPlayerId) {
+    ArrayDeque<SpdzInputMask> inputMasks = masks.get(towardPlayerId);
+    if (inputMasks.isEmpty()) {
+      fill(inputMasks, instance -> instance.getNextInputMask(towardPlayerId));
+    }
+    return inputMasks.pop();
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    if (bits.isEmpty()) {
+      fill(bits, SpdzDataSupplier::getNextBit);
+    }
+    return bits.pop();
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return instances.get(0).getFieldDefinition();
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return instances.get(0).getSecretSharedKey();
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    if (randomElements.isEmpty()) {
+      fill(randomElements, SpdzDataSupplier::getNextRandomFieldElement);
+    }
+    return randomElements.pop();
+  }
+
+  /**
+   * Stops the instance threads and closes the network used by them, if any.
+   */
+  @Override
+  public void close() throws IOException {
+    background.close();
+  }
+
+  /**
+   * Lets every instance produce a batch in parallel and adds the batches to the queue in the order
+   * of the instances.
+   */
+  private <T> void fill(ArrayDeque<T> queue, Function<SpdzDataSupplier, T> producer) {
+    logger.trace("Getting another batch from {} instances", instances.size());
+    List<Future<List<T>>> batches = new ArrayList<>(instances.size());
+    for (SpdzDataSupplier instance : instances) {
+      batches.add(background.submit(() -> {
+        List<T> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+          batch.add(producer.apply(instance));
+        }
+        return batch;
+      }));
+    }
+    for (Future<List<T>> batch : batches) {
+      queue.addAll(await(batch));
+    }
+    logger.trace("Got another batch from {} instances", instances.size());
+  }
+
+  private <T> T await(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for preprocessed material", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Preprocessing failed", e.getCause());
+    }
+  }
+}
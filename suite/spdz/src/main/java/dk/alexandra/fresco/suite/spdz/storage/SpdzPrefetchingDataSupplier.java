@@ -0,0 +1,257 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.multiplex.MultiplexedNetwork;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier which prefetches preprocessed material on background threads, such that the
+ * online computation does not wait for the preprocessing unless the material is consumed faster
+ * than it is produced.
+ *
+ * <p>
+ * Triples, random elements, bits and the input masks toward each party are each produced by a
+ * background thread using a delegate supplier of their own, which for MASCOT means a
+ * {@link SpdzMascotDataSupplier} with its own network channel. Each thread keeps a queue of at
+ * most <code>highWatermark</code> elements. The queue is initially filled completely, and once it
+ * has been drained to <code>lowWatermark</code> elements, the thread produces
+ * <code>highWatermark - lowWatermark</code> new elements. Since the number of elements produced at
+ * a time does not depend on the timing of the consumption, all parties run the same preprocessing
+ * protocols in the same order. Exponentiation pipes, the field definition and the mac key share
+ * are taken from an online delegate on the calling thread.
+ * </p>
+ */
+public class SpdzPrefetchingDataSupplier implements SpdzDataSupplier, Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(SpdzPrefetchingDataSupplier.class);
+  private static final int TRIPLE_CHANNEL = 1;
+  private static final int RANDOM_ELEMENT_CHANNEL = 2;
+  private static final int BIT_CHANNEL = 3;
+  private static final int INPUT_MASK_CHANNEL_OFFSET = 3;
+
+  private final SpdzDataSupplier onlineSupplier;
+  private final int highWatermark;
+  private final int refillSize;
+  private final SpdzBackgroundPreprocessing background;
+  private final PrefetchQueue<SpdzTriple> triples;
+  private final PrefetchQueue<SpdzSInt> randomElements;
+  private final PrefetchQueue<SpdzSInt> bits;
+  private final Map<Integer, PrefetchQueue<SpdzInputMask>> inputMasks;
+
+  /**
+   * Creates a new prefetching supplier and starts the background threads.
+   *
+   * <p>
+   * The background delegates are created on the calling thread in the order of their channel ids:
+   * 1 for triples, 2 for random elements, 3 for bits and <code>3 + partyId</code> for input masks
+   * toward the party with the given id. Each delegate is only used by its own background thread.
+   * </p>
+   *
+   * @param onlineSupplier the supplier of exponentiation pipes, field definition and mac key share
+   * @param backgroundSuppliers creates the delegate for a given channel id
+   * @param numberOfPlayers the number of parties
+   * @param lowWatermark the queue size at which new elements are produced
+   * @param highWatermark the maximum queue size
+   */
+  public SpdzPrefetchingDataSupplier(SpdzDataSupplier onlineSupplier,
+      IntFunction<SpdzDataSupplier> backgroundSuppliers, int numberOfPlayers, int lowWatermark,
+      int highWatermark) {
+    this(onlineSupplier, backgroundSuppliers, numberOfPlayers, lowWatermark, highWatermark,
+        () -> {
+        });
+  }
+
+  private SpdzPrefetchingDataSupplier(SpdzDataSupplier onlineSupplier,
+      IntFunction<SpdzDataSupplier> backgroundSuppliers, int numberOfPlayers, int lowWatermark,
+      int highWatermark, Closeable resources) {
+    if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+      throw new IllegalArgumentException("Watermarks must satisfy 0 <= low < high, was "
+          + lowWatermark + " and " + highWatermark);
+    }
+    this.onlineSupplier = onlineSupplier;
+    this.highWatermark = highWatermark;
+    this.refillSize = highWatermark - lowWatermark;
+    this.background = new SpdzBackgroundPreprocessing("SpdzPrefetching",
+        INPUT_MASK_CHANNEL_OFFSET + numberOfPlayers, resources);
+    SpdzDataSupplier tripleSupplier = backgroundSuppliers.apply(TRIPLE_CHANNEL);
+    this.triples = startProducer(lowWatermark, tripleSupplier::getNextTriple);
+    SpdzDataSupplier randomElementSupplier = backgroundSuppliers.apply(RANDOM_ELEMENT_CHANNEL);
+    this.randomElements =
+        startProducer(lowWatermark, randomElementSupplier::getNextRandomFieldElement);
+    SpdzDataSupplier bitSupplier = backgroundSuppliers.apply(BIT_CHANNEL);
+    this.bits = startProducer(lowWatermark, bitSupplier::getNextBit);
+    this.inputMasks = new HashMap<>();
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      int towardsPlayerId = partyId;
+      SpdzDataSupplier maskSupplier =
+          backgroundSuppliers.apply(INPUT_MASK_CHANNEL_OFFSET + partyId);
+      inputMasks.put(partyId, startProducer(lowWatermark,
+          () -> maskSupplier.getNextInputMask(towardsPlayerId)));
+    }
+  }
+
+  /**
+   * Creates a prefetching supplier generating the preprocessed material using MASCOT. The
+   * background threads communicate over logical channels of a {@link MultiplexedNetwork} on the
+   * given network, which is closed along with the supplier. Each MASCOT instance generates
+   * <code>highWatermark - lowWatermark</code> elements at a time.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param network network used for the preprocessing only
+   * @param modBitLength bit length of modulus
+   * @param fieldDefinition field definition
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness, used to seed the randomness of each MASCOT instance
+   * @param ssk mac key share
+   * @param lowWatermark the queue size at which new elements are produced
+   * @param highWatermark the maximum queue size
+   */
+  public static SpdzPrefetchingDataSupplier createMascotSupplier(int myId, int numberOfPlayers,
+      CloseableNetwork network, int modBitLength, FieldDefinition fieldDefinition,
+      Map<Integer, RotList> seedOts, Drbg drbg, FieldElement ssk, int lowWatermark,
+      int highWatermark) {
+    int batchSize = highWatermark - lowWatermark;
+    MultiplexedNetwork multiplexed = new MultiplexedNetwork(network);
+    SpdzDataSupplier onlineSupplier = SpdzBackgroundPreprocessing.createMascotInstance(myId,
+        numberOfPlayers, multiplexed, INPUT_MASK_CHANNEL_OFFSET + numberOfPlayers + 1,
+        modBitLength, fieldDefinition, seedOts, drbg, ssk, batchSize);
+    IntFunction<SpdzDataSupplier> backgroundSuppliers = channelId ->
+        SpdzBackgroundPreprocessing.createMascotInstance(myId, numberOfPlayers, multiplexed,
+            channelId, modBitLength, fieldDefinition, seedOts, drbg, ssk, batchSize);
+    return new SpdzPrefetchingDataSupplier(onlineSupplier, backgroundSuppliers, numberOfPlayers,
+        lowWatermark, highWatermark, multiplexed);
+  }
+
+  private <T> PrefetchQueue<T> startProducer(int lowWatermark, Supplier<T> producer) {
+    PrefetchQueue<T> queue = new PrefetchQueue<>(lowWatermark);
+    background.execute(() -> {
+      try {
+        int count = highWatermark;
+        while (true) {
+          queue.awaitLowWatermark();
+          for (int i = 0; i < count; i++) {
+            queue.add(producer.get());
+          }
+          count = refillSize;
+        }
+      } catch (InterruptedException e) {
+        queue.fail(new IllegalStateException("Prefetching was stopped", e));
+      } catch (RuntimeException e) {
+        logger.error("Prefetching of preprocessed material failed", e);
+        queue.fail(e);
+      }
+    });
+    return queue;
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return triples.take();
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    return onlineSupplier.getNextExpPipe();
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardPlayerId) {
+    return inputMasks.get(towardPlayerId).take();
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return bits.take();
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return onlineSupplier.getFieldDefinition();
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return onlineSupplier.getSecretSharedKey();
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return randomElements.take();
+  }
+
+  /**
+   * Stops the background threads and closes the network used by them, if any.
+   */
+  @Override
+  public void close() throws IOException {
+    background.close();
+  }
+
+  /**
+   * A queue of prefetched elements, which a producer refills once it has been drained to the low
+   * watermark.
+   */
+  private static final class PrefetchQueue<T> {
+
+    private final ArrayDeque<T> elements;
+    private final int lowWatermark;
+    private RuntimeException failure;
+
+    private PrefetchQueue(int lowWatermark) {
+      this.elements = new ArrayDeque<>();
+      this.lowWatermark = lowWatermark;
+    }
+
+    private synchronized void add(T element) {
+      elements.add(element);
+      notifyAll();
+    }
+
+    private synchronized void fail(RuntimeException failure) {
+      this.failure = failure;
+      notifyAll();
+    }
+
+    private synchronized void awaitLowWatermark() throws InterruptedException {
+      while (elements.size() > lowWatermark) {
+        wait();
+      }
+    }
+
+    private synchronized T take() {
+      while (elements.isEmpty()) {
+        if (failure != null) {
+          throw new IllegalStateException("No more preprocessed material available", failure);
+        }
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting for preprocessed material",
+              e);
+        }
+      }
+      T element = elements.pop();
+      if (elements.size() <= lowWatermark) {
+        notifyAll();
+      }
+      return element;
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
+import dk.alexandra.fresco.framework.sce.resources.storage.FixedLengthRecordSerializer;
+import dk.alexandra.fresco.framework.sce.resources.storage.MappedStreamedStorageImpl;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Fixed length record serializers for the preprocessed material read by the
+ * {@link SpdzStorageDataSupplier}, for use with a {@link MappedStreamedStorageImpl}.
+ *
+ * <p>
+ * Triples, bits and input masks are stored as records of field elements in the serialized format
+ * of the given field definition, which must have the same modulus as the one stored in the
+ * {@link SpdzStorageDataSupplier#MODULUS_KEY} stream. All other streams, i.e., the modulus, the
+ * secret shared key and the exponentiation pipes, are stored using Java serialization.
+ * </p>
+ */
+public final class SpdzRecordSerializers {
+
+  private static final Pattern INPUT_STREAM =
+      Pattern.compile(".*" + SpdzStorageDataSupplier.INPUT_STORAGE + "\\d+");
+
+  private SpdzRecordSerializers() {
+    // Should not be instantiated
+  }
+
+  /**
+   * Creates a function giving the record serializers for the streams of the
+   * {@link SpdzStorageDataSupplier}.
+   *
+   * @param definition the field definition of the preprocessed material
+   * @return a function from stream names to record serializers, giving null for streams not
+   *     stored as records
+   */
+  public static Function<String, FixedLengthRecordSerializer<?>> forDefinition(
+      FieldDefinition definition) {
+    int elementLength = definition.serialize(definition.createElement(0)).length;
+    FixedLengthRecordSerializer<SpdzTriple> triples = new TripleSerializer(definition,
+        elementLength);
+    FixedLengthRecordSerializer<SpdzSInt> bits = new SIntSerializer(definition, elementLength);
+    FixedLengthRecordSerializer<SpdzInputMask> inputMasks = new InputMaskSerializer(definition,
+        elementLength);
+    return name -> {
+      if (name.endsWith(SpdzStorageDataSupplier.TRIPLE_STORAGE)) {
+        return triples;
+      } else if (name.endsWith(SpdzStorageDataSupplier.BIT_STORAGE)) {
+        return bits;
+      } else if (INPUT_STREAM.matcher(name).matches()) {
+        return inputMasks;
+      } else {
+        return null;
+      }
+    };
+  }
+
+  private static void writeElements(FieldDefinition definition, ByteBuffer buffer,
+      FieldElement... elements) {
+    definition.createVector(Arrays.asList(elements)).serialize(buffer);
+  }
+
+  private static final class TripleSerializer implements FixedLengthRecordSerializer<SpdzTriple> {
+
+    private final FieldDefinition definition;
+    private final int elementLength;
+
+    private TripleSerializer(FieldDefinition definition, int elementLength) {
+      this.definition = definition;
+      this.elementLength = elementLength;
+    }
+
+    @Override
+    public int getRecordLength() {
+      return 6 * elementLength;
+    }
+
+    @Override
+    public void write(SpdzTriple triple, ByteBuffer buffer) {
+      writeElements(definition, buffer,
+          triple.getA().getShare(), triple.getA().getMac(),
+          triple.getB().getShare(), triple.getB().getMac(),
+          triple.getC().getShare(), triple.getC().getMac());
+    }
+
+    @Override
+    public SpdzTriple read(ByteBuffer buffer) {
+      FieldElementVector elements = definition.deserializeVector(buffer, 6);
+      return new SpdzTriple(
+          new SpdzSInt(elements.get(0), elements.get(1)),
+          new SpdzSInt(elements.get(2), elements.get(3)),
+          new SpdzSInt(elements.get(4), elements.get(5)));
+    }
+  }
+
+  private static final class SIntSerializer implements FixedLengthRecordSerializer<SpdzSInt> {
+
+    private final FieldDefinition definition;
+    private final int elementLength;
+
+    private SIntSerializer(FieldDefinition definition, int elementLength) {
+      this.definition = definition;
+      this.elementLength = elementLength;
+    }
+
+    @Override
+    public int getRecordLength() {
+      return 2 * elementLength;
+    }
+
+    @Override
+    public void write(SpdzSInt value, ByteBuffer buffer) {
+      writeElements(definition, buffer, value.getShare(), value.getMac());
+    }
+
+    @Override
+    public SpdzSInt read(ByteBuffer buffer) {
+      FieldElementVector elements = definition.deserializeVector(buffer, 2);
+      return new SpdzSInt(elements.get(0), elements.get(1));
+    }
+  }
+
+  /**
+   * Stores an input mask as a flag telling whether the real value is known, followed by the share,
+   * the mac and the real value, which is zero if not known.
+   */
+  private static final class InputMaskSerializer implements
+      FixedLengthRecordSerializer<SpdzInputMask> {
+
+    private final FieldDefinition definition;
+    private final int elementLength;
+
+    private InputMaskSerializer(FieldDefinition definition, int elementLength) {
+      this.definition = definition;
+      this.elementLength = elementLength;
+    }
+
+    @Override
+    public int getRecordLength() {
+      return 1 + 3 * elementLength;
+    }
+
+    @Override
+    public void write(SpdzInputMask mask, ByteBuffer buffer) {
+      FieldElement realValue = mask.getRealValue();
+      buffer.put((byte) (realValue == null ? 0 : 1));
+      writeElements(definition, buffer, mask.getMask().getShare(), mask.getMask().getMac(),
+          realValue == null ? definition.createElement(0) : realValue);
+    }
+
+    @Override
+    public SpdzInputMask read(ByteBuffer buffer) {
+      boolean hasRealValue = buffer.get() != 0;
+      FieldElementVector elements = definition.deserializeVector(buffer, 3);
+      SpdzSInt sint = new SpdzSInt(elements.get(0), elements.get(1));
+      return hasRealValue ? new SpdzInputMask(sint, elements.get(2)) : new SpdzInputMask(sint);
+    }
+  }
+}
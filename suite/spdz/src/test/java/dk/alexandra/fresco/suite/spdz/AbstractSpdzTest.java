@@ -3,23 +3,20 @@ package dk.alexandra.fresco.suite.spdz;
 import static dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy.DUMMY;
 import static dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy.MASCOT;
 
-import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.ProtocolEvaluator;
 import dk.alexandra.fresco.framework.TestThreadRunner;
-import dk.alexandra.fresco.framework.builder.numeric.DefaultPreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
 import dk.alexandra.fresco.framework.configuration.NetworkUtil;
-import dk.alexandra.fresco.framework.network.CloseableNetwork;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
 import dk.alexandra.fresco.framework.sce.SecureComputationEngine;
 import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchEvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
-import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
 import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
 import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
@@ -27,10 +24,8 @@ import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
 import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
-import dk.alexandra.fresco.framework.value.SInt;
-import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
-import dk.alexandra.fresco.lib.real.RealNumericContext;
 import dk.alexandra.fresco.logging.BatchEvaluationLoggingDecorator;
 import dk.alexandra.fresco.logging.DefaultPerformancePrinter;
 import dk.alexandra.fresco.logging.EvaluatorLoggingDecorator;
@@ -40,6 +35,7 @@ import dk.alexandra.fresco.logging.PerformanceLogger;
 import dk.alexandra.fresco.logging.PerformanceLoggerCountingAggregate;
 import dk.alexandra.fresco.logging.PerformancePrinter;
 import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz.configuration.OpeningStrategy;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
@@ -55,7 +51,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -106,7 +101,7 @@ public abstract class AbstractSpdzTest {
     }
     NetManager tripleManager = new NetManager(ports);
     NetManager otManager = new NetManager(ports);
-    NetManager expPipeManager = new NetManager(ports);
+    NetManager macCheckManager = new NetManager(ports);
 
     Map<Integer, NetworkConfiguration> netConf =
         NetworkUtil.getNetworkConfigurations(ports);
@@ -137,7 +132,7 @@ public abstract class AbstractSpdzTest {
 
       TestThreadRunner.TestThreadConfiguration<SpdzResourcePool, ProtocolBuilderNumeric> ttc =
           new TestThreadRunner.TestThreadConfiguration<>(sce, () -> createResourcePool(playerId,
-              noOfParties, preProStrat, otManager, tripleManager, expPipeManager), () -> {
+              noOfParties, preProStrat, otManager, tripleManager, macCheckManager), () -> {
             Network network = new SocketNetwork(netConf.get(playerId));
             if (logPerformance) {
               network = new NetworkLoggingDecorator(network);
@@ -156,13 +151,32 @@ public abstract class AbstractSpdzTest {
       printer.printPerformanceLog(pl);
     }
     tripleManager.close();
-    expPipeManager.close();
+    macCheckManager.close();
   }
 
   protected SpdzProtocolSuite createProtocolSuite(int maxBitLength) {
     return new SpdzProtocolSuite(maxBitLength);
   }
 
+  protected OpeningStrategy getOpeningStrategy() {
+    return OpeningStrategy.BROADCAST;
+  }
+
+  /**
+   * Creates the store of opened values awaiting a MAC check.
+   */
+  protected OpenedValueStore<SpdzSInt, FieldElement> createOpenedValueStore(
+      FieldDefinition definition) {
+    return new OpenedValueStoreImpl<>();
+  }
+
+  /**
+   * Returns true if the MAC checks should run asynchronously on a separate network.
+   */
+  protected boolean useMacCheckNetwork() {
+    return false;
+  }
+
   protected void runTest(
       TestThreadRunner.TestThreadFactory<SpdzResourcePool, ProtocolBuilderNumeric> f,
       EvaluationStrategy evalStrategy, PreprocessingStrategy preProStrat, int noOfParties,
@@ -184,23 +198,6 @@ public abstract class AbstractSpdzTest {
         true, DEFAULT_MOD_BIT_LENGTH, DEFAULT_MAX_BIT_LENGTH, DEFAULT_FIXED_POINT_PRECISION);
   }
 
-  private DRes<List<DRes<SInt>>> createPipe(int myId, int noOfPlayers, int pipeLength,
-      CloseableNetwork pipeNetwork, SpdzMascotDataSupplier tripleSupplier) {
-
-    ProtocolBuilderNumeric sequential = new SpdzBuilder(
-        new BasicNumericContext(maxBitLength, myId, noOfPlayers,
-            tripleSupplier.getFieldDefinition()),
-        new RealNumericContext(fixedPointPrecision)).createSequential();
-    SpdzResourcePoolImpl tripleResourcePool =
-        new SpdzResourcePoolImpl(myId, noOfPlayers, new OpenedValueStoreImpl<>(), tripleSupplier,
-            new AesCtrDrbg(new byte[32]));
-
-    DRes<List<DRes<SInt>>> exponentiationPipe =
-        new DefaultPreprocessedValues(sequential).getExponentiationPipe(pipeLength);
-    evaluate(sequential, tripleResourcePool, pipeNetwork);
-    return exponentiationPipe;
-  }
-
   private Drbg getDrbg(int myId, int prgSeedLength) {
     byte[] seed = new byte[prgSeedLength / 8];
     new Random(myId).nextBytes(seed);
@@ -232,7 +229,7 @@ public abstract class AbstractSpdzTest {
       PreprocessingStrategy preProStrat,
       NetManager otGenerator,
       NetManager tripleGenerator,
-      NetManager expPipeGenerator) {
+      NetManager macCheckGenerator) {
     SpdzDataSupplier supplier;
     if (preProStrat == DUMMY) {
       BigInteger suitableModulus = ModulusFinder.findSuitableModulus(modBitLength);
@@ -250,25 +247,7 @@ public abstract class AbstractSpdzTest {
       FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
       supplier = SpdzMascotDataSupplier.createSimpleSupplier(myId, numberOfParties,
           () -> tripleGenerator.createExtraNetwork(myId), modBitLength,
-          definition,
-          new Function<Integer, SpdzSInt[]>() {
-
-            private SpdzMascotDataSupplier tripleSupplier;
-            private CloseableNetwork pipeNetwork;
-
-            @Override
-            public SpdzSInt[] apply(Integer pipeLength) {
-              if (pipeNetwork == null) {
-                pipeNetwork = expPipeGenerator.createExtraNetwork(myId);
-                tripleSupplier = SpdzMascotDataSupplier.createSimpleSupplier(myId, numberOfParties,
-                    () -> pipeNetwork, modBitLength, definition, null,
-                    seedOts, drbg, ssk);
-              }
-              DRes<List<DRes<SInt>>> pipe =
-                  createPipe(myId, numberOfParties, pipeLength, pipeNetwork, tripleSupplier);
-              return computeSInts(pipe);
-            }
-          }, seedOts, drbg, ssk);
+          definition, seedOts, drbg, ssk);
     } else {
       // case STATIC:
       int noOfThreadsUsed = 1;
@@ -278,26 +257,10 @@ public abstract class AbstractSpdzTest {
           new FilebasedStreamedStorageImpl(new InMemoryStorage());
       supplier = new SpdzStorageDataSupplier(storage, storageName, numberOfParties);
     }
-    return new SpdzResourcePoolImpl(myId, numberOfParties, new OpenedValueStoreImpl<>(), supplier,
-        new AesCtrDrbg(new byte[32]));
-  }
-
-  private SpdzSInt[] computeSInts(DRes<List<DRes<SInt>>> pipe) {
-    List<DRes<SInt>> out = pipe.out();
-    SpdzSInt[] result = new SpdzSInt[out.size()];
-    for (int i = 0; i < out.size(); i++) {
-      DRes<SInt> sIntResult = out.get(i);
-      result[i] = (SpdzSInt) sIntResult.out();
-    }
-    return result;
-  }
-
-  private void evaluate(ProtocolBuilderNumeric spdzBuilder, SpdzResourcePool tripleResourcePool,
-      Network network) {
-    BatchedStrategy<SpdzResourcePool> batchedStrategy = new BatchedStrategy<>();
-    SpdzProtocolSuite spdzProtocolSuite = createProtocolSuite(maxBitLength);
-    BatchedProtocolEvaluator<SpdzResourcePool> batchedProtocolEvaluator =
-        new BatchedProtocolEvaluator<>(batchedStrategy, spdzProtocolSuite);
-    batchedProtocolEvaluator.eval(spdzBuilder.build(), tripleResourcePool, network);
+    Network macCheckNetwork =
+        useMacCheckNetwork() ? macCheckGenerator.createExtraNetwork(myId) : null;
+    return new SpdzResourcePoolImpl(myId, numberOfParties,
+        createOpenedValueStore(supplier.getFieldDefinition()), supplier,
+        new AesCtrDrbg(new byte[32]), getOpeningStrategy(), macCheckNetwork);
   }
 }
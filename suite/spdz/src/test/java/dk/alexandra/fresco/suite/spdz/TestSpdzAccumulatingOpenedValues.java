@@ -0,0 +1,55 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.lib.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.lib.compare.CompareTests;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzAccumulatingOpenedValueStore;
+import org.junit.Test;
+
+/**
+ * Tests of the SPDZ protocol suite folding the opened values into a
+ * {@link SpdzAccumulatingOpenedValueStore}.
+ */
+public class TestSpdzAccumulatingOpenedValues extends AbstractSpdzTest {
+
+  @Override
+  protected OpenedValueStore<SpdzSInt, FieldElement> createOpenedValueStore(
+      FieldDefinition definition) {
+    return new SpdzAccumulatingOpenedValueStore(definition, new AesCtrDrbg(new byte[32]));
+  }
+
+  @Test
+  public void testSumAndMult() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testLotsOfMults() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testOutputToTarget() {
+    runTest(new BasicArithmeticTests.TestOutputToSingleParty<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testCompareLT() {
+    runTest(new CompareTests.TestCompareLT<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testSumAndMultMascot() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(),
+        PreprocessingStrategy.MASCOT, 2);
+  }
+}
@@ -0,0 +1,142 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.lib.collections.MultListTests;
+import dk.alexandra.fresco.lib.compare.CompareTests;
+import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+/**
+ * Tests of the SPDZ protocol suite running the MAC checks asynchronously on a separate network.
+ * The threshold of opened values is set low, such that a MAC check is started after most batches.
+ */
+public class TestSpdzAsyncMacCheck extends AbstractSpdzTest {
+
+  @Override
+  protected boolean useMacCheckNetwork() {
+    return true;
+  }
+
+  @Override
+  protected SpdzProtocolSuite createProtocolSuite(int maxBitLength) {
+    return new SpdzProtocolSuite(maxBitLength) {
+      @Override
+      public RoundSynchronization<SpdzResourcePool> createRoundSynchronization() {
+        return new SpdzRoundSynchronization(this, 16, 128);
+      }
+    };
+  }
+
+  @Test
+  public void testSumAndMult() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testLotsOfMults() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testAlternatingMultAdd() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testOutputToTarget() {
+    runTest(new BasicArithmeticTests.TestOutputToSingleParty<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testCompareLT() {
+    runTest(new CompareTests.TestCompareLT<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testCompareEQSequential() {
+    runTest(new CompareTests.TestCompareEQ<>(), EvaluationStrategy.SEQUENTIAL,
+        PreprocessingStrategy.DUMMY, 2, 128, 64, 16);
+  }
+
+  @Test
+  public void testMultList() {
+    runTest(new MultListTests.TestMultList<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testTamperedMacDetectedBeforeOutput() {
+    runTest(new TestTamperedMac<>(1), PreprocessingStrategy.DUMMY, 2);
+  }
+
+  /**
+   * Lets one party tamper with the MAC of a value before it is output, and checks that the MAC
+   * check fails before the output becomes visible to the following steps of the application.
+   */
+  private static class TestTamperedMac<ResourcePoolT extends SpdzResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private final int cheatingPartyId;
+
+    TestTamperedMac(int cheatingPartyId) {
+      this.cheatingPartyId = cheatingPartyId;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          AtomicReference<BigInteger> visibleOutput = new AtomicReference<>();
+          Application<BigInteger, ProtocolBuilderNumeric> app = producer -> {
+            DRes<SInt> input = producer.numeric().input(BigInteger.ONE, 1);
+            return producer.seq(seq -> {
+              SpdzSInt value = (SpdzSInt) input.out();
+              if (seq.getBasicNumericContext().getMyId() == cheatingPartyId) {
+                value = new SpdzSInt(value.getShare(), value.getMac().add(value.getMac()));
+              }
+              final SInt tampered = value;
+              return seq.numeric().open(() -> tampered);
+            }).seq((seq, output) -> {
+              visibleOutput.set(output);
+              return () -> output;
+            });
+          };
+          try {
+            runApplication(app);
+            fail("Tampered MAC was not detected");
+          } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof MaliciousException)) {
+              cause = cause.getCause();
+            }
+            if (cause == null) {
+              throw e;
+            }
+          }
+          assertNull(visibleOutput.get());
+        }
+      };
+    }
+  }
+}
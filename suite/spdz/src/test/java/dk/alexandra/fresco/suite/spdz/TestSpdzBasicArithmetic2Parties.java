@@ -117,6 +117,12 @@ public class TestSpdzBasicArithmetic2Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2, 256, 128, 16);
   }
 
+  @Test
+  public void testLotsOfMultsPipelinedBatched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PIPELINED_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 256, 128, 16);
+  }
+
   @Test
   public void testOpenNoConversionByDefaultMascot() {
     runTest(new TestOpenNoConversionByDefault<>(),
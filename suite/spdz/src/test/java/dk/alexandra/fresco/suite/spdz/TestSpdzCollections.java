@@ -4,6 +4,7 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.arithmetic.SearchingTests;
 import dk.alexandra.fresco.lib.collections.Matrix;
+import dk.alexandra.fresco.lib.collections.MultListTests;
 import dk.alexandra.fresco.lib.collections.io.CloseListTests;
 import dk.alexandra.fresco.lib.collections.io.CloseMatrixTests;
 import dk.alexandra.fresco.lib.collections.permute.PermuteRows;
@@ -28,6 +29,30 @@ public class TestSpdzCollections extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2);
   }
 
+  @Test
+  public void test_close_list_three_parties() {
+    runTest(new CloseListTests.TestCloseAndOpenList<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void test_mult_empty_list() {
+    runTest(new MultListTests.TestMultEmptyList<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_mult_list() {
+    runTest(new MultListTests.TestMultList<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void test_mult_list_three_parties() {
+    runTest(new MultListTests.TestMultList<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
   @Test
   public void test_close_empty_matrix() {
     runTest(new CloseMatrixTests.TestCloseEmptyMatrix<>(),
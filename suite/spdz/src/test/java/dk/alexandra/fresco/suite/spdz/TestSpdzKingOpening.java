@@ -0,0 +1,62 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.lib.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.lib.collections.MultListTests;
+import dk.alexandra.fresco.lib.compare.CompareTests;
+import dk.alexandra.fresco.suite.spdz.configuration.OpeningStrategy;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import org.junit.Test;
+
+/**
+ * Tests of the SPDZ protocol suite opening values via a rotating king.
+ */
+public class TestSpdzKingOpening extends AbstractSpdzTest {
+
+  @Override
+  protected OpeningStrategy getOpeningStrategy() {
+    return OpeningStrategy.KING;
+  }
+
+  @Test
+  public void testSumAndMult() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testLotsOfMults() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testAlternatingMultAdd() {
+    runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testInputFromAll() {
+    runTest(new BasicArithmeticTests.TestInputFromAll<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testCompareLT() {
+    runTest(new CompareTests.TestCompareLT<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+
+  @Test
+  public void testCompareEQSequential() {
+    runTest(new CompareTests.TestCompareEQ<>(), EvaluationStrategy.SEQUENTIAL,
+        PreprocessingStrategy.DUMMY, 3, 128, 64, 16);
+  }
+
+  @Test
+  public void testMultList() {
+    runTest(new MultListTests.TestMultList<>(),
+        PreprocessingStrategy.DUMMY, 3);
+  }
+}
@@ -2,9 +2,12 @@ package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
 import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.configuration.OpeningStrategy;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzOpenedValueStoreImpl;
 import java.math.BigInteger;
+import org.hamcrest.core.Is;
+import org.junit.Assert;
 import org.junit.Test;
 
 public class TestSpdzResourcePoolImpl {
@@ -16,4 +19,16 @@ public class TestSpdzResourcePoolImpl {
         new BigIntegerFieldDefinition(modulus), modulus), null)
         .getRandomGenerator();
   }
+
+  @Test
+  public void getNextKingIdRotates() {
+    BigInteger modulus = ModulusFinder.findSuitableModulus(128);
+    SpdzResourcePool resourcePool = new SpdzResourcePoolImpl(2, 3, new SpdzOpenedValueStoreImpl(),
+        new SpdzDummyDataSupplier(2, 3, new BigIntegerFieldDefinition(modulus), modulus), null,
+        OpeningStrategy.KING);
+    Assert.assertThat(resourcePool.getOpeningStrategy(), Is.is(OpeningStrategy.KING));
+    for (int i = 0; i < 7; i++) {
+      Assert.assertThat(resourcePool.getNextKingId(), Is.is(i % 3 + 1));
+    }
+  }
 }
@@ -0,0 +1,101 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class TestSpdzAccumulatingOpenedValueStore {
+
+  private final FieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(128));
+  private final FieldElement alpha = definition.createElement(1234567);
+
+  private SpdzSInt authenticate(FieldElement value) {
+    return new SpdzSInt(value, alpha.multiply(value));
+  }
+
+  private SpdzAccumulatingOpenedValueStore createStore() {
+    return new SpdzAccumulatingOpenedValueStore(definition, new AesCtrDrbg(new byte[32]));
+  }
+
+  @Test
+  public void testPushOpenedValues() {
+    SpdzAccumulatingOpenedValueStore store = createStore();
+    assertFalse(store.hasPendingValues());
+    FieldElement value = definition.createElement(42);
+    store.pushOpenedValue(authenticate(value), value);
+    assertTrue(store.hasPendingValues());
+    assertTrue(store.exceedsThreshold(0));
+    assertFalse(store.exceedsThreshold(1));
+  }
+
+  @Test
+  public void testPopCombination() {
+    SpdzAccumulatingOpenedValueStore store = createStore();
+    List<SpdzSInt> authenticated = new ArrayList<>();
+    List<FieldElement> opened = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      FieldElement value = definition.createElement(i * 31L);
+      authenticated.add(authenticate(value));
+      opened.add(value);
+    }
+    store.pushOpenedValues(authenticated, opened);
+    assertTrue(store.exceedsThreshold(99));
+    Pair<List<SpdzSInt>, List<FieldElement>> popped = store.popValues();
+    assertEquals(1, popped.getFirst().size());
+    assertEquals(1, popped.getSecond().size());
+    SpdzSInt combined = popped.getFirst().get(0);
+    FieldElement combinedOpened = popped.getSecond().get(0);
+    assertEquals(definition.convertToUnsigned(combinedOpened),
+        definition.convertToUnsigned(combined.getShare()));
+    assertEquals(definition.convertToUnsigned(alpha.multiply(combinedOpened)),
+        definition.convertToUnsigned(combined.getMac()));
+    assertFalse(store.hasPendingValues());
+  }
+
+  @Test
+  public void testCorruptedMacPropagates() {
+    SpdzAccumulatingOpenedValueStore store = createStore();
+    FieldElement value = definition.createElement(7);
+    store.pushOpenedValue(authenticate(value), value);
+    store.pushOpenedValue(authenticate(value), value.add(definition.createElement(1)));
+    Pair<List<SpdzSInt>, List<FieldElement>> popped = store.popValues();
+    SpdzSInt combined = popped.getFirst().get(0);
+    assertNotEquals(definition.convertToUnsigned(alpha.multiply(popped.getSecond().get(0))),
+        definition.convertToUnsigned(combined.getMac()));
+  }
+
+  @Test
+  public void testPopEmpty() {
+    SpdzAccumulatingOpenedValueStore store = createStore();
+    Pair<List<SpdzSInt>, List<FieldElement>> popped = store.popValues();
+    assertTrue(popped.getFirst().isEmpty());
+    assertTrue(popped.getSecond().isEmpty());
+    FieldElement value = definition.createElement(BigInteger.TEN);
+    store.pushOpenedValue(authenticate(value), value);
+    store.popValues();
+    assertTrue(store.popValues().getFirst().isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPushMismatchingSizes() {
+    SpdzAccumulatingOpenedValueStore store = createStore();
+    FieldElement value = definition.createElement(1);
+    List<SpdzSInt> authenticated = new ArrayList<>();
+    authenticated.add(authenticate(value));
+    store.pushOpenedValues(authenticated, new ArrayList<>());
+  }
+}
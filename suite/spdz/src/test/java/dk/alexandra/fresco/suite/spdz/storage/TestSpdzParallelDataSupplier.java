@@ -0,0 +1,210 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.NetManager;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hamcrest.core.Is;
+import org.hamcrest.core.IsNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzParallelDataSupplier {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private final FieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(64));
+  private ExecutorService executorService;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  private SpdzDummyDataSupplier numberedSupplier(int number) {
+    return new SpdzDummyDataSupplier(1, 2, definition, BigInteger.TEN) {
+      @Override
+      public SpdzSInt getNextBit() {
+        FieldElement value = definition.createElement(number);
+        return new SpdzSInt(value, value);
+      }
+    };
+  }
+
+  @Test
+  public void testBatchesInInstanceOrder() throws Exception {
+    List<SpdzDataSupplier> instances =
+        Arrays.asList(numberedSupplier(1), numberedSupplier(2), numberedSupplier(3));
+    try (SpdzParallelDataSupplier supplier = new SpdzParallelDataSupplier(instances, 2, 2)) {
+      List<Integer> expected = Arrays.asList(1, 1, 2, 2, 3, 3, 1, 1, 2, 2, 3, 3);
+      for (Integer number : expected) {
+        assertThat(definition.convertToUnsigned(supplier.getNextBit().getShare()).intValue(),
+            Is.is(number));
+      }
+    }
+  }
+
+  @Test
+  public void testSharedValuesFromFirstInstance() throws Exception {
+    SpdzDummyDataSupplier first = new SpdzDummyDataSupplier(1, 2, definition, BigInteger.TEN);
+    SpdzDummyDataSupplier second = new SpdzDummyDataSupplier(1, 2, definition, BigInteger.ONE);
+    try (SpdzParallelDataSupplier supplier =
+        new SpdzParallelDataSupplier(Arrays.asList(first, second), 2, 4)) {
+      assertThat(definition.convertToUnsigned(supplier.getSecretSharedKey()),
+          Is.is(definition.convertToUnsigned(first.getSecretSharedKey())));
+      assertThat(supplier.getFieldDefinition(), Is.is(first.getFieldDefinition()));
+      for (int i = 0; i < 8; i++) {
+        assertThat(supplier.getNextInputMask(2).getRealValue(), Is.is((FieldElement) null));
+        assertThat(supplier.getNextInputMask(1).getRealValue(), IsNull.notNullValue());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFailureIsPropagated() throws Exception {
+    SpdzDummyDataSupplier failingSupplier = new SpdzDummyDataSupplier(1, 2, definition,
+        BigInteger.TEN) {
+      @Override
+      public SpdzTriple getNextTriple() {
+        throw new IllegalArgumentException("Failing supplier");
+      }
+    };
+    try (SpdzParallelDataSupplier supplier = new SpdzParallelDataSupplier(
+        Arrays.asList(numberedSupplier(1), failingSupplier), 2, 1)) {
+      supplier.getNextTriple();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoInstances() {
+    new SpdzParallelDataSupplier(Collections.emptyList(), 2, 1);
+  }
+
+  private Map<Integer, RotList> seedOts(int myId, Drbg drbg, Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    int otherId = 3 - myId;
+    Ot ot = new DummyOt(otherId, network);
+    RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+    if (myId < otherId) {
+      currentSeedOts.send(ot);
+      currentSeedOts.receive(ot);
+    } else {
+      currentSeedOts.receive(ot);
+      currentSeedOts.send(ot);
+    }
+    seedOts.put(otherId, currentSeedOts);
+    return seedOts;
+  }
+
+  @Test
+  public void testMascotTriples() throws Exception {
+    int noOfTriples = 20;
+    List<Integer> ports = Arrays.asList(10321, 10322);
+    NetManager otManager = new NetManager(ports);
+    NetManager preprocessingManager = new NetManager(ports);
+    List<Future<List<SpdzTriple>>> futures = new ArrayList<>();
+    for (int myId = 1; myId <= 2; myId++) {
+      int finalMyId = myId;
+      futures.add(executorService.submit(() -> {
+        Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed((byte) finalMyId);
+        Map<Integer, RotList> seedOts =
+            seedOts(finalMyId, drbg, otManager.createExtraNetwork(finalMyId));
+        FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+        List<SpdzTriple> triples = new ArrayList<>();
+        try (SpdzParallelDataSupplier supplier = SpdzParallelDataSupplier
+            .createMascotSupplier(finalMyId, 2,
+                preprocessingManager.createExtraNetwork(finalMyId), 3, 64, definition,
+                seedOts, drbg, ssk, 4)) {
+          for (int i = 0; i < noOfTriples; i++) {
+            triples.add(supplier.getNextTriple());
+          }
+        }
+        return triples;
+      }));
+    }
+    List<SpdzTriple> first = futures.get(0).get();
+    List<SpdzTriple> second = futures.get(1).get();
+    for (int i = 0; i < noOfTriples; i++) {
+      FieldElement a = first.get(i).getA().getShare().add(second.get(i).getA().getShare());
+      FieldElement b = first.get(i).getB().getShare().add(second.get(i).getB().getShare());
+      FieldElement c = first.get(i).getC().getShare().add(second.get(i).getC().getShare());
+      assertThat(definition.convertToUnsigned(a.multiply(b)),
+          Is.is(definition.convertToUnsigned(c)));
+    }
+    otManager.close();
+    preprocessingManager.close();
+  }
+
+  @Test
+  public void testMascotExpPipes() throws Exception {
+    int noOfPipes = 5;
+    int modBitLength = 64;
+    List<Integer> ports = Arrays.asList(10323, 10324);
+    NetManager otManager = new NetManager(ports);
+    NetManager preprocessingManager = new NetManager(ports);
+    List<Future<List<SpdzSInt[]>>> futures = new ArrayList<>();
+    for (int myId = 1; myId <= 2; myId++) {
+      int finalMyId = myId;
+      futures.add(executorService.submit(() -> {
+        Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed((byte) finalMyId);
+        Map<Integer, RotList> seedOts =
+            seedOts(finalMyId, drbg, otManager.createExtraNetwork(finalMyId));
+        FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+        List<SpdzSInt[]> pipes = new ArrayList<>();
+        try (SpdzParallelDataSupplier supplier = SpdzParallelDataSupplier
+            .createMascotSupplier(finalMyId, 2,
+                preprocessingManager.createExtraNetwork(finalMyId), 2, modBitLength, definition,
+                seedOts, drbg, ssk, 2)) {
+          for (int i = 0; i < noOfPipes; i++) {
+            pipes.add(supplier.getNextExpPipe());
+          }
+        }
+        return pipes;
+      }));
+    }
+    List<SpdzSInt[]> first = futures.get(0).get();
+    List<SpdzSInt[]> second = futures.get(1).get();
+    for (int i = 0; i < noOfPipes; i++) {
+      assertThat(first.get(i).length, Is.is(modBitLength + 2));
+      List<FieldElement> pipe = new ArrayList<>();
+      for (int j = 0; j < first.get(i).length; j++) {
+        pipe.add(first.get(i)[j].getShare().add(second.get(i)[j].getShare()));
+      }
+      assertThat(definition.convertToUnsigned(pipe.get(0).multiply(pipe.get(1))),
+          Is.is(BigInteger.ONE));
+      for (int j = 2; j < pipe.size(); j++) {
+        assertThat(definition.convertToUnsigned(pipe.get(j - 1).multiply(pipe.get(1))),
+            Is.is(definition.convertToUnsigned(pipe.get(j))));
+      }
+    }
+    otManager.close();
+    preprocessingManager.close();
+  }
+}
@@ -0,0 +1,177 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.suite.spdz.NetManager;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.core.Is;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSpdzPrefetchingDataSupplier {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private final FieldDefinition definition =
+      new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(64));
+  private ExecutorService executorService;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  private SpdzDummyDataSupplier dummySupplier() {
+    return new SpdzDummyDataSupplier(1, 2, definition, BigInteger.TEN);
+  }
+
+  private BigInteger toUnsigned(FieldElement element) {
+    return definition.convertToUnsigned(element);
+  }
+
+  @Test
+  public void testSameMaterialAsDelegate() throws Exception {
+    SpdzDummyDataSupplier expected = dummySupplier();
+    try (SpdzPrefetchingDataSupplier supplier = new SpdzPrefetchingDataSupplier(
+        dummySupplier(), channelId -> dummySupplier(), 2, 3, 10)) {
+      for (int i = 0; i < 25; i++) {
+        SpdzTriple actual = supplier.getNextTriple();
+        SpdzTriple triple = expected.getNextTriple();
+        assertThat(toUnsigned(actual.getA().getShare()),
+            Is.is(toUnsigned(triple.getA().getShare())));
+        assertThat(toUnsigned(actual.getC().getMac()), Is.is(toUnsigned(triple.getC().getMac())));
+      }
+      assertThat(toUnsigned(supplier.getNextInputMask(1).getRealValue()),
+          Is.is(toUnsigned(dummySupplier().getNextInputMask(1).getRealValue())));
+      assertThat(supplier.getNextInputMask(2).getRealValue(), Is.is((FieldElement) null));
+      assertThat(toUnsigned(supplier.getSecretSharedKey()),
+          Is.is(toUnsigned(expected.getSecretSharedKey())));
+    }
+  }
+
+  @Test
+  public void testRefillsBetweenWatermarks() throws Exception {
+    AtomicInteger produced = new AtomicInteger();
+    SpdzDummyDataSupplier countingSupplier = new SpdzDummyDataSupplier(1, 2, definition,
+        BigInteger.TEN) {
+      @Override
+      public SpdzSInt getNextBit() {
+        produced.incrementAndGet();
+        return super.getNextBit();
+      }
+    };
+    try (SpdzPrefetchingDataSupplier supplier = new SpdzPrefetchingDataSupplier(
+        dummySupplier(), channelId -> countingSupplier, 2, 2, 5)) {
+      for (int i = 0; i < 4; i++) {
+        supplier.getNextBit();
+      }
+      // Filled up to the high watermark, and refilled once after draining to the low watermark
+      for (int i = 0; i < 100 && produced.get() < 8; i++) {
+        Thread.sleep(10);
+      }
+      Thread.sleep(50);
+      assertThat(produced.get(), Is.is(8));
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFailureIsPropagated() throws Exception {
+    SpdzDummyDataSupplier failingSupplier = new SpdzDummyDataSupplier(1, 2, definition,
+        BigInteger.TEN) {
+      @Override
+      public SpdzTriple getNextTriple() {
+        throw new IllegalArgumentException("Failing supplier");
+      }
+    };
+    try (SpdzPrefetchingDataSupplier supplier = new SpdzPrefetchingDataSupplier(
+        dummySupplier(), channelId -> failingSupplier, 2, 0, 1)) {
+      supplier.getNextTriple();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalWatermarks() {
+    new SpdzPrefetchingDataSupplier(dummySupplier(), channelId -> dummySupplier(), 2, 4, 4);
+  }
+
+  private Map<Integer, RotList> seedOts(int myId, Drbg drbg, Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    int otherId = 3 - myId;
+    Ot ot = new DummyOt(otherId, network);
+    RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+    if (myId < otherId) {
+      currentSeedOts.send(ot);
+      currentSeedOts.receive(ot);
+    } else {
+      currentSeedOts.receive(ot);
+      currentSeedOts.send(ot);
+    }
+    seedOts.put(otherId, currentSeedOts);
+    return seedOts;
+  }
+
+  @Test
+  public void testMascotTriples() throws Exception {
+    int noOfTriples = 20;
+    List<Integer> ports = Arrays.asList(10301, 10302);
+    NetManager otManager = new NetManager(ports);
+    NetManager preprocessingManager = new NetManager(ports);
+    List<Future<List<SpdzTriple>>> futures = new ArrayList<>();
+    for (int myId = 1; myId <= 2; myId++) {
+      int finalMyId = myId;
+      futures.add(executorService.submit(() -> {
+        Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed((byte) finalMyId);
+        Map<Integer, RotList> seedOts =
+            seedOts(finalMyId, drbg, otManager.createExtraNetwork(finalMyId));
+        FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+        List<SpdzTriple> triples = new ArrayList<>();
+        try (SpdzPrefetchingDataSupplier supplier = SpdzPrefetchingDataSupplier
+            .createMascotSupplier(finalMyId, 2,
+                preprocessingManager.createExtraNetwork(finalMyId), 64, definition,
+                seedOts, drbg, ssk, 4, 12)) {
+          for (int i = 0; i < noOfTriples; i++) {
+            triples.add(supplier.getNextTriple());
+          }
+        }
+        return triples;
+      }));
+    }
+    List<SpdzTriple> first = futures.get(0).get();
+    List<SpdzTriple> second = futures.get(1).get();
+    for (int i = 0; i < noOfTriples; i++) {
+      FieldElement a = first.get(i).getA().getShare().add(second.get(i).getA().getShare());
+      FieldElement b = first.get(i).getB().getShare().add(second.get(i).getB().getShare());
+      FieldElement c = first.get(i).getC().getShare().add(second.get(i).getC().getShare());
+      assertThat(definition.convertToUnsigned(a.multiply(b)),
+          Is.is(definition.convertToUnsigned(c)));
+    }
+    otManager.close();
+    preprocessingManager.close();
+  }
+}
@@ -1,12 +1,29 @@
 package dk.alexandra.fresco.suite.spdz.storage;
 
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.sce.resources.storage.FilebasedStreamedStorageImpl;
 import dk.alexandra.fresco.framework.sce.resources.storage.InMemoryStorage;
+import dk.alexandra.fresco.framework.sce.resources.storage.MappedStreamedStorageImpl;
+import dk.alexandra.fresco.framework.sce.resources.storage.StreamedStorage;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.File;
 import java.math.BigInteger;
+import org.hamcrest.core.Is;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class TestSpdzStorage {
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void testDataSupplierModFoundTwice() {
     FilebasedStreamedStorageImpl storage = new FilebasedStreamedStorageImpl(new InMemoryStorage());
@@ -71,4 +88,62 @@ public class TestSpdzStorage {
             "invalid", 2);
     supplier.getNextRandomFieldElement();
   }
+
+  private SpdzSInt sint(FieldDefinition definition, int share, int mac) {
+    return new SpdzSInt(definition.createElement(share), definition.createElement(mac));
+  }
+
+  private void assertSInt(FieldDefinition definition, SpdzSInt actual, int share, int mac) {
+    assertThat(definition.convertToUnsigned(actual.getShare()), Is.is(BigInteger.valueOf(share)));
+    assertThat(definition.convertToUnsigned(actual.getMac()), Is.is(BigInteger.valueOf(mac)));
+  }
+
+  @Test
+  public void testDataSupplierWithMappedStorage() {
+    BigInteger modulus = BigInteger.ONE.shiftLeft(127).subtract(BigInteger.ONE);
+    FieldDefinition definition = new BigIntegerFieldDefinition(modulus);
+    String storageName = new File(folder.getRoot(), "SPDZ_1_").getPath();
+    StreamedStorage storage = new MappedStreamedStorageImpl(new InMemoryStorage(),
+        SpdzRecordSerializers.forDefinition(definition));
+    storage.putNext(storageName + SpdzStorageDataSupplier.MODULUS_KEY, modulus);
+    storage.putNext(storageName + SpdzStorageDataSupplier.SSK_KEY, definition.createElement(5));
+    for (int i = 0; i < 10; i++) {
+      storage.putNext(storageName + SpdzStorageDataSupplier.TRIPLE_STORAGE,
+          new SpdzTriple(sint(definition, i, 1), sint(definition, i, 2), sint(definition, i, 3)));
+      storage.putNext(storageName + SpdzStorageDataSupplier.BIT_STORAGE,
+          sint(definition, i % 2, i));
+    }
+    storage.putNext(storageName + SpdzStorageDataSupplier.INPUT_STORAGE + 1,
+        new SpdzInputMask(sint(definition, 7, 8), definition.createElement(9)));
+    storage.putNext(storageName + SpdzStorageDataSupplier.INPUT_STORAGE + 2,
+        new SpdzInputMask(sint(definition, 10, 11)));
+    storage.shutdown();
+
+    SpdzStorageDataSupplier supplier = new SpdzStorageDataSupplier(storage, storageName, 2);
+    assertThat(supplier.getFieldDefinition().getModulus(), Is.is(modulus));
+    assertThat(definition.convertToUnsigned(supplier.getSecretSharedKey()),
+        Is.is(BigInteger.valueOf(5)));
+    for (int i = 0; i < 5; i++) {
+      SpdzTriple triple = supplier.getNextTriple();
+      assertSInt(definition, triple.getA(), i, 1);
+      assertSInt(definition, triple.getB(), i, 2);
+      assertSInt(definition, triple.getC(), i, 3);
+      assertSInt(definition, supplier.getNextBit(), i % 2, i);
+    }
+    SpdzInputMask mask = supplier.getNextInputMask(1);
+    assertSInt(definition, mask.getMask(), 7, 8);
+    assertThat(definition.convertToUnsigned(mask.getRealValue()), Is.is(BigInteger.valueOf(9)));
+    mask = supplier.getNextInputMask(2);
+    assertSInt(definition, mask.getMask(), 10, 11);
+    assertThat(mask.getRealValue(), Is.is((FieldElement) null));
+    storage.shutdown();
+
+    // A new supplier continues from the persisted cursors
+    StreamedStorage resumed = new MappedStreamedStorageImpl(new InMemoryStorage(),
+        SpdzRecordSerializers.forDefinition(definition));
+    supplier = new SpdzStorageDataSupplier(resumed, storageName, 2);
+    assertSInt(definition, supplier.getNextTriple().getA(), 5, 1);
+    assertSInt(definition, supplier.getNextBit(), 1, 5);
+    resumed.shutdown();
+  }
 }
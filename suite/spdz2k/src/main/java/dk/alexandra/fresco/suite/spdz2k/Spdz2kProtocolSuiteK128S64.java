@@ -0,0 +1,18 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt192;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter192;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt64;
+
+/**
+ * Protocol suite using {@link CompUInt192} as the underlying plain-value type.
+ */
+public class Spdz2kProtocolSuiteK128S64 extends
+    Spdz2kProtocolSuite<UInt64, CompUInt128, CompUInt192> {
+
+  public Spdz2kProtocolSuiteK128S64() {
+    super(new CompUIntConverter192());
+  }
+
+}
@@ -0,0 +1,123 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.util.UIntSerializer;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+/**
+ * Base class for factories of {@link CompUInt} types which are fully determined by the bit lengths
+ * k and s of their low and high parts, and by their constructors.
+ */
+abstract class AbstractCompUIntFactory<CompT extends CompUInt<?, ?, CompT>>
+    implements CompUIntFactory<CompT> {
+
+  private final int lowBitLength;
+  private final int highBitLength;
+  private final int byteLength;
+  private final Function<byte[], CompT> fromBytes;
+  private final Function<BigInteger, CompT> fromBigInteger;
+  private final LongFunction<CompT> fromLong;
+  private final CompT zero;
+  private final BigInteger valueModulus;
+  private final BigInteger valueHalfModulus;
+  private final SecureRandom random;
+  private final ByteSerializer<CompT> serializer;
+
+  /**
+   * Creates a factory for elements with k = <code>lowBitLength</code> and s =
+   * <code>highBitLength</code>, created by the given constructors.
+   */
+  AbstractCompUIntFactory(int lowBitLength, int highBitLength, Function<byte[], CompT> fromBytes,
+      Function<BigInteger, CompT> fromBigInteger, LongFunction<CompT> fromLong) {
+    this.lowBitLength = lowBitLength;
+    this.highBitLength = highBitLength;
+    this.byteLength = (lowBitLength + highBitLength) / Byte.SIZE;
+    this.fromBytes = fromBytes;
+    this.fromBigInteger = fromBigInteger;
+    this.fromLong = fromLong;
+    this.zero = fromBytes.apply(new byte[byteLength]);
+    this.valueModulus = BigInteger.ONE.shiftLeft(lowBitLength);
+    this.valueHalfModulus = BigInteger.ONE.shiftLeft(lowBitLength - 1);
+    this.random = new SecureRandom();
+    this.serializer = new UIntSerializer<>(this);
+  }
+
+  @Override
+  public CompT deserialize(byte[] bytes) {
+    return fromBytes.apply(bytes);
+  }
+
+  @Override
+  public CompT createRandom() {
+    byte[] bytes = new byte[byteLength];
+    this.random.nextBytes(bytes);
+    return this.deserialize(bytes);
+  }
+
+  @Override
+  public ByteSerializer<CompT> getSerializer() {
+    return serializer;
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return lowBitLength;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return highBitLength;
+  }
+
+  @Override
+  public CompT createElement(BigInteger value) {
+    return value == null ? null : fromBigInteger.apply(value);
+  }
+
+  @Override
+  public CompT createElement(long value) {
+    return fromLong.apply(value);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return valueModulus;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    byte[] bytes = ((CompT) fieldElement)
+        .getLeastSignificant()
+        .toByteArray();
+    return new StrictBitVector(bytes);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return ((CompT) value)
+        .getLeastSignificant()
+        .toBigInteger();
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    if (asUnsigned.compareTo(valueHalfModulus) >= 0) {
+      return asUnsigned.subtract(valueModulus);
+    } else {
+      return asUnsigned;
+    }
+  }
+
+  @Override
+  public CompT zero() {
+    return zero;
+  }
+
+}
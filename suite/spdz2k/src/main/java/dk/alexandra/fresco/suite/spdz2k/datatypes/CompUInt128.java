@@ -183,6 +183,11 @@ public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
     return 64;
   }
 
+  @Override
+  public UIntAccumulator<CompUInt128> toAccumulator() {
+    return new Accumulator(high, mid, low);
+  }
+
   @Override
   public String toString() {
     return toBigInteger().toString();
@@ -237,4 +242,68 @@ public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
         | (bytes[flipped - 3] & 0xFF) << 24;
   }
 
+  /**
+   * Accumulator holding the same limbs as {@link CompUInt128} in mutable fields.
+   */
+  private static class Accumulator implements UIntAccumulator<CompUInt128> {
+
+    private long high;
+    private int mid;
+    private int low;
+
+    private Accumulator(long high, int mid, int low) {
+      this.high = high;
+      this.mid = mid;
+      this.low = low;
+    }
+
+    @Override
+    public void add(CompUInt128 other) {
+      add(other.high, other.mid, other.low);
+    }
+
+    @Override
+    public void addProduct(CompUInt128 left, CompUInt128 right) {
+      // same as multiply, but adding the result in place
+      long leftLow = UInt.toUnLong(left.low);
+      long leftMid = UInt.toUnLong(left.mid);
+      long rightLow = UInt.toUnLong(right.low);
+      long rightMid = UInt.toUnLong(right.mid);
+      long t1 = leftLow * rightLow;
+      long t2 = leftLow * rightMid;
+      long t3 = leftLow * right.high;
+      long t4 = leftMid * rightLow;
+      long t5 = leftMid * rightMid;
+      int t6 = (int) (left.mid * right.high);
+      long t7 = left.high * rightLow;
+      int t8 = (int) (left.high * right.mid);
+      long m1 = (t1 >>> 32) + (t2 & 0xffffffffL);
+      long productMid = UInt.toUnLong((int) m1) + (t4 & 0xffffffffL);
+      long productHigh = (t2 >>> 32)
+          + t3
+          + (t4 >>> 32)
+          + t5
+          + (UInt.toUnLong(t6) << 32)
+          + t7
+          + (UInt.toUnLong(t8) << 32)
+          + (m1 >>> 32)
+          + (productMid >>> 32);
+      add(productHigh, (int) productMid, (int) t1);
+    }
+
+    private void add(long otherHigh, int otherMid, int otherLow) {
+      long newLow = UInt.toUnLong(low) + UInt.toUnLong(otherLow);
+      long newMid = UInt.toUnLong(mid) + UInt.toUnLong(otherMid) + (newLow >>> 32);
+      high += otherHigh + (newMid >>> 32);
+      mid = (int) newMid;
+      low = (int) newLow;
+    }
+
+    @Override
+    public CompUInt128 get() {
+      return new CompUInt128(high, mid, low);
+    }
+
+  }
+
 }
@@ -0,0 +1,73 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.math.BigInteger;
+
+/**
+ * Unsigned 192-bit integer composed of a 64-bit upper part and a 128-bit lower part, i.e., k = 128
+ * and s = 64. <p>The lower part is represented as {@link CompUInt128}, used as a plain 128-bit
+ * unsigned integer.</p>
+ */
+public class CompUInt192 extends LimbCompUInt<UInt64, CompUInt128, CompUInt192> {
+
+  private static final int NUM_LIMBS = 6;
+
+  /**
+   * Creates new {@link CompUInt192}.
+   *
+   * @param bytes bytes interpreted in big-endian order. Arrays shorter than 24 bytes are treated
+   *     as the least significant bytes of the value.
+   */
+  public CompUInt192(byte[] bytes) {
+    super(bytes, NUM_LIMBS);
+  }
+
+  /**
+   * Creates new {@link CompUInt192} from {@link BigInteger}.
+   */
+  public CompUInt192(BigInteger value) {
+    this(CompUInt.pad(value.toByteArray(), 192));
+  }
+
+  CompUInt192(CompUInt128 value) {
+    super(toLimbs(value, NUM_LIMBS));
+  }
+
+  CompUInt192(long value) {
+    super(toLimbs(value, NUM_LIMBS));
+  }
+
+  private CompUInt192(int[] limbs) {
+    super(limbs);
+  }
+
+  @Override
+  CompUInt192 fromLimbs(int[] limbs) {
+    return new CompUInt192(limbs);
+  }
+
+  @Override
+  public UInt64 getMostSignificant() {
+    return new UInt64((UInt.toUnLong(limbs[5]) << 32) | UInt.toUnLong(limbs[4]));
+  }
+
+  @Override
+  public CompUInt128 getLeastSignificant() {
+    return toCompUInt128(0);
+  }
+
+  @Override
+  public UInt64 getLeastSignificantAsHigh() {
+    return new UInt64(toLong());
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 128;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 64;
+  }
+
+}
@@ -0,0 +1,12 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+/**
+ * Factory for {@link CompUInt192} instances, with k = 128 and s = 64.
+ */
+public class CompUInt192Factory extends AbstractCompUIntFactory<CompUInt192> {
+
+  public CompUInt192Factory() {
+    super(128, 64, CompUInt192::new, CompUInt192::new, CompUInt192::new);
+  }
+
+}
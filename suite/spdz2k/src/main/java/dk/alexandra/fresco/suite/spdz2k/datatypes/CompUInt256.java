@@ -0,0 +1,72 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.math.BigInteger;
+
+/**
+ * Unsigned 256-bit integer composed of two 128-bit halves, i.e., k = 128 and s = 128. <p>Both
+ * halves are represented as {@link CompUInt128}, used as a plain 128-bit unsigned integer.</p>
+ */
+public class CompUInt256 extends LimbCompUInt<CompUInt128, CompUInt128, CompUInt256> {
+
+  private static final int NUM_LIMBS = 8;
+
+  /**
+   * Creates new {@link CompUInt256}.
+   *
+   * @param bytes bytes interpreted in big-endian order. Arrays shorter than 32 bytes are treated
+   *     as the least significant bytes of the value.
+   */
+  public CompUInt256(byte[] bytes) {
+    super(bytes, NUM_LIMBS);
+  }
+
+  /**
+   * Creates new {@link CompUInt256} from {@link BigInteger}.
+   */
+  public CompUInt256(BigInteger value) {
+    this(CompUInt.pad(value.toByteArray(), 256));
+  }
+
+  CompUInt256(CompUInt128 value) {
+    super(toLimbs(value, NUM_LIMBS));
+  }
+
+  CompUInt256(long value) {
+    super(toLimbs(value, NUM_LIMBS));
+  }
+
+  private CompUInt256(int[] limbs) {
+    super(limbs);
+  }
+
+  @Override
+  CompUInt256 fromLimbs(int[] limbs) {
+    return new CompUInt256(limbs);
+  }
+
+  @Override
+  public CompUInt128 getMostSignificant() {
+    return toCompUInt128(4);
+  }
+
+  @Override
+  public CompUInt128 getLeastSignificant() {
+    return toCompUInt128(0);
+  }
+
+  @Override
+  public CompUInt128 getLeastSignificantAsHigh() {
+    return getLeastSignificant();
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 128;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 128;
+  }
+
+}
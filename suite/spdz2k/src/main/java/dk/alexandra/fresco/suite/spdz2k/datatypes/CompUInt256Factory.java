@@ -0,0 +1,12 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+/**
+ * Factory for {@link CompUInt256} instances, with k = 128 and s = 128.
+ */
+public class CompUInt256Factory extends AbstractCompUIntFactory<CompUInt256> {
+
+  public CompUInt256Factory() {
+    super(128, 128, CompUInt256::new, CompUInt256::new, CompUInt256::new);
+  }
+
+}
@@ -0,0 +1,156 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.util.ByteAndBitConverter;
+import java.math.BigInteger;
+
+/**
+ * Unsigned 64-bit integer composed of two 32-bit halves, i.e., k = 32 and s = 32. <p>The value is
+ * packed in a single long, so all arithmetic is native long arithmetic.</p>
+ */
+public class CompUInt64 implements CompUInt<UInt32, UInt32, CompUInt64> {
+
+  private final long value;
+
+  /**
+   * Creates new {@link CompUInt64}.
+   *
+   * @param bytes bytes interpreted in big-endian order. Arrays shorter than 8 bytes are treated as
+   *     the least significant bytes of the value.
+   */
+  public CompUInt64(byte[] bytes) {
+    if (bytes.length > 8) {
+      throw new IllegalArgumentException("Exceeds capacity");
+    }
+    long result = 0L;
+    for (byte b : bytes) {
+      result = (result << 8) | (b & 0xFFL);
+    }
+    this.value = result;
+  }
+
+  /**
+   * Creates new {@link CompUInt64} from {@link BigInteger}.
+   */
+  public CompUInt64(BigInteger value) {
+    this(CompUInt.pad(value.toByteArray(), 64));
+  }
+
+  CompUInt64(long value) {
+    this.value = value;
+  }
+
+  CompUInt64(UInt32 value) {
+    this(value.toLong());
+  }
+
+  @Override
+  public CompUInt64 add(CompUInt64 other) {
+    return new CompUInt64(value + other.value);
+  }
+
+  @Override
+  public CompUInt64 multiply(CompUInt64 other) {
+    return new CompUInt64(value * other.value);
+  }
+
+  @Override
+  public CompUInt64 subtract(CompUInt64 other) {
+    return new CompUInt64(value - other.value);
+  }
+
+  @Override
+  public CompUInt64 negateUInt() {
+    return new CompUInt64(-value);
+  }
+
+  @Override
+  public boolean isZero() {
+    return value == 0L;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public UInt32 getLeastSignificant() {
+    return new UInt32((int) value);
+  }
+
+  @Override
+  public UInt32 getMostSignificant() {
+    return new UInt32((int) (value >>> 32));
+  }
+
+  @Override
+  public UInt32 getLeastSignificantAsHigh() {
+    return getLeastSignificant();
+  }
+
+  @Override
+  public long toLong() {
+    return value;
+  }
+
+  @Override
+  public int toInt() {
+    return (int) value;
+  }
+
+  @Override
+  public CompUInt64 shiftLowIntoHigh() {
+    return new CompUInt64(value << 32);
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 32;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 32;
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    return ByteAndBitConverter.toByteArray(value);
+  }
+
+  @Override
+  public UIntAccumulator<CompUInt64> toAccumulator() {
+    return new Accumulator(value);
+  }
+
+  @Override
+  public String toString() {
+    return Long.toUnsignedString(value);
+  }
+
+  private static class Accumulator implements UIntAccumulator<CompUInt64> {
+
+    private long value;
+
+    private Accumulator(long value) {
+      this.value = value;
+    }
+
+    @Override
+    public void add(CompUInt64 other) {
+      value += other.value;
+    }
+
+    @Override
+    public void addProduct(CompUInt64 left, CompUInt64 right) {
+      value += left.value * right.value;
+    }
+
+    @Override
+    public CompUInt64 get() {
+      return new CompUInt64(value);
+    }
+
+  }
+
+}
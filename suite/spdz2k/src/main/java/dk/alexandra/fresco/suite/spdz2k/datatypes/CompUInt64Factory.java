@@ -0,0 +1,12 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+/**
+ * Factory for {@link CompUInt64} instances, with k = 32 and s = 32.
+ */
+public class CompUInt64Factory extends AbstractCompUIntFactory<CompUInt64> {
+
+  public CompUInt64Factory() {
+    super(32, 32, CompUInt64::new, CompUInt64::new, CompUInt64::new);
+  }
+
+}
@@ -0,0 +1,30 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+/**
+ * Accumulator for {@link UInt} types without a dedicated mutable representation. <p>Simply
+ * replaces the accumulated value with the result of the immutable operations.</p>
+ */
+class DefaultUIntAccumulator<T extends UInt<T>> implements UIntAccumulator<T> {
+
+  private T value;
+
+  DefaultUIntAccumulator(T value) {
+    this.value = value;
+  }
+
+  @Override
+  public void add(T other) {
+    value = value.add(other);
+  }
+
+  @Override
+  public void addProduct(T left, T right) {
+    value = value.add(left.multiply(right));
+  }
+
+  @Override
+  public T get() {
+    return value;
+  }
+
+}
@@ -0,0 +1,232 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.math.BigInteger;
+
+/**
+ * Base class for composite unsigned integers wider than 128 bits, stored as 32-bit limbs. <p>Limbs
+ * are kept in little-endian order, i.e., {@code limbs[0]} holds the least significant 32 bits,
+ * while byte representations remain big-endian as for all other {@link UInt} types. Both k and s
+ * must be multiples of 32.</p>
+ */
+abstract class LimbCompUInt<
+    HighT extends UInt<HighT>,
+    LowT extends UInt<LowT>,
+    CompT extends LimbCompUInt<HighT, LowT, CompT>> implements CompUInt<HighT, LowT, CompT> {
+
+  final int[] limbs;
+
+  /**
+   * Creates new instance from limbs. The array is used as is and must not be modified afterwards.
+   */
+  LimbCompUInt(int[] limbs) {
+    this.limbs = limbs;
+  }
+
+  /**
+   * Creates new instance from big-endian bytes. Arrays shorter than the total byte length are
+   * treated as the least significant bytes of the value.
+   */
+  LimbCompUInt(byte[] bytes, int numLimbs) {
+    if (bytes.length > numLimbs * Integer.BYTES) {
+      throw new IllegalArgumentException("Exceeds capacity");
+    }
+    this.limbs = new int[numLimbs];
+    for (int i = 0; i < bytes.length; i++) {
+      int byteIndex = bytes.length - 1 - i;
+      limbs[i / Integer.BYTES] |= (bytes[byteIndex] & 0xFF) << (Byte.SIZE * (i % Integer.BYTES));
+    }
+  }
+
+  /**
+   * Creates new instance of the concrete type from limbs.
+   */
+  abstract CompT fromLimbs(int[] limbs);
+
+  @Override
+  public CompT add(CompT other) {
+    int[] result = limbs.clone();
+    addInPlace(result, other.limbs);
+    return fromLimbs(result);
+  }
+
+  @Override
+  public CompT multiply(CompT other) {
+    int[] result = new int[limbs.length];
+    multiplyAddInPlace(result, limbs, other.limbs);
+    return fromLimbs(result);
+  }
+
+  @Override
+  public CompT subtract(CompT other) {
+    int[] result = new int[limbs.length];
+    long borrow = 0;
+    for (int i = 0; i < limbs.length; i++) {
+      long diff = UInt.toUnLong(limbs[i]) - UInt.toUnLong(other.limbs[i]) - borrow;
+      result[i] = (int) diff;
+      borrow = diff >>> 63;
+    }
+    return fromLimbs(result);
+  }
+
+  @Override
+  public CompT negateUInt() {
+    int[] result = new int[limbs.length];
+    long carry = 1;
+    for (int i = 0; i < limbs.length; i++) {
+      long sum = UInt.toUnLong(~limbs[i]) + carry;
+      result[i] = (int) sum;
+      carry = sum >>> 32;
+    }
+    return fromLimbs(result);
+  }
+
+  @Override
+  public boolean isZero() {
+    for (int limb : limbs) {
+      if (limb != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public CompT shiftLowIntoHigh() {
+    int[] result = new int[limbs.length];
+    int lowLimbs = getLowBitLength() / Integer.SIZE;
+    System.arraycopy(limbs, 0, result, lowLimbs, limbs.length - lowLimbs);
+    return fromLimbs(result);
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    byte[] bytes = new byte[limbs.length * Integer.BYTES];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[bytes.length - 1 - i] = (byte) (limbs[i / Integer.BYTES]
+          >>> (Byte.SIZE * (i % Integer.BYTES)));
+    }
+    return bytes;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public long toLong() {
+    return (UInt.toUnLong(limbs[1]) << 32) | UInt.toUnLong(limbs[0]);
+  }
+
+  @Override
+  public int toInt() {
+    return limbs[0];
+  }
+
+  @Override
+  public UIntAccumulator<CompT> toAccumulator() {
+    return new Accumulator<>(this);
+  }
+
+  @Override
+  public String toString() {
+    return toBigInteger().toString();
+  }
+
+  /**
+   * Creates a {@link CompUInt128} from four limbs starting at {@code offset}.
+   */
+  CompUInt128 toCompUInt128(int offset) {
+    return new CompUInt128(
+        (UInt.toUnLong(limbs[offset + 3]) << 32) | UInt.toUnLong(limbs[offset + 2]),
+        limbs[offset + 1],
+        limbs[offset]);
+  }
+
+  /**
+   * Returns the limbs of a {@link CompUInt128}, padded to the given number of limbs.
+   */
+  static int[] toLimbs(CompUInt128 value, int numLimbs) {
+    int[] result = new int[numLimbs];
+    long low = value.toLong();
+    long high = value.getMostSignificant().toLong();
+    result[0] = (int) low;
+    result[1] = (int) (low >>> 32);
+    result[2] = (int) high;
+    result[3] = (int) (high >>> 32);
+    return result;
+  }
+
+  /**
+   * Returns the limbs of a long, padded to the given number of limbs.
+   */
+  static int[] toLimbs(long value, int numLimbs) {
+    int[] result = new int[numLimbs];
+    result[0] = (int) value;
+    result[1] = (int) (value >>> 32);
+    return result;
+  }
+
+  /**
+   * Computes {@code acc += other} modulo 2^(32 * acc.length).
+   */
+  private static void addInPlace(int[] acc, int[] other) {
+    long carry = 0;
+    for (int i = 0; i < acc.length; i++) {
+      long sum = UInt.toUnLong(acc[i]) + UInt.toUnLong(other[i]) + carry;
+      acc[i] = (int) sum;
+      carry = sum >>> 32;
+    }
+  }
+
+  /**
+   * Computes {@code acc += left * right} modulo 2^(32 * acc.length). <p>Partial products which
+   * only affect limbs beyond the length of the accumulator are skipped.</p>
+   */
+  private static void multiplyAddInPlace(int[] acc, int[] left, int[] right) {
+    for (int i = 0; i < acc.length; i++) {
+      long leftLimb = UInt.toUnLong(left[i]);
+      if (leftLimb == 0) {
+        continue;
+      }
+      long carry = 0;
+      for (int j = 0; i + j < acc.length; j++) {
+        // at most (2^32 - 1)^2 + 2 * (2^32 - 1) = 2^64 - 1, so this cannot overflow
+        long product = leftLimb * UInt.toUnLong(right[j]) + UInt.toUnLong(acc[i + j]) + carry;
+        acc[i + j] = (int) product;
+        carry = product >>> 32;
+      }
+    }
+  }
+
+  private static class Accumulator<
+      HighT extends UInt<HighT>,
+      LowT extends UInt<LowT>,
+      CompT extends LimbCompUInt<HighT, LowT, CompT>> implements UIntAccumulator<CompT> {
+
+    private final LimbCompUInt<HighT, LowT, CompT> template;
+    private final int[] acc;
+
+    private Accumulator(LimbCompUInt<HighT, LowT, CompT> initial) {
+      this.template = initial;
+      this.acc = initial.limbs.clone();
+    }
+
+    @Override
+    public void add(CompT other) {
+      addInPlace(acc, other.limbs);
+    }
+
+    @Override
+    public void addProduct(CompT left, CompT right) {
+      multiplyAddInPlace(acc, left.limbs, right.limbs);
+    }
+
+    @Override
+    public CompT get() {
+      return template.fromLimbs(acc.clone());
+    }
+
+  }
+
+}
@@ -62,11 +62,25 @@ public interface UInt<T extends UInt> {
    */
   int toInt();
 
+  /**
+   * Creates a new {@link UIntAccumulator} with this as its initial value. <p>The default
+   * implementation falls back on the immutable operations; types used in hot loops should override
+   * this with an accumulator that works in place.</p>
+   */
+  @SuppressWarnings("unchecked")
+  default UIntAccumulator<T> toAccumulator() {
+    return new DefaultUIntAccumulator<>((T) this);
+  }
+
   /**
    * Compute sum of elements.
    */
   static <S extends UInt<S>> S sum(List<S> elements) {
-    return sum(elements.stream());
+    UIntAccumulator<S> accumulator = elements.get(0).toAccumulator();
+    for (int i = 1; i < elements.size(); i++) {
+      accumulator.add(elements.get(i));
+    }
+    return accumulator.get();
   }
 
   static <S extends UInt<S>> S sum(Stream<S> elements) {
@@ -78,11 +92,11 @@ public interface UInt<T extends UInt> {
    * Compute inner product of elements.
    */
   static <S extends UInt<S>> S innerProduct(List<S> left, List<S> right) {
-    S accumulator = left.get(0).multiply(right.get(0));
+    UIntAccumulator<S> accumulator = left.get(0).multiply(right.get(0)).toAccumulator();
     for (int i = 1; i < left.size(); i++) {
-      accumulator = accumulator.add(left.get(i).multiply(right.get(i)));
+      accumulator.addProduct(left.get(i), right.get(i));
     }
-    return accumulator;
+    return accumulator.get();
   }
 
   /**
@@ -65,9 +65,39 @@ public class UInt32 implements UInt<UInt32> {
     return value;
   }
 
+  @Override
+  public UIntAccumulator<UInt32> toAccumulator() {
+    return new Accumulator(value);
+  }
+
   @Override
   public String toString() {
     return Integer.toUnsignedString(value);
   }
 
+  private static class Accumulator implements UIntAccumulator<UInt32> {
+
+    private int value;
+
+    private Accumulator(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public void add(UInt32 other) {
+      value += other.value;
+    }
+
+    @Override
+    public void addProduct(UInt32 left, UInt32 right) {
+      value += left.value * right.value;
+    }
+
+    @Override
+    public UInt32 get() {
+      return new UInt32(value);
+    }
+
+  }
+
 }
@@ -65,8 +65,39 @@ public class UInt64 implements UInt<UInt64> {
     return (int) value;
   }
 
+  @Override
+  public UIntAccumulator<UInt64> toAccumulator() {
+    return new Accumulator(value);
+  }
+
   @Override
   public String toString() {
     return Long.toUnsignedString(value);
   }
+
+  private static class Accumulator implements UIntAccumulator<UInt64> {
+
+    private long value;
+
+    private Accumulator(long value) {
+      this.value = value;
+    }
+
+    @Override
+    public void add(UInt64 other) {
+      value += other.value;
+    }
+
+    @Override
+    public void addProduct(UInt64 left, UInt64 right) {
+      value += left.value * right.value;
+    }
+
+    @Override
+    public UInt64 get() {
+      return new UInt64(value);
+    }
+
+  }
+
 }
@@ -0,0 +1,25 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+/**
+ * A mutable sum of {@link UInt} instances. <p>Accumulators are used for long running sums, such as
+ * inner products in the mac-check, where allocating a new {@link UInt} for every intermediate
+ * result is wasteful. Implementations should update their state in place.</p>
+ */
+public interface UIntAccumulator<T extends UInt> {
+
+  /**
+   * Adds {@code other} to the accumulated value.
+   */
+  void add(T other);
+
+  /**
+   * Adds the product of {@code left} and {@code right} to the accumulated value.
+   */
+  void addProduct(T left, T right);
+
+  /**
+   * Returns the accumulated value as an immutable {@link UInt}.
+   */
+  T get();
+
+}
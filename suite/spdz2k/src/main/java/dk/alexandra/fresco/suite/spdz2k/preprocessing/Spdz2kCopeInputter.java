@@ -0,0 +1,93 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The <i>inputter</i> party's side of the Correlated Oblivious Product Evaluation (COPE) protocol,
+ * carried out in the ring of {@link CompUInt} elements. For the other side of the protocol, see
+ * {@link Spdz2kCopeSigner}.
+ *
+ * <p>
+ * For each bit of the signer's <i>&Delta;</i> the inputter holds two PRGs, one of which the
+ * signer also holds. For every input <i>x</i> the inputter draws <i>t<sub>0</sub></i> and
+ * <i>t<sub>1</sub></i> from these and sends <i>t<sub>0</sub> - t<sub>1</sub> + x</i>, which lets
+ * the signer compute <i>t<sub>0</sub> + &Delta;<sub>b</sub>x</i>.
+ * </p>
+ */
+public class Spdz2kCopeInputter<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final Network network;
+  private final int otherId;
+  private final int byteLength;
+  private final List<Pair<Drbg, Drbg>> prgs;
+  private final List<PlainT> powersOfTwo;
+
+  /**
+   * Creates new {@link Spdz2kCopeInputter}, running the initialization of COPE.
+   *
+   * @param factory factory for ring elements
+   * @param rot random OT shared with the other party
+   * @param network the network
+   * @param otherId the id of the signer
+   */
+  public Spdz2kCopeInputter(CompUIntFactory<PlainT> factory, RotBatch rot, Network network,
+      int otherId) {
+    this.factory = factory;
+    this.network = network;
+    this.otherId = otherId;
+    int bitLength = factory.getCompositeBitLength();
+    this.byteLength = bitLength / Byte.SIZE;
+    this.prgs = new ArrayList<>(bitLength);
+    for (Pair<StrictBitVector, StrictBitVector> seeds
+        : rot.send(bitLength, AesCtrDrbg.SEED_LENGTH * Byte.SIZE)) {
+      prgs.add(new Pair<>(new AesCtrDrbg(seeds.getFirst().toByteArray()),
+          new AesCtrDrbg(seeds.getSecond().toByteArray())));
+    }
+    this.powersOfTwo = new ArrayList<>(bitLength);
+    PlainT power = factory.createElement(1);
+    PlainT two = factory.createElement(2);
+    for (int b = 0; b < bitLength; b++) {
+      powersOfTwo.add(power);
+      power = power.multiply(two);
+    }
+  }
+
+  /**
+   * Computes shares of the products of the signer's <i>&Delta;</i> and the given values.
+   *
+   * @param inputs this party's values
+   * @return this party's shares of the products
+   */
+  public List<PlainT> extend(List<PlainT> inputs) {
+    List<PlainT> diffs = new ArrayList<>(inputs.size() * prgs.size());
+    List<PlainT> productShares = new ArrayList<>(inputs.size());
+    for (PlainT input : inputs) {
+      PlainT productShare = factory.zero();
+      for (int b = 0; b < prgs.size(); b++) {
+        PlainT zeroMask = next(prgs.get(b).getFirst());
+        PlainT oneMask = next(prgs.get(b).getSecond());
+        diffs.add(zeroMask.subtract(oneMask).add(input));
+        productShare = productShare.subtract(zeroMask.multiply(powersOfTwo.get(b)));
+      }
+      productShares.add(productShare);
+    }
+    network.send(otherId, factory.getSerializer().serialize(diffs));
+    return productShares;
+  }
+
+  private PlainT next(Drbg prg) {
+    byte[] bytes = new byte[byteLength];
+    prg.nextBytes(bytes);
+    return factory.deserialize(bytes);
+  }
+}
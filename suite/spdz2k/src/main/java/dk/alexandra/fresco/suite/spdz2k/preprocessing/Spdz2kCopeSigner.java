@@ -0,0 +1,98 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The <i>signer</i> party's side of the Correlated Oblivious Product Evaluation (COPE) protocol,
+ * carried out in the ring of {@link CompUInt} elements.
+ *
+ * <p>
+ * COPE lets the signer, holding a fixed value <i>&Delta;</i>, and the <i>inputter</i>, holding
+ * values <i>x<sub>1</sub>, ..., x<sub>n</sub></i>, compute additive shares of <i>&Delta;x<sub>1
+ * </sub>, ..., &Delta;x<sub>n</sub></i>. The bits of <i>&Delta;</i> are used as choice bits once,
+ * when seeding the PRGs, so every extension is guaranteed to use the same <i>&Delta;</i>. For the
+ * other side of the protocol, see {@link Spdz2kCopeInputter}.
+ * </p>
+ */
+public class Spdz2kCopeSigner<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final Network network;
+  private final int otherId;
+  private final int byteLength;
+  private final StrictBitVector deltaBits;
+  private final List<Drbg> prgs;
+  private final List<PlainT> powersOfTwo;
+
+  /**
+   * Creates new {@link Spdz2kCopeSigner}, running the initialization of COPE, in which the bits of
+   * <i>&Delta;</i> choose the seeds of the PRGs used in all following extensions.
+   *
+   * @param factory factory for ring elements
+   * @param rot random OT shared with the other party
+   * @param network the network
+   * @param otherId the id of the inputter
+   * @param delta this party's fixed value, typically its mac key share
+   */
+  public Spdz2kCopeSigner(CompUIntFactory<PlainT> factory, RotBatch rot, Network network,
+      int otherId, PlainT delta) {
+    this.factory = factory;
+    this.network = network;
+    this.otherId = otherId;
+    int bitLength = factory.getCompositeBitLength();
+    this.byteLength = bitLength / Byte.SIZE;
+    this.deltaBits = new StrictBitVector(delta.toByteArray());
+    StrictBitVector choices = new StrictBitVector(bitLength);
+    for (int b = 0; b < bitLength; b++) {
+      choices.setBit(b, deltaBits.getBit(b, true), false);
+    }
+    this.prgs = new ArrayList<>(bitLength);
+    for (StrictBitVector seed : rot.receive(choices, AesCtrDrbg.SEED_LENGTH * Byte.SIZE)) {
+      prgs.add(new AesCtrDrbg(seed.toByteArray()));
+    }
+    this.powersOfTwo = new ArrayList<>(bitLength);
+    PlainT power = factory.createElement(1);
+    PlainT two = factory.createElement(2);
+    for (int b = 0; b < bitLength; b++) {
+      powersOfTwo.add(power);
+      power = power.multiply(two);
+    }
+  }
+
+  /**
+   * Computes shares of the products of <i>&Delta;</i> and the inputter's next values.
+   *
+   * @param numInputs number of values input by the other party
+   * @return this party's shares of the products
+   */
+  public List<PlainT> extend(int numInputs) {
+    List<PlainT> diffs = factory.getSerializer().deserializeList(network.receive(otherId));
+    List<PlainT> productShares = new ArrayList<>(numInputs);
+    for (int i = 0; i < numInputs; i++) {
+      PlainT productShare = factory.zero();
+      for (int b = 0; b < prgs.size(); b++) {
+        PlainT summand = next(prgs.get(b));
+        if (deltaBits.getBit(b, true)) {
+          summand = summand.add(diffs.get(i * prgs.size() + b));
+        }
+        productShare = productShare.add(summand.multiply(powersOfTwo.get(b)));
+      }
+      productShares.add(productShare);
+    }
+    return productShares;
+  }
+
+  private PlainT next(Drbg prg) {
+    byte[] bytes = new byte[byteLength];
+    prg.nextBytes(bytes);
+    return factory.deserialize(bytes);
+  }
+}
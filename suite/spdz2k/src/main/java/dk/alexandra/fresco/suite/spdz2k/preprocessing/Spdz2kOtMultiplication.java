@@ -0,0 +1,130 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Two-party protocol for computing additive shares of the entry wise product of a vector
+ * <i><b>a</b></i> held by the <i>left</i> party and a vector <i><b>b</b></i> held by the
+ * <i>right</i> party, over the ring of {@link CompUInt} elements.
+ *
+ * <p>
+ * This is the OT based multiplication of Gilboa, as used in the <i>Multiply</i> sub-protocol of
+ * MASCOT, but carried out in the ring <i>Z<sub>2<sup>k+s</sup></sub></i> rather than a prime field.
+ * For each bit <i>a<sub>i</sub></i> of a left factor the parties run a random OT, with the left
+ * party choosing by <i>a<sub>i</sub></i>. The right party obtains <i>(q<sub>0</sub>,
+ * q<sub>1</sub>)</i> and sends <i>q<sub>0</sub> - q<sub>1</sub> + b</i>, which lets the left party
+ * compute <i>q<sub>0</sub> + a<sub>i</sub>b</i>. Recombining the bits then gives shares of
+ * <i>ab</i>. Since the ring has characteristic <i>2<sup>k+s</sup></i>, recombining is exact and no
+ * reduction is needed.
+ * </p>
+ *
+ * <p>
+ * Both parties must call the methods in matching order: whenever one party calls
+ * {@link #multiplyLeft(List)} the other party must call {@link #multiplyRight(List)} with a vector
+ * of the same length.
+ * </p>
+ */
+public class Spdz2kOtMultiplication<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final RotBatch rot;
+  private final Network network;
+  private final int otherId;
+  private final int bitLength;
+  private final List<PlainT> powersOfTwo;
+
+  /**
+   * Creates new {@link Spdz2kOtMultiplication}.
+   *
+   * @param factory factory for ring elements
+   * @param rot random OT shared with the other party
+   * @param network the network
+   * @param otherId the id of the other party
+   */
+  public Spdz2kOtMultiplication(CompUIntFactory<PlainT> factory, RotBatch rot, Network network,
+      int otherId) {
+    this.factory = factory;
+    this.rot = rot;
+    this.network = network;
+    this.otherId = otherId;
+    this.bitLength = factory.getCompositeBitLength();
+    this.powersOfTwo = new ArrayList<>(bitLength);
+    PlainT power = factory.createElement(1);
+    PlainT two = factory.createElement(2);
+    for (int i = 0; i < bitLength; i++) {
+      powersOfTwo.add(power);
+      power = power.multiply(two);
+    }
+  }
+
+  /**
+   * Runs the protocol as the left party.
+   *
+   * @param leftFactors this party's factors <i>a<sub>0</sub>, a<sub>1</sub>, ...</i>
+   * @return shares of the products <i>a<sub>0</sub>b<sub>0</sub>, a<sub>1</sub>b<sub>1</sub>,
+   *     ...</i>
+   */
+  public List<PlainT> multiplyLeft(List<PlainT> leftFactors) {
+    StrictBitVector choices = new StrictBitVector(leftFactors.size() * bitLength);
+    List<StrictBitVector> factorBits = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      StrictBitVector bits = new StrictBitVector(leftFactors.get(i).toByteArray());
+      factorBits.add(bits);
+      for (int b = 0; b < bitLength; b++) {
+        choices.setBit(i * bitLength + b, bits.getBit(b, true), false);
+      }
+    }
+    List<StrictBitVector> seeds = rot.receive(choices, bitLength);
+    List<PlainT> diffs = factory.getSerializer().deserializeList(network.receive(otherId));
+    List<PlainT> productShares = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      StrictBitVector bits = factorBits.get(i);
+      PlainT productShare = factory.zero();
+      for (int b = 0; b < bitLength; b++) {
+        int index = i * bitLength + b;
+        PlainT summand = factory.deserialize(seeds.get(index).toByteArray());
+        if (bits.getBit(b, true)) {
+          summand = summand.add(diffs.get(index));
+        }
+        productShare = productShare.add(summand.multiply(powersOfTwo.get(b)));
+      }
+      productShares.add(productShare);
+    }
+    return productShares;
+  }
+
+  /**
+   * Runs the protocol as the right party.
+   *
+   * @param rightFactors this party's factors <i>b<sub>0</sub>, b<sub>1</sub>, ...</i>
+   * @return shares of the products <i>a<sub>0</sub>b<sub>0</sub>, a<sub>1</sub>b<sub>1</sub>,
+   *     ...</i>
+   */
+  public List<PlainT> multiplyRight(List<PlainT> rightFactors) {
+    List<Pair<StrictBitVector, StrictBitVector>> seedPairs =
+        rot.send(rightFactors.size() * bitLength, bitLength);
+    List<PlainT> diffs = new ArrayList<>(seedPairs.size());
+    List<PlainT> productShares = new ArrayList<>(rightFactors.size());
+    for (int i = 0; i < rightFactors.size(); i++) {
+      PlainT rightFactor = rightFactors.get(i);
+      PlainT productShare = factory.zero();
+      for (int b = 0; b < bitLength; b++) {
+        Pair<StrictBitVector, StrictBitVector> seedPair = seedPairs.get(i * bitLength + b);
+        PlainT zeroSeed = factory.deserialize(seedPair.getFirst().toByteArray());
+        PlainT oneSeed = factory.deserialize(seedPair.getSecond().toByteArray());
+        diffs.add(zeroSeed.subtract(oneSeed).add(rightFactor));
+        productShare = productShare.subtract(zeroSeed.multiply(powersOfTwo.get(b)));
+      }
+      productShares.add(productShare);
+    }
+    network.send(otherId, factory.getSerializer().serialize(diffs));
+    return productShares;
+  }
+}
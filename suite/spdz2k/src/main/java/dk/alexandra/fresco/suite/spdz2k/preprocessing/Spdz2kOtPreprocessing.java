@@ -0,0 +1,525 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.commitment.HashBasedCommitment;
+import dk.alexandra.fresco.commitment.HashBasedCommitmentSerializer;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ByteArrayHelper;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.otextension.BristolRotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePoolImpl;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates authenticated pre-processing material for Spdz2k, using OT extension for all
+ * multiplications between the parties' shares.
+ *
+ * <p>
+ * The generation follows MASCOT, carried out in the ring <i>Z<sub>2<sup>k+s</sup></sub></i> of the
+ * {@link CompUInt} type:
+ * </p>
+ * <ul>
+ * <li>Products of secret shared values are computed by running {@link Spdz2kOtMultiplication}
+ * between every ordered pair of parties.</li>
+ * <li>Values are authenticated by multiplying them with the secret shared mac key using
+ * {@link Spdz2kCopeSigner} and {@link Spdz2kCopeInputter}. Each party's mac key share chooses the
+ * seeds of COPE once, when this class is created, so the same mac key is used for all values.
+ * Before any authenticated values are returned, a random linear combination of them, masked by an
+ * extra random authenticated value, is opened and mac checked. This catches a party which inputs
+ * inconsistent values to COPE.</li>
+ * <li>Triples are generated from several candidates for the left factor, which are combined using
+ * joint random coefficients to remove leakage on the individual candidates, and each triple is
+ * checked by sacrificing a second triple sharing the right factor. The opened values of the
+ * sacrifice are mac checked before the triples are returned.</li>
+ * </ul>
+ *
+ * <p>
+ * Random bits are computed as the exclusive or of a random bit from each party. Since a corrupt
+ * party could contribute a value which is not a bit, each bit <i>b</i> is checked by computing
+ * <i>b(b - 1)</i> with a triple and verifying that it opens to zero, which, as <i>b</i> and <i>b -
+ * 1</i> can not both be even, only holds if <i>b</i> is zero or one.
+ * </p>
+ */
+public class Spdz2kOtPreprocessing<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private static final int INSTANCE_ID = 1;
+  private final int myId;
+  private final int noOfParties;
+  private final CompUIntFactory<PlainT> factory;
+  private final ByteSerializer<PlainT> serializer;
+  private final PlainT macKeyShare;
+  private final Network network;
+  private final Drbg localDrbg;
+  private final int numCandidatesPerTriple;
+  private final int byteLength;
+  private final MessageDigest digest;
+  private final Map<Integer, Spdz2kOtMultiplication<PlainT>> multipliers;
+  private final Map<Integer, Spdz2kCopeSigner<PlainT>> signers;
+  private final Map<Integer, Spdz2kCopeInputter<PlainT>> inputters;
+  private final Drbg jointDrbg;
+
+  /**
+   * Creates new {@link Spdz2kOtPreprocessing}, setting up OT extension and COPE with each of the
+   * other parties and agreeing on a joint source of randomness. All parties must call the methods
+   * of this class in the same order and with the same arguments.
+   *
+   * @param myId this party's id
+   * @param noOfParties number of parties
+   * @param factory factory for ring elements
+   * @param macKeyShare this party's share of the mac key
+   * @param network network used only for pre-processing
+   * @param seedOts pre-computed base OTs with each of the other parties
+   * @param localDrbg source of local randomness
+   * @param prgSeedLength bit length of the seeds, which must match the number of seed OTs
+   * @param lambdaSecurityParam statistical security parameter of the OT extension
+   * @param numCandidatesPerTriple number of candidates combined into each left factor
+   */
+  public Spdz2kOtPreprocessing(int myId, int noOfParties, CompUIntFactory<PlainT> factory,
+      PlainT macKeyShare, Network network, Map<Integer, RotList> seedOts, Drbg localDrbg,
+      int prgSeedLength, int lambdaSecurityParam, int numCandidatesPerTriple) {
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.factory = factory;
+    this.serializer = factory.getSerializer();
+    this.macKeyShare = macKeyShare;
+    this.network = network;
+    this.localDrbg = localDrbg;
+    this.numCandidatesPerTriple = numCandidatesPerTriple;
+    this.byteLength = factory.getCompositeBitLength() / Byte.SIZE;
+    this.digest = ExceptionConverter.safe(() -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for Spdz2k");
+    this.multipliers = new HashMap<>();
+    this.signers = new HashMap<>();
+    this.inputters = new HashMap<>();
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (partyId != myId) {
+        CoinTossing coinTossing = new CoinTossing(myId, partyId, localDrbg);
+        coinTossing.initialize(network);
+        OtExtensionResourcePool otResources = new OtExtensionResourcePoolImpl(myId, partyId,
+            prgSeedLength, lambdaSecurityParam, INSTANCE_ID, localDrbg, coinTossing,
+            seedOts.get(partyId));
+        BristolRotBatch rot = new BristolRotBatch(new RotFactory(otResources, network),
+            prgSeedLength, lambdaSecurityParam);
+        multipliers.put(partyId, new Spdz2kOtMultiplication<>(factory, rot, network, partyId));
+        if (myId < partyId) {
+          signers.put(partyId, createSigner(rot, partyId));
+          inputters.put(partyId, createInputter(rot, partyId));
+        } else {
+          inputters.put(partyId, createInputter(rot, partyId));
+          signers.put(partyId, createSigner(rot, partyId));
+        }
+      }
+    }
+    this.jointDrbg = new AesCtrDrbg(generateJointSeed());
+  }
+
+  private Spdz2kCopeSigner<PlainT> createSigner(RotBatch rot, int partyId) {
+    return new Spdz2kCopeSigner<>(factory, rot, network, partyId, macKeyShare);
+  }
+
+  /**
+   * Creates the inputter side of COPE with the given party. Called from the constructor and
+   * package-private so tests can let a party input inconsistent values.
+   */
+  Spdz2kCopeInputter<PlainT> createInputter(RotBatch rot, int partyId) {
+    return new Spdz2kCopeInputter<>(factory, rot, network, partyId);
+  }
+
+  /**
+   * Generates authenticated multiplication triples.
+   *
+   * @param numTriples number of triples
+   * @return this party's shares of the triples
+   */
+  public List<Spdz2kTriple<PlainT>> generateTriples(int numTriples) {
+    int candidatesPerRightFactor = 2 * numCandidatesPerTriple;
+    List<PlainT> rightFactors = sample(localDrbg, numTriples);
+    List<PlainT> leftCandidates = sample(localDrbg, numTriples * candidatesPerRightFactor);
+    List<PlainT> stretched = new ArrayList<>(leftCandidates.size());
+    for (PlainT rightFactor : rightFactors) {
+      stretched.addAll(Collections.nCopies(candidatesPerRightFactor, rightFactor));
+    }
+    List<PlainT> productCandidates = multiply(leftCandidates, stretched);
+    List<PlainT> coefficients = sample(jointDrbg, candidatesPerRightFactor);
+    // for each triple we authenticate a, b, c and the sacrificed a', c' sharing b
+    List<PlainT> unauthenticated = new ArrayList<>(5 * numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      int offset = i * candidatesPerRightFactor;
+      int sacrificeOffset = offset + numCandidatesPerTriple;
+      unauthenticated.add(combine(leftCandidates, offset, coefficients, 0));
+      unauthenticated.add(rightFactors.get(i));
+      unauthenticated.add(combine(productCandidates, offset, coefficients, 0));
+      unauthenticated.add(
+          combine(leftCandidates, sacrificeOffset, coefficients, numCandidatesPerTriple));
+      unauthenticated.add(
+          combine(productCandidates, sacrificeOffset, coefficients, numCandidatesPerTriple));
+    }
+    List<Spdz2kSInt<PlainT>> authenticated = authenticate(unauthenticated);
+    return sacrifice(authenticated, numTriples);
+  }
+
+  /**
+   * Generates authenticated random elements.
+   *
+   * @param numElements number of elements
+   * @return this party's shares of the elements
+   */
+  public List<Spdz2kSInt<PlainT>> generateRandomElements(int numElements) {
+    return authenticate(sample(localDrbg, numElements));
+  }
+
+  /**
+   * Generates authenticated random bits.
+   *
+   * @param numBits number of bits
+   * @return this party's shares of the bits
+   */
+  public List<Spdz2kSInt<PlainT>> generateBits(int numBits) {
+    List<PlainT> shares = myId == 1 ? sampleBits(numBits) : zeros(numBits);
+    PlainT two = factory.createElement(2);
+    for (int partyId = 2; partyId <= noOfParties; partyId++) {
+      List<PlainT> partyBits = myId == partyId ? sampleBits(numBits) : zeros(numBits);
+      List<PlainT> products = multiply(shares, partyBits);
+      List<PlainT> xored = new ArrayList<>(numBits);
+      for (int i = 0; i < numBits; i++) {
+        // b xor r = b + r - 2br
+        xored.add(shares.get(i).add(partyBits.get(i)).subtract(two.multiply(products.get(i))));
+      }
+      shares = xored;
+    }
+    List<Spdz2kSInt<PlainT>> bits = authenticate(shares);
+    checkBits(bits);
+    return bits;
+  }
+
+  /**
+   * Generates authenticated input masks, the values of which are known to the input party.
+   *
+   * @param inputterId the id of the input party
+   * @param numMasks number of masks
+   * @return this party's shares of the masks, along with the values for the input party
+   */
+  public List<Spdz2kInputMask<PlainT>> generateInputMasks(int inputterId, int numMasks) {
+    List<PlainT> values = myId == inputterId ? sample(localDrbg, numMasks) : zeros(numMasks);
+    List<Spdz2kSInt<PlainT>> authenticated = authenticate(values);
+    List<Spdz2kInputMask<PlainT>> masks = new ArrayList<>(numMasks);
+    for (int i = 0; i < numMasks; i++) {
+      if (myId == inputterId) {
+        masks.add(new Spdz2kInputMask<>(authenticated.get(i), values.get(i)));
+      } else {
+        masks.add(new Spdz2kInputMask<>(authenticated.get(i)));
+      }
+    }
+    return masks;
+  }
+
+  /**
+   * Computes shares of the entry wise products of two secret shared vectors.
+   *
+   * @param leftShares this party's shares of the left factors, used as choice bits in the OTs
+   * @param rightShares this party's shares of the right factors
+   * @return this party's shares of the products
+   */
+  List<PlainT> multiply(List<PlainT> leftShares, List<PlainT> rightShares) {
+    List<PlainT> products = new ArrayList<>(leftShares.size());
+    for (int i = 0; i < leftShares.size(); i++) {
+      products.add(leftShares.get(i).multiply(rightShares.get(i)));
+    }
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (partyId != myId) {
+        Spdz2kOtMultiplication<PlainT> multiplier = multipliers.get(partyId);
+        List<PlainT> leftProducts;
+        List<PlainT> rightProducts;
+        if (myId < partyId) {
+          leftProducts = multiplier.multiplyLeft(leftShares);
+          rightProducts = multiplier.multiplyRight(rightShares);
+        } else {
+          rightProducts = multiplier.multiplyRight(rightShares);
+          leftProducts = multiplier.multiplyLeft(leftShares);
+        }
+        for (int i = 0; i < products.size(); i++) {
+          products.set(i, products.get(i).add(leftProducts.get(i)).add(rightProducts.get(i)));
+        }
+      }
+    }
+    return products;
+  }
+
+  /**
+   * Authenticates secret shared values by computing shares of their products with the mac key. An
+   * extra random value is authenticated along with the values and used to mask a random linear
+   * combination of them, which is then opened and mac checked.
+   */
+  List<Spdz2kSInt<PlainT>> authenticate(List<PlainT> shares) {
+    List<PlainT> values = new ArrayList<>(shares.size() + 1);
+    values.addAll(shares);
+    values.addAll(sample(localDrbg, 1));
+    List<PlainT> macShares = new ArrayList<>(values.size());
+    for (PlainT value : values) {
+      macShares.add(macKeyShare.multiply(value));
+    }
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      if (partyId != myId) {
+        List<PlainT> signedShares;
+        List<PlainT> inputShares;
+        if (myId < partyId) {
+          signedShares = signers.get(partyId).extend(values.size());
+          inputShares = inputters.get(partyId).extend(values);
+        } else {
+          inputShares = inputters.get(partyId).extend(values);
+          signedShares = signers.get(partyId).extend(values.size());
+        }
+        for (int i = 0; i < macShares.size(); i++) {
+          macShares.set(i, macShares.get(i).add(signedShares.get(i)).add(inputShares.get(i)));
+        }
+      }
+    }
+    List<Spdz2kSInt<PlainT>> authenticated = new ArrayList<>(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      authenticated.add(new Spdz2kSInt<>(values.get(i), macShares.get(i)));
+    }
+    Spdz2kSInt<PlainT> combination = authenticated.remove(shares.size());
+    List<PlainT> coefficients = sample(jointDrbg, shares.size());
+    for (int i = 0; i < shares.size(); i++) {
+      combination = combination.add(authenticated.get(i).multiply(coefficients.get(i)));
+    }
+    List<Spdz2kSInt<PlainT>> opened = Collections.singletonList(combination);
+    macCheck(opened, open(opened));
+    return authenticated;
+  }
+
+  /**
+   * Checks that each of the authenticated values is a bit, by computing <i>b(b - 1)</i> using a
+   * triple and verifying that it opens to zero.
+   */
+  private void checkBits(List<Spdz2kSInt<PlainT>> bits) {
+    List<Spdz2kTriple<PlainT>> triples = generateTriples(bits.size());
+    PlainT minusOne = factory.zero().subtract(factory.createElement(1));
+    List<Spdz2kSInt<PlainT>> masked = new ArrayList<>(2 * bits.size());
+    for (int i = 0; i < bits.size(); i++) {
+      Spdz2kSInt<PlainT> bit = bits.get(i);
+      Spdz2kTriple<PlainT> triple = triples.get(i);
+      masked.add(bit.subtract(triple.getLeft()));
+      masked.add(bit.addConstant(minusOne, macKeyShare, factory.zero(), myId == 1)
+          .subtract(triple.getRight()));
+    }
+    List<PlainT> openedMasked = open(masked);
+    List<Spdz2kSInt<PlainT>> products = new ArrayList<>(bits.size());
+    for (int i = 0; i < bits.size(); i++) {
+      Spdz2kTriple<PlainT> triple = triples.get(i);
+      PlainT epsilon = openedMasked.get(2 * i);
+      PlainT delta = openedMasked.get(2 * i + 1);
+      products.add(triple.getProduct()
+          .add(triple.getRight().multiply(epsilon))
+          .add(triple.getLeft().multiply(delta))
+          .addConstant(epsilon.multiply(delta), macKeyShare, factory.zero(), myId == 1));
+    }
+    List<PlainT> openedProducts = open(products);
+    for (PlainT product : openedProducts) {
+      if (!product.isZero()) {
+        throw new MaliciousException("Bit check failed");
+      }
+    }
+    List<Spdz2kSInt<PlainT>> opened = new ArrayList<>(masked);
+    opened.addAll(products);
+    List<PlainT> openValues = new ArrayList<>(openedMasked);
+    openValues.addAll(openedProducts);
+    macCheck(opened, openValues);
+  }
+
+  /**
+   * Checks each triple <i>(a, b, c)</i> using a triple <i>(a', b, c')</i> by opening <i>&rho; = ta
+   * - a'</i> for a random <i>t</i> and verifying that <i>tc - c' - &rho;b</i> opens to zero. An
+   * error <i>e</i> in <i>c</i> passes only if the error in <i>c'</i> equals <i>te</i>, which, for
+   * errors affecting the lower <i>k</i> bits, happens with probability at most
+   * <i>2<sup>-s</sup></i>.
+   */
+  private List<Spdz2kTriple<PlainT>> sacrifice(List<Spdz2kSInt<PlainT>> authenticated,
+      int numTriples) {
+    List<PlainT> challenges = sample(jointDrbg, numTriples);
+    List<Spdz2kSInt<PlainT>> rhos = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      Spdz2kSInt<PlainT> left = authenticated.get(5 * i);
+      Spdz2kSInt<PlainT> sacrificedLeft = authenticated.get(5 * i + 3);
+      rhos.add(left.multiply(challenges.get(i)).subtract(sacrificedLeft));
+    }
+    List<PlainT> openedRhos = open(rhos);
+    List<Spdz2kSInt<PlainT>> sigmas = new ArrayList<>(numTriples);
+    List<Spdz2kTriple<PlainT>> triples = new ArrayList<>(numTriples);
+    for (int i = 0; i < numTriples; i++) {
+      Spdz2kSInt<PlainT> left = authenticated.get(5 * i);
+      Spdz2kSInt<PlainT> right = authenticated.get(5 * i + 1);
+      Spdz2kSInt<PlainT> product = authenticated.get(5 * i + 2);
+      Spdz2kSInt<PlainT> sacrificedProduct = authenticated.get(5 * i + 4);
+      sigmas.add(product.multiply(challenges.get(i))
+          .subtract(sacrificedProduct)
+          .subtract(right.multiply(openedRhos.get(i))));
+      triples.add(new Spdz2kTriple<>(left, right, product));
+    }
+    List<PlainT> openedSigmas = open(sigmas);
+    for (PlainT sigma : openedSigmas) {
+      if (!sigma.isZero()) {
+        throw new MaliciousException("Triple sacrifice failed");
+      }
+    }
+    List<Spdz2kSInt<PlainT>> opened = new ArrayList<>(rhos);
+    opened.addAll(sigmas);
+    List<PlainT> openValues = new ArrayList<>(openedRhos);
+    openValues.addAll(openedSigmas);
+    macCheck(opened, openValues);
+    return triples;
+  }
+
+  /**
+   * Opens authenticated values towards all parties. All <i>k+s</i> bits of the shares are
+   * revealed, since the values are only used to check other values.
+   */
+  private List<PlainT> open(List<Spdz2kSInt<PlainT>> values) {
+    List<PlainT> shares = new ArrayList<>(values.size());
+    for (Spdz2kSInt<PlainT> value : values) {
+      shares.add(value.getShare());
+    }
+    network.sendToAll(serializer.serialize(shares));
+    List<PlainT> opened = new ArrayList<>(zeros(values.size()));
+    for (byte[] received : network.receiveFromAll()) {
+      List<PlainT> partyShares = serializer.deserializeList(received);
+      for (int i = 0; i < opened.size(); i++) {
+        opened.set(i, opened.get(i).add(partyShares.get(i)));
+      }
+    }
+    return opened;
+  }
+
+  /**
+   * Checks the macs of values opened by {@link #open(List)}. As all bits of the values were
+   * opened, checking a random linear combination of the values suffices.
+   */
+  private void macCheck(List<Spdz2kSInt<PlainT>> values, List<PlainT> openValues) {
+    List<PlainT> coefficients = sample(jointDrbg, values.size());
+    List<PlainT> macShares = new ArrayList<>(values.size());
+    for (Spdz2kSInt<PlainT> value : values) {
+      macShares.add(value.getMacShare());
+    }
+    PlainT y = UInt.innerProduct(openValues, coefficients);
+    PlainT z = macKeyShare.multiply(y).subtract(UInt.innerProduct(macShares, coefficients));
+    List<PlainT> zs = new ArrayList<>(noOfParties);
+    for (byte[] bytes : commitAndOpen(serializer.serialize(z))) {
+      zs.add(serializer.deserialize(bytes));
+    }
+    if (!UInt.sum(zs).isZero()) {
+      throw new MaliciousException("Mac check failed");
+    }
+  }
+
+  private byte[] generateJointSeed() {
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    localDrbg.nextBytes(seed);
+    byte[] jointSeed = new byte[AesCtrDrbg.SEED_LENGTH];
+    for (byte[] partySeed : commitAndOpen(seed)) {
+      if (partySeed.length != jointSeed.length) {
+        throw new MaliciousException("Seed of wrong length");
+      }
+      ByteArrayHelper.xor(jointSeed, partySeed);
+    }
+    return jointSeed;
+  }
+
+  /**
+   * Distributes a value to all parties using commitments, such that no party can choose its value
+   * depending on the values of the others.
+   *
+   * @param value this party's value
+   * @return all parties' values
+   */
+  private List<byte[]> commitAndOpen(byte[] value) {
+    HashBasedCommitmentSerializer commitmentSerializer = new HashBasedCommitmentSerializer();
+    HashBasedCommitment commitment = new HashBasedCommitment();
+    byte[] opening = commitment.commit(localDrbg, value);
+    network.sendToAll(commitmentSerializer.serialize(commitment));
+    List<byte[]> commitments = network.receiveFromAll();
+    if (noOfParties > 2) {
+      validateBroadcast(commitments);
+    }
+    network.sendToAll(opening);
+    List<byte[]> openings = network.receiveFromAll();
+    List<byte[]> values = new ArrayList<>(noOfParties);
+    for (int i = 0; i < noOfParties; i++) {
+      values.add(commitmentSerializer.deserialize(commitments.get(i)).open(openings.get(i)));
+    }
+    return values;
+  }
+
+  /**
+   * Verifies that all parties received the same messages, by comparing digests of them.
+   */
+  private void validateBroadcast(List<byte[]> messages) {
+    for (byte[] message : messages) {
+      digest.update(message);
+    }
+    byte[] ownDigest = digest.digest();
+    network.sendToAll(ownDigest);
+    for (byte[] otherDigest : network.receiveFromAll()) {
+      if (!Arrays.equals(ownDigest, otherDigest)) {
+        throw new MaliciousException("Broadcast validation failed");
+      }
+    }
+  }
+
+  private PlainT combine(List<PlainT> candidates, int offset, List<PlainT> coefficients,
+      int coefficientOffset) {
+    PlainT combined = factory.zero();
+    for (int i = 0; i < numCandidatesPerTriple; i++) {
+      combined = combined.add(
+          candidates.get(offset + i).multiply(coefficients.get(coefficientOffset + i)));
+    }
+    return combined;
+  }
+
+  private List<PlainT> sample(Drbg drbg, int numElements) {
+    List<PlainT> elements = new ArrayList<>(numElements);
+    for (int i = 0; i < numElements; i++) {
+      byte[] bytes = new byte[byteLength];
+      drbg.nextBytes(bytes);
+      elements.add(factory.deserialize(bytes));
+    }
+    return elements;
+  }
+
+  /**
+   * Samples this party's random bits. Package-private so tests can let a party contribute values
+   * which are not bits.
+   */
+  List<PlainT> sampleBits(int numBits) {
+    byte[] bytes = new byte[(numBits + Byte.SIZE - 1) / Byte.SIZE];
+    localDrbg.nextBytes(bytes);
+    List<PlainT> bits = new ArrayList<>(numBits);
+    for (int i = 0; i < numBits; i++) {
+      bits.add(factory.createElement(ByteArrayHelper.getBit(bytes, i) ? 1 : 0));
+    }
+    return bits;
+  }
+
+  private List<PlainT> zeros(int numElements) {
+    return Collections.nCopies(numElements, factory.zero());
+  }
+}
@@ -13,6 +13,7 @@ import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UIntAccumulator;
 import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
 import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDataSupplier;
 import java.util.ArrayList;
@@ -93,22 +94,15 @@ public class Spdz2kMacCheckComputation<
         });
   }
 
-  private HighT computePj(PlainT originalShare, PlainT randomCoefficient) {
-    HighT overflow = computeDifference(originalShare);
-    HighT randomCoefficientHigh = randomCoefficient.getLeastSignificantAsHigh();
-    return overflow.multiply(randomCoefficientHigh);
-  }
-
   private DRes<List<byte[]>> computePValues(ProtocolBuilderNumeric builder,
       List<Spdz2kSInt<PlainT>> authenticatedElements,
       Spdz2kSInt<PlainT> r) {
-    HighT pj = computePj(authenticatedElements.get(0).getShare(), randomCoefficients.get(0));
-    for (int i = 1; i < authenticatedElements.size(); i++) {
-      PlainT share = authenticatedElements.get(i).getShare();
-      PlainT randomCoefficient = randomCoefficients.get(i);
-      pj = pj.add(computePj(share, randomCoefficient));
+    UIntAccumulator<HighT> pj = r.getShare().getLeastSignificantAsHigh().toAccumulator();
+    for (int i = 0; i < authenticatedElements.size(); i++) {
+      HighT overflow = computeDifference(authenticatedElements.get(i).getShare());
+      pj.addProduct(overflow, randomCoefficients.get(i).getLeastSignificantAsHigh());
     }
-    byte[] pjBytes = pj.add(r.getShare().getLeastSignificantAsHigh()).toByteArray();
+    byte[] pjBytes = pj.get().toByteArray();
     return new BroadcastComputation<ProtocolBuilderNumeric>(pjBytes).buildComputation(builder);
   }
 
@@ -0,0 +1,160 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kOtPreprocessing;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A data supplier generating pre-processing material with OT extension, using
+ * {@link Spdz2kOtPreprocessing}. Material is generated in batches whenever a type of material runs
+ * out.
+ *
+ * <p>
+ * Since material is generated on demand, all parties must request the same material in the same
+ * order. This holds for the Spdz2k protocol suite, as long as the network used for pre-processing
+ * is not used for anything else.
+ * </p>
+ */
+public class Spdz2kOtDataSupplier<PlainT extends CompUInt<?, ?, PlainT>>
+    implements Spdz2kDataSupplier<PlainT> {
+
+  private static final Logger logger = LoggerFactory.getLogger(Spdz2kOtDataSupplier.class);
+  private final int myId;
+  private final int numberOfPlayers;
+  private final Supplier<Network> preprocessingNetwork;
+  private final CompUIntFactory<PlainT> factory;
+  private final PlainT macKeyShare;
+  private final Map<Integer, RotList> seedOts;
+  private final Drbg drbg;
+  private final int prgSeedLength;
+  private final int lambdaSecurityParam;
+  private final int numCandidatesPerTriple;
+  private final int batchSize;
+  private final ArrayDeque<Spdz2kTriple<PlainT>> triples;
+  private final Map<Integer, ArrayDeque<Spdz2kInputMask<PlainT>>> masks;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> randomElements;
+  private final ArrayDeque<Spdz2kSInt<PlainT>> randomBits;
+  private Spdz2kOtPreprocessing<PlainT> preprocessing;
+
+  /**
+   * Creates {@link Spdz2kOtDataSupplier}.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param preprocessingNetwork network supplier for network to be used for pre-processing
+   * @param factory factory for ring elements
+   * @param macKeyShare mac key share
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness
+   * @param prgSeedLength bit length of prg
+   * @param lambdaSecurityParam statistical security parameter of the OT extension
+   * @param numCandidatesPerTriple number of candidates combined into each triple
+   * @param batchSize batch size in which material will be generated
+   */
+  public Spdz2kOtDataSupplier(int myId, int numberOfPlayers,
+      Supplier<Network> preprocessingNetwork, CompUIntFactory<PlainT> factory, PlainT macKeyShare,
+      Map<Integer, RotList> seedOts, Drbg drbg, int prgSeedLength, int lambdaSecurityParam,
+      int numCandidatesPerTriple, int batchSize) {
+    this.myId = myId;
+    this.numberOfPlayers = numberOfPlayers;
+    this.preprocessingNetwork = preprocessingNetwork;
+    this.factory = factory;
+    this.macKeyShare = macKeyShare;
+    this.seedOts = seedOts;
+    this.drbg = drbg;
+    this.prgSeedLength = prgSeedLength;
+    this.lambdaSecurityParam = lambdaSecurityParam;
+    this.numCandidatesPerTriple = numCandidatesPerTriple;
+    this.batchSize = batchSize;
+    this.triples = new ArrayDeque<>();
+    this.masks = new HashMap<>();
+    for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+      masks.put(partyId, new ArrayDeque<>());
+    }
+    this.randomElements = new ArrayDeque<>();
+    this.randomBits = new ArrayDeque<>();
+  }
+
+  /**
+   * Creates instance of {@link Spdz2kOtDataSupplier} with default security parameters.
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> Spdz2kOtDataSupplier<PlainT>
+      createSimpleSupplier(int myId, int numberOfPlayers, Supplier<Network> preprocessingNetwork,
+      CompUIntFactory<PlainT> factory, PlainT macKeyShare, Map<Integer, RotList> seedOts,
+      Drbg drbg) {
+    int prgSeedLength = 256;
+    return new Spdz2kOtDataSupplier<>(myId, numberOfPlayers, preprocessingNetwork, factory,
+        macKeyShare, seedOts, drbg, prgSeedLength, 40, 3, 16);
+  }
+
+  @Override
+  public Spdz2kTriple<PlainT> getNextTripleShares() {
+    ensureInitialized();
+    if (triples.isEmpty()) {
+      logger.trace("Getting another triple batch");
+      triples.addAll(preprocessing.generateTriples(batchSize));
+      logger.trace("Got another triple batch");
+    }
+    return triples.pop();
+  }
+
+  @Override
+  public Spdz2kInputMask<PlainT> getNextInputMask(int towardPlayerId) {
+    ensureInitialized();
+    ArrayDeque<Spdz2kInputMask<PlainT>> inputMasks = masks.get(towardPlayerId);
+    if (inputMasks.isEmpty()) {
+      logger.trace("Getting another mask batch");
+      inputMasks.addAll(preprocessing.generateInputMasks(towardPlayerId, batchSize));
+      logger.trace("Got another mask batch");
+    }
+    return inputMasks.pop();
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextBitShare() {
+    ensureInitialized();
+    if (randomBits.isEmpty()) {
+      logger.trace("Getting another bit batch");
+      randomBits.addAll(preprocessing.generateBits(batchSize));
+      logger.trace("Got another bit batch");
+    }
+    return randomBits.pop();
+  }
+
+  @Override
+  public PlainT getSecretSharedKey() {
+    return macKeyShare;
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextRandomElementShare() {
+    ensureInitialized();
+    if (randomElements.isEmpty()) {
+      logger.trace("Getting another random element batch");
+      randomElements.addAll(preprocessing.generateRandomElements(batchSize));
+      logger.trace("Got another random element batch");
+    }
+    return randomElements.pop();
+  }
+
+  private void ensureInitialized() {
+    if (preprocessing != null) {
+      return;
+    }
+    preprocessing = new Spdz2kOtPreprocessing<>(myId, numberOfPlayers, factory, macKeyShare,
+        preprocessingNetwork.get(), seedOts, drbg, prgSeedLength, lambdaSecurityParam,
+        numCandidatesPerTriple);
+  }
+}
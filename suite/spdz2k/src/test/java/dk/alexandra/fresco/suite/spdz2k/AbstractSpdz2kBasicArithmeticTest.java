@@ -0,0 +1,40 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOpenedValueStoreImpl;
+import java.util.function.Supplier;
+
+/**
+ * Runs the {@link Spdz2kTestSuite} with dummy preprocessing for the {@link CompUInt} type created
+ * by {@link #createFactory()}.
+ */
+public abstract class AbstractSpdz2kBasicArithmeticTest<PlainT extends CompUInt<?, ?, PlainT>>
+    extends Spdz2kTestSuite<Spdz2kResourcePool<PlainT>> {
+
+  /**
+   * Creates the factory of the type to run the tests with.
+   */
+  protected abstract CompUIntFactory<PlainT> createFactory();
+
+  @Override
+  protected Spdz2kResourcePool<PlainT> createResourcePool(int playerId, int noOfParties,
+      Supplier<Network> networkSupplier) {
+    CompUIntFactory<PlainT> factory = createFactory();
+    Spdz2kResourcePool<PlainT> resourcePool =
+        new Spdz2kResourcePoolImpl<>(
+            playerId,
+            noOfParties, null,
+            new Spdz2kOpenedValueStoreImpl<>(),
+            new Spdz2kDummyDataSupplier<>(playerId, noOfParties, factory.createRandom(), factory),
+            factory);
+    resourcePool.initializeJointRandomness(networkSupplier, AesCtrDrbg::new, 32);
+    return resourcePool;
+  }
+
+}
@@ -0,0 +1,21 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt192;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt192Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+
+public class TestSpdz2kBasicArithmetic192 extends AbstractSpdz2kBasicArithmeticTest<CompUInt192> {
+
+  @Override
+  protected CompUIntFactory<CompUInt192> createFactory() {
+    return new CompUInt192Factory();
+  }
+
+  @Override
+  protected ProtocolSuiteNumeric<Spdz2kResourcePool<CompUInt192>> createProtocolSuite() {
+    return new Spdz2kProtocolSuiteK128S64();
+  }
+
+}
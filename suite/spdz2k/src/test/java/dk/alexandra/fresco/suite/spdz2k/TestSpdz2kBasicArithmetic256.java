@@ -0,0 +1,21 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt256;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt256Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+
+public class TestSpdz2kBasicArithmetic256 extends AbstractSpdz2kBasicArithmeticTest<CompUInt256> {
+
+  @Override
+  protected CompUIntFactory<CompUInt256> createFactory() {
+    return new CompUInt256Factory();
+  }
+
+  @Override
+  protected ProtocolSuiteNumeric<Spdz2kResourcePool<CompUInt256>> createProtocolSuite() {
+    return new Spdz2kProtocolSuiteK128();
+  }
+
+}
@@ -0,0 +1,21 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.suite.ProtocolSuiteNumeric;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt64Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+
+public class TestSpdz2kBasicArithmetic64 extends AbstractSpdz2kBasicArithmeticTest<CompUInt64> {
+
+  @Override
+  protected CompUIntFactory<CompUInt64> createFactory() {
+    return new CompUInt64Factory();
+  }
+
+  @Override
+  protected ProtocolSuiteNumeric<Spdz2kResourcePool<CompUInt64>> createProtocolSuite() {
+    return new Spdz2kProtocolSuiteK32();
+  }
+
+}
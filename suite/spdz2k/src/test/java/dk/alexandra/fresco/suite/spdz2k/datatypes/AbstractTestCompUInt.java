@@ -0,0 +1,174 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Tests of a {@link CompUInt} type against {@link BigInteger} arithmetic, for the bit lengths k and
+ * s of the type. Elements are created through the factory of the type.
+ */
+public abstract class AbstractTestCompUInt<CompT extends CompUInt<?, ?, CompT>> {
+
+  private final CompUIntFactory<CompT> factory;
+  private final int lowBitLength;
+  private final int highBitLength;
+  private final int byteLength;
+
+  private final BigInteger twoToK;
+  private final BigInteger twoToS;
+  private final BigInteger modulus;
+  private final List<BigInteger> values;
+
+  AbstractTestCompUInt(CompUIntFactory<CompT> factory) {
+    this.factory = factory;
+    this.lowBitLength = factory.getLowBitLength();
+    this.highBitLength = factory.getHighBitLength();
+    this.byteLength = factory.getCompositeBitLength() / Byte.SIZE;
+    this.twoToK = BigInteger.ONE.shiftLeft(lowBitLength);
+    this.twoToS = BigInteger.ONE.shiftLeft(highBitLength);
+    this.modulus = BigInteger.ONE.shiftLeft(factory.getCompositeBitLength());
+    this.values = getValues();
+  }
+
+  private CompT create(BigInteger value) {
+    return factory.createElement(value);
+  }
+
+  private CompT create(long value) {
+    return factory.createElement(value);
+  }
+
+  private CompT create(byte[] bytes) {
+    return factory.deserialize(bytes);
+  }
+
+  private List<BigInteger> getValues() {
+    List<BigInteger> values = new ArrayList<>();
+    values.add(BigInteger.ZERO);
+    values.add(BigInteger.ONE);
+    values.add(BigInteger.ONE.shiftLeft(32));
+    values.add(BigInteger.ONE.shiftLeft(32).subtract(BigInteger.ONE));
+    values.add(twoToK);
+    values.add(twoToK.subtract(BigInteger.ONE));
+    values.add(modulus.subtract(BigInteger.ONE));
+    Random random = new Random(42);
+    for (int i = 0; i < 20; i++) {
+      values.add(new BigInteger(factory.getCompositeBitLength(), random));
+    }
+    return values;
+  }
+
+  @Test
+  public void testConstruct() {
+    for (BigInteger value : values) {
+      assertEquals(value, create(value).toBigInteger());
+    }
+    assertEquals(BigInteger.valueOf(42), create(42).toBigInteger());
+  }
+
+  @Test
+  public void testAdd() {
+    for (BigInteger left : values) {
+      for (BigInteger right : values) {
+        assertEquals(left.add(right).mod(modulus),
+            create(left).add(create(right)).toBigInteger());
+      }
+    }
+  }
+
+  @Test
+  public void testMultiply() {
+    for (BigInteger left : values) {
+      for (BigInteger right : values) {
+        assertEquals(left.multiply(right).mod(modulus),
+            create(left).multiply(create(right)).toBigInteger());
+      }
+    }
+  }
+
+  @Test
+  public void testSubtract() {
+    for (BigInteger left : values) {
+      for (BigInteger right : values) {
+        assertEquals(left.subtract(right).mod(modulus),
+            create(left).subtract(create(right)).toBigInteger());
+      }
+    }
+  }
+
+  @Test
+  public void testNegate() {
+    for (BigInteger value : values) {
+      assertEquals(value.negate().mod(modulus), create(value).negateUInt().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testSplit() {
+    for (BigInteger value : values) {
+      CompT uint = create(value);
+      assertEquals(value.mod(twoToK), uint.getLeastSignificant().toBigInteger());
+      assertEquals(value.shiftRight(lowBitLength), uint.getMostSignificant().toBigInteger());
+      assertEquals(value.mod(twoToS), uint.getLeastSignificantAsHigh().toBigInteger());
+      assertEquals(value.shiftLeft(lowBitLength).mod(modulus),
+          uint.shiftLowIntoHigh().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] bytes = new byte[byteLength];
+    new Random(1).nextBytes(bytes);
+    assertArrayEquals(bytes, create(bytes).toByteArray());
+  }
+
+  @Test
+  public void testFromLeastSignificantBytes() {
+    byte[] bytes = new byte[]{0x01, 0x42};
+    byte[] expected = new byte[byteLength];
+    expected[expected.length - 2] = 0x01;
+    expected[expected.length - 1] = 0x42;
+    assertArrayEquals(expected, create(bytes).toByteArray());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExceedsCapacity() {
+    create(new byte[byteLength + 1]);
+  }
+
+  @Test
+  public void testGetBitLength() {
+    CompT uint = create(1);
+    assertEquals(lowBitLength + highBitLength, uint.getBitLength());
+    assertEquals(highBitLength, uint.getHighBitLength());
+    assertEquals(lowBitLength, uint.getLowBitLength());
+  }
+
+  @Test
+  public void testToIntAndLong() {
+    CompT uint = create(modulus.subtract(BigInteger.valueOf(2)));
+    assertEquals(-2, uint.toInt());
+    assertEquals(-2L, uint.toLong());
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(create(0).isZero());
+    assertFalse(create(1).isZero());
+    assertFalse(create(modulus.subtract(BigInteger.ONE)).isZero());
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("12135", create(12135).toString());
+  }
+
+}
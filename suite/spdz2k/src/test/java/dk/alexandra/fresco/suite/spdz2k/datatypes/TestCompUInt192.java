@@ -0,0 +1,9 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+public class TestCompUInt192 extends AbstractTestCompUInt<CompUInt192> {
+
+  public TestCompUInt192() {
+    super(new CompUInt192Factory());
+  }
+
+}
@@ -0,0 +1,9 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+public class TestCompUInt256 extends AbstractTestCompUInt<CompUInt256> {
+
+  public TestCompUInt256() {
+    super(new CompUInt256Factory());
+  }
+
+}
@@ -0,0 +1,9 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+public class TestCompUInt64 extends AbstractTestCompUInt<CompUInt64> {
+
+  public TestCompUInt64() {
+    super(new CompUInt64Factory());
+  }
+
+}
@@ -0,0 +1,82 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class TestUIntAccumulator {
+
+  private final Random random = new Random(42);
+
+  private <T extends UInt<T>> void testAccumulator(Function<BigInteger, T> creator, int bitLength) {
+    BigInteger modulus = BigInteger.ONE.shiftLeft(bitLength);
+    List<T> left = new ArrayList<>();
+    List<T> right = new ArrayList<>();
+    BigInteger expectedSum = BigInteger.ZERO;
+    BigInteger expectedInnerProduct = BigInteger.ZERO;
+    for (int i = 0; i < 100; i++) {
+      BigInteger leftValue = new BigInteger(bitLength, random);
+      BigInteger rightValue = new BigInteger(bitLength, random);
+      left.add(creator.apply(leftValue));
+      right.add(creator.apply(rightValue));
+      expectedSum = expectedSum.add(leftValue);
+      expectedInnerProduct = expectedInnerProduct.add(leftValue.multiply(rightValue));
+    }
+    assertEquals(expectedSum.mod(modulus), UInt.sum(left).toBigInteger());
+    assertEquals(expectedInnerProduct.mod(modulus), UInt.innerProduct(left, right).toBigInteger());
+  }
+
+  @Test
+  public void testUInt32() {
+    testAccumulator(value -> new UInt32(value.intValue()), 32);
+  }
+
+  @Test
+  public void testUInt64() {
+    testAccumulator(value -> new UInt64(value.longValue()), 64);
+  }
+
+  @Test
+  public void testCompUInt64() {
+    testAccumulator(CompUInt64::new, 64);
+  }
+
+  @Test
+  public void testCompUInt128() {
+    testAccumulator(CompUInt128::new, 128);
+  }
+
+  @Test
+  public void testCompUInt192() {
+    testAccumulator(CompUInt192::new, 192);
+  }
+
+  @Test
+  public void testCompUInt256() {
+    testAccumulator(CompUInt256::new, 256);
+  }
+
+  @Test
+  public void testAccumulatorDoesNotModifyInitialValue() {
+    CompUInt256 initial = new CompUInt256(BigInteger.TEN);
+    UIntAccumulator<CompUInt256> accumulator = initial.toAccumulator();
+    accumulator.add(new CompUInt256(BigInteger.ONE));
+    accumulator.addProduct(new CompUInt256(BigInteger.ONE), new CompUInt256(BigInteger.ONE));
+    assertEquals(BigInteger.TEN, initial.toBigInteger());
+    assertEquals(BigInteger.valueOf(12), accumulator.get().toBigInteger());
+  }
+
+  @Test
+  public void testSingleElement() {
+    List<CompUInt128> single = Collections.singletonList(new CompUInt128(7));
+    assertEquals(BigInteger.valueOf(7), UInt.sum(single).toBigInteger());
+    assertEquals(BigInteger.valueOf(49), UInt.innerProduct(single, single).toBigInteger());
+  }
+
+}
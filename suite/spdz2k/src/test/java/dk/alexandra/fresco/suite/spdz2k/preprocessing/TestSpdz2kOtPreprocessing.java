@@ -0,0 +1,149 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+/**
+ * Tests that {@link Spdz2kOtPreprocessing} detects a corrupt party.
+ */
+public class TestSpdz2kOtPreprocessing {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int CORRUPT_ID = 2;
+  private static final int NUM_VALUES = 8;
+
+  @Test
+  public void testNonBinaryBitDetected() {
+    assertHonestPartiesDetect(2, Corruption.BITS);
+    assertHonestPartiesDetect(3, Corruption.BITS);
+  }
+
+  @Test
+  public void testInconsistentAuthenticationDetected() {
+    assertHonestPartiesDetect(2, Corruption.COPE);
+    assertHonestPartiesDetect(3, Corruption.COPE);
+  }
+
+  private enum Corruption {
+    BITS, COPE
+  }
+
+  private void assertHonestPartiesDetect(int noOfParties, Corruption corruption) {
+    Map<Integer, NetworkConfiguration> confs =
+        NetworkUtil.getNetworkConfigurations(NetworkUtil.getFreePorts(noOfParties));
+    ExecutorService executor = Executors.newFixedThreadPool(noOfParties);
+    List<Future<?>> futures = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      NetworkConfiguration conf = confs.get(partyId);
+      futures.add(executor.submit(() -> {
+        runParty(conf, corruption);
+        return null;
+      }));
+    }
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      try {
+        futures.get(partyId - 1).get();
+        if (partyId != CORRUPT_ID) {
+          fail("Party " + partyId + " did not detect the corruption");
+        }
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof MaliciousException);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    executor.shutdown();
+  }
+
+  private void runParty(NetworkConfiguration conf, Corruption corruption) throws Exception {
+    int myId = conf.getMyId();
+    int noOfParties = conf.noOfParties();
+    try (CloseableNetwork network = new SocketNetwork(conf)) {
+      Drbg drbg = new AesCtrDrbg();
+      CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+      CompUInt128 macKeyShare = factory.createRandom();
+      Map<Integer, RotList> seedOts = getSeedOts(myId, noOfParties, drbg, network);
+      boolean isCorrupt = myId == CORRUPT_ID;
+      Spdz2kOtPreprocessing<CompUInt128> preprocessing = new Spdz2kOtPreprocessing<CompUInt128>(
+          myId, noOfParties, factory, macKeyShare, network, seedOts, drbg, PRG_SEED_LENGTH, 40,
+          3) {
+        @Override
+        Spdz2kCopeInputter<CompUInt128> createInputter(RotBatch rot, int partyId) {
+          if (!isCorrupt || corruption != Corruption.COPE) {
+            return super.createInputter(rot, partyId);
+          }
+          return new Spdz2kCopeInputter<CompUInt128>(factory, rot, network, partyId) {
+            @Override
+            public List<CompUInt128> extend(List<CompUInt128> inputs) {
+              // authenticate values other than the ones the party holds shares of
+              List<CompUInt128> shifted = new ArrayList<>(inputs.size());
+              for (CompUInt128 input : inputs) {
+                shifted.add(input.add(factory.createElement(1)));
+              }
+              return super.extend(shifted);
+            }
+          };
+        }
+
+        @Override
+        List<CompUInt128> sampleBits(int numBits) {
+          if (!isCorrupt || corruption != Corruption.BITS) {
+            return super.sampleBits(numBits);
+          }
+          return Collections.nCopies(numBits, factory.createElement(2));
+        }
+      };
+      if (corruption == Corruption.BITS) {
+        preprocessing.generateBits(NUM_VALUES);
+      } else {
+        preprocessing.generateRandomElements(NUM_VALUES);
+      }
+    }
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, int noOfParties, Drbg drbg,
+      Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+}
@@ -0,0 +1,231 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class TestSpdz2kOtDataSupplier {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int NUM_VALUES = 20;
+
+  @Test
+  public void testGetNextTripleShares() {
+    testGetNextTripleShares(2);
+    testGetNextTripleShares(3);
+  }
+
+  @Test
+  public void testGetNextRandomElementShare() {
+    testGetNextRandomElementShare(2);
+    testGetNextRandomElementShare(3);
+  }
+
+  @Test
+  public void testGetNextBitShare() {
+    testGetNextBitShare(2);
+    testGetNextBitShare(3);
+  }
+
+  @Test
+  public void testGetInputMask() {
+    testGetInputMask(2, 1);
+    testGetInputMask(2, 2);
+    testGetInputMask(3, 2);
+  }
+
+  private void testGetNextTripleShares(int noOfParties) {
+    List<Result<Spdz2kTriple<CompUInt128>>> results = runParties(noOfParties,
+        Spdz2kDataSupplier::getNextTripleShares);
+    CompUInt128 macKey = getMacKey(results);
+    for (int i = 0; i < NUM_VALUES; i++) {
+      List<Spdz2kSInt<CompUInt128>> left = new ArrayList<>(noOfParties);
+      List<Spdz2kSInt<CompUInt128>> right = new ArrayList<>(noOfParties);
+      List<Spdz2kSInt<CompUInt128>> product = new ArrayList<>(noOfParties);
+      for (Result<Spdz2kTriple<CompUInt128>> result : results) {
+        left.add(result.values.get(i).getLeft());
+        right.add(result.values.get(i).getRight());
+        product.add(result.values.get(i).getProduct());
+      }
+      Spdz2kSInt<CompUInt128> recombinedLeft = recombine(left);
+      Spdz2kSInt<CompUInt128> recombinedRight = recombine(right);
+      Spdz2kSInt<CompUInt128> recombinedProduct = recombine(product);
+      assertMacCorrect(recombinedLeft, macKey);
+      assertMacCorrect(recombinedRight, macKey);
+      assertMacCorrect(recombinedProduct, macKey);
+      assertArrayEquals(
+          recombinedLeft.getShare().multiply(recombinedRight.getShare()).toByteArray(),
+          recombinedProduct.getShare().toByteArray());
+    }
+  }
+
+  private void testGetNextRandomElementShare(int noOfParties) {
+    List<Result<Spdz2kSInt<CompUInt128>>> results = runParties(noOfParties,
+        Spdz2kDataSupplier::getNextRandomElementShare);
+    CompUInt128 macKey = getMacKey(results);
+    for (int i = 0; i < NUM_VALUES; i++) {
+      Spdz2kSInt<CompUInt128> recombined = recombine(getShares(results, i));
+      assertMacCorrect(recombined, macKey);
+    }
+  }
+
+  private void testGetNextBitShare(int noOfParties) {
+    List<Result<Spdz2kSInt<CompUInt128>>> results = runParties(noOfParties,
+        Spdz2kDataSupplier::getNextBitShare);
+    CompUInt128 macKey = getMacKey(results);
+    for (int i = 0; i < NUM_VALUES; i++) {
+      Spdz2kSInt<CompUInt128> recombined = recombine(getShares(results, i));
+      BigInteger asBitInt = recombined.getShare().toBigInteger();
+      assertTrue("Not a bit " + asBitInt,
+          asBitInt.equals(BigInteger.ZERO) || asBitInt.equals(BigInteger.ONE));
+      assertMacCorrect(recombined, macKey);
+    }
+  }
+
+  private void testGetInputMask(int noOfParties, int towardParty) {
+    List<Result<Spdz2kInputMask<CompUInt128>>> results = runParties(noOfParties,
+        supplier -> supplier.getNextInputMask(towardParty));
+    CompUInt128 macKey = getMacKey(results);
+    for (int i = 0; i < NUM_VALUES; i++) {
+      List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>(noOfParties);
+      CompUInt128 realValue = null;
+      for (int partyId = 1; partyId <= noOfParties; partyId++) {
+        Spdz2kInputMask<CompUInt128> mask = results.get(partyId - 1).values.get(i);
+        if (partyId == towardParty) {
+          realValue = mask.getOpenValue();
+          assertNotNull(realValue);
+        } else {
+          assertNull(mask.getOpenValue());
+        }
+        shares.add(mask.getMaskShare());
+      }
+      Spdz2kSInt<CompUInt128> recombined = recombine(shares);
+      assertMacCorrect(recombined, macKey);
+      assertArrayEquals(realValue.toByteArray(), recombined.getShare().toByteArray());
+    }
+  }
+
+  private <T> List<Result<T>> runParties(int noOfParties,
+      Function<Spdz2kDataSupplier<CompUInt128>, T> task) {
+    Map<Integer, NetworkConfiguration> confs =
+        NetworkUtil.getNetworkConfigurations(NetworkUtil.getFreePorts(noOfParties));
+    ExecutorService executor = Executors.newFixedThreadPool(noOfParties);
+    List<Future<Result<T>>> futures = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      NetworkConfiguration conf = confs.get(partyId);
+      futures.add(executor.submit(() -> runParty(conf, task)));
+    }
+    List<Result<T>> results = new ArrayList<>(noOfParties);
+    for (Future<Result<T>> future : futures) {
+      results.add(ExceptionConverter.safe(future::get, "Party failed"));
+    }
+    executor.shutdown();
+    return results;
+  }
+
+  private <T> Result<T> runParty(NetworkConfiguration conf,
+      Function<Spdz2kDataSupplier<CompUInt128>, T> task) throws Exception {
+    int myId = conf.getMyId();
+    int noOfParties = conf.noOfParties();
+    try (CloseableNetwork network = new SocketNetwork(conf)) {
+      Drbg drbg = new AesCtrDrbg();
+      CompUIntFactory<CompUInt128> factory = new CompUInt128Factory();
+      CompUInt128 macKeyShare = factory.createRandom();
+      Map<Integer, RotList> seedOts = getSeedOts(myId, noOfParties, drbg, network);
+      Spdz2kDataSupplier<CompUInt128> supplier = Spdz2kOtDataSupplier.createSimpleSupplier(
+          myId, noOfParties, () -> network, factory, macKeyShare, seedOts, drbg);
+      List<T> values = new ArrayList<>(NUM_VALUES);
+      for (int i = 0; i < NUM_VALUES; i++) {
+        values.add(task.apply(supplier));
+      }
+      return new Result<>(macKeyShare, values);
+    }
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, int noOfParties, Drbg drbg,
+      Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  private <T> CompUInt128 getMacKey(List<Result<T>> results) {
+    CompUInt128 macKey = results.get(0).macKeyShare;
+    for (int i = 1; i < results.size(); i++) {
+      macKey = macKey.add(results.get(i).macKeyShare);
+    }
+    return macKey;
+  }
+
+  private List<Spdz2kSInt<CompUInt128>> getShares(
+      List<Result<Spdz2kSInt<CompUInt128>>> results, int index) {
+    List<Spdz2kSInt<CompUInt128>> shares = new ArrayList<>(results.size());
+    for (Result<Spdz2kSInt<CompUInt128>> result : results) {
+      shares.add(result.values.get(index));
+    }
+    return shares;
+  }
+
+  private Spdz2kSInt<CompUInt128> recombine(List<Spdz2kSInt<CompUInt128>> shares) {
+    return shares.stream().reduce(Spdz2kSInt::add).get();
+  }
+
+  private void assertMacCorrect(Spdz2kSInt<CompUInt128> recombined, CompUInt128 macKey) {
+    assertArrayEquals(
+        macKey.multiply(recombined.getShare()).toByteArray(),
+        recombined.getMacShare().toByteArray());
+  }
+
+  private static class Result<T> {
+
+    private final CompUInt128 macKeyShare;
+    private final List<T> values;
+
+    private Result(CompUInt128 macKeyShare, List<T> values) {
+      this.macKeyShare = macKeyShare;
+      this.values = values;
+    }
+  }
+}
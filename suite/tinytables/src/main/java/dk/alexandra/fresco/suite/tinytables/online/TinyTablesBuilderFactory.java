@@ -2,16 +2,20 @@ package dk.alexandra.fresco.suite.tinytables.online;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.binary.Binary;
+import dk.alexandra.fresco.framework.builder.binary.BristolCrypto;
 import dk.alexandra.fresco.framework.builder.binary.BuilderFactoryBinary;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.value.SBool;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesBatchANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesCloseProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesNOTProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpenToAllProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesXORProtocol;
+import dk.alexandra.fresco.suite.tinytables.util.TinyTablesBristolCrypto;
+import java.util.List;
 
 public class TinyTablesBuilderFactory implements BuilderFactoryBinary {
 
@@ -23,6 +27,23 @@ public class TinyTablesBuilderFactory implements BuilderFactoryBinary {
     return counter++;
   }
 
+  /**
+   * Evaluates a batch of independent AND gates as a single {@link TinyTablesBatchANDProtocol}. The
+   * gates are given consecutive ids, as the AND protocols created by the preprocessing for the
+   * same batch.
+   */
+  private DRes<List<DRes<SBool>>> andBatch(ProtocolBuilderBinary builder,
+      List<DRes<SBool>> lefts, List<DRes<SBool>> rights) {
+    int firstId = counter;
+    counter += lefts.size();
+    return builder.append(new TinyTablesBatchANDProtocol(firstId, lefts, rights));
+  }
+
+  @Override
+  public BristolCrypto createBristolCrypto(ProtocolBuilderBinary builder) {
+    return new TinyTablesBristolCrypto(builder, this::andBatch);
+  }
+
   @Override
   public Binary createBinary(ProtocolBuilderBinary builder) {
     return new Binary() {
@@ -5,13 +5,11 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.value.SBool;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
 import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * <p>
@@ -49,12 +47,11 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
     TinyTablesProtocolSuite ps = TinyTablesProtocolSuite.getInstance(resourcePool.getMyId());
 
     if (round == 0) {
-      TinyTable tinyTable = Objects.requireNonNull(ps.getStorage().getTinyTable(id),
-          "Unable to find TinyTable for gate with id " + id);
-      TinyTablesElement myShare = tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
-          ((TinyTablesSBool) inRight.out()).getValue());
+      long left = ((TinyTablesSBool) inLeft.out()).getValue().getShare() ? 1 : 0;
+      long right = ((TinyTablesSBool) inRight.out()).getValue().getShare() ? 1 : 0;
+      boolean myShare = ps.getStorage().lookupTinyTables(id, 1, left, right) == 1;
 
-      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare.getShare())});
+      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare)});
       return EvaluationStatus.HAS_MORE_ROUNDS;
     } else {
       List<byte[]> buffers = network.receiveFromAll();
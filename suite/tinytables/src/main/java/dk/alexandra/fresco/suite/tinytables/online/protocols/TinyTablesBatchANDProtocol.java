@@ -0,0 +1,120 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * This class represents a batch of independent AND protocols in the TinyTables protocol's online
+ * phase, which is evaluated using a single message per round.
+ * </p>
+ *
+ * <p>
+ * Each gate is evaluated as in {@link TinyTablesANDProtocol}, and the gates must have been
+ * preprocessed as AND protocols with the consecutive ids <code>firstId, firstId + 1, ...</code>.
+ * The evaluation is bit-sliced: the masked input values of 64 gates at a time are packed into a
+ * <code>long</code>, the entries of their TinyTables are looked up together (see
+ * {@link TinyTablesStorage#lookupTinyTables(int, int, long, long)}), and the shares of all gates
+ * are sent to the other player as one packed bit vector.
+ * </p>
+ */
+public class TinyTablesBatchANDProtocol extends TinyTablesProtocol<List<DRes<SBool>>> {
+
+  private final int firstId;
+  private final List<DRes<SBool>> inLefts;
+  private final List<DRes<SBool>> inRights;
+  private List<DRes<SBool>> out;
+
+  /**
+   * Creates a batch of AND protocols.
+   *
+   * @param firstId the id of the first AND protocol in the batch
+   * @param inLefts the left inputs of the AND protocols
+   * @param inRights the right inputs of the AND protocols
+   */
+  public TinyTablesBatchANDProtocol(int firstId, List<DRes<SBool>> inLefts,
+      List<DRes<SBool>> inRights) {
+    if (inLefts.size() != inRights.size()) {
+      throw new IllegalArgumentException("Number of left and right inputs must be equal");
+    }
+    this.firstId = firstId;
+    this.inLefts = inLefts;
+    this.inRights = inRights;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+    int size = inLefts.size();
+    if (round == 0) {
+      TinyTablesStorage storage =
+          TinyTablesProtocolSuite.getInstance(resourcePool.getMyId()).getStorage();
+      long[] shares = new long[words(size)];
+      for (int word = 0; word < shares.length; word++) {
+        int offset = word * Long.SIZE;
+        int count = Math.min(Long.SIZE, size - offset);
+        long left = 0;
+        long right = 0;
+        for (int j = 0; j < count; j++) {
+          left |= maskedValue(inLefts.get(offset + j)) << j;
+          right |= maskedValue(inRights.get(offset + j)) << j;
+        }
+        shares[word] = storage.lookupTinyTables(firstId + offset, count, left, right);
+      }
+      network.sendToAll(toBytes(shares, size));
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      long[] opened = new long[words(size)];
+      for (byte[] bytes : network.receiveFromAll()) {
+        xorBytes(opened, bytes);
+      }
+      out = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        boolean value = (opened[i >>> 6] >>> i & 1) == 1;
+        out.add(TinyTablesSBool.getInstance(TinyTablesElement.getInstance(value)));
+      }
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SBool>> out() {
+    return out;
+  }
+
+  private static long maskedValue(DRes<SBool> value) {
+    return ((TinyTablesSBool) value.out()).getValue().getShare() ? 1 : 0;
+  }
+
+  private static int words(int bits) {
+    return (bits + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  /**
+   * Serializes the first <code>bits</code> bits of the given words, little-endian.
+   */
+  private static byte[] toBytes(long[] words, int bits) {
+    byte[] bytes = new byte[(bits + Byte.SIZE - 1) / Byte.SIZE];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) * Byte.SIZE));
+    }
+    return bytes;
+  }
+
+  /**
+   * XORs bytes serialized by {@link #toBytes(long[], int)} onto the given words.
+   */
+  private static void xorBytes(long[] words, byte[] bytes) {
+    for (int i = 0; i < bytes.length; i++) {
+      words[i >>> 3] ^= (bytes[i] & 0xFFL) << ((i & 7) * Byte.SIZE);
+    }
+  }
+
+}
@@ -2,6 +2,7 @@ package dk.alexandra.fresco.suite.tinytables.prepro;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.binary.Binary;
+import dk.alexandra.fresco.framework.builder.binary.BristolCrypto;
 import dk.alexandra.fresco.framework.builder.binary.BuilderFactoryBinary;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.value.SBool;
@@ -12,6 +13,9 @@ import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproClo
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproNOTProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproOpenToAllProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproXORProtocol;
+import dk.alexandra.fresco.suite.tinytables.util.TinyTablesBristolCrypto;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TinyTablesPreproBuilderFactory implements BuilderFactoryBinary {
 
@@ -23,6 +27,24 @@ public class TinyTablesPreproBuilderFactory implements BuilderFactoryBinary {
     return counter++;
   }
 
+  /**
+   * Preprocesses a batch of independent AND gates, which in the online phase are evaluated as a
+   * single batch. The gates are given consecutive ids in the order of the inputs.
+   */
+  private DRes<List<DRes<SBool>>> andBatch(ProtocolBuilderBinary builder,
+      List<DRes<SBool>> lefts, List<DRes<SBool>> rights) {
+    List<DRes<SBool>> outputs = new ArrayList<>(lefts.size());
+    for (int i = 0; i < lefts.size(); i++) {
+      outputs.add(builder.binary().and(lefts.get(i), rights.get(i)));
+    }
+    return () -> outputs;
+  }
+
+  @Override
+  public BristolCrypto createBristolCrypto(ProtocolBuilderBinary builder) {
+    return new TinyTablesBristolCrypto(builder, this::andBatch);
+  }
+
   @Override
   public Binary createBinary(ProtocolBuilderBinary builder) {
     return new Binary() {
@@ -24,6 +24,25 @@ public interface TinyTablesStorage extends Serializable {
 
 	public TinyTable getTinyTable(int id);
 
+	/**
+	 * Look up entries in the TinyTables of up to 64 protocols with consecutive
+	 * ids. For each <i>j &lt; count</i>, bit <i>j</i> of the result is entry
+	 * <i>(c,d)</i> of the TinyTable for the protocol with id
+	 * <code>firstId + j</code>, where <i>c</i> and <i>d</i> are bit <i>j</i> of
+	 * <code>left</code> and <code>right</code> respectively.
+	 * 
+	 * @param firstId
+	 *            The id of the first protocol.
+	 * @param count
+	 *            The number of protocols. Must be between 1 and 64.
+	 * @param left
+	 *            The masked values of the left input wires.
+	 * @param right
+	 *            The masked values of the right input wires.
+	 * @return The packed entries of the TinyTables.
+	 */
+	public long lookupTinyTables(int firstId, int count, long left, long right);
+
 	/**
 	 * Store a boolean for the protocol with the given ID. Can be used by a
 	 * player to store a mask that he has picked during preprocessing.
@@ -2,36 +2,120 @@ package dk.alexandra.fresco.suite.tinytables.storage;
 
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
 
+/**
+ * Keeps TinyTables and mask shares in dense bit arrays indexed by protocol id.
+ * This works since the builder factories hand out ids consecutively from 0.
+ * Each of the four entries of the TinyTables is kept in a separate bit array,
+ * so the entries for many protocols with consecutive ids can be looked up
+ * using a few operations on whole words (see {@link #lookupTinyTables}).
+ * The arrays are reallocated as they grow, so all access is synchronized.
+ */
 public class TinyTablesStorageImpl implements TinyTablesStorage {
 
 	/**
-	 * 
+	 *
 	 */
-	private static final long serialVersionUID = -1135044173153933992L;
-	private Map<Integer, TinyTable> tinyTables = new ConcurrentHashMap<>();
-	private Map<Integer, TinyTablesElement> maskShares = new ConcurrentHashMap<>();
-		
+	private static final long serialVersionUID = 2420478914582645398L;
+	/*
+	 * Entry (c,d) of the TinyTable for protocol i is bit i of tinyTables[2c + d].
+	 */
+	private long[][] tinyTables = new long[4][0];
+	private long[] storedTinyTables = new long[0];
+	private long[] maskShares = new long[0];
+	private long[] storedMaskShares = new long[0];
+
+	@Override
+	public synchronized TinyTable getTinyTable(int id) {
+		if (!getBit(storedTinyTables, id)) {
+			return null;
+		}
+		TinyTablesElement[] entries = new TinyTablesElement[4];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = TinyTablesElement.getInstance(getBit(tinyTables[i], id));
+		}
+		return new TinyTable(entries);
+	}
+
 	@Override
-	public TinyTable getTinyTable(int id) {
-		return tinyTables.get(id);
+	public synchronized long lookupTinyTables(int firstId, int count, long left,
+			long right) {
+		if (count < 1 || count > Long.SIZE) {
+			throw new IllegalArgumentException("Count must be between 1 and 64, was " + count);
+		}
+		long all = count == Long.SIZE ? -1L : (1L << count) - 1;
+		long missing = ~getWord(storedTinyTables, firstId) & all;
+		if (missing != 0) {
+			throw new IllegalStateException("Unable to find TinyTable for gate with id "
+					+ (firstId + Long.numberOfTrailingZeros(missing)));
+		}
+		return (getWord(tinyTables[0], firstId) & ~left & ~right
+				| getWord(tinyTables[1], firstId) & ~left & right
+				| getWord(tinyTables[2], firstId) & left & ~right
+				| getWord(tinyTables[3], firstId) & left & right) & all;
 	}
 
 	@Override
-	public void storeTinyTable(int id, TinyTable table) {
-		tinyTables.put(id, table);
+	public synchronized void storeTinyTable(int id, TinyTable table) {
+		for (int c = 0; c < 2; c++) {
+			for (int d = 0; d < 2; d++) {
+				boolean entry = table.getValue(TinyTablesElement.getInstance(c == 1),
+						TinyTablesElement.getInstance(d == 1)).getShare();
+				tinyTables[2 * c + d] = setBit(tinyTables[2 * c + d], id, entry);
+			}
+		}
+		storedTinyTables = setBit(storedTinyTables, id, true);
 	}
 
 	@Override
-	public void storeMaskShare(int id, TinyTablesElement r) {
-		maskShares.put(id, r);
+	public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+		maskShares = setBit(maskShares, id, r.getShare());
+		storedMaskShares = setBit(storedMaskShares, id, true);
 	}
 
 	@Override
-	public TinyTablesElement getMaskShare(int id) {
-		return maskShares.get(id);
+	public synchronized TinyTablesElement getMaskShare(int id) {
+		if (!getBit(storedMaskShares, id)) {
+			return null;
+		}
+		return TinyTablesElement.getInstance(getBit(maskShares, id));
+	}
+
+	private static boolean getBit(long[] bits, int index) {
+		int word = index >>> 6;
+		return word < bits.length && (bits[word] >>> index & 1) == 1;
+	}
+
+	/**
+	 * Sets a bit, growing the array if needed, and returns the array holding the
+	 * bit.
+	 */
+	private static long[] setBit(long[] bits, int index, boolean value) {
+		int word = index >>> 6;
+		if (word >= bits.length) {
+			bits = Arrays.copyOf(bits, Math.max(word + 1, 2 * bits.length));
+		}
+		if (value) {
+			bits[word] |= 1L << index;
+		} else {
+			bits[word] &= ~(1L << index);
+		}
+		return bits;
+	}
+
+	/**
+	 * Returns the 64 bits starting at the given index. Bits beyond the end of
+	 * the array are zero.
+	 */
+	private static long getWord(long[] bits, int from) {
+		int word = from >>> 6;
+		int shift = from & 63;
+		long result = word < bits.length ? bits[word] >>> shift : 0;
+		if (shift != 0 && word + 1 < bits.length) {
+			result |= bits[word + 1] << (Long.SIZE - shift);
+		}
+		return result;
 	}
 
 }
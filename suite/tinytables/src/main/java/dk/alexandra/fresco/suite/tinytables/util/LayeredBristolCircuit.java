@@ -0,0 +1,265 @@
+package dk.alexandra.fresco.suite.tinytables.util;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.lib.helper.bristol.BristolCircuitParser;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates a circuit in the "Bristol" format (see {@link BristolCircuitParser}) layer by layer,
+ * such that all AND gates with the same multiplicative depth are evaluated as a single batch.
+ *
+ * <p>
+ * The gates are grouped into steps which are evaluated one after the other, with the gates of each
+ * step evaluated in parallel. For each multiplicative depth <i>d</i>, the XOR and INV gates of
+ * depth <i>d</i> are evaluated in as few steps as their mutual dependencies allow, followed by a
+ * single step evaluating all AND gates of depth <i>d + 1</i> using a {@link BatchAnd}. The steps
+ * only depend on the circuit, so the protocols are created in the same order in the TinyTables
+ * preprocessing and online phases.
+ * </p>
+ */
+public class LayeredBristolCircuit implements Computation<List<SBool>, ProtocolBuilderBinary> {
+
+  /**
+   * Evaluates a batch of independent AND gates.
+   */
+  @FunctionalInterface
+  public interface BatchAnd {
+
+    /**
+     * Appends the evaluation of the AND of each pair of left and right inputs to the builder.
+     *
+     * @param builder the builder to append protocols to
+     * @param lefts the left inputs
+     * @param rights the right inputs
+     * @return the outputs of the AND gates, in the order of the inputs
+     */
+    DRes<List<DRes<SBool>>> and(ProtocolBuilderBinary builder, List<DRes<SBool>> lefts,
+        List<DRes<SBool>> rights);
+
+  }
+
+  private static final int XOR = 0;
+  private static final int AND = 1;
+  private static final int INV = 2;
+
+  private final BatchAnd batchAnd;
+  private final int noWires;
+  private final int noOutput;
+  private final List<DRes<SBool>> wires;
+  private final List<Step> steps;
+
+  /**
+   * Creates a new layered circuit. All lines of the circuit are read when constructing the
+   * circuit.
+   *
+   * @param lines the lines of the circuit description
+   * @param in1 the first input
+   * @param in2 the second input
+   * @param batchAnd evaluator for the batches of AND gates
+   */
+  public LayeredBristolCircuit(Stream<String> lines, List<DRes<SBool>> in1,
+      List<DRes<SBool>> in2, BatchAnd batchAnd) {
+    this.batchAnd = batchAnd;
+    Iterator<String> linesIter = lines.iterator();
+    String[] meta = linesIter.next().trim().split("\\s+");
+    this.noWires = Integer.parseInt(meta[1]);
+    meta = linesIter.next().trim().split("\\s+");
+    int noInput1 = Integer.parseInt(meta[0]);
+    int noInput2 = Integer.parseInt(meta[1]);
+    this.noOutput = Integer.parseInt(meta[2]);
+    this.wires = new ArrayList<>(Collections.nCopies(noWires, null));
+    for (int i = 0; i < noInput1; i++) {
+      wires.set(i, in1.get(i));
+    }
+    for (int i = 0; i < noInput2; i++) {
+      wires.set(i + noInput1, in2.get(i));
+    }
+    List<int[]> gates = new ArrayList<>();
+    while (linesIter.hasNext()) {
+      String line = linesIter.next().trim();
+      if (!line.isEmpty()) {
+        gates.add(parseGate(line));
+      }
+    }
+    lines.close();
+    this.steps = computeSteps(gates, noInput1 + noInput2);
+  }
+
+  /**
+   * Parses a gate into an array containing the type, the output wire and the input wires.
+   */
+  private static int[] parseGate(String line) {
+    String[] tokens = line.split("\\s+");
+    int noInput = Integer.parseInt(tokens[0]);
+    int noOutput = Integer.parseInt(tokens[1]);
+    String type = tokens[2 + noInput + noOutput];
+    if (noOutput != 1) {
+      throw new IllegalArgumentException("Wrong circuit format for " + type);
+    }
+    int out = Integer.parseInt(tokens[2 + noInput]);
+    if ("XOR".equals(type) || "AND".equals(type)) {
+      if (noInput != 2) {
+        throw new IllegalArgumentException("Wrong circuit format for " + type);
+      }
+      return new int[]{"XOR".equals(type) ? XOR : AND, out, Integer.parseInt(tokens[2]),
+          Integer.parseInt(tokens[3])};
+    } else if ("INV".equals(type)) {
+      if (noInput != 1) {
+        throw new IllegalArgumentException("Wrong circuit format for INV");
+      }
+      return new int[]{INV, out, Integer.parseInt(tokens[2])};
+    } else {
+      throw new IllegalArgumentException("Unknown gate type: " + type);
+    }
+  }
+
+  /**
+   * Groups the gates into steps. The multiplicative depth of a wire is the number of AND gates on
+   * the longest path from an input to the wire, and the linear level of a wire computed by a XOR
+   * or INV gate is the length of the longest path of such gates of the same depth leading to it.
+   */
+  private List<Step> computeSteps(List<int[]> gates, int noInputs) {
+    int[] depth = new int[noWires];
+    int[] linearLevel = new int[noWires];
+    boolean[] defined = new boolean[noWires];
+    for (int i = 0; i < noInputs; i++) {
+      defined[i] = true;
+    }
+    List<List<List<int[]>>> linearGates = new ArrayList<>();
+    List<List<int[]>> andGates = new ArrayList<>();
+    int maxDepth = 0;
+    for (int[] gate : gates) {
+      int gateDepth = 0;
+      for (int i = 2; i < gate.length; i++) {
+        if (!defined[gate[i]]) {
+          throw new IllegalArgumentException("Input wire " + gate[i] + " was not set");
+        }
+        gateDepth = Math.max(gateDepth, depth[gate[i]]);
+      }
+      int out = gate[1];
+      if (gate[0] == AND) {
+        depth[out] = gateDepth + 1;
+        bucket(andGates, gateDepth + 1).add(gate);
+        maxDepth = Math.max(maxDepth, gateDepth + 1);
+      } else {
+        int level = 0;
+        for (int i = 2; i < gate.length; i++) {
+          if (depth[gate[i]] == gateDepth) {
+            level = Math.max(level, linearLevel[gate[i]]);
+          }
+        }
+        depth[out] = gateDepth;
+        linearLevel[out] = level + 1;
+        bucket(bucket(linearGates, gateDepth), level).add(gate);
+      }
+      defined[out] = true;
+    }
+    List<Step> steps = new ArrayList<>();
+    for (int d = 0; d <= maxDepth; d++) {
+      for (List<int[]> level : bucket(linearGates, d)) {
+        steps.add(new Step(false, level));
+      }
+      if (d < maxDepth) {
+        steps.add(new Step(true, bucket(andGates, d + 1)));
+      }
+    }
+    return steps;
+  }
+
+  private static <T> List<T> bucket(List<List<T>> buckets, int index) {
+    while (buckets.size() <= index) {
+      buckets.add(new ArrayList<>());
+    }
+    return buckets.get(index);
+  }
+
+  @Override
+  public DRes<List<SBool>> buildComputation(ProtocolBuilderBinary builder) {
+    return builder.seq(seq -> {
+      for (Step step : steps) {
+        seq.par(par -> {
+          evaluate(step, par);
+          return () -> null;
+        });
+      }
+      return () -> null;
+    }).seq((seq, nothing) -> {
+      List<SBool> output = wires.subList(noWires - noOutput, noWires).stream()
+          .map(DRes::out)
+          .collect(Collectors.toList());
+      return () -> output;
+    });
+  }
+
+  private void evaluate(Step step, ProtocolBuilderBinary builder) {
+    if (step.and) {
+      List<DRes<SBool>> lefts = new ArrayList<>(step.gates.size());
+      List<DRes<SBool>> rights = new ArrayList<>(step.gates.size());
+      for (int[] gate : step.gates) {
+        lefts.add(wires.get(gate[2]));
+        rights.add(wires.get(gate[3]));
+      }
+      DRes<List<DRes<SBool>>> outputs = batchAnd.and(builder, lefts, rights);
+      for (int i = 0; i < step.gates.size(); i++) {
+        int index = i;
+        wires.set(step.gates.get(i)[1], () -> outputs.out().get(index).out());
+      }
+    } else {
+      for (int[] gate : step.gates) {
+        if (gate[0] == XOR) {
+          wires.set(gate[1], builder.binary().xor(wires.get(gate[2]), wires.get(gate[3])));
+        } else {
+          wires.set(gate[1], builder.binary().not(wires.get(gate[2])));
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads a circuit description from the classpath.
+   *
+   * @param path the path of the circuit description
+   * @param in1 the first input
+   * @param in2 the second input
+   * @param batchAnd evaluator for the batches of AND gates
+   * @return the circuit
+   */
+  public static LayeredBristolCircuit readCircuitDescription(String path,
+      List<DRes<SBool>> in1, List<DRes<SBool>> in2, BatchAnd batchAnd) {
+    ClassLoader classLoader = LayeredBristolCircuit.class.getClassLoader();
+    InputStream is = classLoader.getResourceAsStream(path);
+    if (is == null) {
+      throw new IllegalArgumentException("Couldn't find bristol circuit descritpion at " + path);
+    }
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
+      return new LayeredBristolCircuit(reader.lines(), in1, in2, batchAnd);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Couldn't read bristol circuit description at " + path,
+          e);
+    }
+  }
+
+  private static class Step {
+
+    private final boolean and;
+    private final List<int[]> gates;
+
+    private Step(boolean and, List<int[]> gates) {
+      this.and = and;
+      this.gates = gates;
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+package dk.alexandra.fresco.suite.tinytables.util;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.binary.BristolCrypto;
+import dk.alexandra.fresco.framework.builder.binary.DefaultBristolCrypto;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinytables.util.LayeredBristolCircuit.BatchAnd;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates the same circuits as {@link DefaultBristolCrypto}, but layer by layer using a
+ * {@link LayeredBristolCircuit}, such that the AND gates of each layer are evaluated as one batch.
+ */
+public class TinyTablesBristolCrypto implements BristolCrypto {
+
+  private final ProtocolBuilderBinary builder;
+  private final BatchAnd batchAnd;
+
+  public TinyTablesBristolCrypto(ProtocolBuilderBinary builder, BatchAnd batchAnd) {
+    this.builder = builder;
+    this.batchAnd = batchAnd;
+  }
+
+  @Override
+  public DRes<List<SBool>> mult32x32(List<DRes<SBool>> in1, List<DRes<SBool>> in2) {
+    return evaluate("circuits/mult_32x32.txt", in1, in2);
+  }
+
+  @Override
+  public DRes<List<SBool>> AES(List<DRes<SBool>> plainText, List<DRes<SBool>> keyMaterial) {
+    return evaluate("circuits/AES-non-expanded.txt", plainText, keyMaterial);
+  }
+
+  @Override
+  public DRes<List<SBool>> SHA1(List<DRes<SBool>> input) {
+    return evaluate("circuits/sha-1.txt", input, new ArrayList<>());
+  }
+
+  @Override
+  public DRes<List<SBool>> SHA256(List<DRes<SBool>> input) {
+    return evaluate("circuits/sha-256.txt", input, new ArrayList<>());
+  }
+
+  @Override
+  public DRes<List<SBool>> DES(List<DRes<SBool>> plainText, List<DRes<SBool>> keyMaterial) {
+    return evaluate("circuits/DES-non-expanded.txt", plainText, keyMaterial);
+  }
+
+  @Override
+  public DRes<List<SBool>> MD5(List<DRes<SBool>> input) {
+    return evaluate("circuits/md5.txt", input, new ArrayList<>());
+  }
+
+  private DRes<List<SBool>> evaluate(String path, List<DRes<SBool>> in1,
+      List<DRes<SBool>> in2) {
+    return builder.seq(LayeredBristolCircuit.readCircuitDescription(path, in1, in2, batchAnd));
+  }
+
+}
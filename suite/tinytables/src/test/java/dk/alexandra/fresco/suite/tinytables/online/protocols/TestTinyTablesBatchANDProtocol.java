@@ -0,0 +1,142 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestTinyTablesBatchANDProtocol {
+
+  private static final int FIRST_ID = 5;
+  private static final int NO_GATES = 150;
+
+  @Test
+  public void testBatchMatchesAnd() throws IOException {
+    Random random = new Random(42);
+    TinyTablesStorage storageOne = new TinyTablesStorageImpl();
+    TinyTablesStorage storageTwo = new TinyTablesStorageImpl();
+    for (int id = FIRST_ID; id < FIRST_ID + NO_GATES; id++) {
+      // the shares of the two parties xor to the AND of the masked inputs
+      TinyTablesElement[] entriesOne = new TinyTablesElement[4];
+      TinyTablesElement[] entriesTwo = new TinyTablesElement[4];
+      for (int i = 0; i < entriesOne.length; i++) {
+        boolean share = random.nextBoolean();
+        entriesOne[i] = TinyTablesElement.getInstance(share);
+        entriesTwo[i] = TinyTablesElement.getInstance(share ^ (i == 3));
+      }
+      storageOne.storeTinyTable(id, new TinyTable(entriesOne));
+      storageTwo.storeTinyTable(id, new TinyTable(entriesTwo));
+    }
+    initSuite(1, storageOne);
+    initSuite(2, storageTwo);
+
+    List<DRes<SBool>> lefts = new ArrayList<>(NO_GATES);
+    List<DRes<SBool>> rights = new ArrayList<>(NO_GATES);
+    for (int i = 0; i < NO_GATES; i++) {
+      lefts.add(maskedValue(random.nextBoolean()));
+      rights.add(maskedValue(random.nextBoolean()));
+    }
+    Map<Integer, Map<Integer, Queue<byte[]>>> channels = new HashMap<>();
+    List<TinyTablesBatchANDProtocol> protocols = new ArrayList<>();
+    List<Network> networks = new ArrayList<>();
+    for (int id = 1; id <= 2; id++) {
+      protocols.add(new TinyTablesBatchANDProtocol(FIRST_ID, lefts, rights));
+      networks.add(new QueueNetwork(id, channels));
+    }
+    for (int round = 0; round < 2; round++) {
+      for (int id = 1; id <= 2; id++) {
+        EvaluationStatus status = protocols.get(id - 1)
+            .evaluate(round, new ResourcePoolImpl(id, 2), networks.get(id - 1));
+        assertThat(status, is(round == 0 ? EvaluationStatus.HAS_MORE_ROUNDS
+            : EvaluationStatus.IS_DONE));
+      }
+    }
+    for (TinyTablesBatchANDProtocol protocol : protocols) {
+      List<DRes<SBool>> out = protocol.out();
+      assertThat(out.size(), is(NO_GATES));
+      for (int i = 0; i < NO_GATES; i++) {
+        assertThat(share(out.get(i)), is(share(lefts.get(i)) && share(rights.get(i))));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnequalNumberOfInputs() {
+    List<DRes<SBool>> lefts = new ArrayList<>();
+    lefts.add(maskedValue(true));
+    new TinyTablesBatchANDProtocol(0, lefts, new ArrayList<>());
+  }
+
+  private static void initSuite(int id, TinyTablesStorage storage) throws IOException {
+    File file = File.createTempFile("tinytables_" + id + "_", ".bin");
+    file.deleteOnExit();
+    try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+      out.writeObject(storage);
+    }
+    new TinyTablesProtocolSuite(id, file).init(new ResourcePoolImpl(id, 2));
+  }
+
+  private static DRes<SBool> maskedValue(boolean value) {
+    return TinyTablesSBool.getInstance(TinyTablesElement.getInstance(value));
+  }
+
+  private static boolean share(DRes<SBool> value) {
+    return ((TinyTablesSBool) value.out()).getValue().getShare();
+  }
+
+  /**
+   * Delivers the messages between parties evaluating in the same thread, in the order sent.
+   */
+  private static class QueueNetwork implements Network {
+
+    private final int myId;
+    private final Map<Integer, Map<Integer, Queue<byte[]>>> channels;
+
+    QueueNetwork(int myId, Map<Integer, Map<Integer, Queue<byte[]>>> channels) {
+      this.myId = myId;
+      this.channels = channels;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      channel(myId, partyId).add(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return channel(partyId, myId).remove();
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return 2;
+    }
+
+    private Queue<byte[]> channel(int from, int to) {
+      return channels.computeIfAbsent(from, id -> new HashMap<>())
+          .computeIfAbsent(to, id -> new ArrayDeque<>());
+    }
+  }
+}
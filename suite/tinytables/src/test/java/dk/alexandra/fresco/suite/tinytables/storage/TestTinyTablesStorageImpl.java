@@ -0,0 +1,73 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestTinyTablesStorageImpl {
+
+  private static TinyTable randomTable(Random random) {
+    TinyTablesElement[] entries = new TinyTablesElement[4];
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = TinyTablesElement.getInstance(random.nextBoolean());
+    }
+    return new TinyTable(entries);
+  }
+
+  @Test
+  public void testLookupMatchesTables() {
+    Random random = new Random(42);
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    TinyTable[] tables = new TinyTable[300];
+    for (int id = 0; id < tables.length; id++) {
+      tables[id] = randomTable(random);
+      storage.storeTinyTable(id, tables[id]);
+    }
+    for (int firstId : new int[]{0, 1, 63, 64, 100, 236}) {
+      for (int count : new int[]{1, 17, 64}) {
+        long left = random.nextLong();
+        long right = random.nextLong();
+        long entries = storage.lookupTinyTables(firstId, count, left, right);
+        for (int j = 0; j < Long.SIZE; j++) {
+          boolean expected = j < count && tables[firstId + j].getValue(
+              TinyTablesElement.getInstance((left >>> j & 1) == 1),
+              TinyTablesElement.getInstance((right >>> j & 1) == 1)).getShare();
+          assertThat((entries >>> j & 1) == 1, is(expected));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testGetStoredValues() {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    TinyTable table = randomTable(new Random(1));
+    storage.storeTinyTable(130, table);
+    storage.storeMaskShare(5, TinyTablesElement.getInstance(true));
+    storage.storeMaskShare(6, TinyTablesElement.getInstance(false));
+    assertThat(storage.getTinyTable(130).toString(), is(table.toString()));
+    assertThat(storage.getTinyTable(129), nullValue());
+    assertThat(storage.getTinyTable(1000), nullValue());
+    assertThat(storage.getMaskShare(5).getShare(), is(true));
+    assertThat(storage.getMaskShare(6).getShare(), is(false));
+    assertThat(storage.getMaskShare(7), nullValue());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testLookupMissingTable() {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    storage.storeTinyTable(0, randomTable(new Random(1)));
+    storage.lookupTinyTables(0, 2, 0, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLookupTooMany() {
+    new TinyTablesStorageImpl().lookupTinyTables(0, 65, 0, 0);
+  }
+
+}
@@ -0,0 +1,112 @@
+package dk.alexandra.fresco.suite.tinytables.util;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.SequentialStrategy;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.dummy.bool.DummyBooleanProtocolSuite;
+import dk.alexandra.fresco.suite.dummy.bool.DummyBooleanSBool;
+import dk.alexandra.fresco.suite.tinytables.util.LayeredBristolCircuit.BatchAnd;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class TestLayeredBristolCircuit {
+
+  /*
+   * Computes ((a0 & b0) & !(a0 ^ a1), (a0 & b0) & !(a0 ^ a1) ^ (a1 & b1)), which has two layers
+   * of AND gates.
+   */
+  private static final String[] CIRCUIT = {
+      "6 10",
+      "2 2 2",
+      "",
+      "2 1 0 2 4 AND",
+      "2 1 1 3 5 AND",
+      "2 1 0 1 6 XOR",
+      "1 1 6 7 INV",
+      "2 1 4 7 8 AND",
+      "2 1 8 5 9 XOR"
+  };
+
+  @Test
+  public void testEvaluatesLayers() {
+    for (int inputs = 0; inputs < 16; inputs++) {
+      boolean a0 = (inputs & 1) != 0;
+      boolean a1 = (inputs & 2) != 0;
+      boolean b0 = (inputs & 4) != 0;
+      boolean b1 = (inputs & 8) != 0;
+      List<Integer> batchSizes = new ArrayList<>();
+      List<Boolean> output = run(CIRCUIT, Arrays.asList(a0, a1), Arrays.asList(b0, b1),
+          batchSizes);
+      boolean first = a0 && b0 && !(a0 ^ a1);
+      assertThat(output, is(Arrays.asList(first, first ^ (a1 && b1))));
+      assertThat(batchSizes, is(Arrays.asList(2, 1)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsetInputWire() {
+    run(new String[]{"1 4", "1 1 1", "", "2 1 0 2 3 AND"}, Collections.singletonList(true),
+        Collections.singletonList(true), new ArrayList<>());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownGate() {
+    run(new String[]{"1 3", "1 1 1", "", "2 1 0 1 2 OR"}, Collections.singletonList(true),
+        Collections.singletonList(true), new ArrayList<>());
+  }
+
+  private static List<Boolean> run(String[] circuit, List<Boolean> in1, List<Boolean> in2,
+      List<Integer> batchSizes) {
+    BatchAnd batchAnd = (builder, lefts, rights) -> {
+      batchSizes.add(lefts.size());
+      List<DRes<SBool>> outputs = new ArrayList<>(lefts.size());
+      for (int i = 0; i < lefts.size(); i++) {
+        outputs.add(builder.binary().and(lefts.get(i), rights.get(i)));
+      }
+      return () -> outputs;
+    };
+    Application<List<Boolean>, ProtocolBuilderBinary> app = builder -> {
+      List<DRes<SBool>> closed1 = known(builder, in1);
+      List<DRes<SBool>> closed2 = known(builder, in2);
+      return builder.seq(
+          new LayeredBristolCircuit(Stream.of(circuit), closed1, closed2, batchAnd))
+          .seq((seq, output) -> {
+            List<Boolean> values = output.stream()
+                .map(value -> ((DummyBooleanSBool) value).getValue())
+                .collect(Collectors.toList());
+            return () -> values;
+          });
+    };
+    DummyBooleanProtocolSuite suite = new DummyBooleanProtocolSuite();
+    SecureComputationEngineImpl<ResourcePoolImpl, ProtocolBuilderBinary> sce =
+        new SecureComputationEngineImpl<>(suite,
+            new BatchedProtocolEvaluator<>(new SequentialStrategy<>(), suite));
+    try {
+      return sce.runApplication(app, new ResourcePoolImpl(1, 1), null);
+    } catch (RuntimeException e) {
+      if (e.getCause() instanceof IllegalArgumentException) {
+        throw (IllegalArgumentException) e.getCause();
+      }
+      throw e;
+    } finally {
+      sce.shutdownSCE();
+    }
+  }
+
+  private static List<DRes<SBool>> known(ProtocolBuilderBinary builder, List<Boolean> values) {
+    return values.stream().map(builder.binary()::known).collect(Collectors.toList());
+  }
+}
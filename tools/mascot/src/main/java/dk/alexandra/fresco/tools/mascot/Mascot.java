@@ -11,6 +11,7 @@ import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
 import dk.alexandra.fresco.tools.mascot.field.InputMask;
 import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
 import dk.alexandra.fresco.tools.mascot.online.OnlinePhase;
+import dk.alexandra.fresco.tools.mascot.pipe.ExponentiationPipeGenerator;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import dk.alexandra.fresco.tools.mascot.triple.TripleGeneration;
@@ -22,13 +23,14 @@ import java.util.stream.IntStream;
 /**
  * Implementation of the main MASCOT protocol (<a href="https://eprint.iacr.org/2016/505.pdf">https://eprint.iacr.org/2016/505.pdf</a>)
  * which can be used for the SPDZ pre-processing phase. <br> Supports generation of multiplication
- * triples, random authenticated elements, and random authenticated bits.
+ * triples, random authenticated elements, random authenticated bits, and exponentiation pipes.
  */
 public class Mascot {
 
   private final TripleGeneration tripleGeneration;
   private final ElementGeneration elementGeneration;
   private final BitConverter bitConverter;
+  private final ExponentiationPipeGenerator pipeGenerator;
   private final MascotResourcePool resourcePool;
 
   /**
@@ -45,9 +47,10 @@ public class Mascot {
         new ElementGeneration(resourcePool, network, macKeyShare, jointSampler);
     this.tripleGeneration =
         new TripleGeneration(resourcePool, network, elementGeneration, jointSampler);
-    this.bitConverter = new BitConverter(resourcePool,
-        new OnlinePhase(resourcePool, tripleGeneration, elementGeneration,
-            macKeyShare), macKeyShare);
+    OnlinePhase onlinePhase =
+        new OnlinePhase(resourcePool, tripleGeneration, elementGeneration, macKeyShare);
+    this.bitConverter = new BitConverter(resourcePool, onlinePhase, macKeyShare);
+    this.pipeGenerator = new ExponentiationPipeGenerator(resourcePool, onlinePhase);
   }
 
   /**
@@ -132,4 +135,23 @@ public class Mascot {
   public List<AuthenticatedElement> getRandomBits(int numBits) {
     return bitConverter.convertToBits(getRandomElements(numBits));
   }
+
+  /**
+   * Generates exponentiation pipes, i.e., lists <i>[r<sup>-1</sup>], [r], [r<sup>2</sup>], ...,
+   * [r<sup>pipeLength + 1</sup>]</i> for random, non-zero elements <i>r</i>.
+   *
+   * @param numPipes number of pipes to generate
+   * @param pipeLength length of each pipe
+   * @return exponentiation pipes
+   */
+  public List<List<AuthenticatedElement>> getExponentiationPipes(int numPipes, int pipeLength) {
+    List<List<AuthenticatedElement>> pipes = new ArrayList<>(numPipes);
+    while (pipes.size() < numPipes) {
+      int missing = numPipes - pipes.size();
+      List<AuthenticatedElement> randomElements = getRandomElements(2 * missing);
+      pipes.addAll(pipeGenerator.generatePipes(randomElements.subList(0, missing),
+          randomElements.subList(missing, 2 * missing), pipeLength));
+    }
+    return pipes;
+  }
 }
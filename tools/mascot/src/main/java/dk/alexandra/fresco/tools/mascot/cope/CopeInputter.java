@@ -6,14 +6,13 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.field.LimbArithmetic;
 import dk.alexandra.fresco.tools.mascot.mult.MultiplyRightHelper;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 /**
  * Actively-secure implementation of the inputter party's side of the Correlated Oblivious Product
@@ -58,37 +57,30 @@ public class CopeInputter {
    */
   public List<FieldElement> extend(List<FieldElement> inputElements) {
     // use seeds to generate mask pairs
-    List<Pair<FieldElement, FieldElement>> maskPairs = generateMaskPairs(inputElements.size());
-    // compute t0 - t1 + x for each input x for each mask pair
-    List<FieldElement> diffs = helper.computeDiffs(maskPairs, inputElements);
-    // send diffs
-    network.send(otherId, resourcePool.getFieldDefinition().serialize(diffs));
-    // get zero index masks
-    List<FieldElement> feZeroSeeds =
-        maskPairs.parallelStream().map(Pair::getFirst).collect(Collectors.toList());
-
+    long[] zeroMasks = generateMasks(leftPrgs, inputElements.size());
+    long[] oneMasks = generateMasks(rightPrgs, inputElements.size());
+    // compute t0 - t1 + x for each input x for each mask pair and send diffs
+    network.send(otherId, helper.computeDiffs(zeroMasks, oneMasks, inputElements));
     // compute product shares
-    return helper.computeProductShares(feZeroSeeds, inputElements.size());
-  }
-
-  private List<Pair<FieldElement, FieldElement>> generateMaskPairs(int numInputs) {
-    // for each input pair, we use our prf to get the next set of masks
-    List<Pair<FieldElement, FieldElement>> maskPairs = new ArrayList<>();
-    for (int i = 0; i < numInputs; i++) {
-      // generate masks for single input
-      maskPairs.addAll(generateMaskPairs());
-    }
-    return maskPairs;
+    return helper.computeProductShares(zeroMasks, inputElements.size());
   }
 
-  private List<Pair<FieldElement, FieldElement>> generateMaskPairs() {
-    Stream<Pair<FieldElement, FieldElement>> maskStream =
-        IntStream.range(0, leftPrgs.size()).parallel().mapToObj(idx -> {
-          FieldElement t0 = this.leftPrgs.get(idx).getNext();
-          FieldElement t1 = this.rightPrgs.get(idx).getNext();
-          return new Pair<>(t0, t1);
-        });
-    return maskStream.collect(Collectors.toList());
+  /**
+   * Generates a mask for each input with each prg, stored as limbs ordered by input.
+   */
+  private long[] generateMasks(List<FieldElementPrg> prgs, int numInputs) {
+    LimbArithmetic arithmetic = helper.getArithmetic();
+    int limbs = arithmetic.getLimbs();
+    long[] masks = new long[numInputs * prgs.size() * limbs];
+    // expand each seed for all inputs at once
+    IntStream.range(0, prgs.size()).parallel().forEach(prgIdx -> {
+      long[] prgMasks = new long[numInputs * limbs];
+      prgs.get(prgIdx).getNext(arithmetic, prgMasks, 0, numInputs);
+      for (int i = 0; i < numInputs; i++) {
+        System.arraycopy(prgMasks, i * limbs, masks, (i * prgs.size() + prgIdx) * limbs, limbs);
+      }
+    });
+    return masks;
   }
 
   private void seedPrgs(List<Pair<StrictBitVector, StrictBitVector>> seeds) {
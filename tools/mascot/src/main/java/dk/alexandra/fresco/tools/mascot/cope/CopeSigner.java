@@ -4,12 +4,13 @@ import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.field.LimbArithmetic;
 import dk.alexandra.fresco.tools.mascot.mult.MultiplyLeftHelper;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -25,7 +26,7 @@ import java.util.stream.IntStream;
 public class CopeSigner {
 
   private final List<FieldElementPrg> prgs;
-  private final FieldElement macKeyShare;
+  private final StrictBitVector macKeyShareBits;
   private final MultiplyLeftHelper multiplier;
   private final int otherId;
   private final MascotResourcePool resourcePool;
@@ -47,7 +48,7 @@ public class CopeSigner {
     this.otherId = otherId;
     this.resourcePool = resourcePool;
     this.network = network;
-    this.macKeyShare = macKeyShare;
+    this.macKeyShareBits = resourcePool.getFieldDefinition().convertToBitVector(macKeyShare);
     this.multiplier = new MultiplyLeftHelper(resourcePool, network, otherId);
     this.prgs = new ArrayList<>();
     seedPrgs(multiplier.generateSeeds(macKeyShare, resourcePool.getLambdaSecurityParam()));
@@ -61,28 +62,31 @@ public class CopeSigner {
    */
   public List<FieldElement> extend(int numInputs) {
     // compute chosen masks
-    List<FieldElement> chosenMasks = generateMasks(numInputs);
+    long[] chosenMasks = generateMasks(numInputs);
     // use mac share for each input
-    List<FieldElement> macKeyShares =
-        IntStream.range(0, numInputs).mapToObj(idx -> macKeyShare).collect(Collectors.toList());
+    List<StrictBitVector> macKeyShares = Collections.nCopies(numInputs, macKeyShareBits);
     // receive diffs from other party
-    List<FieldElement> diffs =
-        resourcePool.getFieldDefinition().deserializeList(network.receive(otherId));
+    long[] diffs = multiplier.getArithmetic().deserialize(network.receive(otherId),
+        numInputs * prgs.size());
     // compute product shares
     return multiplier.computeProductShares(macKeyShares, chosenMasks, diffs);
   }
 
-  private List<FieldElement> generateMasks(int numInputs) {
-    // for each input pair, we use our prgs to get the next set of masks
-    List<FieldElement> masks = new ArrayList<>();
-    // generate mask for each input
-    for (int i = 0; i < numInputs; i++) {
-      // generate masks for single input
-      List<FieldElement> singleInputMasks = prgs.parallelStream()
-          .map(FieldElementPrg::getNext)
-          .collect(Collectors.toList());
-      masks.addAll(singleInputMasks);
-    }
+  /**
+   * Generates a mask for each input with each prg, stored as limbs ordered by input.
+   */
+  private long[] generateMasks(int numInputs) {
+    LimbArithmetic arithmetic = multiplier.getArithmetic();
+    int limbs = arithmetic.getLimbs();
+    long[] masks = new long[numInputs * prgs.size() * limbs];
+    // expand each seed for all inputs at once
+    IntStream.range(0, prgs.size()).parallel().forEach(prgIdx -> {
+      long[] prgMasks = new long[numInputs * limbs];
+      prgs.get(prgIdx).getNext(arithmetic, prgMasks, 0, numInputs);
+      for (int i = 0; i < numInputs; i++) {
+        System.arraycopy(prgMasks, i * limbs, masks, (i * prgs.size() + prgIdx) * limbs, limbs);
+      }
+    });
     return masks;
   }
 
@@ -1,15 +1,11 @@
 package dk.alexandra.fresco.tools.mascot.field;
 
-import dk.alexandra.fresco.framework.builder.numeric.Addable;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 public final class FieldElementUtils {
 
@@ -48,23 +44,9 @@ public final class FieldElementUtils {
     if (leftFactors.size() != rightFactors.size()) {
       throw new IllegalArgumentException("Lists must be same size");
     }
-    return pairWiseMultiplyStream(leftFactors, rightFactors).collect(Collectors.toList());
-  }
-
-  /**
-   * Multiplies two lists of field elements, pair-wise.
-   *
-   * @param leftFactors left factors
-   * @param rightFactors right factors
-   * @return stream of products
-   */
-  private Stream<FieldElement> pairWiseMultiplyStream(List<FieldElement> leftFactors,
-      List<FieldElement> rightFactors) {
-    return IntStream.range(0, leftFactors.size()).mapToObj(idx -> {
-      FieldElement l = leftFactors.get(idx);
-      FieldElement r = rightFactors.get(idx);
-      return l.multiply(r);
-    });
+    return definition.createVector(leftFactors)
+        .multiply(definition.createVector(rightFactors))
+        .toList();
   }
 
   /**
@@ -75,10 +57,7 @@ public final class FieldElementUtils {
    * @return inner product
    */
   public FieldElement innerProduct(List<FieldElement> left, List<FieldElement> right) {
-    if (left.size() != right.size()) {
-      throw new IllegalArgumentException("Lists must have same size");
-    }
-    return Addable.sum(pairWiseMultiplyStream(left, right));
+    return definition.innerProduct(left, right);
   }
 
   /**
@@ -89,7 +68,7 @@ public final class FieldElementUtils {
    * @return list of products
    */
   public List<FieldElement> scalarMultiply(List<FieldElement> values, FieldElement scalar) {
-    return values.stream().map(scalar::multiply).collect(Collectors.toList());
+    return definition.createVector(values).scale(scalar).toList();
   }
 
   /**
@@ -0,0 +1,356 @@
+package dk.alexandra.fresco.tools.mascot.field;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Arithmetic modulo the modulus of a field definition on batches of elements stored in a single
+ * contiguous <code>long</code> array. Each element takes {@link #getLimbs()} consecutive 64 bit
+ * limbs in little-endian order, so element <i>i</i> of an array starts at index <i>i *
+ * getLimbs()</i>.
+ *
+ * <p>
+ * This is used by the bit-wise multiplications of COPE and triple generation, which would
+ * otherwise create a field element for every bit of the modulus of every multiplication. Sums of
+ * elements scaled by powers of two are accumulated without reduction in an accumulator of
+ * {@link #getAccumulatorLimbs()} limbs, such that each product takes a single reduction.
+ * </p>
+ */
+public final class LimbArithmetic {
+
+  private final FieldDefinition definition;
+  private final BigInteger modulus;
+  private final int bitLength;
+  private final int limbs;
+  private final int byteLength;
+  private final long[] prime;
+
+  /**
+   * Creates new {@link LimbArithmetic}.
+   *
+   * @param definition field definition for the elements converted to and from limbs
+   */
+  public LimbArithmetic(FieldDefinition definition) {
+    this.definition = definition;
+    this.modulus = definition.getModulus();
+    this.bitLength = definition.getBitLength();
+    this.limbs = (bitLength + Long.SIZE - 1) / Long.SIZE;
+    this.byteLength = (bitLength + Byte.SIZE - 1) / Byte.SIZE;
+    this.prime = new long[limbs];
+    fromUnsigned(modulus, prime, 0);
+  }
+
+  /**
+   * Gets the number of limbs per element.
+   *
+   * @return the number of limbs
+   */
+  public int getLimbs() {
+    return limbs;
+  }
+
+  /**
+   * Gets the number of limbs of an accumulator, which can hold the sum of twice the bit length
+   * of the modulus elements each scaled by a power of two smaller than the modulus.
+   *
+   * @return the number of limbs
+   */
+  public int getAccumulatorLimbs() {
+    return 2 * limbs + 1;
+  }
+
+  /**
+   * Converts field elements to limbs.
+   *
+   * @param elements the elements to convert
+   * @return the limbs of the elements
+   */
+  public long[] fromElements(List<FieldElement> elements) {
+    long[] result = new long[elements.size() * limbs];
+    for (int i = 0; i < elements.size(); i++) {
+      fromUnsigned(definition.convertToUnsigned(elements.get(i)), result, i * limbs);
+    }
+    return result;
+  }
+
+  /**
+   * Converts bit vectors read as unsigned big-endian integers of at most the bit length of the
+   * modulus to elements. This is the same conversion as deserializing the bytes of the vectors,
+   * which is safe for seeds since the modulus is guaranteed to be close enough to
+   * <i>2<sup>modBitLength</sup></i>.
+   *
+   * @param vectors the vectors to convert
+   * @return the limbs of the elements
+   */
+  public long[] fromBitVectors(List<StrictBitVector> vectors) {
+    long[] result = new long[vectors.size() * limbs];
+    for (int i = 0; i < vectors.size(); i++) {
+      byte[] bytes = vectors.get(i).toByteArray();
+      fromBytes(bytes, 0, bytes.length, result, i * limbs);
+    }
+    return result;
+  }
+
+  /**
+   * Reads elements serialized by {@link #serialize(long[])} or
+   * {@link FieldDefinition#serialize(List)}.
+   *
+   * @param bytes the serialized elements
+   * @param numElements the expected number of elements
+   * @return the limbs of the elements
+   */
+  public long[] deserialize(byte[] bytes, int numElements) {
+    if (bytes.length != numElements * byteLength) {
+      throw new IllegalArgumentException("Expected " + numElements + " elements of "
+          + byteLength + " bytes, but got " + bytes.length + " bytes");
+    }
+    long[] result = new long[numElements * limbs];
+    for (int i = 0; i < numElements; i++) {
+      fromBytes(bytes, i * byteLength, byteLength, result, i * limbs);
+    }
+    return result;
+  }
+
+  /**
+   * Serializes elements in the format of {@link FieldDefinition#serialize(List)}, i.e., each
+   * element as a fixed length unsigned big-endian integer.
+   *
+   * @param values the limbs of the elements
+   * @return the serialized elements
+   */
+  public byte[] serialize(long[] values) {
+    int numElements = values.length / limbs;
+    byte[] bytes = new byte[numElements * byteLength];
+    for (int i = 0; i < numElements; i++) {
+      int end = (i + 1) * byteLength;
+      for (int j = 0; j < byteLength; j++) {
+        bytes[end - 1 - j] = (byte) (values[i * limbs + j / Long.BYTES]
+            >>> (Byte.SIZE * (j % Long.BYTES)));
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Samples uniformly random elements by rejection sampling, drawing the randomness for the whole
+   * batch with a single call to the drbg, and further calls only for the few rejected samples.
+   *
+   * @param drbg the source of randomness
+   * @param result the array to store the elements in
+   * @param offset the index of the first element to store
+   * @param numElements the number of elements to sample
+   */
+  public void sample(Drbg drbg, long[] result, int offset, int numElements) {
+    int residue = bitLength % Byte.SIZE;
+    int topMask = residue == 0 ? 0xFF : (1 << residue) - 1;
+    byte[] buffer = new byte[numElements * byteLength];
+    int position = buffer.length;
+    int sampled = 0;
+    while (sampled < numElements) {
+      if (position == buffer.length) {
+        if (buffer.length != (numElements - sampled) * byteLength) {
+          buffer = new byte[(numElements - sampled) * byteLength];
+        }
+        drbg.nextBytes(buffer);
+        position = 0;
+      }
+      buffer[position] &= topMask;
+      int index = (offset + sampled) * limbs;
+      readBytes(buffer, position, byteLength, result, index);
+      position += byteLength;
+      if (compareToPrime(result, index) < 0) {
+        sampled++;
+      }
+    }
+  }
+
+  /**
+   * Computes <i>left + right</i> modulo the modulus for single elements.
+   *
+   * @param left the left operands
+   * @param leftIndex the index of the left element
+   * @param right the right operands
+   * @param rightIndex the index of the right element
+   * @param result the array to store the sum in, which may be one of the operands
+   * @param resultIndex the index of the sum
+   */
+  public void add(long[] left, int leftIndex, long[] right, int rightIndex, long[] result,
+      int resultIndex) {
+    int leftOffset = leftIndex * limbs;
+    int rightOffset = rightIndex * limbs;
+    int resultOffset = resultIndex * limbs;
+    long carry = 0;
+    for (int i = 0; i < limbs; i++) {
+      long a = left[leftOffset + i];
+      long b = right[rightOffset + i];
+      long sum = a + b + carry;
+      carry = ((a & b) | ((a | b) & ~sum)) >>> 63;
+      result[resultOffset + i] = sum;
+    }
+    if (carry != 0 || compareToPrime(result, resultOffset) >= 0) {
+      subtractPrime(result, resultOffset);
+    }
+  }
+
+  /**
+   * Computes <i>left - right</i> modulo the modulus for single elements.
+   *
+   * @param left the left operands
+   * @param leftIndex the index of the left element
+   * @param right the right operands
+   * @param rightIndex the index of the right element
+   * @param result the array to store the difference in, which may be one of the operands
+   * @param resultIndex the index of the difference
+   */
+  public void subtract(long[] left, int leftIndex, long[] right, int rightIndex, long[] result,
+      int resultIndex) {
+    int leftOffset = leftIndex * limbs;
+    int rightOffset = rightIndex * limbs;
+    int resultOffset = resultIndex * limbs;
+    long borrow = 0;
+    for (int i = 0; i < limbs; i++) {
+      long a = left[leftOffset + i];
+      long b = right[rightOffset + i];
+      long difference = a - b - borrow;
+      borrow = ((~a & b) | (~(a ^ b) & difference)) >>> 63;
+      result[resultOffset + i] = difference;
+    }
+    if (borrow != 0) {
+      long carry = 0;
+      for (int i = 0; i < limbs; i++) {
+        long a = result[resultOffset + i];
+        long sum = a + prime[i] + carry;
+        carry = ((a & prime[i]) | ((a | prime[i]) & ~sum)) >>> 63;
+        result[resultOffset + i] = sum;
+      }
+    }
+  }
+
+  /**
+   * Adds an element multiplied by <i>2<sup>shift</sup></i> to an accumulator without reduction.
+   *
+   * @param accumulator the accumulators
+   * @param accumulatorIndex the index of the accumulator to add to
+   * @param values the elements
+   * @param index the index of the element to add
+   * @param shift the exponent of the power of two, which must be smaller than the bit length of
+   *     the modulus
+   */
+  public void addShifted(long[] accumulator, int accumulatorIndex, long[] values, int index,
+      int shift) {
+    int accumulatorOffset = accumulatorIndex * getAccumulatorLimbs();
+    int valueOffset = index * limbs;
+    int limbShift = shift / Long.SIZE;
+    int bitShift = shift % Long.SIZE;
+    long carry = 0;
+    long previous = 0;
+    int position = accumulatorOffset + limbShift;
+    for (int i = 0; i <= limbs; i++, position++) {
+      long current = i < limbs ? values[valueOffset + i] : 0;
+      long word = bitShift == 0
+          ? current
+          : (current << bitShift) | (previous >>> (Long.SIZE - bitShift));
+      previous = current;
+      long a = accumulator[position];
+      long sum = a + word + carry;
+      carry = ((a & word) | ((a | word) & ~sum)) >>> 63;
+      accumulator[position] = sum;
+    }
+    int end = accumulatorOffset + getAccumulatorLimbs();
+    for (; carry != 0 && position < end; position++) {
+      accumulator[position]++;
+      carry = accumulator[position] == 0 ? 1 : 0;
+    }
+  }
+
+  /**
+   * Reduces an accumulator modulo the modulus.
+   *
+   * @param accumulator the accumulators
+   * @param accumulatorIndex the index of the accumulator to reduce
+   * @return the reduced value as a field element
+   */
+  public FieldElement reduce(long[] accumulator, int accumulatorIndex) {
+    int accumulatorLimbs = getAccumulatorLimbs();
+    byte[] bytes = new byte[accumulatorLimbs * Long.BYTES];
+    for (int i = 0; i < accumulatorLimbs; i++) {
+      long limb = accumulator[accumulatorIndex * accumulatorLimbs + i];
+      for (int j = 0; j < Long.BYTES; j++) {
+        bytes[bytes.length - 1 - i * Long.BYTES - j] = (byte) (limb >>> (Byte.SIZE * j));
+      }
+    }
+    return definition.createElement(new BigInteger(1, bytes).mod(modulus));
+  }
+
+  /**
+   * Reads an unsigned big-endian integer into an element, reducing it modulo the modulus.
+   */
+  private void fromBytes(byte[] bytes, int byteOffset, int length, long[] result, int offset) {
+    int excess = Math.max(0, length - byteLength);
+    for (int i = 0; i < excess; i++) {
+      if (bytes[byteOffset + i] != 0) {
+        reduceSlowly(bytes, byteOffset, length, result, offset);
+        return;
+      }
+    }
+    readBytes(bytes, byteOffset + excess, length - excess, result, offset);
+    int topBits = bitLength - (limbs - 1) * Long.SIZE;
+    if ((result[offset + limbs - 1] >>> (topBits - 1) >>> 1) != 0) {
+      reduceSlowly(bytes, byteOffset, length, result, offset);
+    } else if (compareToPrime(result, offset) >= 0) {
+      // the value is smaller than 2^bitLength, which is less than twice the modulus
+      subtractPrime(result, offset);
+    }
+  }
+
+  private void reduceSlowly(byte[] bytes, int byteOffset, int length, long[] result,
+      int offset) {
+    BigInteger value = new BigInteger(1, Arrays.copyOfRange(bytes, byteOffset,
+        byteOffset + length));
+    fromUnsigned(value.mod(modulus), result, offset);
+  }
+
+  /**
+   * Reads an unsigned big-endian integer of at most the byte length of the modulus into limbs.
+   */
+  private void readBytes(byte[] bytes, int byteOffset, int length, long[] result, int offset) {
+    for (int i = 0; i < limbs; i++) {
+      result[offset + i] = 0;
+    }
+    for (int j = 0; j < length; j++) {
+      result[offset + j / Long.BYTES] |=
+          (bytes[byteOffset + length - 1 - j] & 0xFFL) << (Byte.SIZE * (j % Long.BYTES));
+    }
+  }
+
+  private void fromUnsigned(BigInteger value, long[] result, int offset) {
+    for (int i = 0; i < limbs; i++) {
+      result[offset + i] = value.shiftRight(i * Long.SIZE).longValue();
+    }
+  }
+
+  private int compareToPrime(long[] value, int offset) {
+    for (int i = limbs - 1; i >= 0; i--) {
+      int comparison = Long.compareUnsigned(value[offset + i], prime[i]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  private void subtractPrime(long[] value, int offset) {
+    long borrow = 0;
+    for (int i = 0; i < limbs; i++) {
+      long a = value[offset + i];
+      long difference = a - prime[i] - borrow;
+      borrow = ((~a & prime[i]) | (~(a ^ prime[i]) & difference)) >>> 63;
+      value[offset + i] = difference;
+    }
+  }
+}
@@ -5,10 +5,10 @@ import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
-import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
+import dk.alexandra.fresco.tools.mascot.field.LimbArithmetic;
 import dk.alexandra.fresco.tools.ot.base.RotBatch;
-import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -21,11 +21,11 @@ public class MultiplyLeftHelper {
 
   private final RotBatch rot;
   private final MascotResourcePool resourcePool;
-  private final FieldElementUtils fieldElementUtils;
+  private final LimbArithmetic arithmetic;
 
   public MultiplyLeftHelper(MascotResourcePool resourcePool, Network network, int otherId) {
     this.resourcePool = resourcePool;
-    this.fieldElementUtils = new FieldElementUtils(resourcePool.getFieldDefinition());
+    this.arithmetic = new LimbArithmetic(resourcePool.getFieldDefinition());
     this.rot = resourcePool.createRot(otherId, network);
   }
 
@@ -60,33 +60,42 @@ public class MultiplyLeftHelper {
   /**
    * Computes this party's shares of the products. <br> There is a product share per left factor.
    *
-   * @param leftFactors this party's multiplication factors
-   * @param feSeeds seeds as field elements
-   * @param diffs the diffs received from other party
+   * <p> For each left factor with bits <i>a<sub>0</sub>, a<sub>1</sub>, ...</i>, seeds
+   * <i>q<sub>0</sub>, q<sub>1</sub>, ...</i> and diffs <i>d<sub>0</sub>, d<sub>1</sub>, ...</i>
+   * the share is the sum of <i>2<sup>b</sup>(q<sub>b</sub> + a<sub>b</sub>d<sub>b</sub>)</i>,
+   * which is accumulated without reduction and reduced once. </p>
+   *
+   * @param leftFactorBits the bits of this party's multiplication factors
+   * @param seeds seeds as limbs, with modBitLength consecutive seeds per left factor
+   * @param diffs the diffs received from other party as limbs, in the same order as the seeds
    * @return product shares
    */
-  public List<FieldElement> computeProductShares(List<FieldElement> leftFactors,
-      List<FieldElement> feSeeds, List<FieldElement> diffs) {
-    final FieldElement zeroElement =
-        resourcePool.getFieldDefinition().createElement(BigInteger.ZERO);
-    List<FieldElement> result = new ArrayList<>(leftFactors.size());
+  public List<FieldElement> computeProductShares(List<StrictBitVector> leftFactorBits,
+      long[] seeds, long[] diffs) {
+    int modBitLength = resourcePool.getModBitLength();
+    long[] accumulator = new long[arithmetic.getAccumulatorLimbs()];
+    List<FieldElement> result = new ArrayList<>(leftFactorBits.size());
     int diffIdx = 0;
-    for (FieldElement leftFactor : leftFactors) {
-      StrictBitVector currentBits = resourcePool.getFieldDefinition()
-          .convertToBitVector(leftFactor);
-      List<FieldElement> summands = new ArrayList<>(resourcePool.getModBitLength());
-      for (int b = 0; b < resourcePool.getModBitLength(); b++) {
-        FieldElement feSeed = feSeeds.get(diffIdx);
-        FieldElement diff = diffs.get(diffIdx);
-        boolean bit = currentBits.getBit(b, true);
-        FieldElement select = bit ? diff : zeroElement;
-        FieldElement summand = select.add(feSeed);
-        summands.add(summand);
+    for (StrictBitVector currentBits : leftFactorBits) {
+      Arrays.fill(accumulator, 0);
+      for (int b = 0; b < modBitLength; b++) {
+        arithmetic.addShifted(accumulator, 0, seeds, diffIdx, b);
+        if (currentBits.getBit(b, true)) {
+          arithmetic.addShifted(accumulator, 0, diffs, diffIdx, b);
+        }
         diffIdx++;
       }
-      FieldElement productShare = fieldElementUtils.recombine(summands);
-      result.add(productShare);
+      result.add(arithmetic.reduce(accumulator, 0));
     }
     return result;
   }
+
+  /**
+   * Gets the arithmetic used on seeds and diffs.
+   *
+   * @return the limb arithmetic
+   */
+  public LimbArithmetic getArithmetic() {
+    return arithmetic;
+  }
 }
@@ -5,9 +5,10 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
-import dk.alexandra.fresco.tools.mascot.field.FieldElementUtils;
+import dk.alexandra.fresco.tools.mascot.field.LimbArithmetic;
 import dk.alexandra.fresco.tools.ot.base.RotBatch;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -20,11 +21,11 @@ public class MultiplyRightHelper {
 
   private final RotBatch rot;
   private final MascotResourcePool resourcePool;
-  private final FieldElementUtils fieldElementUtils;
+  private final LimbArithmetic arithmetic;
 
   public MultiplyRightHelper(MascotResourcePool resourcePool, Network network, int otherId) {
     this.resourcePool = resourcePool;
-    this.fieldElementUtils = new FieldElementUtils(resourcePool.getFieldDefinition());
+    this.arithmetic = new LimbArithmetic(resourcePool.getFieldDefinition());
     this.rot = resourcePool.createRot(otherId, network);
   }
 
@@ -57,50 +58,51 @@ public class MultiplyRightHelper {
    * <i>q<sub>0</sub> - q<sub>1</sub> + b<sub>n</sub></i> where <i>b<sub>n</sub></i> is the
    * <i>n</i>-th factor of this party's factor. </p>
    *
-   * @param feSeedPairs seed pairs as field elements
+   * @param zeroSeeds the first seed of each pair as limbs
+   * @param oneSeeds the second seed of each pair as limbs
    * @param rightFactors this party's factors
-   * @return masked shares of this party's factor's bits.
+   * @return masked shares of this party's factor's bits, serialized for sending
    */
-  public List<FieldElement> computeDiffs(List<Pair<FieldElement, FieldElement>> feSeedPairs,
-      List<FieldElement> rightFactors) {
-    List<FieldElement> diffs = new ArrayList<>(feSeedPairs.size());
-    int rightFactorIdx = 0;
-    int seedPairIdx = 0;
-    for (Pair<FieldElement, FieldElement> feSeedPair : feSeedPairs) {
-      FieldElement rightFactor = rightFactors.get(rightFactorIdx);
-      FieldElement diff = computeDiff(feSeedPair, rightFactor);
-      diffs.add(diff);
-      seedPairIdx++;
-      rightFactorIdx = seedPairIdx / (resourcePool.getModBitLength());
+  public byte[] computeDiffs(long[] zeroSeeds, long[] oneSeeds, List<FieldElement> rightFactors) {
+    long[] factors = arithmetic.fromElements(rightFactors);
+    long[] diffs = new long[zeroSeeds.length];
+    int numSeedPairs = zeroSeeds.length / arithmetic.getLimbs();
+    for (int seedPairIdx = 0; seedPairIdx < numSeedPairs; seedPairIdx++) {
+      int rightFactorIdx = seedPairIdx / resourcePool.getModBitLength();
+      arithmetic.subtract(zeroSeeds, seedPairIdx, oneSeeds, seedPairIdx, diffs, seedPairIdx);
+      arithmetic.add(diffs, seedPairIdx, factors, rightFactorIdx, diffs, seedPairIdx);
     }
-    return diffs;
+    return arithmetic.serialize(diffs);
   }
 
   /**
    * Computes this party's shares of the final products. <br> For each seed pair (q0, q1) this party
    * holds, uses q0 to recombine into field elements representing the product shares.
    *
-   * @param feZeroSeeds the zero choice seeds
+   * @param zeroSeeds the zero choice seeds as limbs
    * @param numRightFactors number of total right factors
    * @return shares of products
    */
-  public List<FieldElement> computeProductShares(List<FieldElement> feZeroSeeds,
-      int numRightFactors) {
+  public List<FieldElement> computeProductShares(long[] zeroSeeds, int numRightFactors) {
+    int modBitLength = resourcePool.getModBitLength();
+    long[] accumulator = new long[arithmetic.getAccumulatorLimbs()];
     List<FieldElement> productShares = new ArrayList<>(numRightFactors);
     for (int rightFactIdx = 0; rightFactIdx < numRightFactors; rightFactIdx++) {
-      int from = rightFactIdx * resourcePool.getModBitLength();
-      int to = (rightFactIdx + 1) * resourcePool.getModBitLength();
-      List<FieldElement> subFactors = feZeroSeeds.subList(from, to);
-      FieldElement recombined = fieldElementUtils.recombine(subFactors);
-      productShares.add(recombined.negate());
+      Arrays.fill(accumulator, 0);
+      for (int b = 0; b < modBitLength; b++) {
+        arithmetic.addShifted(accumulator, 0, zeroSeeds, rightFactIdx * modBitLength + b, b);
+      }
+      productShares.add(arithmetic.reduce(accumulator, 0).negate());
     }
     return productShares;
   }
 
-  private FieldElement computeDiff(Pair<FieldElement, FieldElement> feSeedPair,
-      FieldElement factor) {
-    FieldElement left = feSeedPair.getFirst();
-    FieldElement right = feSeedPair.getSecond();
-    return left.subtract(right).add(factor);
+  /**
+   * Gets the arithmetic used on seeds and diffs.
+   *
+   * @return the limb arithmetic
+   */
+  public LimbArithmetic getArithmetic() {
+    return arithmetic;
   }
 }
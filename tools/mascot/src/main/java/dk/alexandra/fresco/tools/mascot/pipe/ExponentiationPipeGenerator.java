@@ -0,0 +1,89 @@
+package dk.alexandra.fresco.tools.mascot.pipe;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.online.OnlinePhase;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protocol for getting authenticated exponentiation pipes from random authenticated field
+ * elements.
+ */
+public class ExponentiationPipeGenerator {
+
+  private final OnlinePhase onlinePhase;
+  private final MascotResourcePool resourcePool;
+
+  /**
+   * Creates new {@link ExponentiationPipeGenerator}.
+   */
+  public ExponentiationPipeGenerator(MascotResourcePool resourcePool, OnlinePhase onlinePhase) {
+    this.resourcePool = resourcePool;
+    this.onlinePhase = onlinePhase;
+  }
+
+  /**
+   * Converts random authenticated elements to exponentiation pipes. <p> A pipe of length <i>l</i>
+   * for random element <i>[r]</i> is the list <i>[r<sup>-1</sup>], [r], [r<sup>2</sup>], ...,
+   * [r<sup>l + 1</sup>]</i>, the same layout as produced by the default exponentiation pipe
+   * computation of the online phase. Given random elements <i>[r]</i> and <i>[s]</i>, applies the
+   * following protocol: <ol> <li>Compute <i>[t] = [r][s]</i>. <li>Open to <i>t</i>. <li>Compute
+   * <i>[r<sup>-1</sup>] = [s] / t</i>. <li>Compute the powers of <i>[r]</i> in rounds, each round
+   * multiplying the highest power so far with all lower powers, such that a pipe of length <i>l</i>
+   * takes <i>log(l)</i> rounds. </ol> Each step is batched across all pipes, so the number of
+   * rounds does not depend on the number of pipes. Pipes for which <i>t</i> is zero are discarded,
+   * so fewer pipes than random elements may be returned. </p>
+   *
+   * @param randomElements random elements to raise to powers
+   * @param randomMasks random elements used to mask the random elements while inverting them
+   * @param pipeLength the length of each pipe
+   * @return exponentiation pipes
+   */
+  public List<List<AuthenticatedElement>> generatePipes(
+      List<AuthenticatedElement> randomElements, List<AuthenticatedElement> randomMasks,
+      int pipeLength) {
+    if (pipeLength < 0) {
+      throw new IllegalArgumentException(
+          "Can not create an exponentiation pipe of length less than 0");
+    }
+    if (randomElements.size() != randomMasks.size()) {
+      throw new IllegalArgumentException("Number of random elements and masks must be equal");
+    }
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    List<AuthenticatedElement> maskedProducts = onlinePhase.multiply(randomElements, randomMasks);
+    List<FieldElement> openProducts = onlinePhase.open(maskedProducts);
+    List<List<AuthenticatedElement>> pipes = new ArrayList<>(randomElements.size());
+    for (int i = 0; i < randomElements.size(); i++) {
+      FieldElement product = openProducts.get(i);
+      if (definition.convertToUnsigned(product).signum() != 0) {
+        List<AuthenticatedElement> pipe = new ArrayList<>(pipeLength + 2);
+        pipe.add(randomMasks.get(i).multiply(product.modInverse()));
+        pipe.add(randomElements.get(i));
+        pipes.add(pipe);
+      }
+    }
+    int highestPower = 1;
+    while (highestPower < pipeLength + 1) {
+      int newPowers = Math.min(highestPower, pipeLength + 1 - highestPower);
+      List<AuthenticatedElement> leftFactors = new ArrayList<>(pipes.size() * newPowers);
+      List<AuthenticatedElement> rightFactors = new ArrayList<>(pipes.size() * newPowers);
+      for (List<AuthenticatedElement> pipe : pipes) {
+        AuthenticatedElement highest = pipe.get(highestPower);
+        for (int power = 1; power <= newPowers; power++) {
+          leftFactors.add(highest);
+          rightFactors.add(pipe.get(power));
+        }
+      }
+      List<AuthenticatedElement> products = onlinePhase.multiply(leftFactors, rightFactors);
+      for (int i = 0; i < pipes.size(); i++) {
+        pipes.get(i).addAll(products.subList(i * newPowers, (i + 1) * newPowers));
+      }
+      highestPower += newPowers;
+    }
+    onlinePhase.triggerMacCheck();
+    return pipes;
+  }
+}
@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.tools.mascot.prg;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.tools.mascot.field.LimbArithmetic;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,4 +43,17 @@ public interface FieldElementPrg {
     }
     return sampled;
   }
+
+  /**
+   * Generates multiple random field elements as limbs.
+   *
+   * @param arithmetic the arithmetic of the field definition of this prg
+   * @param result the array to store the elements in
+   * @param offset the index of the first element to store
+   * @param numElements the number of elements to generate
+   */
+  default void getNext(LimbArithmetic arithmetic, long[] result, int offset, int numElements) {
+    long[] limbs = arithmetic.fromElements(getNext(numElements));
+    System.arraycopy(limbs, 0, result, offset * arithmetic.getLimbs(), limbs.length);
+  }
 }
@@ -4,12 +4,15 @@ import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.util.AesCtrDrbg;
 import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.Drng;
 import dk.alexandra.fresco.framework.util.DrngImpl;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.field.LimbArithmetic;
 
 public class FieldElementPrgImpl implements FieldElementPrg {
 
+  private final Drbg drbg;
   private final Drng drng;
   private FieldDefinition definition;
 
@@ -22,14 +25,23 @@ public class FieldElementPrgImpl implements FieldElementPrg {
     this.definition = definition;
     byte[] bytes = seed.toByteArray();
     if (bytes.length != AesCtrDrbg.SEED_LENGTH) {
-      this.drng = new DrngImpl(AesCtrDrbgFactory.fromDerivedSeed(bytes));
+      this.drbg = AesCtrDrbgFactory.fromDerivedSeed(bytes);
     } else {
-      this.drng = new DrngImpl(AesCtrDrbgFactory.fromRandomSeed(bytes));
+      this.drbg = AesCtrDrbgFactory.fromRandomSeed(bytes);
     }
+    this.drng = new DrngImpl(drbg);
   }
 
   @Override
   public FieldElement getNext() {
     return definition.createElement(drng.nextBigInteger(definition.getModulus()));
   }
+
+  /**
+   * Expands the seed for all the elements at once instead of creating a field element per element.
+   */
+  @Override
+  public void getNext(LimbArithmetic arithmetic, long[] result, int offset, int numElements) {
+    arithmetic.sample(drbg, result, offset, numElements);
+  }
 }
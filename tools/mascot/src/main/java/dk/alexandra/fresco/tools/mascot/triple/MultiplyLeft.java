@@ -4,6 +4,7 @@ import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.field.LimbArithmetic;
 import dk.alexandra.fresco.tools.mascot.mult.MultiplyLeftHelper;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -60,25 +61,14 @@ class MultiplyLeft {
   public List<FieldElement> multiply(List<FieldElement> leftFactors) {
     List<StrictBitVector> seeds = multiplyLeftHelper.generateSeeds(leftFactors,
         resourcePool.getModBitLength());
-    List<FieldElement> feSeeds = seedsToFieldElements(seeds);
+    // convert seeds to field elements, represented as limbs
+    LimbArithmetic arithmetic = multiplyLeftHelper.getArithmetic();
+    long[] limbSeeds = arithmetic.fromBitVectors(seeds);
     // receive diffs from other party
-    List<FieldElement> diffs =
-        resourcePool.getFieldDefinition().deserializeList(network.receive(otherId));
-    return multiplyLeftHelper.computeProductShares(leftFactors, feSeeds, diffs);
-  }
-
-  /**
-   * Converts each seed to field element.
-   *
-   * @param seeds the seeds represented as bit vectors
-   * @return seeds converted to field elements
-   */
-  private List<FieldElement> seedsToFieldElements(List<StrictBitVector> seeds) {
-    return seeds.parallelStream().map(this::fromBits).collect(Collectors.toList());
-  }
-
-  private FieldElement fromBits(StrictBitVector vector) {
-    // safe since the modulus is guaranteed to be close enough to 2^modBitLength
-    return resourcePool.getFieldDefinition().deserialize(vector.toByteArray());
+    long[] diffs = arithmetic.deserialize(network.receive(otherId), seeds.size());
+    List<StrictBitVector> leftFactorBits = leftFactors.stream()
+        .map(resourcePool.getFieldDefinition()::convertToBitVector)
+        .collect(Collectors.toList());
+    return multiplyLeftHelper.computeProductShares(leftFactorBits, limbSeeds, diffs);
   }
 }
@@ -5,6 +5,7 @@ import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.MascotResourcePool;
+import dk.alexandra.fresco.tools.mascot.field.LimbArithmetic;
 import dk.alexandra.fresco.tools.mascot.mult.MultiplyRightHelper;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -63,32 +64,16 @@ class MultiplyRight {
   public List<FieldElement> multiply(List<FieldElement> rightFactors) {
     List<Pair<StrictBitVector, StrictBitVector>> seedPairs =
         multiplyRightHelper.generateSeeds(rightFactors.size(), resourcePool.getModBitLength());
-    // convert seeds pairs to field elements so we can compute on them
-    List<Pair<FieldElement, FieldElement>> feSeedPairs =
-        seedsToFieldElements(seedPairs);
-    // compute q0 - q1 + b for each seed pair
-    List<FieldElement> diffs = multiplyRightHelper.computeDiffs(feSeedPairs, rightFactors);
-    // send diffs over to other party
-    network.send(otherId, resourcePool.getFieldDefinition().serialize(diffs));
-    // get zero index seeds
-    List<FieldElement> feZeroSeeds =
-        feSeedPairs.parallelStream().map(Pair::getFirst).collect(Collectors.toList());
+    // convert seeds pairs to field elements, represented as limbs, so we can compute on them
+    LimbArithmetic arithmetic = multiplyRightHelper.getArithmetic();
+    long[] zeroSeeds = arithmetic.fromBitVectors(
+        seedPairs.stream().map(Pair::getFirst).collect(Collectors.toList()));
+    long[] oneSeeds = arithmetic.fromBitVectors(
+        seedPairs.stream().map(Pair::getSecond).collect(Collectors.toList()));
+    // compute q0 - q1 + b for each seed pair and send diffs over to other party
+    network.send(otherId, multiplyRightHelper.computeDiffs(zeroSeeds, oneSeeds, rightFactors));
     // compute product shares
-    return multiplyRightHelper.computeProductShares(feZeroSeeds, rightFactors.size());
-  }
-
-  private List<Pair<FieldElement, FieldElement>> seedsToFieldElements(
-      List<Pair<StrictBitVector, StrictBitVector>> seedPairs) {
-    return seedPairs.parallelStream().map(pair -> {
-      FieldElement t0 = fromBits(pair.getFirst());
-      FieldElement t1 = fromBits(pair.getSecond());
-      return new Pair<>(t0, t1);
-    }).collect(Collectors.toList());
-  }
-
-  private FieldElement fromBits(StrictBitVector vector) {
-    // safe since the modulus is guaranteed to be close enough to 2^modBitLength
-    return resourcePool.getFieldDefinition().deserialize(vector.toByteArray());
+    return multiplyRightHelper.computeProductShares(zeroSeeds, rightFactors.size());
   }
 
 }
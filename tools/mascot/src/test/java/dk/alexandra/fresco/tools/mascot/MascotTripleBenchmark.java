@@ -0,0 +1,68 @@
+package dk.alexandra.fresco.tools.mascot;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Benchmark of MASCOT triple generation between two parties running in the same process.
+ *
+ * <p>
+ * Run with <code>java ... MascotTripleBenchmark [bigint|montgomery] [modBitLength] [triples]
+ * [repetitions]</code>; the time taken by the slowest party to generate the batch of triples is
+ * printed for each repetition. The first repetitions include the JIT warm up.
+ * </p>
+ */
+public class MascotTripleBenchmark {
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optionally the field definition, the bit length of the modulus, the number of
+   *     triples per batch and the number of repetitions
+   */
+  public static void main(String[] args) {
+    String field = args.length > 0 ? args[0] : "bigint";
+    int modBitLength = args.length > 1 ? Integer.parseInt(args[1]) : 128;
+    int numTriples = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+    int repetitions = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+    BigInteger modulus = ModulusFinder.findSuitableModulus(modBitLength);
+    FieldDefinition definition = "montgomery".equals(field)
+        ? new MontgomeryFieldDefinition(modulus)
+        : new BigIntegerFieldDefinition(modulus);
+    TestRuntime runtime = new TestRuntime();
+    try {
+      List<Callable<Mascot>> setup = new ArrayList<>();
+      for (MascotTestContext context : runtime.initializeContexts(2, 1,
+          new MascotSecurityParameters(), definition).values()) {
+        setup.add(() -> {
+          FieldElement macKeyShare = context.getResourcePool().getLocalSampler().getNext();
+          return new Mascot(context.getResourcePool(), context.getNetwork(), macKeyShare);
+        });
+      }
+      List<Mascot> mascots = runtime.runPerPartyTasks(setup);
+      for (int i = 0; i < repetitions; i++) {
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (Mascot mascot : mascots) {
+          tasks.add(() -> {
+            long start = System.nanoTime();
+            mascot.getTriples(numTriples);
+            return System.nanoTime() - start;
+          });
+        }
+        long nanos = runtime.runPerPartyTasks(tasks).stream().mapToLong(Long::longValue).max()
+            .getAsLong();
+        System.out.printf("%s, %d bits: %d triples in %8.1f ms, %8.0f triples/s%n", field,
+            modBitLength, numTriples, nanos / 1e6, numTriples / (nanos / 1e9));
+      }
+    } finally {
+      runtime.shutdown();
+    }
+  }
+}
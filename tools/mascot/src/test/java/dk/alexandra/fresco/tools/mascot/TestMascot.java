@@ -11,6 +11,7 @@ import dk.alexandra.fresco.tools.mascot.field.InputMask;
 import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -39,6 +40,12 @@ public class TestMascot extends NetworkedTest {
     return mascot.getRandomBits(numBits);
   }
 
+  private List<List<AuthenticatedElement>> runPipeGeneration(MascotTestContext ctx,
+      FieldElement macKeyShare, int numPipes, int pipeLength) {
+    Mascot mascot = new Mascot(ctx.getResourcePool(), ctx.getNetwork(), macKeyShare);
+    return mascot.getExponentiationPipes(numPipes, pipeLength);
+  }
+
   private List<AuthenticatedElement> runInputter(MascotTestContext ctx, FieldElement macKeyShare,
       List<FieldElement> inputs) {
     Mascot mascot = new Mascot(ctx.getResourcePool(), ctx.getNetwork(), macKeyShare);
@@ -115,6 +122,38 @@ public class TestMascot extends NetworkedTest {
     CustomAsserts.assertFieldElementIsBit(getFieldDefinition(), actualBit);
   }
 
+  @Test
+  public void testExponentiationPipeGen() {
+    // set up runtime environment and get contexts
+    initContexts(2);
+
+    // define per party task with params
+    List<Callable<List<List<AuthenticatedElement>>>> tasks = new ArrayList<>();
+    tasks.add(() -> runPipeGeneration(contexts.get(1), macKeyShareOne, 3, 5));
+    tasks.add(() -> runPipeGeneration(contexts.get(2), macKeyShareTwo, 3, 5));
+
+    List<List<List<AuthenticatedElement>>> results = testRuntime.runPerPartyTasks(tasks);
+    assertEquals(results.get(0).size(), 3);
+    assertEquals(results.get(1).size(), 3);
+    FieldElement macKey = macKeyShareOne.add(macKeyShareTwo);
+    for (int i = 0; i < 3; i++) {
+      List<AuthenticatedElement> pipe = Addable.sumRows(
+          Arrays.asList(results.get(0).get(i), results.get(1).get(i)));
+      assertEquals(pipe.size(), 7);
+      for (AuthenticatedElement element : pipe) {
+        CustomAsserts.assertEquals(getFieldDefinition(), element.getShare().multiply(macKey),
+            element.getMac());
+      }
+      FieldElement random = pipe.get(1).getShare();
+      CustomAsserts.assertEquals(getFieldDefinition(), getFieldDefinition().createElement(1),
+          pipe.get(0).getShare().multiply(random));
+      for (int power = 2; power < pipe.size(); power++) {
+        CustomAsserts.assertEquals(getFieldDefinition(),
+            pipe.get(power - 1).getShare().multiply(random), pipe.get(power).getShare());
+      }
+    }
+  }
+
   @Test
   public void testInputMask() {
     // set up runtime environment and get contexts
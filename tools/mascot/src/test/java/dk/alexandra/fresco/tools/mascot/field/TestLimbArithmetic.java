@@ -0,0 +1,147 @@
+package dk.alexandra.fresco.tools.mascot.field;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MontgomeryFieldDefinition;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestLimbArithmetic {
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testAddSubtract() {
+    for (FieldDefinition definition : definitions()) {
+      LimbArithmetic arithmetic = new LimbArithmetic(definition);
+      List<FieldElement> left = randomElements(definition, 50);
+      List<FieldElement> right = randomElements(definition, 50);
+      long[] leftLimbs = arithmetic.fromElements(left);
+      long[] rightLimbs = arithmetic.fromElements(right);
+      long[] sums = new long[leftLimbs.length];
+      long[] differences = new long[leftLimbs.length];
+      for (int i = 0; i < left.size(); i++) {
+        arithmetic.add(leftLimbs, i, rightLimbs, i, sums, i);
+        arithmetic.subtract(leftLimbs, i, rightLimbs, i, differences, i);
+      }
+      List<FieldElement> actualSums = definition.deserializeList(arithmetic.serialize(sums));
+      List<FieldElement> actualDifferences =
+          definition.deserializeList(arithmetic.serialize(differences));
+      for (int i = 0; i < left.size(); i++) {
+        assertEquals(definition.convertToUnsigned(left.get(i).add(right.get(i))),
+            definition.convertToUnsigned(actualSums.get(i)));
+        assertEquals(definition.convertToUnsigned(left.get(i).subtract(right.get(i))),
+            definition.convertToUnsigned(actualDifferences.get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void testRecombine() {
+    for (FieldDefinition definition : definitions()) {
+      LimbArithmetic arithmetic = new LimbArithmetic(definition);
+      FieldElementUtils utils = new FieldElementUtils(definition);
+      List<FieldElement> elements = randomElements(definition, definition.getBitLength());
+      long[] limbs = arithmetic.fromElements(elements);
+      long[] accumulator = new long[arithmetic.getAccumulatorLimbs()];
+      for (int i = 0; i < elements.size(); i++) {
+        arithmetic.addShifted(accumulator, 0, limbs, i, i);
+        arithmetic.addShifted(accumulator, 0, limbs, i, i);
+      }
+      FieldElement expected = utils.recombine(elements);
+      assertEquals(definition.convertToUnsigned(expected.add(expected)),
+          definition.convertToUnsigned(arithmetic.reduce(accumulator, 0)));
+    }
+  }
+
+  @Test
+  public void testSerialization() {
+    for (FieldDefinition definition : definitions()) {
+      LimbArithmetic arithmetic = new LimbArithmetic(definition);
+      List<FieldElement> elements = randomElements(definition, 20);
+      byte[] serialized = definition.serialize(elements);
+      long[] limbs = arithmetic.deserialize(serialized, elements.size());
+      assertArrayEquals(arithmetic.fromElements(elements), limbs);
+      assertArrayEquals(serialized, arithmetic.serialize(limbs));
+    }
+  }
+
+  @Test
+  public void testFromBitVectorsReduces() {
+    for (FieldDefinition definition : definitions()) {
+      LimbArithmetic arithmetic = new LimbArithmetic(definition);
+      List<StrictBitVector> vectors = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        vectors.add(new StrictBitVector(definition.getBitLength(), new AesCtrDrbg()));
+      }
+      byte[] ones = new byte[definition.getBitLength() / Byte.SIZE];
+      Arrays.fill(ones, (byte) 0xFF);
+      vectors.add(new StrictBitVector(ones));
+      long[] limbs = arithmetic.fromBitVectors(vectors);
+      List<FieldElement> actual = definition.deserializeList(arithmetic.serialize(limbs));
+      for (int i = 0; i < vectors.size(); i++) {
+        assertEquals(definition.convertToUnsigned(
+            definition.deserialize(vectors.get(i).toByteArray())),
+            definition.convertToUnsigned(actual.get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void testSample() {
+    for (FieldDefinition definition : definitions()) {
+      LimbArithmetic arithmetic = new LimbArithmetic(definition);
+      byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+      long[] first = new long[100 * arithmetic.getLimbs()];
+      arithmetic.sample(new AesCtrDrbg(seed), first, 0, 100);
+      long[] second = new long[100 * arithmetic.getLimbs()];
+      arithmetic.sample(new AesCtrDrbg(seed), second, 0, 100);
+      assertArrayEquals(first, second);
+      for (FieldElement element : definition.deserializeList(arithmetic.serialize(first))) {
+        assertTrue(definition.convertToUnsigned(element).compareTo(definition.getModulus()) < 0);
+      }
+      assertTrue(Arrays.stream(first).anyMatch(limb -> limb != 0));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDeserializeWrongLength() {
+    FieldDefinition definition = new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(
+        128));
+    new LimbArithmetic(definition).deserialize(new byte[17], 1);
+  }
+
+  private List<FieldDefinition> definitions() {
+    List<FieldDefinition> definitions = new ArrayList<>();
+    for (int bitLength : new int[]{16, 64, 72, 128, 256}) {
+      BigInteger modulus = ModulusFinder.findSuitableModulus(bitLength);
+      definitions.add(new BigIntegerFieldDefinition(modulus));
+      if (bitLength > Long.SIZE) {
+        definitions.add(new MontgomeryFieldDefinition(modulus));
+      }
+    }
+    return Collections.unmodifiableList(definitions);
+  }
+
+  private List<FieldElement> randomElements(FieldDefinition definition, int size) {
+    List<FieldElement> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      elements.add(definition.createElement(
+          new BigInteger(definition.getBitLength() + 8, random).mod(definition.getModulus())));
+    }
+    return elements;
+  }
+}
@@ -0,0 +1,103 @@
+package dk.alexandra.fresco.tools.mascot.pipe;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.mascot.CustomAsserts;
+import dk.alexandra.fresco.tools.mascot.MascotTestContext;
+import dk.alexandra.fresco.tools.mascot.MascotTestUtils;
+import dk.alexandra.fresco.tools.mascot.NetworkedTest;
+import dk.alexandra.fresco.tools.mascot.elgen.ElementGeneration;
+import dk.alexandra.fresco.tools.mascot.field.AuthenticatedElement;
+import dk.alexandra.fresco.tools.mascot.online.OnlinePhase;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
+import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
+import dk.alexandra.fresco.tools.mascot.triple.TripleGeneration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.Test;
+
+public class TestExponentiationPipeGenerator extends NetworkedTest {
+
+  private FieldElementPrg getJointPrg(int prgSeedLength) {
+    return new FieldElementPrgImpl(new StrictBitVector(prgSeedLength), getFieldDefinition());
+  }
+
+  private List<List<FieldElement>> runGeneratePipes(MascotTestContext ctx,
+      FieldElement macKeyShare, List<FieldElement> randomValues, List<FieldElement> maskValues,
+      int pipeLength) {
+    FieldElementPrg prg = getJointPrg(ctx.getPrgSeedLength());
+    ElementGeneration elementGeneration = new ElementGeneration(ctx.getResourcePool(),
+        ctx.getNetwork(), macKeyShare, prg);
+    OnlinePhase onlinePhase = new OnlinePhase(ctx.getResourcePool(),
+        new TripleGeneration(ctx.getResourcePool(), ctx.getNetwork(),
+            elementGeneration, prg),
+        elementGeneration, macKeyShare);
+    ExponentiationPipeGenerator generator =
+        new ExponentiationPipeGenerator(ctx.getResourcePool(), onlinePhase);
+    List<AuthenticatedElement> closed = (ctx.getMyId() == 1)
+        ? elementGeneration.input(randomValues)
+        : elementGeneration.input(1, randomValues.size());
+    List<AuthenticatedElement> masks = (ctx.getMyId() == 1)
+        ? elementGeneration.input(maskValues)
+        : elementGeneration.input(1, maskValues.size());
+    List<List<FieldElement>> openPipes = new ArrayList<>();
+    for (List<AuthenticatedElement> pipe : generator.generatePipes(closed, masks, pipeLength)) {
+      List<FieldElement> opened = elementGeneration.open(pipe);
+      elementGeneration.check(pipe, opened);
+      openPipes.add(opened);
+    }
+    return openPipes;
+  }
+
+  @Test
+  public void testTwoPartiesBatchedGeneratePipes() {
+    initContexts(2);
+
+    FieldElement macKeyShareOne = getFieldDefinition().createElement("11231");
+    FieldElement macKeyShareTwo = getFieldDefinition().createElement("7719");
+
+    // the pipe of the third element is discarded since its mask is zero
+    List<FieldElement> randomValues =
+        MascotTestUtils.generateSingleRow(new int[]{12, 11, 1, 2}, getFieldDefinition());
+    List<FieldElement> maskValues =
+        MascotTestUtils.generateSingleRow(new int[]{5, 3, 0, 7}, getFieldDefinition());
+    int pipeLength = 6;
+
+    Callable<List<List<FieldElement>>> partyOneTask = () -> runGeneratePipes(contexts.get(1),
+        macKeyShareOne, randomValues, maskValues, pipeLength);
+    Callable<List<List<FieldElement>>> partyTwoTask = () -> runGeneratePipes(contexts.get(2),
+        macKeyShareTwo, randomValues, maskValues, pipeLength);
+
+    List<List<List<FieldElement>>> results =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneTask, partyTwoTask));
+    List<List<FieldElement>> partyOneOutput = results.get(0);
+    List<List<FieldElement>> partyTwoOutput = results.get(1);
+
+    List<FieldElement> expectedBases = Arrays.asList(randomValues.get(0), randomValues.get(1),
+        randomValues.get(3));
+    assertEquals(expectedBases.size(), partyOneOutput.size());
+    FieldElement one = getFieldDefinition().createElement(1);
+    for (int i = 0; i < expectedBases.size(); i++) {
+      List<FieldElement> pipe = partyOneOutput.get(i);
+      CustomAsserts.assertEquals(getFieldDefinition(), pipe, partyTwoOutput.get(i));
+      assertEquals(pipeLength + 2, pipe.size());
+      CustomAsserts.assertEquals(getFieldDefinition(), one, pipe.get(0).multiply(pipe.get(1)));
+      FieldElement power = one;
+      for (int exponent = 1; exponent < pipe.size(); exponent++) {
+        power = power.multiply(expectedBases.get(i));
+        CustomAsserts.assertEquals(getFieldDefinition(), power, pipe.get(exponent));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativePipeLength() {
+    new ExponentiationPipeGenerator(null, null).generatePipes(new ArrayList<>(),
+        new ArrayList<>(), -1);
+  }
+
+}
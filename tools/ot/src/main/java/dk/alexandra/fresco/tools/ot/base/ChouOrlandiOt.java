@@ -0,0 +1,178 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Drng;
+import dk.alexandra.fresco.framework.util.DrngImpl;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.ot.otextension.PseudoOtp;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of the "simplest" OT of Chou and Orlandi over the NIST P-256 elliptic curve.
+ *
+ * <p>
+ * The sender picks a random scalar <i>a</i> and sends <i>A = aG</i>. For each OT the receiver picks
+ * a random scalar <i>b</i> and sends <i>B = bG</i> if its choice bit is 0 and <i>B = A + bG</i>
+ * otherwise. The sender then pads message zero with a key derived from <i>aB</i> and message one
+ * with a key derived from <i>a(B - A)</i>, of which the receiver can compute exactly the one chosen
+ * as <i>bA</i>. Compared to {@link NaorPinkasOt}, each OT takes a few multiplications on a 256 bit
+ * curve instead of exponentiations in a 2048 bit group, and a batch of OTs sent with
+ * {@link #send(List)} and received with {@link #receive(StrictBitVector)} takes a single round
+ * trip, since <i>A</i> is shared by the whole batch and all the receiver's points are sent in one
+ * message.
+ * </p>
+ */
+public class ChouOrlandiOt implements Ot {
+  private static final String HASH_ALGORITHM = "SHA-256";
+  private final int otherId;
+  private final Network network;
+  private final Drng randNum;
+  private final MessageDigest hashDigest;
+
+  /**
+   * Constructs a Chou-Orlandi OT instance.
+   *
+   * @param otherId The ID of the other party
+   * @param randBit The calling party's secure randomness generator
+   * @param network The underlying network to use
+   */
+  public ChouOrlandiOt(int otherId, Drbg randBit, Network network) {
+    this.otherId = otherId;
+    this.network = network;
+    this.hashDigest = ExceptionConverter.safe(() -> MessageDigest.getInstance(HASH_ALGORITHM),
+        "Missing secure, hash function which is dependent in this library");
+    this.randNum = new DrngImpl(randBit);
+  }
+
+  @Override
+  public void send(StrictBitVector messageZero, StrictBitVector messageOne) {
+    send(Collections.singletonList(new Pair<>(messageZero, messageOne)));
+  }
+
+  @Override
+  public StrictBitVector receive(boolean choiceBit) {
+    return receive(new boolean[]{choiceBit}).get(0);
+  }
+
+  @Override
+  public void send(List<Pair<StrictBitVector, StrictBitVector>> messages) {
+    BigInteger privateKey = randomScalar();
+    Secp256r1Point publicKey = Secp256r1Point.multiplyGenerator(privateKey);
+    byte[] encodedPublicKey = publicKey.encode();
+    network.send(otherId, encodedPublicKey);
+    byte[] receiverKeys = network.receive(otherId);
+    if (receiverKeys.length != messages.size() * Secp256r1Point.ENCODED_LENGTH) {
+      throw new MaliciousException(
+          "The amount of points received does not match the amount of OTs");
+    }
+    Secp256r1Point negatedSquare = publicKey.multiply(privateKey).negate();
+    for (int i = 0; i < messages.size(); i++) {
+      byte[] encodedReceiverKey = Arrays.copyOfRange(receiverKeys,
+          i * Secp256r1Point.ENCODED_LENGTH, (i + 1) * Secp256r1Point.ENCODED_LENGTH);
+      Secp256r1Point receiverKey = decodePoint(encodedReceiverKey);
+      Secp256r1Point keyZero = receiverKey.multiply(privateKey);
+      Secp256r1Point keyOne = keyZero.add(negatedSquare);
+      StrictBitVector messageZero = messages.get(i).getFirst();
+      StrictBitVector messageOne = messages.get(i).getSecond();
+      int maxBitLength = Math.max(messageZero.getSize(), messageOne.getSize());
+      network.send(otherId, PseudoOtp.encrypt(messageZero.toByteArray(),
+          deriveSeed(i, encodedPublicKey, encodedReceiverKey, keyZero),
+          maxBitLength / Byte.SIZE));
+      network.send(otherId, PseudoOtp.encrypt(messageOne.toByteArray(),
+          deriveSeed(i, encodedPublicKey, encodedReceiverKey, keyOne),
+          maxBitLength / Byte.SIZE));
+    }
+  }
+
+  @Override
+  public List<StrictBitVector> receive(StrictBitVector choiceBits) {
+    boolean[] choices = new boolean[choiceBits.getSize()];
+    for (int i = 0; i < choices.length; i++) {
+      choices[i] = choiceBits.getBit(i, false);
+    }
+    return receive(choices);
+  }
+
+  private List<StrictBitVector> receive(boolean[] choices) {
+    byte[] encodedSenderKey = network.receive(otherId);
+    Secp256r1Point senderKey = decodePoint(encodedSenderKey);
+    List<BigInteger> privateKeys = new ArrayList<>(choices.length);
+    byte[] receiverKeys = new byte[choices.length * Secp256r1Point.ENCODED_LENGTH];
+    for (int i = 0; i < choices.length; i++) {
+      BigInteger privateKey;
+      Secp256r1Point publicKey;
+      do {
+        privateKey = randomScalar();
+        publicKey = Secp256r1Point.multiplyGenerator(privateKey);
+        if (choices[i]) {
+          publicKey = publicKey.add(senderKey);
+        }
+      } while (publicKey.isInfinity());
+      privateKeys.add(privateKey);
+      System.arraycopy(publicKey.encode(), 0, receiverKeys, i * Secp256r1Point.ENCODED_LENGTH,
+          Secp256r1Point.ENCODED_LENGTH);
+    }
+    network.send(otherId, receiverKeys);
+    List<StrictBitVector> messages = new ArrayList<>(choices.length);
+    for (int i = 0; i < choices.length; i++) {
+      byte[] encodedReceiverKey = Arrays.copyOfRange(receiverKeys,
+          i * Secp256r1Point.ENCODED_LENGTH, (i + 1) * Secp256r1Point.ENCODED_LENGTH);
+      byte[] seed = deriveSeed(i, encodedSenderKey, encodedReceiverKey,
+          senderKey.multiply(privateKeys.get(i)));
+      byte[] encryptedZeroMessage = network.receive(otherId);
+      byte[] encryptedOneMessage = network.receive(otherId);
+      if (encryptedZeroMessage.length != encryptedOneMessage.length) {
+        throw new MaliciousException("The length of the two choice messages is not equal");
+      }
+      byte[] message = PseudoOtp.decrypt(choices[i] ? encryptedOneMessage : encryptedZeroMessage,
+          seed);
+      messages.add(new StrictBitVector(message));
+    }
+    return messages;
+  }
+
+  /**
+   * Samples a uniformly random non-zero scalar.
+   */
+  private BigInteger randomScalar() {
+    BigInteger scalar;
+    do {
+      scalar = randNum.nextBigInteger(Secp256r1Point.N);
+    } while (scalar.signum() == 0);
+    return scalar;
+  }
+
+  private Secp256r1Point decodePoint(byte[] encoding) {
+    if (encoding.length != Secp256r1Point.ENCODED_LENGTH) {
+      throw new MaliciousException("Received a point encoding of the wrong length");
+    }
+    try {
+      return Secp256r1Point.decode(encoding, 0);
+    } catch (IllegalArgumentException e) {
+      throw new MaliciousException("Received an invalid curve point: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Derives the seed used for padding a message from the shared point of an OT. The index of the OT
+   * in the batch and both public points are included in the hash, such that no two OTs share a
+   * seed.
+   */
+  private byte[] deriveSeed(int index, byte[] senderKey, byte[] receiverKey,
+      Secp256r1Point sharedKey) {
+    hashDigest.update(ByteBuffer.allocate(Integer.BYTES).putInt(index).array());
+    hashDigest.update(senderKey);
+    hashDigest.update(receiverKey);
+    return hashDigest.digest(sharedKey.encode());
+  }
+}
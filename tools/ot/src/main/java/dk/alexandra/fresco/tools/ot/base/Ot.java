@@ -1,6 +1,9 @@
 package dk.alexandra.fresco.tools.ot.base;
 
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Oblivious Transfer interface for 1-out-of-2 oblivious transfer. That is, the sending party inputs
@@ -30,4 +33,34 @@ public interface Ot {
    * @return The message indicated by the choice bit
    */
   StrictBitVector receive(boolean choiceBit);
+
+  /**
+   * Send a batch of message pairs, one pair for each OT. Implementations may carry out the whole
+   * batch in fewer rounds of communication than sending the pairs one by one, in which case the
+   * receiving party must receive the batch using {@link #receive(StrictBitVector)}.
+   *
+   * @param messages
+   *          The pairs of message zero and message one to send
+   */
+  default void send(List<Pair<StrictBitVector, StrictBitVector>> messages) {
+    for (Pair<StrictBitVector, StrictBitVector> pair : messages) {
+      send(pair.getFirst(), pair.getSecond());
+    }
+  }
+
+  /**
+   * Receive a batch of one-out-of-two messages sent using {@link #send(List)}.
+   *
+   * @param choiceBits
+   *          Bits indicating which message to receive in each OT, where the bit at index
+   *          <i>i</i>, when not interpreted as big-endian, is the choice of the <i>i</i>'th OT
+   * @return The messages indicated by the choice bits
+   */
+  default List<StrictBitVector> receive(StrictBitVector choiceBits) {
+    List<StrictBitVector> messages = new ArrayList<>(choiceBits.getSize());
+    for (int i = 0; i < choiceBits.getSize(); i++) {
+      messages.add(receive(choiceBits.getBit(i, false)));
+    }
+    return messages;
+  }
 }
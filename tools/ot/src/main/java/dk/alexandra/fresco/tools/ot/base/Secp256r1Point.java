@@ -0,0 +1,287 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable point on the NIST P-256 (secp256r1) elliptic curve <i>y^2 = x^3 - 3x + b</i> over
+ * the prime field of order {@link #P}. The group of points has prime order {@link #N}, so every
+ * point except the point at infinity generates the group.
+ *
+ * <p>
+ * Points are stored in affine coordinates, while additions and doublings inside a scalar
+ * multiplication are done in Jacobian coordinates, which avoids a field inversion for every group
+ * operation. Scalar multiplication uses a fixed window of {@value #WINDOW_BITS} bits. Note that the
+ * arithmetic is based on {@link BigInteger} and does not run in constant time.
+ * </p>
+ */
+final class Secp256r1Point {
+
+  /**
+   * The order of the underlying prime field.
+   */
+  static final BigInteger P = new BigInteger(
+      "ffffffff00000001000000000000000000000000ffffffffffffffffffffffff", 16);
+  /**
+   * The order of the group of points.
+   */
+  static final BigInteger N = new BigInteger(
+      "ffffffff00000000ffffffffffffffffbce6faada7179e84f3b9cac2fc632551", 16);
+  /**
+   * The length in bytes of the uncompressed encoding of a point other than infinity.
+   */
+  static final int ENCODED_LENGTH = 65;
+  static final Secp256r1Point INFINITY = new Secp256r1Point(null, null);
+
+  private static final BigInteger B = new BigInteger(
+      "5ac635d8aa3a93e7b3ebbd55769886bc651d06b0cc53b0f63bce3c3e27d2604b", 16);
+  private static final BigInteger THREE = BigInteger.valueOf(3);
+  private static final int FIELD_BYTES = 32;
+  private static final int WINDOW_BITS = 4;
+  private static final Secp256r1Point GENERATOR = new Secp256r1Point(
+      new BigInteger("6b17d1f2e12c4247f8bce6e563a440f277037d812deb33a0f4a13945d898c296", 16),
+      new BigInteger("4fe342e2fe1a7f9b8ee7eb4a7c0f9e162bce33576b315ececbb6406837bf51f5", 16));
+  private static final Secp256r1Point[] GENERATOR_WINDOW = GENERATOR.window();
+
+  private final BigInteger x;
+  private final BigInteger y;
+
+  private Secp256r1Point(BigInteger x, BigInteger y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * Returns the standard generator of the group.
+   *
+   * @return the generator
+   */
+  static Secp256r1Point getGenerator() {
+    return GENERATOR;
+  }
+
+  /**
+   * Multiplies the generator by a scalar, using a precomputed window of multiples.
+   *
+   * @param scalar a non-negative scalar
+   * @return the scalar multiple of the generator
+   */
+  static Secp256r1Point multiplyGenerator(BigInteger scalar) {
+    return multiply(GENERATOR_WINDOW, scalar);
+  }
+
+  boolean isInfinity() {
+    return x == null;
+  }
+
+  /**
+   * Computes the sum of this point and another point.
+   *
+   * @param other the point to add
+   * @return the sum
+   */
+  Secp256r1Point add(Secp256r1Point other) {
+    if (isInfinity()) {
+      return other;
+    }
+    return toAffine(addMixed(new BigInteger[]{x, y, BigInteger.ONE}, other));
+  }
+
+  Secp256r1Point negate() {
+    return isInfinity() ? this : new Secp256r1Point(x, P.subtract(y));
+  }
+
+  /**
+   * Multiplies this point by a scalar.
+   *
+   * @param scalar a non-negative scalar
+   * @return the scalar multiple of this point
+   */
+  Secp256r1Point multiply(BigInteger scalar) {
+    if (isInfinity()) {
+      return this;
+    }
+    return multiply(window(), scalar);
+  }
+
+  /**
+   * Encodes the point in the uncompressed form of SEC 1, i.e., as the byte <i>4</i> followed by the
+   * two coordinates in big-endian order. The point at infinity is encoded as a single zero byte.
+   *
+   * @return the encoding of the point
+   */
+  byte[] encode() {
+    if (isInfinity()) {
+      return new byte[1];
+    }
+    byte[] bytes = new byte[ENCODED_LENGTH];
+    bytes[0] = 4;
+    writeCoordinate(x, bytes, 1);
+    writeCoordinate(y, bytes, 1 + FIELD_BYTES);
+    return bytes;
+  }
+
+  /**
+   * Decodes a point other than infinity in the uncompressed form of SEC 1, checking that it is on
+   * the curve. Since the group has prime order, this ensures the point is in the group.
+   *
+   * @param bytes the bytes holding the encoding
+   * @param offset the offset of the encoding in the bytes
+   * @return the decoded point
+   * @throws IllegalArgumentException if the bytes do not encode a point on the curve
+   */
+  static Secp256r1Point decode(byte[] bytes, int offset) {
+    if (bytes.length - offset < ENCODED_LENGTH || bytes[offset] != 4) {
+      throw new IllegalArgumentException("Not an uncompressed point encoding");
+    }
+    BigInteger x = new BigInteger(1, Arrays.copyOfRange(bytes, offset + 1,
+        offset + 1 + FIELD_BYTES));
+    BigInteger y = new BigInteger(1, Arrays.copyOfRange(bytes, offset + 1 + FIELD_BYTES,
+        offset + ENCODED_LENGTH));
+    if (x.compareTo(P) >= 0 || y.compareTo(P) >= 0) {
+      throw new IllegalArgumentException("Coordinates are not reduced");
+    }
+    BigInteger rightSide = x.multiply(x).subtract(THREE).multiply(x).add(B).mod(P);
+    if (!y.multiply(y).mod(P).equals(rightSide)) {
+      throw new IllegalArgumentException("Point is not on the curve");
+    }
+    return new Secp256r1Point(x, y);
+  }
+
+  /**
+   * Computes the multiples <i>0, 1, ..., 2^w - 1</i> of this point in affine coordinates.
+   */
+  private Secp256r1Point[] window() {
+    BigInteger[][] jacobian = new BigInteger[1 << WINDOW_BITS][];
+    jacobian[1] = new BigInteger[]{x, y, BigInteger.ONE};
+    for (int i = 2; i < jacobian.length; i++) {
+      jacobian[i] = (i % 2 == 0)
+          ? doubleJacobian(jacobian[i / 2])
+          : addMixed(jacobian[i - 1], this);
+    }
+    Secp256r1Point[] window = new Secp256r1Point[jacobian.length];
+    window[0] = INFINITY;
+    window[1] = this;
+    for (int i = 2; i < window.length; i++) {
+      window[i] = toAffine(jacobian[i]);
+    }
+    return window;
+  }
+
+  private static Secp256r1Point multiply(Secp256r1Point[] window, BigInteger scalar) {
+    if (scalar.signum() < 0) {
+      throw new IllegalArgumentException("Scalar must be non-negative");
+    }
+    BigInteger[] result = {BigInteger.ONE, BigInteger.ONE, BigInteger.ZERO};
+    int windows = (scalar.bitLength() + WINDOW_BITS - 1) / WINDOW_BITS;
+    for (int i = windows - 1; i >= 0; i--) {
+      for (int j = 0; j < WINDOW_BITS; j++) {
+        result = doubleJacobian(result);
+      }
+      int digit = 0;
+      for (int j = WINDOW_BITS - 1; j >= 0; j--) {
+        digit = (digit << 1) | (scalar.testBit(i * WINDOW_BITS + j) ? 1 : 0);
+      }
+      if (digit != 0) {
+        result = addMixed(result, window[digit]);
+      }
+    }
+    return toAffine(result);
+  }
+
+  /**
+   * Doubles a point in Jacobian coordinates using the "dbl-2001-b" formulas for curves with
+   * <i>a = -3</i>. A point with <i>Z = 0</i> is the point at infinity.
+   */
+  private static BigInteger[] doubleJacobian(BigInteger[] point) {
+    BigInteger x1 = point[0];
+    BigInteger y1 = point[1];
+    BigInteger z1 = point[2];
+    if (z1.signum() == 0) {
+      return point;
+    }
+    BigInteger delta = z1.multiply(z1).mod(P);
+    BigInteger gamma = y1.multiply(y1).mod(P);
+    BigInteger beta = x1.multiply(gamma).mod(P);
+    BigInteger alpha = x1.subtract(delta).multiply(x1.add(delta)).multiply(THREE).mod(P);
+    BigInteger x3 = alpha.multiply(alpha).subtract(beta.shiftLeft(3)).mod(P);
+    BigInteger z3 = y1.add(z1).pow(2).subtract(gamma).subtract(delta).mod(P);
+    BigInteger y3 = alpha.multiply(beta.shiftLeft(2).subtract(x3))
+        .subtract(gamma.multiply(gamma).shiftLeft(3)).mod(P);
+    return new BigInteger[]{x3, y3, z3};
+  }
+
+  /**
+   * Adds an affine point to a point in Jacobian coordinates using the "madd-2007-bl" formulas.
+   */
+  private static BigInteger[] addMixed(BigInteger[] point, Secp256r1Point other) {
+    if (other.isInfinity()) {
+      return point;
+    }
+    BigInteger x1 = point[0];
+    BigInteger y1 = point[1];
+    BigInteger z1 = point[2];
+    if (z1.signum() == 0) {
+      return new BigInteger[]{other.x, other.y, BigInteger.ONE};
+    }
+    BigInteger z1z1 = z1.multiply(z1).mod(P);
+    BigInteger u2 = other.x.multiply(z1z1).mod(P);
+    BigInteger s2 = other.y.multiply(z1).multiply(z1z1).mod(P);
+    BigInteger h = u2.subtract(x1).mod(P);
+    BigInteger r = s2.subtract(y1).shiftLeft(1).mod(P);
+    if (h.signum() == 0) {
+      if (r.signum() == 0) {
+        return doubleJacobian(point);
+      }
+      return new BigInteger[]{BigInteger.ONE, BigInteger.ONE, BigInteger.ZERO};
+    }
+    BigInteger hh = h.multiply(h).mod(P);
+    BigInteger i = hh.shiftLeft(2).mod(P);
+    BigInteger j = h.multiply(i).mod(P);
+    BigInteger v = x1.multiply(i).mod(P);
+    BigInteger x3 = r.multiply(r).subtract(j).subtract(v.shiftLeft(1)).mod(P);
+    BigInteger y3 = r.multiply(v.subtract(x3)).subtract(y1.multiply(j).shiftLeft(1)).mod(P);
+    BigInteger z3 = z1.add(h).pow(2).subtract(z1z1).subtract(hh).mod(P);
+    return new BigInteger[]{x3, y3, z3};
+  }
+
+  private static Secp256r1Point toAffine(BigInteger[] point) {
+    if (point[2].signum() == 0) {
+      return INFINITY;
+    }
+    BigInteger zInverse = point[2].modInverse(P);
+    BigInteger zInverseSquared = zInverse.multiply(zInverse).mod(P);
+    return new Secp256r1Point(point[0].multiply(zInverseSquared).mod(P),
+        point[1].multiply(zInverseSquared).multiply(zInverse).mod(P));
+  }
+
+  private static void writeCoordinate(BigInteger coordinate, byte[] bytes, int offset) {
+    byte[] raw = coordinate.toByteArray();
+    int length = Math.min(raw.length, FIELD_BYTES);
+    System.arraycopy(raw, raw.length - length, bytes, offset + FIELD_BYTES - length, length);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Secp256r1Point)) {
+      return false;
+    }
+    Secp256r1Point other = (Secp256r1Point) obj;
+    return Objects.equals(x, other.x) && Objects.equals(y, other.y);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(x, y);
+  }
+
+  @Override
+  public String toString() {
+    return isInfinity() ? "Secp256r1Point [infinity]" : "Secp256r1Point [x=" + x + ", y=" + y + "]";
+  }
+
+}
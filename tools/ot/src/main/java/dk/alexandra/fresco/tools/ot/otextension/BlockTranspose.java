@@ -0,0 +1,147 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bit matrix transposition working on whole words. The matrix is copied into a single contiguous
+ * <code>long</code> array in row-major order, which is transposed in blocks of 64 x 64 bits, each
+ * using six rounds of masked swaps on 64 words. The blocks are visited in strips of
+ * {@value #STRIP_WORDS} words, such that both the rows read and the rows written by a strip stay in
+ * the cache.
+ *
+ * <p>
+ * The buffers are kept between calls, so an instance should be reused for matrices of the same
+ * dimensions, and an instance must not be used by several threads at once. Any number of rows and
+ * columns divisible by 8 is supported; the matrix is padded with zeros to multiples of 64
+ * internally.
+ * </p>
+ */
+public class BlockTranspose {
+
+  private static final int STRIP_WORDS = 16;
+  private final long[] block = new long[Long.SIZE];
+  private long[] source = new long[0];
+  private long[] target = new long[0];
+
+  /**
+   * Transposes a matrix represented in row-major order as a list of bit vectors. The result is the
+   * same as that of {@link Transpose#transpose(List)}.
+   *
+   * @param input the matrix to transpose
+   * @return the transposed matrix
+   */
+  public List<StrictBitVector> transpose(List<StrictBitVector> input) {
+    if (input.isEmpty()) {
+      throw new IllegalArgumentException("The matrix must have at least one row");
+    }
+    int rows = input.size();
+    int columns = input.get(0).getSize();
+    if (rows % Byte.SIZE != 0) {
+      throw new IllegalArgumentException("The amount of rows in the matrix is not divisible by 8");
+    }
+    int rowWords = words(columns);
+    int columnWords = words(rows);
+    source = ensureCapacity(source, columnWords * Long.SIZE * rowWords);
+    target = ensureCapacity(target, rowWords * Long.SIZE * columnWords);
+    for (int i = 0; i < rows; i++) {
+      StrictBitVector row = input.get(i);
+      if (row.getSize() != columns) {
+        throw new IllegalArgumentException("Not all rows are of equal length");
+      }
+      fromBytes(row.toByteArray(), source, i * rowWords, rowWords);
+    }
+    // Padding rows must be zero, but may hold data from a previous call
+    Arrays.fill(source, rows * rowWords, columnWords * Long.SIZE * rowWords, 0);
+    transpose(source, columnWords * Long.SIZE, rowWords * Long.SIZE, target);
+    List<StrictBitVector> result = new ArrayList<>(columns);
+    for (int i = 0; i < columns; i++) {
+      result.add(new StrictBitVector(toBytes(target, i * columnWords, rows / Byte.SIZE)));
+    }
+    return result;
+  }
+
+  /**
+   * Transposes a bit matrix stored in row-major order, where each row is a sequence of words and
+   * the bits of a word are ordered from the most significant bit.
+   *
+   * @param source the matrix to transpose
+   * @param rows the number of rows, which must be divisible by 64
+   * @param columns the number of columns, which must be divisible by 64
+   * @param target the array to store the transposed matrix in, which must be distinct from the
+   *     source
+   */
+  void transpose(long[] source, int rows, int columns, long[] target) {
+    int rowWords = columns / Long.SIZE;
+    int columnWords = rows / Long.SIZE;
+    for (int strip = 0; strip < rowWords; strip += STRIP_WORDS) {
+      int stripEnd = Math.min(rowWords, strip + STRIP_WORDS);
+      for (int rowBlock = 0; rowBlock < columnWords; rowBlock++) {
+        for (int word = strip; word < stripEnd; word++) {
+          for (int i = 0; i < Long.SIZE; i++) {
+            block[i] = source[(rowBlock * Long.SIZE + i) * rowWords + word];
+          }
+          transposeBlock(block);
+          for (int i = 0; i < Long.SIZE; i++) {
+            target[(word * Long.SIZE + i) * columnWords + rowBlock] = block[i];
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Transposes, in-place, a 64 x 64 bit matrix, where the bits of each word are ordered from the
+   * most significant bit. In each round, the off-diagonal sub-blocks of all sub-matrices of size
+   * <i>2j x 2j</i> are swapped, with <i>j</i> going from 32 down to 1.
+   *
+   * @param block the 64 words of the matrix
+   */
+  static void transposeBlock(long[] block) {
+    long mask = 0x00000000FFFFFFFFL;
+    for (int j = 32; j != 0; j >>>= 1, mask ^= mask << j) {
+      for (int k = 0; k < Long.SIZE; k = ((k | j) + 1) & ~j) {
+        long swap = (block[k] ^ (block[k | j] >>> j)) & mask;
+        block[k] ^= swap;
+        block[k | j] ^= swap << j;
+      }
+    }
+  }
+
+  private static int words(int bits) {
+    return (bits + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  private static long[] ensureCapacity(long[] buffer, int size) {
+    return buffer.length < size ? new long[size] : buffer;
+  }
+
+  /**
+   * Reads bytes in big-endian order into words, padding the last word with zeros.
+   */
+  private static void fromBytes(byte[] bytes, long[] words, int offset, int length) {
+    for (int i = 0; i < length; i++) {
+      long word = 0;
+      for (int j = 0; j < Long.BYTES; j++) {
+        int index = i * Long.BYTES + j;
+        word = (word << Byte.SIZE) | (index < bytes.length ? bytes[index] & 0xFFL : 0);
+      }
+      words[offset + i] = word;
+    }
+  }
+
+  /**
+   * Writes the first bytes of words in big-endian order.
+   */
+  private static byte[] toBytes(long[] words, int offset, int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (words[offset + i / Long.BYTES]
+          >>> (Byte.SIZE * (Long.BYTES - 1 - i % Long.BYTES)));
+    }
+    return bytes;
+  }
+
+}
@@ -18,6 +18,7 @@ public class CoteReceiver extends CoteShared {
   private final OtExtensionResourcePool resources;
   private final Network network;
   private final List<Pair<Drbg, Drbg>> prgs;
+  private final BlockTranspose transpose = new BlockTranspose();
 
   /**
    * Constructs a correlated OT extension with errors receiver instance.
@@ -79,7 +80,7 @@ public class CoteReceiver extends CoteShared {
     IntStream.range(0, resources.getComputationalSecurityParameter()).parallel()
       .forEach(i -> ulist.get(i).xor(tlistZero.get(i)));
     sendList(ulist);
-    return Transpose.transpose(tlistZero);
+    return transpose.transpose(tlistZero);
   }
 
 
@@ -19,6 +19,7 @@ public class CoteSender extends CoteShared {
   private final List<Drbg> prgs;
   // The random messages choices for the random seed OTs
   private StrictBitVector otChoices;
+  private final BlockTranspose transpose = new BlockTranspose();
 
   /**
    * Construct a sending party for an instance of the correlated OT protocol.
@@ -76,7 +77,7 @@ public class CoteSender extends CoteShared {
     IntStream.range(0, resources.getComputationalSecurityParameter()).parallel()
         .filter(i -> otChoices.getBit(i, false))
         .forEach(i -> tlist.get(i).xor(ulist.get(i)));
-    return Transpose.transpose(tlist);
+    return transpose.transpose(tlist);
   }
 
   /**
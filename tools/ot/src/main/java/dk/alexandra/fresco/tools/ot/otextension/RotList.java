@@ -19,7 +19,6 @@ import java.util.List;
  * </p>
  */
 public class RotList {
-  private final int amount;
   private final List<Pair<StrictBitVector, StrictBitVector>> sendMessages;
   private final List<StrictBitVector> learnedMessages;
   private final StrictBitVector choices;
@@ -37,7 +36,6 @@ public class RotList {
    *          The amount of OTs to construct
    */
   public RotList(Drbg rand, int amount) {
-    this.amount = amount;
     sendMessages = new ArrayList<>(amount);
     learnedMessages = new ArrayList<>(amount);
     for (int i = 0; i < amount; i++) {
@@ -62,9 +60,7 @@ public class RotList {
     if (sent == true) {
       throw new IllegalStateException("Seed OTs have already been sent.");
     }
-    for (Pair<StrictBitVector, StrictBitVector> pair : sendMessages) {
-      ot.send(pair.getFirst(), pair.getSecond());
-    }
+    ot.send(sendMessages);
     sent = true;
   }
 
@@ -82,10 +78,7 @@ public class RotList {
     if (received == true) {
       throw new IllegalStateException("Seed OTs have already been received.");
     }
-    for (int i = 0; i < amount; i++) {
-      StrictBitVector message = ot.receive(choices.getBit(i, false));
-      learnedMessages.add(message);
-    }
+    learnedMessages.addAll(ot.receive(choices));
     received = true;
   }
 
@@ -5,8 +5,9 @@ import dk.alexandra.fresco.tools.cointossing.CoinTossing;
 import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -14,6 +15,9 @@ import java.util.stream.IntStream;
  * random OT extension.
  */
 public abstract class RotSharedImpl {
+  private static final int INNER_PRODUCT_CHUNK = 1024;
+  private static final int NIBBLES_PER_WORD = Long.SIZE / 4;
+  private static final int NIBBLE_VALUES = 16;
   private final CoinTossing ct;
   private final int comSecParam;
   private final MessageDigest digest;
@@ -41,6 +45,13 @@ public abstract class RotSharedImpl {
    * All elements of both lists MUST have equal size! And both lists MUST contain an equal amount of
    * entries!
    *
+   * <p>
+   * Rather than multiplying each pair, the elements of the second list are added into buckets
+   * indexed by the position and value of each 4 bit nibble of the corresponding element of the
+   * first list. This takes a single XOR of whole words per nibble, and the buckets are only
+   * multiplied by their nibble values and shifted into place once, at the end.
+   * </p>
+   *
    * @param alist The first input list, with all elements of equal size
    * @param blist The second input list, with all elements of equal size
    * @return The inner product represented as a StrictBitVector
@@ -48,15 +59,38 @@ public abstract class RotSharedImpl {
   protected static StrictBitVector computeInnerProduct(List<StrictBitVector> alist,
       List<StrictBitVector> blist) {
     // All elements of each list MUST have equal size so we find the size using the first element.
-    StrictBitVector res = new StrictBitVector(alist.get(0).getSize() + blist.get(0).getSize());
-    List<StrictBitVector> products = IntStream.range(0, alist.size()).parallel()
-        .mapToObj(i -> multiplyWithoutReduction(alist.get(i), blist.get(i)))
-        .collect(Collectors.toList());
-    products.stream().reduce(res, (a, b) -> {
-      a.xor(b);
-      return a;
-    });
-    return res;
+    int abytes = alist.get(0).getSize() / Byte.SIZE;
+    int bbytes = blist.get(0).getSize() / Byte.SIZE;
+    int awords = words(abytes);
+    int bwords = words(bbytes);
+    int chunks = (alist.size() + INNER_PRODUCT_CHUNK - 1) / INNER_PRODUCT_CHUNK;
+    long[] buckets = IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+      long[] chunkBuckets = new long[awords * NIBBLES_PER_WORD * NIBBLE_VALUES * bwords];
+      long[] a = new long[awords];
+      long[] b = new long[bwords];
+      int end = Math.min(alist.size(), (chunk + 1) * INNER_PRODUCT_CHUNK);
+      for (int i = chunk * INNER_PRODUCT_CHUNK; i < end; i++) {
+        toWords(alist.get(i).toByteArray(), a);
+        toWords(blist.get(i).toByteArray(), b);
+        int position = 0;
+        for (long word : a) {
+          for (int shift = 0; shift < Long.SIZE; shift += 4, position++) {
+            int offset = (position * NIBBLE_VALUES + (int) (word >>> shift & 15)) * bwords;
+            for (int k = 0; k < bwords; k++) {
+              chunkBuckets[offset + k] ^= b[k];
+            }
+          }
+        }
+      }
+      return chunkBuckets;
+    }).reduce((first, second) -> {
+      for (int i = 0; i < first.length; i++) {
+        first[i] ^= second[i];
+      }
+      return first;
+    }).get();
+    return new StrictBitVector(
+        fromProductWords(combineBuckets(buckets, awords, bwords), abytes + bbytes));
   }
 
   /**
@@ -69,31 +103,100 @@ public abstract class RotSharedImpl {
    */
   private static StrictBitVector multiplyWithoutReduction(StrictBitVector avec,
       StrictBitVector bvec) {
-    byte[] res = new byte[(avec.getSize() + bvec.getSize()) / Byte.SIZE];
-    byte[] avecBytes = avec.toByteArray();
-    byte[] bvecBytes = bvec.toByteArray();
-    byte[][] rotations = new byte[Byte.SIZE][bvecBytes.length + 1];
-    System.arraycopy(bvecBytes, 0, rotations[0], 0, bvecBytes.length);
-    for (int i = 1; i < Byte.SIZE; i++) {
-      for (int j = 0; j < rotations[i].length - 1; j++) {
-        int b = Byte.toUnsignedInt(bvecBytes[j]);
-        rotations[i][j] ^= (byte) (b >> i);
-        rotations[i][j + 1] = (byte) (b << Byte.SIZE - i);
+    return computeInnerProduct(Collections.singletonList(avec), Collections.singletonList(bvec));
+  }
+
+  /**
+   * Computes the carry-less product represented by the buckets of
+   * {@link #computeInnerProduct(List, List)}. Reading the bits of a bit vector from left to right
+   * as increasing powers of <i>x</i>, as done in the Galois multiplication, is the same as
+   * multiplying the bit-reversed numbers, so the bit vectors are multiplied as big-endian numbers,
+   * with the product shifted one bit to the left by {@link #fromProductWords(long[], int)}.
+   *
+   * @param buckets the buckets, indexed by the nibble position counted from the least significant
+   *     nibble of the first factor and the value of the nibble
+   * @param awords the number of words of the first factor
+   * @param bwords the number of words of the second factor
+   * @return the product as words in big-endian order
+   */
+  private static long[] combineBuckets(long[] buckets, int awords, int bwords) {
+    long[] product = new long[awords + bwords];
+    long[] sum = new long[bwords];
+    int positions = awords * NIBBLES_PER_WORD;
+    for (int position = 0; position < positions; position++) {
+      // Words of the first factor are in big-endian order, nibbles of a word from the least
+      // significant one
+      int word = position / NIBBLES_PER_WORD;
+      int significance = (awords - 1 - word) * Long.SIZE + position % NIBBLES_PER_WORD * 4;
+      for (int bit = 0; bit < 4; bit++) {
+        Arrays.fill(sum, 0);
+        for (int value = 1; value < NIBBLE_VALUES; value++) {
+          if ((value >>> bit & 1) == 1) {
+            int offset = (position * NIBBLE_VALUES + value) * bwords;
+            for (int k = 0; k < bwords; k++) {
+              sum[k] ^= buckets[offset + k];
+            }
+          }
+        }
+        xorShifted(sum, significance + bit, product);
       }
     }
-    // multiply using the school book method (where addition is XOR)
-    for (int i = 0; i < avec.getSize(); i++) {
-      int bitIndex = i % Byte.SIZE;
-      int byteIndex = i / Byte.SIZE;
-      byte currentByte = (byte) (avecBytes[byteIndex] >> ((Byte.SIZE - 1) - (bitIndex)));
-      if ((currentByte & 1) == 1) {
-        byte[] currentRotation = rotations[bitIndex];
-        for (int j = 0; j < currentRotation.length; j++) {
-          res[byteIndex + j] ^= currentRotation[j];
-        }
+    return product;
+  }
+
+  /**
+   * Adds a big-endian number shifted to the left to a big-endian accumulator.
+   */
+  private static void xorShifted(long[] value, int shift, long[] acc) {
+    int wordShift = shift / Long.SIZE;
+    int bitShift = shift % Long.SIZE;
+    for (int k = 0; k < value.length; k++) {
+      int index = acc.length - 1 - wordShift - (value.length - 1 - k);
+      acc[index] ^= value[k] << bitShift;
+      if (bitShift != 0 && index > 0) {
+        acc[index - 1] ^= value[k] >>> (Long.SIZE - bitShift);
       }
     }
-    return new StrictBitVector(res);
+  }
+
+  private static int words(int bytes) {
+    return (bytes + Long.BYTES - 1) / Long.BYTES;
+  }
+
+  /**
+   * Reads bytes as a big-endian number into words in big-endian order.
+   */
+  private static void toWords(byte[] bytes, long[] words) {
+    if (bytes.length == words.length * Long.BYTES) {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      for (int k = 0; k < words.length; k++) {
+        words[k] = buffer.getLong(k * Long.BYTES);
+      }
+      return;
+    }
+    Arrays.fill(words, 0);
+    int offset = words.length * Long.BYTES - bytes.length;
+    for (int i = 0; i < bytes.length; i++) {
+      int index = offset + i;
+      words[index / Long.BYTES] |=
+          (bytes[i] & 0xFFL) << (Byte.SIZE * (Long.BYTES - 1 - index % Long.BYTES));
+    }
+  }
+
+  /**
+   * Writes the least significant bytes of a big-endian product, shifted one bit to the left.
+   */
+  private static byte[] fromProductWords(long[] words, int length) {
+    byte[] bytes = new byte[length];
+    int offset = words.length * Long.BYTES - length;
+    for (int i = 0; i < length; i++) {
+      int index = offset + i;
+      int word = index / Long.BYTES;
+      long shifted = (words[word] << 1)
+          | (word + 1 < words.length ? words[word + 1] >>> (Long.SIZE - 1) : 0);
+      bytes[i] = (byte) (shifted >>> (Byte.SIZE * (Long.BYTES - 1 - index % Long.BYTES)));
+    }
+    return bytes;
   }
 
   /**
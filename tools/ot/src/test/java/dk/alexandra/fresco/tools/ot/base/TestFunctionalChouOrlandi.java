@@ -0,0 +1,214 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.helper.HelperForTests;
+import dk.alexandra.fresco.tools.helper.RuntimeForTests;
+import dk.alexandra.fresco.tools.ot.otextension.CheatingNetworkDecorator;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestFunctionalChouOrlandi {
+
+  private RuntimeForTests testRuntime;
+  private int messageLength = 1024;
+
+  /**
+   * Initializes the test runtime.
+   */
+  @Before
+  public void initializeRuntime() {
+    this.testRuntime = new RuntimeForTests();
+  }
+
+  /**
+   * Shuts down the test runtime.
+   */
+  @After
+  public void shutdown() {
+    testRuntime.shutdown();
+  }
+
+  private static CheatingNetworkDecorator createNetwork(int myId) {
+    return new CheatingNetworkDecorator(
+        new SocketNetwork(RuntimeForTests.defaultNetworkConfiguration(myId, Arrays.asList(1, 2))));
+  }
+
+  private List<Pair<StrictBitVector, StrictBitVector>> otSend(int iterations, boolean batched)
+      throws IOException {
+    Network network = createNetwork(1);
+    try {
+      Drbg rand = new AesCtrDrbg(HelperForTests.seedOne);
+      Ot otSender = new ChouOrlandiOt(2, rand, network);
+      List<Pair<StrictBitVector, StrictBitVector>> messages = new ArrayList<>(iterations);
+      for (int i = 0; i < iterations; i++) {
+        StrictBitVector msgZero = new StrictBitVector(messageLength, rand);
+        StrictBitVector msgOne = new StrictBitVector(messageLength, rand);
+        messages.add(new Pair<>(msgZero, msgOne));
+        if (!batched) {
+          otSender.send(msgZero, msgOne);
+        }
+      }
+      if (batched) {
+        otSender.send(messages);
+      }
+      return messages;
+    } finally {
+      ((Closeable) network).close();
+    }
+  }
+
+  private List<StrictBitVector> otReceive(StrictBitVector choices, boolean batched)
+      throws IOException {
+    Network network = createNetwork(2);
+    try {
+      Drbg rand = new AesCtrDrbg(HelperForTests.seedTwo);
+      Ot otReceiver = new ChouOrlandiOt(1, rand, network);
+      if (batched) {
+        return otReceiver.receive(choices);
+      }
+      List<StrictBitVector> messages = new ArrayList<>(choices.getSize());
+      for (int i = 0; i < choices.getSize(); i++) {
+        messages.add(otReceiver.receive(choices.getBit(i, false)));
+      }
+      return messages;
+    } finally {
+      ((Closeable) network).close();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void runOts(int iterations, boolean batched) {
+    Drbg rand = new AesCtrDrbg(HelperForTests.seedThree);
+    StrictBitVector choices = new StrictBitVector(iterations, rand);
+    Callable<List<?>> partyOneOt = () -> otSend(iterations, batched);
+    Callable<List<?>> partyTwoOt = () -> otReceive(choices, batched);
+    List<List<?>> results = testRuntime.runPerPartyTasks(Arrays.asList(partyOneOt, partyTwoOt));
+    assertEquals(iterations, results.get(0).size());
+    assertEquals(iterations, results.get(1).size());
+    for (int i = 0; i < iterations; i++) {
+      Pair<StrictBitVector, StrictBitVector> senderResult =
+          (Pair<StrictBitVector, StrictBitVector>) results.get(0).get(i);
+      StrictBitVector receiverResult = (StrictBitVector) results.get(1).get(i);
+      if (choices.getBit(i, false)) {
+        assertEquals(senderResult.getSecond(), receiverResult);
+      } else {
+        assertEquals(senderResult.getFirst(), receiverResult);
+      }
+      assertNotEquals(senderResult.getFirst(), senderResult.getSecond());
+    }
+    assertNotEquals(new StrictBitVector(choices.getSize()), choices);
+  }
+
+  /**
+   * Verify that we can execute a batch of OTs in one go.
+   */
+  @Test
+  public void testBatchedOt() {
+    runOts(128, true);
+  }
+
+  /**
+   * Verify that we can execute OTs one at a time.
+   */
+  @Test
+  public void testSingleOts() {
+    runOts(8, false);
+  }
+
+  /**
+   * Verify that a list of random seed OTs can be done using a batch.
+   */
+  @Test
+  public void testRotList() {
+    int amount = 128;
+    Callable<RotList> partyOne = () -> {
+      Network network = createNetwork(1);
+      try {
+        RotList rotList = new RotList(new AesCtrDrbg(HelperForTests.seedOne), amount);
+        rotList.send(new ChouOrlandiOt(2, new AesCtrDrbg(HelperForTests.seedTwo), network));
+        return rotList;
+      } finally {
+        ((Closeable) network).close();
+      }
+    };
+    Callable<RotList> partyTwo = () -> {
+      Network network = createNetwork(2);
+      try {
+        RotList rotList = new RotList(new AesCtrDrbg(HelperForTests.seedThree), amount);
+        rotList.receive(new ChouOrlandiOt(1, new AesCtrDrbg(HelperForTests.seedOne), network));
+        return rotList;
+      } finally {
+        ((Closeable) network).close();
+      }
+    };
+    List<RotList> results = testRuntime.runPerPartyTasks(Arrays.asList(partyOne, partyTwo));
+    List<Pair<StrictBitVector, StrictBitVector>> sent = results.get(0).getSentMessages();
+    List<StrictBitVector> learned = results.get(1).getLearnedMessages();
+    StrictBitVector choices = results.get(1).getChoices();
+    assertEquals(amount, learned.size());
+    for (int i = 0; i < amount; i++) {
+      assertEquals(choices.getBit(i, false) ? sent.get(i).getSecond() : sent.get(i).getFirst(),
+          learned.get(i));
+    }
+  }
+
+  /***** NEGATIVE TESTS. *****/
+  private List<StrictBitVector> otSendCheat() throws IOException {
+    CheatingNetworkDecorator network = createNetwork(1);
+    try {
+      Drbg rand = new AesCtrDrbg(HelperForTests.seedOne);
+      Ot otSender = new ChouOrlandiOt(2, rand, network);
+      StrictBitVector msgZero = new StrictBitVector(messageLength, rand);
+      StrictBitVector msgOne = new StrictBitVector(messageLength, rand);
+      // Flip a bit in the encryption of message zero, which follows the public point
+      network.cheatInNextMessage(1, 0);
+      otSender.send(msgZero, msgOne);
+      return Arrays.asList(msgZero, msgOne);
+    } finally {
+      network.close();
+    }
+  }
+
+  private List<StrictBitVector> otReceiveCheat() throws IOException {
+    Network network = createNetwork(2);
+    try {
+      Drbg rand = new AesCtrDrbg(HelperForTests.seedTwo);
+      Ot otReceiver = new ChouOrlandiOt(1, rand, network);
+      return Arrays.asList(otReceiver.receive(false));
+    } finally {
+      ((Closeable) network).close();
+    }
+  }
+
+  /**
+   * Test that a sender who flips a bit in an encrypted message results in the receiver not learning
+   * either of the messages sent.
+   */
+  @Test
+  public void testCheatingInChouOrlandiOt() {
+    Callable<List<StrictBitVector>> partyOneInit = () -> otSendCheat();
+    Callable<List<StrictBitVector>> partyTwoInit = () -> otReceiveCheat();
+    List<List<StrictBitVector>> results =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneInit, partyTwoInit));
+    List<StrictBitVector> senderResults = results.get(0);
+    StrictBitVector receiverResult = results.get(1).get(0);
+    assertNotEquals(senderResults.get(0), receiverResult);
+    assertNotEquals(senderResults.get(1), receiverResult);
+  }
+}
@@ -0,0 +1,116 @@
+package dk.alexandra.fresco.tools.ot.base;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestSecp256r1Point {
+
+  private final Random random = new Random(42);
+
+  private BigInteger randomScalar() {
+    return new BigInteger(256, random).mod(Secp256r1Point.N);
+  }
+
+  private static byte[] encode(BigInteger x, BigInteger y) {
+    byte[] bytes = new byte[Secp256r1Point.ENCODED_LENGTH];
+    bytes[0] = 4;
+    byte[] rawX = x.toByteArray();
+    byte[] rawY = y.toByteArray();
+    int lengthX = Math.min(rawX.length, 32);
+    int lengthY = Math.min(rawY.length, 32);
+    System.arraycopy(rawX, rawX.length - lengthX, bytes, 33 - lengthX, lengthX);
+    System.arraycopy(rawY, rawY.length - lengthY, bytes, 65 - lengthY, lengthY);
+    return bytes;
+  }
+
+  @Test
+  public void testMatchesJcaKeyGeneration() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+    generator.initialize(new ECGenParameterSpec("secp256r1"), new SecureRandom());
+    for (int i = 0; i < 5; i++) {
+      KeyPair keyPair = generator.generateKeyPair();
+      BigInteger privateKey = ((ECPrivateKey) keyPair.getPrivate()).getS();
+      ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+      byte[] expected = encode(publicKey.getW().getAffineX(), publicKey.getW().getAffineY());
+      assertArrayEquals(expected, Secp256r1Point.multiplyGenerator(privateKey).encode());
+      assertArrayEquals(expected,
+          Secp256r1Point.getGenerator().multiply(privateKey).encode());
+    }
+  }
+
+  @Test
+  public void testGroupLaws() {
+    Secp256r1Point generator = Secp256r1Point.getGenerator();
+    BigInteger a = randomScalar();
+    BigInteger b = randomScalar();
+    Secp256r1Point pointA = Secp256r1Point.multiplyGenerator(a);
+    Secp256r1Point pointB = Secp256r1Point.multiplyGenerator(b);
+    assertEquals(Secp256r1Point.multiplyGenerator(a.add(b).mod(Secp256r1Point.N)),
+        pointA.add(pointB));
+    assertEquals(pointA.multiply(b), pointB.multiply(a));
+    assertEquals(pointA.add(pointA), pointA.multiply(BigInteger.valueOf(2)));
+    assertEquals(Secp256r1Point.INFINITY, pointA.add(pointA.negate()));
+    assertEquals(pointA, pointA.add(Secp256r1Point.INFINITY));
+    assertEquals(pointA, Secp256r1Point.INFINITY.add(pointA));
+    assertEquals(Secp256r1Point.INFINITY, generator.multiply(Secp256r1Point.N));
+    assertEquals(Secp256r1Point.INFINITY, generator.multiply(BigInteger.ZERO));
+    assertEquals(generator.negate(),
+        generator.multiply(Secp256r1Point.N.subtract(BigInteger.ONE)));
+  }
+
+  @Test
+  public void testEncodeDecode() {
+    Secp256r1Point point = Secp256r1Point.multiplyGenerator(randomScalar());
+    byte[] encoding = point.encode();
+    assertEquals(Secp256r1Point.ENCODED_LENGTH, encoding.length);
+    assertEquals(point, Secp256r1Point.decode(encoding, 0));
+    byte[] padded = new byte[encoding.length + 3];
+    System.arraycopy(encoding, 0, padded, 3, encoding.length);
+    assertEquals(point, Secp256r1Point.decode(padded, 3));
+    assertArrayEquals(new byte[1], Secp256r1Point.INFINITY.encode());
+    assertTrue(Secp256r1Point.INFINITY.isInfinity());
+    assertNotEquals(point, Secp256r1Point.INFINITY);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeOffCurve() {
+    byte[] encoding = Secp256r1Point.multiplyGenerator(randomScalar()).encode();
+    encoding[10] ^= 0x02;
+    Secp256r1Point.decode(encoding, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeCompressed() {
+    byte[] encoding = Secp256r1Point.multiplyGenerator(randomScalar()).encode();
+    encoding[0] = 2;
+    Secp256r1Point.decode(encoding, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeUnreduced() {
+    Secp256r1Point.decode(encode(Secp256r1Point.P, BigInteger.ONE), 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeTooShort() {
+    Secp256r1Point.decode(new byte[Secp256r1Point.ENCODED_LENGTH - 1], 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMultiplyNegative() {
+    Secp256r1Point.getGenerator().multiply(BigInteger.ONE.negate());
+  }
+
+}
@@ -0,0 +1,99 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestBlockTranspose {
+
+  private static List<StrictBitVector> randomMatrix(Random random, int rows, int columns) {
+    List<StrictBitVector> matrix = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      byte[] bytes = new byte[columns / Byte.SIZE];
+      random.nextBytes(bytes);
+      matrix.add(new StrictBitVector(bytes));
+    }
+    return matrix;
+  }
+
+  private static void assertMatrixEquals(List<StrictBitVector> expected,
+      List<StrictBitVector> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertArrayEquals(expected.get(i).toByteArray(), actual.get(i).toByteArray());
+    }
+  }
+
+  @Test
+  public void testSameAsEklundh() {
+    Random random = new Random(42);
+    BlockTranspose transpose = new BlockTranspose();
+    int[][] dimensions = {{8, 8}, {16, 8}, {8, 16}, {64, 64}, {128, 1024}, {128, 8},
+        {256, 128}, {128, 4096}, {1024, 128}};
+    for (int[] dimension : dimensions) {
+      List<StrictBitVector> matrix = randomMatrix(random, dimension[0], dimension[1]);
+      assertMatrixEquals(Transpose.transpose(matrix), transpose.transpose(matrix));
+    }
+  }
+
+  @Test
+  public void testUnpaddedDimensions() {
+    Random random = new Random(42);
+    BlockTranspose transpose = new BlockTranspose();
+    List<StrictBitVector> matrix = randomMatrix(random, 24, 200);
+    List<StrictBitVector> transposed = transpose.transpose(matrix);
+    assertEquals(200, transposed.size());
+    for (int i = 0; i < 24; i++) {
+      for (int j = 0; j < 200; j++) {
+        assertEquals(matrix.get(i).getBit(j, false), transposed.get(j).getBit(i, false));
+      }
+    }
+    assertMatrixEquals(matrix, transpose.transpose(transposed));
+  }
+
+  @Test
+  public void testReuseAfterLargerMatrix() {
+    Random random = new Random(42);
+    BlockTranspose transpose = new BlockTranspose();
+    transpose.transpose(randomMatrix(random, 256, 512));
+    List<StrictBitVector> matrix = randomMatrix(random, 8, 128);
+    assertMatrixEquals(Transpose.transpose(matrix), transpose.transpose(matrix));
+  }
+
+  @Test
+  public void testTransposeBlockTwiceIsIdentity() {
+    Random random = new Random(42);
+    long[] block = new long[Long.SIZE];
+    for (int i = 0; i < block.length; i++) {
+      block[i] = random.nextLong();
+    }
+    long[] copy = block.clone();
+    BlockTranspose.transposeBlock(block);
+    BlockTranspose.transposeBlock(block);
+    assertArrayEquals(copy, block);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnevenRows() {
+    new BlockTranspose().transpose(Arrays.asList(new StrictBitVector(8), new StrictBitVector(8),
+        new StrictBitVector(8), new StrictBitVector(8), new StrictBitVector(8),
+        new StrictBitVector(8), new StrictBitVector(8), new StrictBitVector(16)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRowsNotDivisibleByEight() {
+    new BlockTranspose().transpose(Arrays.asList(new StrictBitVector(8)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmpty() {
+    new BlockTranspose().transpose(new ArrayList<>());
+  }
+
+}
@@ -8,6 +8,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -161,4 +162,35 @@ public class TestRot {
         RotReceiverImpl.class, b, alist);
     assertEquals(true, expected.equals(res));
   }
-}
\ No newline at end of file
+
+  private static boolean bit(byte[] bytes, int index) {
+    return ((bytes[index / 8] >> (7 - index % 8)) & 1) == 1;
+  }
+
+  @Test
+  public void testComputeInnerProductMatchesBitwiseProduct() {
+    Random random = new Random(42);
+    for (int[] sizes : new int[][]{{128, 128}, {136, 72}, {8, 200}}) {
+      List<StrictBitVector> alist = new ArrayList<>();
+      List<StrictBitVector> blist = new ArrayList<>();
+      byte[] expected = new byte[(sizes[0] + sizes[1]) / 8];
+      for (int k = 0; k < 1100; k++) {
+        byte[] abytes = new byte[sizes[0] / 8];
+        byte[] bbytes = new byte[sizes[1] / 8];
+        random.nextBytes(abytes);
+        random.nextBytes(bbytes);
+        alist.add(new StrictBitVector(abytes));
+        blist.add(new StrictBitVector(bbytes));
+        for (int i = 0; i < sizes[0]; i++) {
+          for (int j = 0; j < sizes[1]; j++) {
+            if (bit(abytes, i) && bit(bbytes, j)) {
+              expected[(i + j) / 8] ^= (byte) (0x80 >>> ((i + j) % 8));
+            }
+          }
+        }
+      }
+      assertEquals(new StrictBitVector(expected),
+          RotSharedImpl.computeInnerProduct(alist, blist));
+    }
+  }
+}
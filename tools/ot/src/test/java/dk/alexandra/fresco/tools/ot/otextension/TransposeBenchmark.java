@@ -0,0 +1,78 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Benchmark of the bit matrix transposition done in every OT extension, comparing the byte based
+ * Eklundh transposition of {@link Transpose} with the word based {@link BlockTranspose}.
+ *
+ * <p>
+ * The matrix has the dimensions used by {@link CoteSender} and {@link CoteReceiver}, i.e., a row
+ * for each bit of the computational security parameter and a column for each OT. Run with
+ * <code>java ... TransposeBenchmark [rows] [columns] [repetitions]</code>; the time per
+ * transposition and the number and duration of garbage collections are printed for each
+ * repetition.
+ * </p>
+ */
+public class TransposeBenchmark {
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optionally the number of rows, the number of columns and the number of
+   *     repetitions
+   */
+  public static void main(String[] args) {
+    int rows = args.length > 0 ? Integer.parseInt(args[0]) : 128;
+    int columns = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 16;
+    int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    List<StrictBitVector> matrix = new ArrayList<>(rows);
+    Random random = new Random(42);
+    for (int i = 0; i < rows; i++) {
+      byte[] bytes = new byte[columns / Byte.SIZE];
+      random.nextBytes(bytes);
+      matrix.add(new StrictBitVector(bytes));
+    }
+    BlockTranspose blockTranspose = new BlockTranspose();
+    for (int i = 0; i < repetitions; i++) {
+      run("eklundh", matrix, Transpose::transpose);
+      run("block", matrix, blockTranspose::transpose);
+    }
+  }
+
+  private static void run(String name, List<StrictBitVector> matrix,
+      Function<List<StrictBitVector>, List<StrictBitVector>> transpose) {
+    int iterations = 20;
+    long gcCount = getGcCount();
+    long gcTime = getGcTime();
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      transpose.apply(matrix);
+    }
+    long nanos = System.nanoTime() - start;
+    System.out.printf("%-8s %8.3f ms/transposition, %3d garbage collections taking %4d ms%n",
+        name, nanos / 1e6 / iterations, getGcCount() - gcCount, getGcTime() - gcTime);
+  }
+
+  private static long getGcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, bean.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long getGcTime() {
+    long time = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      time += Math.max(0, bean.getCollectionTime());
+    }
+    return time;
+  }
+}